@@ -0,0 +1,82 @@
+package com.example.application.cache;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Counterpart of {@link BinaryWriter}. Throws IllegalArgumentException on truncated input.
+ */
+public final class BinaryReader {
+
+    private final byte[] bytes;
+    private int position;
+
+    public BinaryReader(byte[] bytes) {
+        this(bytes, 0);
+    }
+
+    BinaryReader(byte[] bytes, int offset) {
+        this.bytes = bytes;
+        this.position = offset;
+    }
+
+    public int readByte() {
+        require(1);
+        return bytes[position++] & 0xFF;
+    }
+
+    public int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    public long readLong() {
+        require(8);
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[position++] & 0xFF);
+        }
+        return value;
+    }
+
+    public byte[] readBytes() {
+        int length = readVarInt();
+        require(length);
+        byte[] value = new byte[length];
+        System.arraycopy(bytes, position, value, 0, length);
+        position += length;
+        return value;
+    }
+
+    public String readString() {
+        int length = readVarInt();
+        if (length == 0) {
+            return null;
+        }
+        length--;
+        require(length);
+        String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public boolean hasRemaining() {
+        return position < bytes.length;
+    }
+
+    private void require(int count) {
+        if (count < 0 || position + count > bytes.length) {
+            throw new IllegalArgumentException("Truncated cache payload");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.application.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal growable writer for the compact cache and token formats: unsigned varints and
+ * length-prefixed UTF-8 strings where length 0 encodes null.
+ */
+public final class BinaryWriter {
+
+    private final ByteArrayOutputStream out;
+
+    public BinaryWriter(int expectedSize) {
+        this.out = new ByteArrayOutputStream(expectedSize);
+    }
+
+    public BinaryWriter writeByte(int value) {
+        out.write(value);
+        return this;
+    }
+
+    public BinaryWriter writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+        return this;
+    }
+
+    public BinaryWriter writeLong(long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+        return this;
+    }
+
+    public BinaryWriter writeBytes(byte[] bytes) {
+        writeVarInt(bytes.length);
+        out.writeBytes(bytes);
+        return this;
+    }
+
+    public BinaryWriter writeString(String value) {
+        if (value == null) {
+            return writeVarInt(0);
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(utf8.length + 1);
+        out.writeBytes(utf8);
+        return this;
+    }
+
+    public byte[] toByteArray() {
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.application.cache;
+
+/**
+ * Binary serialization used for the shared (L2) cache tier.
+ * Implementations write a leading format version byte and must reject versions they do not know,
+ * so that nodes running different builds treat each other's entries as misses instead of garbage.
+ * The exception are the process-local L1 codecs in {@link CompactResultCodecs}, whose bytes never
+ * leave the JVM that wrote them.
+ */
+public interface CacheCodec<V> {
+
+    byte[] encode(V value);
+
+    /**
+     * @throws IllegalArgumentException when the payload has an unknown version or is corrupt
+     */
+    V decode(byte[] bytes);
+}
@@ -0,0 +1,143 @@
+package com.example.application.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.application.model.response.SpotifyResponse;
+import com.example.application.model.response.YoutubeResponse;
+
+/**
+ * Versioned binary codecs for the values held in {@link ConversionCaches}.
+ */
+public final class CacheCodecs {
+
+    static final int FORMAT_V1 = 1;
+
+    public static final CacheCodec<SpotifyResponse> SPOTIFY_RESPONSE = new CacheCodec<>() {
+        @Override
+        public byte[] encode(SpotifyResponse value) {
+            BinaryWriter writer = new BinaryWriter(256).writeByte(FORMAT_V1);
+            writeSpotify(writer, value);
+            return writer.toByteArray();
+        }
+
+        @Override
+        public SpotifyResponse decode(byte[] bytes) {
+            BinaryReader reader = versioned(bytes);
+            return readSpotify(reader);
+        }
+    };
+
+    public static final CacheCodec<YoutubeResponse> YOUTUBE_RESPONSE = new CacheCodec<>() {
+        @Override
+        public byte[] encode(YoutubeResponse value) {
+            BinaryWriter writer = new BinaryWriter(256).writeByte(FORMAT_V1);
+            writeYoutube(writer, value);
+            return writer.toByteArray();
+        }
+
+        @Override
+        public YoutubeResponse decode(byte[] bytes) {
+            BinaryReader reader = versioned(bytes);
+            return readYoutube(reader);
+        }
+    };
+
+    public static final CacheCodec<List<SpotifyResponse>> SPOTIFY_LIST = new CacheCodec<>() {
+        @Override
+        public byte[] encode(List<SpotifyResponse> values) {
+            BinaryWriter writer = new BinaryWriter(256 * values.size() + 8).writeByte(FORMAT_V1);
+            writer.writeVarInt(values.size());
+            values.forEach(value -> writeSpotify(writer, value));
+            return writer.toByteArray();
+        }
+
+        @Override
+        public List<SpotifyResponse> decode(byte[] bytes) {
+            BinaryReader reader = versioned(bytes);
+            int size = reader.readVarInt();
+            List<SpotifyResponse> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(readSpotify(reader));
+            }
+            return values;
+        }
+    };
+
+    public static final CacheCodec<List<YoutubeResponse>> YOUTUBE_LIST = new CacheCodec<>() {
+        @Override
+        public byte[] encode(List<YoutubeResponse> values) {
+            BinaryWriter writer = new BinaryWriter(256 * values.size() + 8).writeByte(FORMAT_V1);
+            writer.writeVarInt(values.size());
+            values.forEach(value -> writeYoutube(writer, value));
+            return writer.toByteArray();
+        }
+
+        @Override
+        public List<YoutubeResponse> decode(byte[] bytes) {
+            BinaryReader reader = versioned(bytes);
+            int size = reader.readVarInt();
+            List<YoutubeResponse> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(readYoutube(reader));
+            }
+            return values;
+        }
+    };
+
+    private CacheCodecs() {
+    }
+
+    public static final CacheCodec<ETagged<YoutubeResponse>> ETAGGED_YOUTUBE_RESPONSE = new CacheCodec<>() {
+        @Override
+        public byte[] encode(ETagged<YoutubeResponse> value) {
+            BinaryWriter writer = new BinaryWriter(320).writeByte(FORMAT_V1);
+            writer.writeString(value.eTag());
+            writeYoutube(writer, value.value());
+            return writer.toByteArray();
+        }
+
+        @Override
+        public ETagged<YoutubeResponse> decode(byte[] bytes) {
+            BinaryReader reader = versioned(bytes);
+            String eTag = reader.readString();
+            return new ETagged<>(eTag, readYoutube(reader));
+        }
+    };
+
+    private static BinaryReader versioned(byte[] bytes) {
+        BinaryReader reader = new BinaryReader(bytes);
+        int version = reader.readByte();
+        if (version != FORMAT_V1) {
+            throw new IllegalArgumentException("Unsupported cache format version " + version);
+        }
+        return reader;
+    }
+
+    private static void writeSpotify(BinaryWriter writer, SpotifyResponse value) {
+        writer.writeString(value.getTrackId())
+                .writeString(value.getSongTitle())
+                .writeString(value.getArtistName())
+                .writeString(value.getAlbumImageUrl())
+                .writeString(value.getPreviewUrl())
+                .writeString(value.getSpotifyUrl());
+    }
+
+    private static SpotifyResponse readSpotify(BinaryReader reader) {
+        return new SpotifyResponse(reader.readString(), reader.readString(), reader.readString(),
+                reader.readString(), reader.readString(), reader.readString());
+    }
+
+    private static void writeYoutube(BinaryWriter writer, YoutubeResponse value) {
+        writer.writeString(value.getVideoId())
+                .writeString(value.getSongTitle())
+                .writeString(value.getArtistName())
+                .writeString(value.getThumbnailUrl())
+                .writeString(value.getDescription());
+    }
+
+    private static YoutubeResponse readYoutube(BinaryReader reader) {
+        return new YoutubeResponse(reader.readString(), reader.readString(), reader.readString(),
+                reader.readString(), reader.readString());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.application.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the warm-restart snapshot.
+ *
+ * Layout: [magic:4][fileFormat:4][codecFormat:4][createdAt:8][sectionCount:4], then per section
+ * [nameLength:2][name UTF-8] followed by the {@link SnapshotSection} body. A file whose magic or
+ * versions differ from this build is ignored rather than partially trusted.
+ */
+final class CacheSnapshotFile {
+
+    private static final int MAGIC = 0x59545353; // "YTSS"
+    private static final int FILE_FORMAT = 1;
+
+    private record ExportedEntry(byte[] key, long writtenAt, byte[] value) {
+    }
+
+    private CacheSnapshotFile() {
+    }
+
+    /** Writes the caches to a temp file and atomically replaces the snapshot. Returns the entry count. */
+    static int write(Path path, List<TieredCache<?>> caches, long createdAt) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        int total = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FILE_FORMAT);
+            out.writeInt(CacheCodecs.FORMAT_V1);
+            out.writeLong(createdAt);
+            out.writeInt(caches.size());
+            for (TieredCache<?> cache : caches) {
+                List<ExportedEntry> entries = new ArrayList<>();
+                cache.exportTo((key, writtenAt, value) -> {
+                    byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+                    if (keyBytes.length <= 0xFFFF) {
+                        entries.add(new ExportedEntry(keyBytes, writtenAt, value));
+                    }
+                });
+                writeShortString(out, cache.name());
+                out.writeInt(entries.size());
+                for (ExportedEntry entry : entries) {
+                    out.writeShort(entry.key().length);
+                    out.write(entry.key());
+                    out.writeLong(entry.writtenAt());
+                    out.writeInt(entry.value().length);
+                    out.write(entry.value());
+                }
+                total += entries.size();
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return total;
+    }
+
+    /**
+     * Maps the snapshot read-only and indexes its keys. Returns an empty map when the file is missing,
+     * larger than a single mapping allows, truncated or written by an incompatible build.
+     */
+    static Map<String, SnapshotSection> open(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return Map.of();
+        }
+        MappedByteBuffer mapping;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                return Map.of();
+            }
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer buffer = mapping;
+        if (buffer.capacity() < 24
+                || buffer.getInt(0) != MAGIC
+                || buffer.getInt(4) != FILE_FORMAT
+                || buffer.getInt(8) != CacheCodecs.FORMAT_V1) {
+            return Map.of();
+        }
+        int sectionCount = buffer.getInt(20);
+        int[] position = {24};
+        Map<String, SnapshotSection> sections = new HashMap<>();
+        try {
+            for (int i = 0; i < sectionCount; i++) {
+                int nameLength = Short.toUnsignedInt(buffer.getShort(position[0]));
+                byte[] name = new byte[nameLength];
+                buffer.get(position[0] + Short.BYTES, name);
+                position[0] += Short.BYTES + nameLength;
+                String sectionName = new String(name, StandardCharsets.UTF_8);
+                sections.put(sectionName, SnapshotSection.index(sectionName, buffer, position));
+            }
+        } catch (IndexOutOfBoundsException e) {
+            return Map.of();
+        }
+        return sections;
+    }
+
+    private static void writeShortString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(utf8.length);
+        out.write(utf8);
+    }
+}
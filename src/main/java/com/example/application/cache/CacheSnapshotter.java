@@ -0,0 +1,85 @@
+package com.example.application.cache;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.application.config.CacheProperties;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Persists the metadata and conversion caches to a memory-mapped snapshot so a restarted node comes up warm.
+ *
+ * On startup only the keys are indexed; values are decoded from the mapping the first time they are
+ * requested and re-validated against the cache TTL using their original write time.
+ * The snapshot is rewritten periodically and on shutdown.
+ */
+@Component
+public class CacheSnapshotter {
+
+    private static final Logger LOGGER = Logger.getLogger(CacheSnapshotter.class.getName());
+
+    private final CacheProperties.Snapshot properties;
+    private final ConversionCaches conversionCaches;
+    private final Clock clock;
+
+    public CacheSnapshotter(CacheProperties cacheProperties, ConversionCaches conversionCaches, Clock clock) {
+        this.properties = cacheProperties.getSnapshot();
+        this.conversionCaches = conversionCaches;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void restore() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            Map<String, SnapshotSection> sections = CacheSnapshotFile.open(snapshotPath());
+            int indexed = 0;
+            for (TieredCache<?> cache : conversionCaches.snapshotCaches()) {
+                SnapshotSection section = sections.get(cache.name());
+                if (section != null) {
+                    cache.attachSnapshot(section);
+                    indexed += section.remaining();
+                }
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            LOGGER.info("Indexed " + indexed + " warm cache entries from " + snapshotPath() + " in " + elapsedMillis + " ms");
+        } catch (IOException | IllegalArgumentException e) {
+            // FileChannel.map refuses files over 2 GB with IllegalArgumentException
+            LOGGER.log(Level.WARNING, "Could not read cache snapshot " + snapshotPath() + "; starting cold", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cache.snapshot.interval:PT5M}", initialDelayString = "${cache.snapshot.interval:PT5M}")
+    public void save() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            int written = CacheSnapshotFile.write(snapshotPath(), conversionCaches.snapshotCaches(), clock.millis());
+            LOGGER.fine(() -> "Wrote " + written + " cache entries to " + snapshotPath());
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not write cache snapshot " + snapshotPath(), e);
+        }
+    }
+
+    @PreDestroy
+    public void saveOnShutdown() {
+        save();
+    }
+
+    private Path snapshotPath() {
+        return Path.of(properties.getPath());
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.application.cache;
+
+/**
+ * Point-in-time counters of one {@link TieredCache}.
+ */
+public record CacheStats(String name, long l1Hits, long snapshotHits, long l2Hits, long misses, long l2Errors,
+                         int l1Size) {
+
+    public long hits() {
+        return l1Hits + snapshotHits + l2Hits;
+    }
+
+    public long requests() {
+        return hits() + misses;
+    }
+
+    public double hitRatio() {
+        long requests = requests();
+        return requests == 0 ? 0.0 : (double) hits() / requests;
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.application.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.application.index.IdCodec;
+import com.example.application.model.response.SpotifyResponse;
+import com.example.application.model.response.YoutubeResponse;
+
+/**
+ * Compact in-heap form of cached results, used for L1 entries when cache.compact-local is on.
+ * Entries are held as one UTF-8 byte[] and only decoded when read, instead of a bean plus five or
+ * six Strings each:
+ * - track and video IDs are packed into 16 and 8 bytes with {@link IdCodec}
+ * - Spotify track URLs and YouTube thumbnail URLs are rebuilt from the ID
+ * - other known URL prefixes are elided, and hex image hashes stored as raw bytes
+ * - artist names are stored once in a shared {@link NameDictionary} and referenced by ID
+ * The dictionary makes these bytes process-local: L2 and snapshots keep using {@link CacheCodecs}.
+ */
+final class CompactResultCodecs {
+
+    static final String SPOTIFY_TRACK_URL = "https://open.spotify.com/track/";
+    static final String SPOTIFY_IMAGE_URL = "https://i.scdn.co/image/";
+    static final String SPOTIFY_PREVIEW_URL = "https://p.scdn.co/mp3-preview/";
+    static final String YOUTUBE_THUMBNAIL_URL = "https://i.ytimg.com/vi/";
+    private static final String[] YOUTUBE_THUMBNAIL_FILES =
+            {"default.jpg", "mqdefault.jpg", "hqdefault.jpg", "sddefault.jpg", "maxresdefault.jpg"};
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // Field tags
+    private static final int ABSENT = 0;
+    private static final int INLINE = 1;
+    private static final int PREFIXED = 2;
+    private static final int PREFIXED_HEX = 3;
+    private static final int PACKED = 4;
+    /** Followed by nothing (Spotify URL) or a thumbnail file index (YouTube). */
+    private static final int DERIVED = 5;
+
+    private final NameDictionary artists;
+
+    final CacheCodec<SpotifyResponse> spotifyResponse = new CacheCodec<>() {
+        @Override
+        public byte[] encode(SpotifyResponse value) {
+            BinaryWriter writer = new BinaryWriter(96);
+            writeSpotify(writer, value);
+            return writer.toByteArray();
+        }
+
+        @Override
+        public SpotifyResponse decode(byte[] bytes) {
+            return readSpotify(new BinaryReader(bytes));
+        }
+    };
+
+    final CacheCodec<YoutubeResponse> youtubeResponse = new CacheCodec<>() {
+        @Override
+        public byte[] encode(YoutubeResponse value) {
+            BinaryWriter writer = new BinaryWriter(96);
+            writeYoutube(writer, value);
+            return writer.toByteArray();
+        }
+
+        @Override
+        public YoutubeResponse decode(byte[] bytes) {
+            return readYoutube(new BinaryReader(bytes));
+        }
+    };
+
+    final CacheCodec<List<SpotifyResponse>> spotifyList = new CacheCodec<>() {
+        @Override
+        public byte[] encode(List<SpotifyResponse> values) {
+            BinaryWriter writer = new BinaryWriter(96 * values.size() + 4).writeVarInt(values.size());
+            values.forEach(value -> writeSpotify(writer, value));
+            return writer.toByteArray();
+        }
+
+        @Override
+        public List<SpotifyResponse> decode(byte[] bytes) {
+            BinaryReader reader = new BinaryReader(bytes);
+            int size = reader.readVarInt();
+            List<SpotifyResponse> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(readSpotify(reader));
+            }
+            return values;
+        }
+    };
+
+    final CacheCodec<List<YoutubeResponse>> youtubeList = new CacheCodec<>() {
+        @Override
+        public byte[] encode(List<YoutubeResponse> values) {
+            BinaryWriter writer = new BinaryWriter(96 * values.size() + 4).writeVarInt(values.size());
+            values.forEach(value -> writeYoutube(writer, value));
+            return writer.toByteArray();
+        }
+
+        @Override
+        public List<YoutubeResponse> decode(byte[] bytes) {
+            BinaryReader reader = new BinaryReader(bytes);
+            int size = reader.readVarInt();
+            List<YoutubeResponse> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(readYoutube(reader));
+            }
+            return values;
+        }
+    };
+
+    final CacheCodec<ETagged<YoutubeResponse>> eTaggedYoutubeResponse = new CacheCodec<>() {
+        @Override
+        public byte[] encode(ETagged<YoutubeResponse> value) {
+            BinaryWriter writer = new BinaryWriter(128).writeString(value.eTag());
+            writeYoutube(writer, value.value());
+            return writer.toByteArray();
+        }
+
+        @Override
+        public ETagged<YoutubeResponse> decode(byte[] bytes) {
+            BinaryReader reader = new BinaryReader(bytes);
+            String eTag = reader.readString();
+            return new ETagged<>(eTag, readYoutube(reader));
+        }
+    };
+
+    CompactResultCodecs(NameDictionary artists) {
+        this.artists = artists;
+    }
+
+    private void writeSpotify(BinaryWriter writer, SpotifyResponse value) {
+        String trackId = value.getTrackId();
+        writeId(writer, trackId, IdCodec.isSpotifyId(trackId));
+        writer.writeString(value.getSongTitle());
+        writeName(writer, value.getArtistName());
+        writeUrl(writer, value.getAlbumImageUrl(), SPOTIFY_IMAGE_URL);
+        writeUrl(writer, value.getPreviewUrl(), SPOTIFY_PREVIEW_URL);
+        String spotifyUrl = value.getSpotifyUrl();
+        if (trackId != null && spotifyUrl != null && spotifyUrl.length() == SPOTIFY_TRACK_URL.length() + trackId.length()
+                && spotifyUrl.startsWith(SPOTIFY_TRACK_URL) && spotifyUrl.endsWith(trackId)) {
+            writer.writeByte(DERIVED);
+        } else {
+            writeUrl(writer, spotifyUrl, SPOTIFY_TRACK_URL);
+        }
+    }
+
+    private SpotifyResponse readSpotify(BinaryReader reader) {
+        String trackId = readSpotifyId(reader);
+        String songTitle = reader.readString();
+        String artistName = readName(reader);
+        String albumImageUrl = readUrl(reader, SPOTIFY_IMAGE_URL);
+        String previewUrl = readUrl(reader, SPOTIFY_PREVIEW_URL);
+        int tag = reader.readByte();
+        String spotifyUrl = tag == DERIVED ? SPOTIFY_TRACK_URL + trackId : readUrl(tag, reader, SPOTIFY_TRACK_URL);
+        return new SpotifyResponse(trackId, songTitle, artistName, albumImageUrl, previewUrl, spotifyUrl);
+    }
+
+    private void writeYoutube(BinaryWriter writer, YoutubeResponse value) {
+        String videoId = value.getVideoId();
+        writeId(writer, videoId, IdCodec.isYoutubeId(videoId));
+        writer.writeString(value.getSongTitle());
+        writeName(writer, value.getArtistName());
+        int file = thumbnailFile(videoId, value.getThumbnailUrl());
+        if (file >= 0) {
+            writer.writeByte(DERIVED).writeByte(file);
+        } else {
+            writeUrl(writer, value.getThumbnailUrl(), YOUTUBE_THUMBNAIL_URL);
+        }
+        writer.writeString(value.getDescription());
+    }
+
+    private YoutubeResponse readYoutube(BinaryReader reader) {
+        String videoId = readYoutubeId(reader);
+        String songTitle = reader.readString();
+        String artistName = readName(reader);
+        int tag = reader.readByte();
+        String thumbnailUrl = tag == DERIVED
+                ? YOUTUBE_THUMBNAIL_URL + videoId + "/" + YOUTUBE_THUMBNAIL_FILES[reader.readByte()]
+                : readUrl(tag, reader, YOUTUBE_THUMBNAIL_URL);
+        return new YoutubeResponse(videoId, songTitle, artistName, thumbnailUrl, reader.readString());
+    }
+
+    /** Index of the standard thumbnail file the URL points at for this video, or -1. */
+    private static int thumbnailFile(String videoId, String url) {
+        if (videoId == null || url == null || !url.startsWith(YOUTUBE_THUMBNAIL_URL)) {
+            return -1;
+        }
+        int idEnd = YOUTUBE_THUMBNAIL_URL.length() + videoId.length();
+        if (!url.startsWith(videoId, YOUTUBE_THUMBNAIL_URL.length()) || url.length() <= idEnd || url.charAt(idEnd) != '/') {
+            return -1;
+        }
+        for (int i = 0; i < YOUTUBE_THUMBNAIL_FILES.length; i++) {
+            if (url.length() == idEnd + 1 + YOUTUBE_THUMBNAIL_FILES[i].length()
+                    && url.endsWith(YOUTUBE_THUMBNAIL_FILES[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void writeId(BinaryWriter writer, String id, boolean packable) {
+        if (id == null) {
+            writer.writeByte(ABSENT);
+        } else if (!packable) {
+            writer.writeByte(INLINE).writeString(id);
+        } else if (id.length() == IdCodec.YOUTUBE_ID_LENGTH) {
+            writer.writeByte(PACKED).writeLong(IdCodec.encodeYoutube(id));
+        } else {
+            writer.writeByte(PACKED).writeLong(IdCodec.spotifyHigh(id)).writeLong(IdCodec.spotifyLow(id));
+        }
+    }
+
+    private static String readSpotifyId(BinaryReader reader) {
+        int tag = reader.readByte();
+        return switch (tag) {
+            case ABSENT -> null;
+            case INLINE -> reader.readString();
+            case PACKED -> IdCodec.decodeSpotify(reader.readLong(), reader.readLong());
+            default -> throw new IllegalArgumentException("Unknown ID tag " + tag);
+        };
+    }
+
+    private static String readYoutubeId(BinaryReader reader) {
+        int tag = reader.readByte();
+        return switch (tag) {
+            case ABSENT -> null;
+            case INLINE -> reader.readString();
+            case PACKED -> IdCodec.decodeYoutube(reader.readLong());
+            default -> throw new IllegalArgumentException("Unknown ID tag " + tag);
+        };
+    }
+
+    private void writeName(BinaryWriter writer, String name) {
+        int id = name == null ? -1 : artists.idOf(name);
+        // 0 means inline (or null); dictionary IDs are shifted by one.
+        writer.writeVarInt(id + 1);
+        if (id < 0) {
+            writer.writeString(name);
+        }
+    }
+
+    private String readName(BinaryReader reader) {
+        int ref = reader.readVarInt();
+        return ref == 0 ? reader.readString() : artists.name(ref - 1);
+    }
+
+    private static void writeUrl(BinaryWriter writer, String url, String prefix) {
+        if (url == null) {
+            writer.writeByte(ABSENT);
+        } else if (!url.startsWith(prefix)) {
+            writer.writeByte(INLINE).writeString(url);
+        } else if (isLowerHex(url, prefix.length())) {
+            writer.writeByte(PREFIXED_HEX).writeBytes(fromHex(url, prefix.length()));
+        } else {
+            writer.writeByte(PREFIXED).writeString(url.substring(prefix.length()));
+        }
+    }
+
+    private static String readUrl(BinaryReader reader, String prefix) {
+        return readUrl(reader.readByte(), reader, prefix);
+    }
+
+    private static String readUrl(int tag, BinaryReader reader, String prefix) {
+        return switch (tag) {
+            case ABSENT -> null;
+            case INLINE -> reader.readString();
+            case PREFIXED -> prefix + reader.readString();
+            case PREFIXED_HEX -> prefix + toHex(reader.readBytes());
+            default -> throw new IllegalArgumentException("Unknown URL tag " + tag);
+        };
+    }
+
+    /** Non-empty, even-length lowercase hex from {@code from} to the end, e.g. an i.scdn.co image hash. */
+    private static boolean isLowerHex(String value, int from) {
+        int length = value.length() - from;
+        if (length == 0 || length % 2 != 0) {
+            return false;
+        }
+        for (int i = from; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] fromHex(String value, int from) {
+        byte[] bytes = new byte[(value.length() - from) / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (Character.digit(value.charAt(from + 2 * i), 16) << 4
+                    | Character.digit(value.charAt(from + 2 * i + 1), 16));
+        }
+        return bytes;
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[2 * i + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.application.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.example.application.config.CacheProperties;
+import com.example.application.model.response.SpotifyResponse;
+import com.example.application.model.response.YoutubeResponse;
+
+/**
+ * The application's named caches, all sharing one L2 store:
+ * - metadata: single video / track lookups by ID, plus video ETags for conditional re-fetch
+ * - search: raw upstream search results by query string
+ * - match: final conversion results by source ID
+ * Alongside them, node-local {@link MissingIdFilter}s remember IDs upstream recently reported missing.
+ * With cache.compact-local, L1 holds every entry in the {@link CompactResultCodecs} form, with one
+ * artist dictionary shared by all caches.
+ */
+@Component
+public class ConversionCaches {
+
+    /** Bounds the shared artist dictionary; names beyond it are stored inline. */
+    static final int MAX_DICTIONARY_NAMES = 1 << 20;
+
+    private final TieredCache<YoutubeResponse> videoMetadata;
+    private final TieredCache<ETagged<YoutubeResponse>> videoRevalidation;
+    private final TieredCache<SpotifyResponse> trackMetadata;
+    private final TieredCache<List<YoutubeResponse>> youtubeSearch;
+    private final TieredCache<List<SpotifyResponse>> spotifySearch;
+    private final TieredCache<List<SpotifyResponse>> youtubeToSpotifyMatch;
+    private final TieredCache<List<YoutubeResponse>> spotifyToYoutubeMatch;
+    private final MissingIdFilter missingVideos;
+    private final MissingIdFilter missingTracks;
+    private final Map<String, TieredCache<?>> byName;
+
+    public ConversionCaches(CacheProperties properties, SharedCacheStore sharedStore, Clock clock) {
+        CompactResultCodecs compact = properties.isCompactLocal()
+                ? new CompactResultCodecs(new NameDictionary(MAX_DICTIONARY_NAMES))
+                : null;
+        this.videoMetadata = create("video", properties.getMetadataTtl(), CacheCodecs.YOUTUBE_RESPONSE,
+                compact != null ? compact.youtubeResponse : null, properties, sharedStore, clock);
+        this.videoRevalidation = create("video-etag", properties.getRevalidationTtl(), CacheCodecs.ETAGGED_YOUTUBE_RESPONSE,
+                compact != null ? compact.eTaggedYoutubeResponse : null, properties, sharedStore, clock);
+        this.trackMetadata = create("track", properties.getMetadataTtl(), CacheCodecs.SPOTIFY_RESPONSE,
+                compact != null ? compact.spotifyResponse : null, properties, sharedStore, clock);
+        this.youtubeSearch = create("yt-search", properties.getSearchTtl(), CacheCodecs.YOUTUBE_LIST,
+                compact != null ? compact.youtubeList : null, properties, sharedStore, clock);
+        this.spotifySearch = create("sp-search", properties.getSearchTtl(), CacheCodecs.SPOTIFY_LIST,
+                compact != null ? compact.spotifyList : null, properties, sharedStore, clock);
+        this.youtubeToSpotifyMatch = create("yt-to-sp", properties.getMatchTtl(), CacheCodecs.SPOTIFY_LIST,
+                compact != null ? compact.spotifyList : null, properties, sharedStore, clock);
+        this.spotifyToYoutubeMatch = create("sp-to-yt", properties.getMatchTtl(), CacheCodecs.YOUTUBE_LIST,
+                compact != null ? compact.youtubeList : null, properties, sharedStore, clock);
+        this.missingVideos = MissingIdFilter.youtubeVideos(properties.getMissingIds(), clock);
+        this.missingTracks = MissingIdFilter.spotifyTracks(properties.getMissingIds(), clock);
+
+        this.byName = List.<TieredCache<?>>of(videoMetadata, videoRevalidation, trackMetadata, youtubeSearch, spotifySearch,
+                        youtubeToSpotifyMatch, spotifyToYoutubeMatch).stream()
+                .collect(Collectors.toUnmodifiableMap(TieredCache::name, Function.identity()));
+    }
+
+    private <V> TieredCache<V> create(String name, Duration ttl, CacheCodec<V> codec, CacheCodec<V> localCodec,
+                                      CacheProperties properties, SharedCacheStore sharedStore, Clock clock) {
+        return new TieredCache<>(name, properties.getLocalMaxEntries(), ttl, properties.getLocalTtl(),
+                codec, localCodec, sharedStore, clock);
+    }
+
+    public TieredCache<YoutubeResponse> videoMetadata() {
+        return videoMetadata;
+    }
+
+    /** Last known ETag and body per video, kept past the metadata TTL for conditional re-fetches. */
+    public TieredCache<ETagged<YoutubeResponse>> videoRevalidation() {
+        return videoRevalidation;
+    }
+
+    public TieredCache<SpotifyResponse> trackMetadata() {
+        return trackMetadata;
+    }
+
+    public TieredCache<List<YoutubeResponse>> youtubeSearch() {
+        return youtubeSearch;
+    }
+
+    public TieredCache<List<SpotifyResponse>> spotifySearch() {
+        return spotifySearch;
+    }
+
+    public TieredCache<List<SpotifyResponse>> youtubeToSpotifyMatch() {
+        return youtubeToSpotifyMatch;
+    }
+
+    public TieredCache<List<YoutubeResponse>> spotifyToYoutubeMatch() {
+        return spotifyToYoutubeMatch;
+    }
+
+    /** YouTube video IDs the videos endpoint recently returned nothing for. */
+    public MissingIdFilter missingVideos() {
+        return missingVideos;
+    }
+
+    /** Spotify track IDs the tracks endpoint recently returned nothing for. */
+    public MissingIdFilter missingTracks() {
+        return missingTracks;
+    }
+
+    /** Caches persisted across restarts: metadata and conversion results, not raw searches. */
+    public List<TieredCache<?>> snapshotCaches() {
+        return List.of(videoMetadata, videoRevalidation, trackMetadata, youtubeToSpotifyMatch, spotifyToYoutubeMatch);
+    }
+
+    public List<CacheStats> stats() {
+        return byName.values().stream().map(TieredCache::stats).toList();
+    }
+}
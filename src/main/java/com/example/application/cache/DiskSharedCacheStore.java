@@ -0,0 +1,98 @@
+package com.example.application.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * L2 backed by a directory, typically a volume shared by the nodes of one host or a network mount.
+ * Each entry is one file named by the SHA-256 of its key holding [expiresAtMillis][payload];
+ * writes go to a temp file and are atomically moved into place so readers never see partial data.
+ */
+public class DiskSharedCacheStore implements SharedCacheStore {
+
+    private final Path directory;
+    private final Clock clock;
+
+    public DiskSharedCacheStore(Path directory, Clock clock) {
+        this.directory = directory;
+        this.clock = clock;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create cache directory " + directory, e);
+        }
+    }
+
+    @Override
+    public byte[] get(String key) {
+        Path file = fileFor(key);
+        try {
+            byte[] content = Files.readAllBytes(file);
+            if (content.length < Long.BYTES) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            long expiresAt = buffer.getLong();
+            if (clock.millis() >= expiresAt) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            byte[] value = new byte[buffer.remaining()];
+            buffer.get(value);
+            return value;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) {
+        Path file = fileFor(key);
+        ByteBuffer content = ByteBuffer.allocate(Long.BYTES + value.length)
+                .putLong(clock.millis() + ttl.toMillis())
+                .put(value);
+        try {
+            Path temp = Files.createTempFile(directory, "entry", ".tmp");
+            Files.write(temp, content.array());
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(fileFor(key));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path fileFor(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(digest));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
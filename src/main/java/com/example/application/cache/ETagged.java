@@ -0,0 +1,7 @@
+package com.example.application.cache;
+
+/**
+ * A cached value together with the upstream ETag of the response it came from.
+ */
+public record ETagged<V>(String eTag, V value) {
+}
@@ -0,0 +1,95 @@
+package com.example.application.cache;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-heap L1: a ConcurrentHashMap with per-entry expiry and a soft size bound.
+ * When the bound is exceeded, expired entries are dropped first and then arbitrary entries
+ * until the map is back under 90% of capacity; exact LRU order is not worth a global lock here.
+ * <p>
+ * With a compact codec, values are held encoded and decoded on every read, trading a short decode
+ * for a much smaller resident entry. Each reader then also gets its own copy of the value.
+ */
+final class LocalCache<V> {
+
+    /** {@code stored} is the value itself, or its compact encoding when a codec is set. */
+    private record Entry(Object stored, long writtenAt, long expiresAt) {
+    }
+
+    @FunctionalInterface
+    interface EntryVisitor<V> {
+        void visit(String key, V value, long writtenAt);
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final Clock clock;
+    private final CacheCodec<V> compactCodec;
+
+    LocalCache(int maxEntries, Clock clock) {
+        this(maxEntries, clock, null);
+    }
+
+    LocalCache(int maxEntries, Clock clock, CacheCodec<V> compactCodec) {
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.compactCodec = compactCodec;
+    }
+
+    V get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (clock.millis() >= entry.expiresAt()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return value(entry);
+    }
+
+    void put(String key, V value, long writtenAt, long expiresAt) {
+        Object stored = compactCodec != null ? compactCodec.encode(value) : value;
+        entries.put(key, new Entry(stored, writtenAt, expiresAt));
+        if (entries.size() > maxEntries) {
+            evict();
+        }
+    }
+
+    boolean containsKey(String key) {
+        return entries.containsKey(key);
+    }
+
+    /** Visits every live entry; concurrent updates may or may not be observed. */
+    void forEach(EntryVisitor<V> visitor) {
+        long now = clock.millis();
+        entries.forEach((key, entry) -> {
+            if (now < entry.expiresAt()) {
+                visitor.visit(key, value(entry), entry.writtenAt());
+            }
+        });
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(Entry entry) {
+        return compactCodec != null ? compactCodec.decode((byte[]) entry.stored()) : (V) entry.stored();
+    }
+
+    private void evict() {
+        long now = clock.millis();
+        int target = (int) (maxEntries * 0.9);
+        entries.entrySet().removeIf(e -> now >= e.getValue().expiresAt());
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
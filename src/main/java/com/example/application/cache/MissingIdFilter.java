@@ -0,0 +1,63 @@
+package com.example.application.cache;
+
+import java.time.Clock;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+import com.example.application.config.CacheProperties;
+import com.example.application.index.IdCodec;
+import com.example.application.index.RotatingBloomFilter;
+
+/**
+ * Node-local negative cache of IDs an upstream API recently confirmed do not exist, so repeated
+ * lookups of deleted, private or made-up IDs are refused without spending quota.
+ *
+ * Well-formed IDs are packed into a long and kept in a {@link RotatingBloomFilter}. A false positive
+ * refuses a real ID until the filter rotates, at cache.missing-ids.false-positive-rate; an ID later
+ * seen in search results is removed again. IDs that are not well-formed are never recorded: the
+ * services reject them before they get this far.
+ */
+public final class MissingIdFilter {
+
+    private final Predicate<String> wellFormed;
+    private final ToLongFunction<String> packer;
+    private final RotatingBloomFilter filter;
+
+    private MissingIdFilter(Predicate<String> wellFormed, ToLongFunction<String> packer,
+                            CacheProperties.MissingIds properties, Clock clock) {
+        this.wellFormed = wellFormed;
+        this.packer = packer;
+        this.filter = new RotatingBloomFilter(properties.getExpectedEntries(), properties.getFalsePositiveRate(),
+                properties.getRotation(), clock);
+    }
+
+    static MissingIdFilter youtubeVideos(CacheProperties.MissingIds properties, Clock clock) {
+        return new MissingIdFilter(IdCodec::isYoutubeId, IdCodec::encodeYoutube, properties, clock);
+    }
+
+    static MissingIdFilter spotifyTracks(CacheProperties.MissingIds properties, Clock clock) {
+        // The filter rehashes its key, so folding the two halves together only has to be cheap.
+        return new MissingIdFilter(IdCodec::isSpotifyId,
+                id -> IdCodec.spotifyHigh(id) * 0x9E3779B97F4A7C15L ^ IdCodec.spotifyLow(id), properties, clock);
+    }
+
+    public boolean isKnownMissing(String id) {
+        return wellFormed.test(id) && filter.mightContain(packer.applyAsLong(id));
+    }
+
+    public void recordMissing(String id) {
+        if (wellFormed.test(id)) {
+            filter.add(packer.applyAsLong(id));
+        }
+    }
+
+    /** Drops an ID that turned out to exist; a no-op for the common case of an ID never recorded. */
+    public void forget(String id) {
+        if (wellFormed.test(id)) {
+            long key = packer.applyAsLong(id);
+            if (filter.mightContain(key)) {
+                filter.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.application.cache;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only string dictionary for values that repeat across many cache entries, such as artist
+ * names: each distinct name is held once and entries store its small integer ID instead.
+ * IDs are process-local, so anything encoded against a dictionary must never leave the node.
+ * Once {@code maxNames} names are assigned, {@link #idOf} returns -1 and callers store inline.
+ */
+final class NameDictionary {
+
+    private final int maxNames;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    /** Replaced on growth; the volatile write publishes a new name before its ID is visible. */
+    private volatile String[] names = new String[256];
+    private int count;
+
+    NameDictionary(int maxNames) {
+        this.maxNames = maxNames;
+    }
+
+    /** @return the name's ID, assigning one if needed, or -1 when the dictionary is full */
+    int idOf(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            if (count >= maxNames) {
+                return -1;
+            }
+            String[] current = names;
+            if (count == current.length) {
+                current = Arrays.copyOf(current, Math.min(current.length * 2, maxNames));
+            }
+            current[count] = name;
+            names = current;
+            ids.put(name, count);
+            return count++;
+        }
+    }
+
+    String name(int id) {
+        return names[id];
+    }
+
+    int size() {
+        return ids.size();
+    }
+}
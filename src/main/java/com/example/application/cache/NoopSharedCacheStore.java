@@ -0,0 +1,22 @@
+package com.example.application.cache;
+
+import java.time.Duration;
+
+/**
+ * L2 disabled: every lookup is a miss and nothing is shared.
+ */
+public class NoopSharedCacheStore implements SharedCacheStore {
+
+    @Override
+    public byte[] get(String key) {
+        return null;
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) {
+    }
+
+    @Override
+    public void delete(String key) {
+    }
+}
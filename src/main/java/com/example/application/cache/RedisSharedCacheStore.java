@@ -0,0 +1,129 @@
+package com.example.application.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * L2 on any Redis-protocol server (Redis, Valkey, KeyDB, ...). Values are stored with SET PX.
+ * <p>
+ * Commands run on a small pool of connections, so request threads only wait for each other when
+ * more than {@code poolSize} L1 misses are in flight. After {@code failureThreshold} consecutive
+ * failures the circuit opens: for {@code coolDown} every call fails at once without touching the
+ * network, and the caller falls back to its loader. The first call after the cool-down probes the
+ * server again; one more failure reopens the circuit.
+ */
+public class RedisSharedCacheStore implements SharedCacheStore {
+
+    private static final Logger LOGGER = Logger.getLogger(RedisSharedCacheStore.class.getName());
+
+    private final String host;
+    private final int port;
+    private final int timeoutMillis;
+    private final String keyPrefix;
+    private final int failureThreshold;
+    private final long coolDownNanos;
+
+    private final Semaphore permits;
+    private final BlockingQueue<RespConnection> idle;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openUntilNanos;
+    private volatile boolean closed;
+
+    public RedisSharedCacheStore(String host, int port, Duration timeout, String keyPrefix,
+                                 int poolSize, int failureThreshold, Duration coolDown) {
+        this.host = host;
+        this.port = port;
+        this.timeoutMillis = (int) timeout.toMillis();
+        this.keyPrefix = keyPrefix;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.coolDownNanos = coolDown.toNanos();
+        this.permits = new Semaphore(Math.max(1, poolSize), true);
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+        this.openUntilNanos = System.nanoTime();
+    }
+
+    @Override
+    public byte[] get(String key) {
+        return (byte[]) execute("GET", keyPrefix + key);
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) {
+        execute("SET", keyPrefix + key, value, "PX", Math.max(1, ttl.toMillis()));
+    }
+
+    @Override
+    public void delete(String key) {
+        execute("DEL", keyPrefix + key);
+    }
+
+    /** Whether calls are currently refused without reaching the server. */
+    public boolean isCircuitOpen() {
+        return consecutiveFailures.get() >= failureThreshold && System.nanoTime() - openUntilNanos < 0;
+    }
+
+    private Object execute(Object... command) {
+        if (closed) {
+            throw new IllegalStateException("Redis store is closed");
+        }
+        if (isCircuitOpen()) {
+            throw new UncheckedIOException(new IOException("Redis circuit open after " + failureThreshold + " failures"));
+        }
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new UncheckedIOException(new IOException("No Redis connection free within " + timeoutMillis + " ms"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new IOException("Interrupted waiting for a Redis connection", e));
+        }
+        RespConnection connection = idle.poll();
+        try {
+            if (connection == null) {
+                connection = new RespConnection(host, port, timeoutMillis);
+            }
+            Object reply = connection.call(command);
+            consecutiveFailures.set(0);
+            if (closed || !idle.offer(connection)) {
+                connection.close();
+            }
+            return reply;
+        } catch (IOException e) {
+            // Drop the connection; a later call opens a fresh one unless the circuit opens first.
+            if (connection != null) {
+                connection.close();
+            }
+            recordFailure();
+            throw new UncheckedIOException(e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            boolean wasOpen = System.nanoTime() - openUntilNanos < 0;
+            openUntilNanos = System.nanoTime() + coolDownNanos;
+            if (!wasOpen) {
+                LOGGER.warning("Redis at " + host + ":" + port + " failed " + failureThreshold
+                        + " times in a row; skipping the shared cache for " + Duration.ofNanos(coolDownNanos));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        RespConnection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.application.cache;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Tags successful JSON bodies of requests marked by {@link ResultETagInterceptor} with a strong
+ * ETag and the configured Cache-Control, and remembers the ETag for later revalidations. The body
+ * is buffered and hashed exactly as the message converter wrote it, so it is serialized once; a
+ * client already holding this exact body gets 304 without it.
+ */
+public class ResultETagFilter extends OncePerRequestFilter {
+
+    private final ResultETags resultETags;
+
+    public ResultETagFilter(ResultETags resultETags) {
+        this.resultETags = resultETags;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !resultETags.isEnabled() || !HttpMethod.GET.matches(request.getMethod());
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // Reactive routes write their body on the async dispatch, into the wrapper of the first one.
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpServletResponse responseToUse = response;
+        if (!isAsyncDispatch(request) && WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) == null) {
+            responseToUse = new ContentCachingResponseWrapper(response);
+        }
+        filterChain.doFilter(request, responseToUse);
+        if (isAsyncStarted(request)) {
+            return;
+        }
+        ContentCachingResponseWrapper buffered = WebUtils.getNativeResponse(responseToUse, ContentCachingResponseWrapper.class);
+        if (buffered == null) {
+            return;
+        }
+        tag(request, buffered);
+        buffered.copyBodyToResponse();
+    }
+
+    private void tag(HttpServletRequest request, ContentCachingResponseWrapper response) {
+        Object requestKey = request.getAttribute(ResultETagInterceptor.REQUEST_KEY_ATTRIBUTE);
+        if (!(requestKey instanceof String key)
+                || response.getStatus() != HttpServletResponse.SC_OK
+                || response.getContentSize() == 0
+                || response.getContentType() == null
+                || !MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(response.getContentType()))) {
+            return;
+        }
+        String eTag = resultETags.eTagOf(response.getContentAsByteArray());
+        resultETags.remember(key, eTag);
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, resultETags.cacheControl().getHeaderValue());
+        if (ResultETags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.resetBuffer();
+        }
+    }
+}
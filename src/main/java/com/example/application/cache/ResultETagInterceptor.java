@@ -0,0 +1,42 @@
+package com.example.application.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Answers a GET whose If-None-Match matches the ETag last served for it with 304, before the
+ * handler runs. Otherwise marks the request so {@link ResultETagFilter} tags the fresh body.
+ */
+@Component
+public class ResultETagInterceptor implements HandlerInterceptor {
+
+    static final String REQUEST_KEY_ATTRIBUTE = ResultETagInterceptor.class.getName() + ".requestKey";
+
+    private final ResultETags resultETags;
+
+    public ResultETagInterceptor(ResultETags resultETags) {
+        this.resultETags = resultETags;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!resultETags.isEnabled() || !HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        String requestKey = resultETags.requestKey(request);
+        String eTag = resultETags.current(requestKey);
+        if (ResultETags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, eTag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, resultETags.cacheControl().getHeaderValue());
+            return false;
+        }
+        request.setAttribute(REQUEST_KEY_ATTRIBUTE, requestKey);
+        return true;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.application.cache;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import com.example.application.config.HttpCacheProperties;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Strong ETags for GET results: the MD5 of the JSON body, remembered per request so a matching
+ * If-None-Match can be answered before the handler (and any upstream call) runs.
+ * <p>
+ * A request is keyed by its path and sorted query parameters, plus {@link #VARIANT_ATTRIBUTE}
+ * when an interceptor derived something from headers that changes the body. Correctness does not depend on the
+ * key: a client only ever presents the ETag of a body it holds, and a remembered ETag is the hash
+ * of the body last served for that request, so a match means the bodies are identical.
+ */
+@Component
+public class ResultETags {
+
+    /** Request attribute holding what, besides the URL, selects the body, such as a header-derived market. */
+    public static final String VARIANT_ATTRIBUTE = ResultETags.class.getName() + ".variant";
+
+    private record Entry(String eTag, long expiresAtMillis) {
+    }
+
+    private final HttpCacheProperties properties;
+    private final Clock clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public ResultETags(HttpCacheProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public String requestKey(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        char separator = '?';
+        for (Map.Entry<String, String[]> parameter : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            for (String value : parameter.getValue()) {
+                key.append(separator).append(parameter.getKey()).append('=').append(value.trim());
+                separator = '&';
+            }
+        }
+        Object variant = request.getAttribute(VARIANT_ATTRIBUTE);
+        if (variant != null) {
+            key.append('#').append(variant);
+        }
+        return key.toString();
+    }
+
+    public String eTagOf(byte[] body) {
+        return "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    /** The ETag last served for {@code requestKey}, or null when unknown or older than http-cache.etag-ttl. */
+    public String current(String requestKey) {
+        Entry entry = entries.get(requestKey);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= clock.millis()) {
+            entries.remove(requestKey, entry);
+            return null;
+        }
+        return entry.eTag();
+    }
+
+    public void remember(String requestKey, String eTag) {
+        if (entries.size() >= properties.getMaxEntries()) {
+            long now = clock.millis();
+            entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+            if (entries.size() >= properties.getMaxEntries()) {
+                entries.clear();
+            }
+        }
+        entries.put(requestKey, new Entry(eTag, clock.millis() + properties.getEtagTtl().toMillis()));
+    }
+
+    public CacheControl cacheControl() {
+        return CacheControl.maxAge(properties.getMaxAge())
+                .staleWhileRevalidate(properties.getStaleWhileRevalidate())
+                .cachePublic();
+    }
+
+    /** If-None-Match comparison (weak, as RFC 9110 requires for this header) against one strong ETag. */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.application.cache;
+
+import java.time.Duration;
+
+/**
+ * Node-shared second cache tier. Implementations must be thread-safe; callers treat every
+ * failure as a miss, so a store that is down only costs hit rate, never availability.
+ */
+public interface SharedCacheStore extends AutoCloseable {
+
+    byte[] get(String key);
+
+    void put(String key, byte[] value, Duration ttl);
+
+    void delete(String key);
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.application.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * One cache's entries inside a memory-mapped snapshot file. Only keys and offsets are held on the heap;
+ * values stay in the mapping until {@link #take} decodes them on first use.
+ *
+ * Entry layout at an offset: [writtenAt:8][valueLength:4][value bytes].
+ */
+final class SnapshotSection {
+
+    /** Key-less entry returned by {@link #take}. */
+    record Entry(long writtenAt, byte[] value) {
+    }
+
+    private final String name;
+    private final ByteBuffer mapping;
+    private final Map<String, Integer> offsets;
+
+    private SnapshotSection(String name, ByteBuffer mapping, Map<String, Integer> offsets) {
+        this.name = name;
+        this.mapping = mapping;
+        this.offsets = offsets;
+    }
+
+    String name() {
+        return name;
+    }
+
+    int remaining() {
+        return offsets.size();
+    }
+
+    /** Removes and returns the entry for the key, or null when absent or already taken. */
+    Entry take(String key) {
+        Integer offset = offsets.remove(key);
+        return offset == null ? null : read(offset);
+    }
+
+    /** Visits the entries nobody has taken yet, without consuming them. */
+    void forEachRemaining(BiConsumer<String, Entry> visitor) {
+        offsets.forEach((key, offset) -> visitor.accept(key, read(offset)));
+    }
+
+    private Entry read(int offset) {
+        long writtenAt = mapping.getLong(offset);
+        int length = mapping.getInt(offset + Long.BYTES);
+        byte[] value = new byte[length];
+        mapping.get(offset + Long.BYTES + Integer.BYTES, value);
+        return new Entry(writtenAt, value);
+    }
+
+    /**
+     * Indexes a section starting at the given position and returns it together with the position after it.
+     * Section layout: [entryCount:4] then entryCount times [keyLength:2][key UTF-8][entry].
+     * Throws IndexOutOfBoundsException when an entry runs past the end of the mapping, so a truncated
+     * or corrupt section is rejected here rather than failing a lookup later.
+     */
+    static SnapshotSection index(String name, ByteBuffer mapping, int[] position) {
+        int cursor = position[0];
+        int count = mapping.getInt(cursor);
+        cursor += Integer.BYTES;
+        if (count < 0 || count > (mapping.limit() - cursor) / (Short.BYTES + Long.BYTES + Integer.BYTES)) {
+            throw new IndexOutOfBoundsException("Snapshot section " + name + " claims " + count + " entries");
+        }
+        Map<String, Integer> offsets = new ConcurrentHashMap<>(Math.max(16, count * 4 / 3 + 1));
+        for (int i = 0; i < count; i++) {
+            int keyLength = Short.toUnsignedInt(mapping.getShort(cursor));
+            cursor += Short.BYTES;
+            byte[] key = new byte[keyLength];
+            mapping.get(cursor, key);
+            cursor += keyLength;
+            offsets.put(new String(key, StandardCharsets.UTF_8), cursor);
+            int valueLength = mapping.getInt(cursor + Long.BYTES);
+            cursor += Long.BYTES + Integer.BYTES;
+            if (valueLength < 0 || valueLength > mapping.limit() - cursor) {
+                throw new IndexOutOfBoundsException("Snapshot entry of " + valueLength + " bytes at " + cursor
+                        + " runs past the end of section " + name);
+            }
+            cursor += valueLength;
+        }
+        position[0] = cursor;
+        return new SnapshotSection(name, mapping, offsets);
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.application.cache;
+
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Read-through cache with a local in-heap L1 in front of a node-shared L2.
+ *
+ * Lookups go L1 -> L2 -> loader; L2 hits are promoted into L1 and loaded values are written to both.
+ * L2 values are stored as [writtenAt:8][encoded value], so a promoted entry keeps its original write
+ * time and neither promotion nor a snapshot round trip extends its life.
+ * Entries are never changed in place, only replaced once expired, and L1 copies live at most
+ * l1Ttl, so nodes converge without invalidation messages. Any L2 failure is logged and treated
+ * as a miss.
+ */
+public class TieredCache<V> {
+
+    private static final Logger LOGGER = Logger.getLogger(TieredCache.class.getName());
+
+    private final String name;
+    private final LocalCache<V> l1;
+    private final SharedCacheStore l2;
+    private final CacheCodec<V> codec;
+    private final Duration ttl;
+    private final Duration l1Ttl;
+    private final Clock clock;
+
+    private volatile SnapshotSection snapshot;
+
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder snapshotHits = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder l2Errors = new LongAdder();
+
+    public TieredCache(String name, int maxLocalEntries, Duration ttl, Duration l1Ttl,
+                       CacheCodec<V> codec, SharedCacheStore l2, Clock clock) {
+        this(name, maxLocalEntries, ttl, l1Ttl, codec, null, l2, clock);
+    }
+
+    /**
+     * @param localCodec when not null, L1 holds values in this (possibly process-local) encoding and
+     *                   decodes them on each hit; the L2 and snapshot formats are unaffected
+     */
+    public TieredCache(String name, int maxLocalEntries, Duration ttl, Duration l1Ttl,
+                       CacheCodec<V> codec, CacheCodec<V> localCodec, SharedCacheStore l2, Clock clock) {
+        this.name = name;
+        this.l1 = new LocalCache<>(maxLocalEntries, clock, localCodec);
+        this.l2 = l2;
+        this.codec = codec;
+        this.ttl = ttl;
+        this.l1Ttl = l1Ttl.compareTo(ttl) < 0 ? l1Ttl : ttl;
+        this.clock = clock;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /** Returns the cached value or null, consulting L1, the warm snapshot and then L2. */
+    public V getIfPresent(String key) {
+        V value = l1.get(key);
+        if (value != null) {
+            l1Hits.increment();
+            return value;
+        }
+        value = readSnapshot(key);
+        if (value != null) {
+            snapshotHits.increment();
+            return value;
+        }
+        value = readShared(key);
+        if (value != null) {
+            l2Hits.increment();
+            return value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Returns the cached value, or computes it with the loader and stores it.
+     * Null results from the loader are returned but never cached.
+     */
+    public V get(String key, Supplier<V> loader) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.get();
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    public void put(String key, V value) {
+        long now = clock.millis();
+        l1.put(key, value, now, now + l1Ttl.toMillis());
+        try {
+            byte[] encoded = codec.encode(value);
+            l2.put(storeKey(key), ByteBuffer.allocate(Long.BYTES + encoded.length).putLong(now).put(encoded).array(), ttl);
+        } catch (RuntimeException e) {
+            recordL2Error("write", e);
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(name, l1Hits.sum(), snapshotHits.sum(), l2Hits.sum(), misses.sum(), l2Errors.sum(),
+                l1.size());
+    }
+
+    /** Serves not-yet-loaded keys lazily from a restored snapshot section. */
+    void attachSnapshot(SnapshotSection section) {
+        this.snapshot = section;
+    }
+
+    /**
+     * Visits every entry worth persisting: live L1 entries plus snapshot entries nobody asked for yet,
+     * as long as they are within the cache TTL.
+     */
+    void exportTo(SnapshotSink sink) {
+        long oldestValid = clock.millis() - ttl.toMillis();
+        l1.forEach((key, value, writtenAt) -> {
+            if (writtenAt > oldestValid) {
+                sink.accept(key, writtenAt, codec.encode(value));
+            }
+        });
+        SnapshotSection section = snapshot;
+        if (section != null) {
+            section.forEachRemaining((key, entry) -> {
+                if (entry.writtenAt() > oldestValid && !l1.containsKey(key)) {
+                    sink.accept(key, entry.writtenAt(), entry.value());
+                }
+            });
+        }
+    }
+
+    @FunctionalInterface
+    interface SnapshotSink {
+        void accept(String key, long writtenAt, byte[] encodedValue);
+    }
+
+    private V readSnapshot(String key) {
+        SnapshotSection section = snapshot;
+        if (section == null) {
+            return null;
+        }
+        SnapshotSection.Entry entry = section.take(key);
+        if (entry == null) {
+            return null;
+        }
+        long now = clock.millis();
+        // TTL re-validation: the entry keeps its original write time, so a restart never extends its life
+        long expiresAt = entry.writtenAt() + ttl.toMillis();
+        if (now >= expiresAt) {
+            return null;
+        }
+        try {
+            V value = codec.decode(entry.value());
+            l1.put(key, value, entry.writtenAt(), Math.min(expiresAt, now + l1Ttl.toMillis()));
+            return value;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /** Reads an L2 entry and promotes it into L1 with its original write time. */
+    private V readShared(String key) {
+        byte[] bytes;
+        try {
+            bytes = l2.get(storeKey(key));
+        } catch (RuntimeException e) {
+            recordL2Error("read", e);
+            return null;
+        }
+        if (bytes == null || bytes.length <= Long.BYTES) {
+            return null;
+        }
+        long now = clock.millis();
+        long writtenAt = ByteBuffer.wrap(bytes).getLong();
+        long expiresAt = writtenAt + ttl.toMillis();
+        if (writtenAt > now || now >= expiresAt) {
+            return null;
+        }
+        try {
+            V value = codec.decode(Arrays.copyOfRange(bytes, Long.BYTES, bytes.length));
+            l1.put(key, value, writtenAt, Math.min(expiresAt, now + l1Ttl.toMillis()));
+            return value;
+        } catch (IllegalArgumentException e) {
+            // Written by an incompatible build; let the loader overwrite it.
+            LOGGER.fine(() -> "[" + name + "] discarding undecodable entry " + key + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private String storeKey(String key) {
+        return name + ":" + key;
+    }
+
+    private void recordL2Error(String operation, RuntimeException e) {
+        l2Errors.increment();
+        LOGGER.log(Level.FINE, "[" + name + "] shared cache " + operation + " failed", e);
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.application.config;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
@@ -9,6 +11,10 @@ public class ApiProperties {
     private final Spotify spotify = new Spotify();
     @NestedConfigurationProperty
     private final Youtube youtube = new Youtube();
+    @NestedConfigurationProperty
+    private final Batch batch = new Batch();
+    @NestedConfigurationProperty
+    private final Reactive reactive = new Reactive();
 
     public Spotify getSpotify() {
         return spotify;
@@ -18,8 +24,24 @@ public class ApiProperties {
         return youtube;
     }
 
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Reactive getReactive() {
+        return reactive;
+    }
+
     public static class Spotify {
         private String baseUrl;
+        /** Upper bound of Spotify calls in flight at once from this node. */
+        private int maxConcurrentRequests = 4;
+        /** Sustained Spotify call rate allowed from this node. */
+        private int requestsPerSecond = 10;
+        /** How long a discovered Liked Songs endpoint family is trusted before it is probed again. */
+        private Duration libraryEndpointTtl = Duration.ofHours(1);
+        /** How long a session trusts a track's Liked Songs state before asking Spotify again. */
+        private Duration savedStatusTtl = Duration.ofMinutes(2);
 
         public String getBaseUrl() {
             return baseUrl;
@@ -28,10 +50,47 @@ public class ApiProperties {
         public void setBaseUrl(String baseUrl) {
             this.baseUrl = baseUrl;
         }
+
+        public int getMaxConcurrentRequests() {
+            return maxConcurrentRequests;
+        }
+
+        public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+        }
+
+        public int getRequestsPerSecond() {
+            return requestsPerSecond;
+        }
+
+        public void setRequestsPerSecond(int requestsPerSecond) {
+            this.requestsPerSecond = requestsPerSecond;
+        }
+
+        public Duration getLibraryEndpointTtl() {
+            return libraryEndpointTtl;
+        }
+
+        public void setLibraryEndpointTtl(Duration libraryEndpointTtl) {
+            this.libraryEndpointTtl = libraryEndpointTtl;
+        }
+
+        public Duration getSavedStatusTtl() {
+            return savedStatusTtl;
+        }
+
+        public void setSavedStatusTtl(Duration savedStatusTtl) {
+            this.savedStatusTtl = savedStatusTtl;
+        }
     }
 
     public static class Youtube {
         private String baseUrl;
+        /**
+         * Maximum number of description characters kept per video.
+         * A negative value keeps the full description, 0 drops it entirely.
+         */
+        private int descriptionMaxLength = -1;
 
         public String getBaseUrl() {
             return baseUrl;
@@ -40,5 +99,75 @@ public class ApiProperties {
         public void setBaseUrl(String baseUrl) {
             this.baseUrl = baseUrl;
         }
+
+        public int getDescriptionMaxLength() {
+            return descriptionMaxLength;
+        }
+
+        public void setDescriptionMaxLength(int descriptionMaxLength) {
+            this.descriptionMaxLength = descriptionMaxLength;
+        }
+    }
+
+    /**
+     * Micro-batching of single-ID metadata lookups into multi-ID upstream calls.
+     */
+    public static class Batch {
+        /** How long the first lookup waits for others to join its batch; 0 disables batching. */
+        private long windowMs = 5;
+        /** Upper bound of IDs per upstream call (both APIs accept 50); clamped to 1..50. */
+        private int maxSize = 50;
+
+        public long getWindowMs() {
+            return windowMs;
+        }
+
+        public void setWindowMs(long windowMs) {
+            this.windowMs = windowMs;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    /**
+     * Limits for the WebClient-based conversion pipeline.
+     */
+    public static class Reactive {
+        /** Deadline for a single upstream call. */
+        private Duration timeout = Duration.ofSeconds(5);
+        /** Deadline for a whole conversion, fallback tiers included. */
+        private Duration conversionTimeout = Duration.ofSeconds(15);
+        /** Conversions of one batch request that may be in flight at once. */
+        private int maxConcurrency = 8;
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public Duration getConversionTimeout() {
+            return conversionTimeout;
+        }
+
+        public void setConversionTimeout(Duration conversionTimeout) {
+            this.conversionTimeout = conversionTimeout;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
     }
 }
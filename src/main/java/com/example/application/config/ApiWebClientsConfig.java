@@ -3,12 +3,28 @@ package com.example.application.config;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
 
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Upstream clients are built from Boot's auto-configured builders so every call is observed as a
+ * client span and carries the W3C trace context. The WebClients serve the reactive pipeline.
+ * <p>
+ * YouTube clients ask for gzip: Google only compresses when Accept-Encoding allows it and the
+ * User-Agent contains "gzip". Reactor Netty sends the header and inflates the body transparently.
+ */
 @Configuration
 public class ApiWebClientsConfig {
 
+    private static final String GZIP_USER_AGENT = "yt-to-spotify (gzip)";
+
     private final ApiProperties apiProperties;
+    private final HttpClient gzipHttpClient = HttpClient.create().compress(true);
 
     public ApiWebClientsConfig(ApiProperties apiProperties) {
         this.apiProperties = apiProperties;
@@ -16,18 +32,38 @@ public class ApiWebClientsConfig {
 
     @Bean
     @Qualifier("spotifyClient")
-    public RestClient spotifyClient() {
-        return RestClient.builder()
+    public RestClient spotifyClient(RestClient.Builder builder) {
+        return builder
                 .baseUrl(apiProperties.getSpotify().getBaseUrl())
                 .build();
     }
 
     @Bean
     @Qualifier("youtubeClient")
-    public RestClient youtubeClient() {
-        return RestClient.builder()
+    public RestClient youtubeClient(RestClient.Builder builder) {
+        return builder
+                .baseUrl(apiProperties.getYoutube().getBaseUrl())
+                .requestFactory(new ReactorClientHttpRequestFactory(gzipHttpClient))
+                .defaultHeader(HttpHeaders.USER_AGENT, GZIP_USER_AGENT)
+                .build();
+    }
+
+    @Bean
+    @Qualifier("spotifyWebClient")
+    public WebClient spotifyWebClient(WebClient.Builder builder) {
+        return builder
+                .baseUrl(apiProperties.getSpotify().getBaseUrl())
+                .build();
+    }
+
+    @Bean
+    @Qualifier("youtubeWebClient")
+    public WebClient youtubeWebClient(WebClient.Builder builder) {
+        return builder
                 .baseUrl(apiProperties.getYoutube().getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(gzipHttpClient))
+                .defaultHeader(HttpHeaders.USER_AGENT, GZIP_USER_AGENT)
                 .build();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,35 @@
+package com.example.application.config;
+
+import java.nio.file.Path;
+import java.time.Clock;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.application.cache.DiskSharedCacheStore;
+import com.example.application.cache.NoopSharedCacheStore;
+import com.example.application.cache.RedisSharedCacheStore;
+import com.example.application.cache.SharedCacheStore;
+
+@Configuration
+public class CacheConfig {
+
+    private final CacheProperties cacheProperties;
+
+    public CacheConfig(CacheProperties cacheProperties) {
+        this.cacheProperties = cacheProperties;
+    }
+
+    @Bean
+    public SharedCacheStore sharedCacheStore(Clock clock) {
+        return switch (cacheProperties.getShared()) {
+            case NONE -> new NoopSharedCacheStore();
+            case DISK -> new DiskSharedCacheStore(Path.of(cacheProperties.getDisk().getDirectory()), clock);
+            case REDIS -> {
+                CacheProperties.Redis redis = cacheProperties.getRedis();
+                yield new RedisSharedCacheStore(redis.getHost(), redis.getPort(), redis.getTimeout(), redis.getKeyPrefix(),
+                        redis.getPoolSize(), redis.getFailureThreshold(), redis.getCoolDown());
+            }
+        };
+    }
+}
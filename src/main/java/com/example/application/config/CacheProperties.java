@@ -0,0 +1,429 @@
+package com.example.application.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+
+@ConfigurationProperties(prefix = "cache")
+public class CacheProperties {
+
+    public enum SharedStore {
+        NONE, DISK, REDIS
+    }
+
+    /** Which shared (L2) tier sits behind the in-heap caches. */
+    private SharedStore shared = SharedStore.NONE;
+    private int localMaxEntries = 10_000;
+    /** Upper bound on how long a node trusts its L1 copy without re-reading L2. */
+    private Duration localTtl = Duration.ofMinutes(10);
+    private Duration metadataTtl = Duration.ofHours(12);
+    private Duration searchTtl = Duration.ofHours(1);
+    private Duration matchTtl = Duration.ofHours(6);
+    /**
+     * How long a video's upstream ETag is kept so an expired metadata entry can be revalidated
+     * with If-None-Match instead of downloaded again.
+     */
+    private Duration revalidationTtl = Duration.ofDays(7);
+    /**
+     * Hold L1 results as compact byte[] entries (packed IDs, elided URL prefixes, shared artist
+     * names) decoded on read, instead of as objects.
+     */
+    private boolean compactLocal = true;
+
+    @NestedConfigurationProperty
+    private final Disk disk = new Disk();
+    @NestedConfigurationProperty
+    private final Redis redis = new Redis();
+    @NestedConfigurationProperty
+    private final Snapshot snapshot = new Snapshot();
+    @NestedConfigurationProperty
+    private final MatchStore matchStore = new MatchStore();
+    @NestedConfigurationProperty
+    private final MissingIds missingIds = new MissingIds();
+    @NestedConfigurationProperty
+    private final Catalog catalog = new Catalog();
+
+    public SharedStore getShared() {
+        return shared;
+    }
+
+    public void setShared(SharedStore shared) {
+        this.shared = shared;
+    }
+
+    public int getLocalMaxEntries() {
+        return localMaxEntries;
+    }
+
+    public void setLocalMaxEntries(int localMaxEntries) {
+        this.localMaxEntries = localMaxEntries;
+    }
+
+    public Duration getLocalTtl() {
+        return localTtl;
+    }
+
+    public void setLocalTtl(Duration localTtl) {
+        this.localTtl = localTtl;
+    }
+
+    public Duration getMetadataTtl() {
+        return metadataTtl;
+    }
+
+    public void setMetadataTtl(Duration metadataTtl) {
+        this.metadataTtl = metadataTtl;
+    }
+
+    public Duration getSearchTtl() {
+        return searchTtl;
+    }
+
+    public void setSearchTtl(Duration searchTtl) {
+        this.searchTtl = searchTtl;
+    }
+
+    public Duration getMatchTtl() {
+        return matchTtl;
+    }
+
+    public void setMatchTtl(Duration matchTtl) {
+        this.matchTtl = matchTtl;
+    }
+
+    public Duration getRevalidationTtl() {
+        return revalidationTtl;
+    }
+
+    public void setRevalidationTtl(Duration revalidationTtl) {
+        this.revalidationTtl = revalidationTtl;
+    }
+
+    public boolean isCompactLocal() {
+        return compactLocal;
+    }
+
+    public void setCompactLocal(boolean compactLocal) {
+        this.compactLocal = compactLocal;
+    }
+
+    public Disk getDisk() {
+        return disk;
+    }
+
+    public Redis getRedis() {
+        return redis;
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public MatchStore getMatchStore() {
+        return matchStore;
+    }
+
+    public MissingIds getMissingIds() {
+        return missingIds;
+    }
+
+    public Catalog getCatalog() {
+        return catalog;
+    }
+
+    public static class Disk {
+        private String directory = System.getProperty("java.io.tmpdir") + "/yt-to-spotify-cache";
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+    }
+
+    public static class Redis {
+        private String host = "localhost";
+        private int port = 6379;
+        private Duration timeout = Duration.ofMillis(500);
+        private String keyPrefix = "yt2s:";
+        /** Connections per node; more concurrent L1 misses than this wait up to the timeout. */
+        private int poolSize = 8;
+        /** Consecutive failures after which L2 is skipped for coolDown. */
+        private int failureThreshold = 3;
+        private Duration coolDown = Duration.ofSeconds(30);
+
+        public String getHost() {
+            return host;
+        }
+
+        public void setHost(String host) {
+            this.host = host;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public void setPort(int port) {
+            this.port = port;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public String getKeyPrefix() {
+            return keyPrefix;
+        }
+
+        public void setKeyPrefix(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public void setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        public Duration getCoolDown() {
+            return coolDown;
+        }
+
+        public void setCoolDown(Duration coolDown) {
+            this.coolDown = coolDown;
+        }
+    }
+
+    public static class Snapshot {
+        private boolean enabled = true;
+        private String path = System.getProperty("java.io.tmpdir") + "/yt-to-spotify-cache.snapshot";
+        private Duration interval = Duration.ofMinutes(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+    }
+
+    /**
+     * Off-heap, memory-mapped index of every YouTube video matched to a Spotify track. It outlives
+     * the match cache's TTL and restarts, so a video matched confidently before is answered with
+     * one track lookup instead of a search.
+     */
+    public static class MatchStore {
+        private boolean enabled = false;
+        private String directory = System.getProperty("java.io.tmpdir") + "/yt-to-spotify-matches";
+        /** Entries the first generation is sized for; the store grows past it by itself. */
+        private int expectedEntries = 1_000_000;
+        /** Lowest recorded confidence the index answers from; weaker matches search again. */
+        private float minConfidence = 0.8f;
+        private Duration compactionInterval = Duration.ofHours(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getExpectedEntries() {
+            return expectedEntries;
+        }
+
+        public void setExpectedEntries(int expectedEntries) {
+            this.expectedEntries = expectedEntries;
+        }
+
+        public float getMinConfidence() {
+            return minConfidence;
+        }
+
+        public void setMinConfidence(float minConfidence) {
+            this.minConfidence = minConfidence;
+        }
+
+        public Duration getCompactionInterval() {
+            return compactionInterval;
+        }
+
+        public void setCompactionInterval(Duration compactionInterval) {
+            this.compactionInterval = compactionInterval;
+        }
+    }
+
+    /**
+     * Bloom filters of video and track IDs upstream recently confirmed missing; lookups of those
+     * IDs are refused without an upstream call until the filter rotates them out.
+     */
+    public static class MissingIds {
+        /** IDs the first filter stage is sized for; further stages are added as it fills. */
+        private int expectedEntries = 100_000;
+        private double falsePositiveRate = 0.001;
+        /** A missing ID is remembered for between one and two rotations. */
+        private Duration rotation = Duration.ofHours(1);
+
+        public int getExpectedEntries() {
+            return expectedEntries;
+        }
+
+        public void setExpectedEntries(int expectedEntries) {
+            this.expectedEntries = expectedEntries;
+        }
+
+        public double getFalsePositiveRate() {
+            return falsePositiveRate;
+        }
+
+        public void setFalsePositiveRate(double falsePositiveRate) {
+            this.falsePositiveRate = falsePositiveRate;
+        }
+
+        public Duration getRotation() {
+            return rotation;
+        }
+
+        public void setRotation(Duration rotation) {
+            this.rotation = rotation;
+        }
+    }
+
+    /**
+     * Local full-text catalog of the tracks and videos already fetched, which answers plain-keyword
+     * searches without an upstream call when it is confident enough.
+     */
+    public static class Catalog {
+        private boolean enabled = false;
+        private String directory = System.getProperty("java.io.tmpdir") + "/yt-to-spotify-catalog";
+        /** Share of the query's terms, by IDF weight, a local result must contain to be returned. */
+        private float minCoverage = 0.95f;
+        /** Shorter keyword queries always go upstream; one common word says too little. */
+        private int minQueryTerms = 2;
+        private int maxResults = 10;
+        /** Documents per catalog; once full, newly fetched results are no longer added. */
+        private int maxDocuments = 1_000_000;
+        /** Buffered documents that trigger a new segment before the next refresh. */
+        private int flushDocuments = 1_000;
+        /** Segments per catalog before the smallest are merged. */
+        private int maxSegments = 8;
+        /** How often buffered documents are written out and become searchable. */
+        private Duration refreshInterval = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public float getMinCoverage() {
+            return minCoverage;
+        }
+
+        public void setMinCoverage(float minCoverage) {
+            this.minCoverage = minCoverage;
+        }
+
+        public int getMinQueryTerms() {
+            return minQueryTerms;
+        }
+
+        public void setMinQueryTerms(int minQueryTerms) {
+            this.minQueryTerms = minQueryTerms;
+        }
+
+        public int getMaxResults() {
+            return maxResults;
+        }
+
+        public void setMaxResults(int maxResults) {
+            this.maxResults = maxResults;
+        }
+
+        public int getMaxDocuments() {
+            return maxDocuments;
+        }
+
+        public void setMaxDocuments(int maxDocuments) {
+            this.maxDocuments = maxDocuments;
+        }
+
+        public int getFlushDocuments() {
+            return flushDocuments;
+        }
+
+        public void setFlushDocuments(int flushDocuments) {
+            this.flushDocuments = flushDocuments;
+        }
+
+        public int getMaxSegments() {
+            return maxSegments;
+        }
+
+        public void setMaxSegments(int maxSegments) {
+            this.maxSegments = maxSegments;
+        }
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+    }
+}
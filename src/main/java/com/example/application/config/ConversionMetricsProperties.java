@@ -0,0 +1,30 @@
+package com.example.application.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "conversion-metrics")
+public class ConversionMetricsProperties {
+
+    /** How far back the percentiles on /actuator/conversions look. */
+    private Duration window = Duration.ofMinutes(5);
+    /** Buckets the window is split into; the window slides one bucket at a time. */
+    private int slots = 10;
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    public void setSlots(int slots) {
+        this.slots = slots;
+    }
+}
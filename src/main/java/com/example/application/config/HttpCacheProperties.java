@@ -0,0 +1,64 @@
+package com.example.application.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Browser and CDN caching of GET conversion and lookup results.
+ */
+@ConfigurationProperties(prefix = "http-cache")
+public class HttpCacheProperties {
+
+    private boolean enabled = true;
+    /** How long browsers and shared caches may reuse a result without revalidating. */
+    private Duration maxAge = Duration.ofMinutes(5);
+    /** How long past max-age a cache may serve the stale result while it revalidates. */
+    private Duration staleWhileRevalidate = Duration.ofHours(1);
+    /**
+     * How long a request's last ETag is trusted to answer If-None-Match with 304 without running
+     * the handler. Bounds how stale a revalidated result can be.
+     */
+    private Duration etagTtl = Duration.ofHours(1);
+    private int maxEntries = 10_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public Duration getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+
+    public Duration getEtagTtl() {
+        return etagTtl;
+    }
+
+    public void setEtagTtl(Duration etagTtl) {
+        this.etagTtl = etagTtl;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+}
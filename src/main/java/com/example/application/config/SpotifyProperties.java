@@ -1,6 +1,11 @@
 package com.example.application.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
 @ConfigurationProperties(prefix = "spotify")
 public class SpotifyProperties {
@@ -8,6 +13,10 @@ public class SpotifyProperties {
     private String clientId;
     private String clientSecret;
     private String redirectUri;
+    /** User tokens are refreshed this long before they expire, so requests never see a dead token. */
+    private Duration tokenRefreshAhead = Duration.ofSeconds(60);
+    @NestedConfigurationProperty
+    private final Market market = new Market();
 
     public String getAuthUrl() {
         return authUrl;
@@ -40,4 +49,52 @@ public class SpotifyProperties {
     public void setRedirectUri(String redirectUri) {
         this.redirectUri = redirectUri;
     }
+
+    public Duration getTokenRefreshAhead() {
+        return tokenRefreshAhead;
+    }
+
+    public void setTokenRefreshAhead(Duration tokenRefreshAhead) {
+        this.tokenRefreshAhead = tokenRefreshAhead;
+    }
+
+    public Market getMarket() {
+        return market;
+    }
+
+    /**
+     * The Spotify market (ISO 3166-1 alpha-2 country) searches run in. A request's market is its
+     * market query parameter, else the first of the headers holding a country code, else the default.
+     */
+    public static class Market {
+        private String defaultMarket = "US";
+        /** Request headers read for the market, in order, such as a CDN's viewer-country header. */
+        private List<String> headers = new ArrayList<>(List.of("X-Spotify-Market"));
+        /** Markets every search also runs in, concurrently, with results merged by track ID; empty for none. */
+        private List<String> alsoSearch = new ArrayList<>();
+
+        public String getDefaultMarket() {
+            return defaultMarket;
+        }
+
+        public void setDefaultMarket(String defaultMarket) {
+            this.defaultMarket = defaultMarket;
+        }
+
+        public List<String> getHeaders() {
+            return headers;
+        }
+
+        public void setHeaders(List<String> headers) {
+            this.headers = headers;
+        }
+
+        public List<String> getAlsoSearch() {
+            return alsoSearch;
+        }
+
+        public void setAlsoSearch(List<String> alsoSearch) {
+            this.alsoSearch = alsoSearch;
+        }
+    }
 }
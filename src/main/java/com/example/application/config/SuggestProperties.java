@@ -0,0 +1,60 @@
+package com.example.application.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Typeahead suggestions on /api/suggest from the titles and artists of resolved conversions.
+ */
+@ConfigurationProperties(prefix = "suggest")
+public class SuggestProperties {
+
+    private boolean enabled = true;
+    /** Titles and artists held; conversions of new ones beyond it still count for those already held. */
+    private int maxKeys = 100_000;
+    /** Normalized characters of a title or artist that can be typed towards it. */
+    private int maxKeyLength = 48;
+    /** Prefix lengths answered from a ranking kept on the tree, rather than by walking the matches. */
+    private int cachedDepth = 8;
+    /** Suggestions returned at most. */
+    private int maxResults = 10;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public int getMaxKeyLength() {
+        return maxKeyLength;
+    }
+
+    public void setMaxKeyLength(int maxKeyLength) {
+        this.maxKeyLength = maxKeyLength;
+    }
+
+    public int getCachedDepth() {
+        return cachedDepth;
+    }
+
+    public void setCachedDepth(int cachedDepth) {
+        this.cachedDepth = cachedDepth;
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    public void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+}
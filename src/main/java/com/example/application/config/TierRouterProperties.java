@@ -0,0 +1,70 @@
+package com.example.application.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Adaptive ordering of the YouTube to Spotify fallback search tiers.
+ */
+@ConfigurationProperties(prefix = "tier-router")
+public class TierRouterProperties {
+
+    private boolean enabled = true;
+    /** Share of conversions that use the default order anyway, so every tier keeps being measured. */
+    private double exploration = 0.05;
+    /** Attempts a tier needs before its estimate may reorder or skip it. */
+    private int minSamples = 30;
+    /** A tier estimated to answer less often than this is tried after the others. */
+    private double deferBelow = 0.2;
+    /** A tier estimated to answer less often than this is not tried at all. */
+    private double skipBelow = 0.02;
+    /** Channels whose outcomes are tracked; channels beyond it are routed on their other features. */
+    private int maxChannels = 50_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getExploration() {
+        return exploration;
+    }
+
+    public void setExploration(double exploration) {
+        this.exploration = exploration;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public void setMinSamples(int minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    public double getDeferBelow() {
+        return deferBelow;
+    }
+
+    public void setDeferBelow(double deferBelow) {
+        this.deferBelow = deferBelow;
+    }
+
+    public double getSkipBelow() {
+        return skipBelow;
+    }
+
+    public void setSkipBelow(double skipBelow) {
+        this.skipBelow = skipBelow;
+    }
+
+    public int getMaxChannels() {
+        return maxChannels;
+    }
+
+    public void setMaxChannels(int maxChannels) {
+        this.maxChannels = maxChannels;
+    }
+}
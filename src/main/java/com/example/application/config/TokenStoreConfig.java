@@ -0,0 +1,48 @@
+package com.example.application.config;
+
+import java.time.Clock;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.application.cache.NoopSharedCacheStore;
+import com.example.application.cache.SharedCacheStore;
+import com.example.application.tokenstore.InMemoryUserTokenStore;
+import com.example.application.tokenstore.JpaUserTokenStore;
+import com.example.application.tokenstore.KeyValueUserTokenStore;
+import com.example.application.tokenstore.TokenCipher;
+import com.example.application.tokenstore.UserTokenRepository;
+import com.example.application.tokenstore.UserTokenStore;
+
+@Configuration
+public class TokenStoreConfig {
+
+    private final TokenStoreProperties tokenStoreProperties;
+
+    public TokenStoreConfig(TokenStoreProperties tokenStoreProperties) {
+        this.tokenStoreProperties = tokenStoreProperties;
+    }
+
+    @Bean
+    public UserTokenStore userTokenStore(UserTokenRepository repository,
+                                         TransactionTemplate transactionTemplate,
+                                         SharedCacheStore sharedCacheStore,
+                                         Clock clock) {
+        return switch (tokenStoreProperties.getStore()) {
+            case MEMORY -> new InMemoryUserTokenStore(clock);
+            case JPA -> new JpaUserTokenStore(repository, transactionTemplate, clock);
+            case KEY_VALUE -> {
+                if (sharedCacheStore instanceof NoopSharedCacheStore) {
+                    throw new IllegalStateException("user-tokens.store=key_value needs cache.shared set to disk or redis");
+                }
+                yield new KeyValueUserTokenStore(sharedCacheStore, clock);
+            }
+        };
+    }
+
+    @Bean
+    public TokenCipher tokenCipher() {
+        return new TokenCipher(tokenStoreProperties.getEncryptionKey(), tokenStoreProperties.isAllowEphemeralKey());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.application.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "user-tokens")
+public class TokenStoreProperties {
+
+    public enum Store {
+        MEMORY, JPA, KEY_VALUE
+    }
+
+    /** Where Spotify user tokens live; anything but MEMORY lets every node serve every user. */
+    private Store store = Store.MEMORY;
+    /** Base64 AES key (16, 24 or 32 bytes) sealing token records at rest. */
+    private String encryptionKey;
+    /** Lets a blank encryptionKey fall back to a random per-process key; for local development only. */
+    private boolean allowEphemeralKey;
+    /** Marks the session and OAuth state cookies Secure; only turn off when serving plain HTTP locally. */
+    private boolean secureCookies = true;
+    private String cookieName = "yt2s_session";
+    /** Lifetime of a login: the session cookie and its token record expire this long after login. */
+    private Duration ttl = Duration.ofDays(30);
+
+    public Store getStore() {
+        return store;
+    }
+
+    public void setStore(Store store) {
+        this.store = store;
+    }
+
+    public String getEncryptionKey() {
+        return encryptionKey;
+    }
+
+    public void setEncryptionKey(String encryptionKey) {
+        this.encryptionKey = encryptionKey;
+    }
+
+    public boolean isAllowEphemeralKey() {
+        return allowEphemeralKey;
+    }
+
+    public void setAllowEphemeralKey(boolean allowEphemeralKey) {
+        this.allowEphemeralKey = allowEphemeralKey;
+    }
+
+    public boolean isSecureCookies() {
+        return secureCookies;
+    }
+
+    public void setSecureCookies(boolean secureCookies) {
+        this.secureCookies = secureCookies;
+    }
+
+    public String getCookieName() {
+        return cookieName;
+    }
+
+    public void setCookieName(String cookieName) {
+        this.cookieName = cookieName;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+}
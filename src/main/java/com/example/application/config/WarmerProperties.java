@@ -0,0 +1,103 @@
+package com.example.application.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Background pre-resolution of trending YouTube music videos and chosen Spotify playlists, so the
+ * first users to convert them hit warm caches.
+ */
+@ConfigurationProperties(prefix = "warmer")
+public class WarmerProperties {
+
+    private boolean enabled = false;
+    private Duration interval = Duration.ofHours(1);
+    private Duration initialDelay = Duration.ofMinutes(2);
+    /** ISO 3166-1 region whose music chart is warmed. */
+    private String region = "US";
+    /** Chart videos converted per run, at most 50. */
+    private int maxVideos = 25;
+    /** Spotify playlist IDs whose tracks are converted. */
+    private List<String> playlists = new ArrayList<>();
+    /** Tracks converted per playlist per run, at most 100. */
+    private int maxTracksPerPlaylist = 50;
+    /** YouTube Data API quota units one run may spend; a search costs 100. */
+    private int youtubeQuotaBudget = 1_500;
+    /** Spotify API calls one run may make. */
+    private int spotifyCallBudget = 200;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public Duration getInitialDelay() {
+        return initialDelay;
+    }
+
+    public void setInitialDelay(Duration initialDelay) {
+        this.initialDelay = initialDelay;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public int getMaxVideos() {
+        return maxVideos;
+    }
+
+    public void setMaxVideos(int maxVideos) {
+        this.maxVideos = maxVideos;
+    }
+
+    public List<String> getPlaylists() {
+        return playlists;
+    }
+
+    public void setPlaylists(List<String> playlists) {
+        this.playlists = playlists;
+    }
+
+    public int getMaxTracksPerPlaylist() {
+        return maxTracksPerPlaylist;
+    }
+
+    public void setMaxTracksPerPlaylist(int maxTracksPerPlaylist) {
+        this.maxTracksPerPlaylist = maxTracksPerPlaylist;
+    }
+
+    public int getYoutubeQuotaBudget() {
+        return youtubeQuotaBudget;
+    }
+
+    public void setYoutubeQuotaBudget(int youtubeQuotaBudget) {
+        this.youtubeQuotaBudget = youtubeQuotaBudget;
+    }
+
+    public int getSpotifyCallBudget() {
+        return spotifyCallBudget;
+    }
+
+    public void setSpotifyCallBudget(int spotifyCallBudget) {
+        this.spotifyCallBudget = spotifyCallBudget;
+    }
+}
@@ -1,12 +1,52 @@
 package com.example.application.config;
 
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.example.application.cache.ResultETagFilter;
+import com.example.application.cache.ResultETagInterceptor;
+import com.example.application.cache.ResultETags;
+import com.example.application.metrics.ConversionMetricsInterceptor;
+import com.example.application.service.SpotifyMarketInterceptor;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ConversionMetricsInterceptor conversionMetricsInterceptor;
+    private final ResultETagInterceptor resultETagInterceptor;
+    private final SpotifyMarketInterceptor spotifyMarketInterceptor;
+
+    public WebConfig(ConversionMetricsInterceptor conversionMetricsInterceptor,
+                     ResultETagInterceptor resultETagInterceptor,
+                     SpotifyMarketInterceptor spotifyMarketInterceptor) {
+        this.conversionMetricsInterceptor = conversionMetricsInterceptor;
+        this.resultETagInterceptor = resultETagInterceptor;
+        this.spotifyMarketInterceptor = spotifyMarketInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // First, so the result ETag key below sees the market.
+        registry.addInterceptor(spotifyMarketInterceptor)
+                .addPathPatterns("/api/links/**", "/api/reactive/links/**", "/api/spotify/search/**");
+        registry.addInterceptor(conversionMetricsInterceptor).addPathPatterns("/api/links/**");
+        // Anonymous, URL-addressed results only; /api/spotify/me/** is per-user and tags itself.
+        registry.addInterceptor(resultETagInterceptor)
+                .addPathPatterns("/api/links/**", "/api/reactive/links/**", "/api/youtube/**", "/api/spotify/search/**");
+    }
+
+    /** Buffers and tags the bodies of the routes {@link ResultETagInterceptor} marks. */
+    @Bean
+    public FilterRegistrationBean<ResultETagFilter> resultETagFilter(ResultETags resultETags) {
+        FilterRegistrationBean<ResultETagFilter> registration = new FilterRegistrationBean<>(new ResultETagFilter(resultETags));
+        registration.addUrlPatterns("/api/links/*", "/api/reactive/links/*", "/api/youtube/*", "/api/spotify/search/*");
+        return registration;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -0,0 +1,76 @@
+package com.example.application.controller;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.application.config.ApiProperties;
+import com.example.application.exception.InvalidLinkException;
+import com.example.application.exception.UpstreamServiceException;
+import com.example.application.model.response.SpotifyResponse;
+import com.example.application.model.response.YoutubeResponse;
+import com.example.application.service.LinkProcessorService;
+import com.example.application.service.SpotifyMarkets;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * The conversion endpoints of {@link LinkProcessingController} served by the non-blocking
+ * WebClient pipeline. Spring MVC subscribes to the returned {@code Mono} and completes the
+ * request asynchronously, so no servlet thread waits on upstream I/O. The request's Spotify
+ * market travels in the Reactor context, since the pipeline leaves the request thread.
+ */
+@RestController
+@RequestMapping("/api/reactive/links")
+public class ReactiveLinkProcessingController {
+
+    private static final int MAX_BATCH_INPUTS = 50;
+
+    private final LinkProcessorService linkProcessorService;
+    private final SpotifyMarkets spotifyMarkets;
+    private final Duration conversionTimeout;
+    private final int maxConcurrency;
+
+    public ReactiveLinkProcessingController(LinkProcessorService linkProcessorService, ApiProperties apiProperties,
+                                             SpotifyMarkets spotifyMarkets) {
+        this.linkProcessorService = linkProcessorService;
+        this.spotifyMarkets = spotifyMarkets;
+        this.conversionTimeout = apiProperties.getReactive().getConversionTimeout();
+        this.maxConcurrency = apiProperties.getReactive().getMaxConcurrency();
+    }
+
+    @GetMapping("/youtube-to-spotify-tracks")
+    public Mono<List<SpotifyResponse>> findSpotifyTracks(@RequestParam String youtubeUrl) {
+        return withDeadline(linkProcessorService.processYoutubeInputReactive(youtubeUrl));
+    }
+
+    @GetMapping("/spotify-to-youtube")
+    public Mono<List<YoutubeResponse>> findYoutubeTracks(@RequestParam String spotifyUrl) {
+        return withDeadline(linkProcessorService.processSpotifyInputReactive(spotifyUrl));
+    }
+
+    /**
+     * Converts up to 50 YouTube links or keyword queries, api.reactive.max-concurrency at a time.
+     */
+    @GetMapping("/youtube-to-spotify-batch")
+    public Mono<Map<String, List<SpotifyResponse>>> findSpotifyTracksBatch(@RequestParam List<String> youtubeUrls) {
+        if (youtubeUrls.size() > MAX_BATCH_INPUTS) {
+            throw new InvalidLinkException("At most " + MAX_BATCH_INPUTS + " links per batch");
+        }
+        return withDeadline(linkProcessorService.processYoutubeInputsReactive(youtubeUrls, maxConcurrency));
+    }
+
+    private <T> Mono<T> withDeadline(Mono<T> conversion) {
+        return conversion
+                .timeout(conversionTimeout)
+                .onErrorMap(TimeoutException.class,
+                        error -> new UpstreamServiceException("Conversion timed out after " + conversionTimeout, error))
+                .contextWrite(spotifyMarkets.context());
+    }
+}
@@ -1,42 +1,52 @@
 package com.example.application.controller;
 
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientResponseException;
 
-import com.example.application.config.ApiProperties;
+import com.example.application.cache.ResultETags;
+import com.example.application.index.IdCodec;
 import com.example.application.model.response.SpotifyResponse;
+import com.example.application.model.response.TrackSaveOutcome;
+import com.example.application.service.SavedTrackStatusCache;
+import com.example.application.service.SpotifyLibraryService;
 import com.example.application.service.SpotifyService;
 import com.example.application.service.SpotifyUserTokenService;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/api/spotify")
 public class SpotifyController {
 
+    /** Five upstream chunks; larger lists would monopolize the shared rate limiter. */
+    private static final int MAX_BULK_TRACK_IDS = 200;
+
     private final SpotifyService spotifyService;
     private final SpotifyUserTokenService userTokenService;
-    private final RestClient spotifyClient;
+    private final SpotifyLibraryService libraryService;
 
     public SpotifyController(SpotifyService spotifyService,
                              SpotifyUserTokenService userTokenService,
-                             ApiProperties apiProperties) {
+                             SpotifyLibraryService libraryService) {
         this.spotifyService = spotifyService;
         this.userTokenService = userTokenService;
-        this.spotifyClient = RestClient.builder()
-                .baseUrl(apiProperties.getSpotify().getBaseUrl())
-                .build();
+        this.libraryService = libraryService;
     }
 
     @GetMapping("/search")
@@ -51,8 +61,9 @@ public class SpotifyController {
 
     @GetMapping("/me/tracks/contains")
     public ResponseEntity<Map<String, Object>> containsTracks(@RequestParam List<String> trackIds,
-                                                              HttpSession session) {
-        if (!userTokenService.isLoggedIn(session)) {
+                                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                              HttpServletRequest request) {
+        if (!userTokenService.isLoggedIn(request)) {
             return ResponseEntity.status(401)
                     .body(Map.of("error", "NOT_AUTHENTICATED",
                             "message", "Please log in with Spotify first."));
@@ -60,29 +71,48 @@ public class SpotifyController {
 
         List<String> normalizedTrackIds = trackIds.stream()
                 .filter(trackId -> trackId != null && !trackId.isBlank())
+                .distinct()
                 .toList();
         if (normalizedTrackIds.isEmpty()) {
             return ResponseEntity.ok(Map.of("savedByTrack", Map.of()));
         }
 
-        List<String> normalizedTrackUris = normalizedTrackIds.stream().map(this::toTrackUri).toList();
-        String userToken = userTokenService.getUserAccessToken(session);
+        // Only well-formed IDs this session has no fresh state for go upstream; a malformed one
+        // would get its whole chunk rejected, so it is simply reported as not saved.
+        List<String> validTrackIds = normalizedTrackIds.stream().filter(IdCodec::isSpotifyId).toList();
+        SavedTrackStatusCache statusCache = userTokenService.getSavedTrackStatus(request);
+        Map<String, Boolean> known = statusCache.known(validTrackIds);
+        List<String> unknownTrackIds = validTrackIds.stream()
+                .filter(trackId -> !known.containsKey(trackId))
+                .toList();
 
         try {
-            Boolean[] savedStatuses = callContains(userToken, normalizedTrackIds, normalizedTrackUris);
-            Map<String, Boolean> savedByTrack = new LinkedHashMap<>();
+            if (!unknownTrackIds.isEmpty()) {
+                String userToken = userTokenService.getUserAccessToken(request);
+                Map<String, Boolean> fetched = libraryService.contains(userToken, unknownTrackIds);
+                statusCache.putAll(fetched);
+                known.putAll(fetched);
+            }
 
-            for (int index = 0; index < normalizedTrackIds.size(); index++) {
-                boolean isSaved = savedStatuses != null
-                        && index < savedStatuses.length
-                        && Boolean.TRUE.equals(savedStatuses[index]);
-                savedByTrack.put(normalizedTrackIds.get(index), isSaved);
+            Map<String, Boolean> savedByTrack = new LinkedHashMap<>();
+            for (String trackId : normalizedTrackIds) {
+                savedByTrack.put(trackId, Boolean.TRUE.equals(known.get(trackId)));
             }
 
-            return ResponseEntity.ok(Map.of("savedByTrack", savedByTrack));
+            String eTag = savedStateETag(savedByTrack);
+            if (ResultETags.matches(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(eTag)
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(Map.of("savedByTrack", savedByTrack));
         } catch (RestClientResponseException ex) {
             if (ex.getStatusCode().value() == 401) {
-                userTokenService.clearTokens(session);
+                userTokenService.clearTokens(request);
                 return ResponseEntity.status(401)
                         .body(Map.of("error", "NOT_AUTHENTICATED",
                                 "message", "Spotify session expired. Please log in again."));
@@ -96,22 +126,25 @@ public class SpotifyController {
 
     @PostMapping("/me/tracks")
     public ResponseEntity<Map<String, Object>> saveTrack(@RequestParam String trackId,
-                                                          HttpSession session) {
-        if (!userTokenService.isLoggedIn(session)) {
+                                                          HttpServletRequest request) {
+        if (!IdCodec.isSpotifyId(trackId)) {
+            return invalidTrackId(trackId);
+        }
+        if (!userTokenService.isLoggedIn(request)) {
             return ResponseEntity.status(401)
                     .body(Map.of("error", "NOT_AUTHENTICATED",
                             "message", "Please log in with Spotify first."));
         }
 
-        String userToken = userTokenService.getUserAccessToken(session);
-        String trackUri = toTrackUri(trackId);
+        String userToken = userTokenService.getUserAccessToken(request);
 
         try {
-            saveWithFallback(userToken, trackId, trackUri);
+            libraryService.save(userToken, List.of(trackId));
+            userTokenService.getSavedTrackStatus(request).put(trackId, true);
             return ResponseEntity.ok(Map.of("saved", true, "trackId", trackId));
         } catch (RestClientResponseException ex) {
             if (ex.getStatusCode().value() == 401) {
-                userTokenService.clearTokens(session);
+                userTokenService.clearTokens(request);
                 return ResponseEntity.status(401)
                         .body(Map.of("error", "NOT_AUTHENTICATED",
                                 "message", "Spotify session expired. Please log in again."));
@@ -127,22 +160,25 @@ public class SpotifyController {
 
     @DeleteMapping("/me/tracks")
     public ResponseEntity<Map<String, Object>> unsaveTrack(@RequestParam String trackId,
-                                                            HttpSession session) {
-        if (!userTokenService.isLoggedIn(session)) {
+                                                            HttpServletRequest request) {
+        if (!IdCodec.isSpotifyId(trackId)) {
+            return invalidTrackId(trackId);
+        }
+        if (!userTokenService.isLoggedIn(request)) {
             return ResponseEntity.status(401)
                     .body(Map.of("error", "NOT_AUTHENTICATED",
                             "message", "Please log in with Spotify first."));
         }
 
-        String userToken = userTokenService.getUserAccessToken(session);
-        String trackUri = toTrackUri(trackId);
+        String userToken = userTokenService.getUserAccessToken(request);
 
         try {
-            unsaveWithFallback(userToken, trackId, trackUri);
+            libraryService.unsave(userToken, List.of(trackId));
+            userTokenService.getSavedTrackStatus(request).put(trackId, false);
             return ResponseEntity.ok(Map.of("saved", false, "trackId", trackId));
         } catch (RestClientResponseException ex) {
             if (ex.getStatusCode().value() == 401) {
-                userTokenService.clearTokens(session);
+                userTokenService.clearTokens(request);
                 return ResponseEntity.status(401)
                         .body(Map.of("error", "NOT_AUTHENTICATED",
                                 "message", "Spotify session expired. Please log in again."));
@@ -156,81 +192,90 @@ public class SpotifyController {
         }
     }
 
-    private void saveWithFallback(String userToken, String trackId, String trackUri) {
-        try {
-            spotifyClient.put()
-                    .uri(uriBuilder -> uriBuilder.path("/v1/me/library")
-                            .queryParam("uris", trackUri)
-                            .build())
-                    .header("Authorization", "Bearer " + userToken)
-                    .header("Content-Type", "application/json")
-                    .retrieve()
-                    .toBodilessEntity();
-        } catch (RestClientResponseException endpointEx) {
-            if (endpointEx.getStatusCode().value() != 404) {
-                throw endpointEx;
-            }
-            spotifyClient.put()
-                    .uri(uriBuilder -> uriBuilder.path("/v1/me/tracks")
-                            .queryParam("ids", trackId)
-                            .build())
-                    .header("Authorization", "Bearer " + userToken)
-                    .header("Content-Type", "application/json")
-                    .retrieve()
-                    .toBodilessEntity();
+    @PostMapping("/me/tracks/bulk")
+    public ResponseEntity<Map<String, Object>> saveTracks(@RequestParam List<String> trackIds,
+                                                           HttpServletRequest request) {
+        if (trackIds.size() > MAX_BULK_TRACK_IDS) {
+            return tooManyTrackIds();
+        }
+        if (!userTokenService.isLoggedIn(request)) {
+            return ResponseEntity.status(401)
+                    .body(Map.of("error", "NOT_AUTHENTICATED",
+                            "message", "Please log in with Spotify first."));
         }
+
+        String userToken = userTokenService.getUserAccessToken(request);
+        return bulkResponse(libraryService.saveAll(userToken, trackIds), request);
     }
 
-    private void unsaveWithFallback(String userToken, String trackId, String trackUri) {
-        try {
-            spotifyClient.delete()
-                    .uri(uriBuilder -> uriBuilder.path("/v1/me/library")
-                            .queryParam("uris", trackUri)
-                            .build())
-                    .header("Authorization", "Bearer " + userToken)
-                    .header("Content-Type", "application/json")
-                    .retrieve()
-                    .toBodilessEntity();
-        } catch (RestClientResponseException endpointEx) {
-            if (endpointEx.getStatusCode().value() != 404) {
-                throw endpointEx;
-            }
-            spotifyClient.delete()
-                    .uri(uriBuilder -> uriBuilder.path("/v1/me/tracks")
-                            .queryParam("ids", trackId)
-                            .build())
-                    .header("Authorization", "Bearer " + userToken)
-                    .header("Content-Type", "application/json")
-                    .retrieve()
-                    .toBodilessEntity();
+    @DeleteMapping("/me/tracks/bulk")
+    public ResponseEntity<Map<String, Object>> unsaveTracks(@RequestParam List<String> trackIds,
+                                                             HttpServletRequest request) {
+        if (trackIds.size() > MAX_BULK_TRACK_IDS) {
+            return tooManyTrackIds();
         }
+        if (!userTokenService.isLoggedIn(request)) {
+            return ResponseEntity.status(401)
+                    .body(Map.of("error", "NOT_AUTHENTICATED",
+                            "message", "Please log in with Spotify first."));
+        }
+
+        String userToken = userTokenService.getUserAccessToken(request);
+        return bulkResponse(libraryService.unsaveAll(userToken, trackIds), request);
     }
 
-    private Boolean[] callContains(String userToken, List<String> trackIds, List<String> trackUris) {
-        try {
-            return spotifyClient.get()
-                    .uri(uriBuilder -> uriBuilder.path("/v1/me/library/contains")
-                            .queryParam("uris", String.join(",", trackUris))
-                            .build())
-                    .header("Authorization", "Bearer " + userToken)
-                    .retrieve()
-                    .body(Boolean[].class);
-        } catch (RestClientResponseException endpointEx) {
-            if (endpointEx.getStatusCode().value() != 404) {
-                throw endpointEx;
+    private static ResponseEntity<Map<String, Object>> invalidTrackId(String trackId) {
+        return ResponseEntity.status(400)
+                .body(Map.of("error", "INVALID_TRACK_ID",
+                        "message", "Not a Spotify track ID: " + trackId));
+    }
+
+    private static ResponseEntity<Map<String, Object>> tooManyTrackIds() {
+        return ResponseEntity.status(400)
+                .body(Map.of("error", "TOO_MANY_TRACKS",
+                        "message", "At most " + MAX_BULK_TRACK_IDS + " track IDs per request"));
+    }
+
+    /**
+     * Records every outcome in the status cache before answering, so chunks that went through are
+     * remembered and reported even when another chunk found the session expired.
+     */
+    private ResponseEntity<Map<String, Object>> bulkResponse(List<TrackSaveOutcome> outcomes, HttpServletRequest request) {
+        SavedTrackStatusCache statusCache = userTokenService.getSavedTrackStatus(request);
+        for (TrackSaveOutcome outcome : outcomes) {
+            if (outcome.isSuccess()) {
+                statusCache.put(outcome.getTrackId(), outcome.getSaved());
+            } else {
+                statusCache.remove(outcome.getTrackId());
             }
-            return spotifyClient.get()
-                    .uri(uriBuilder -> uriBuilder.path("/v1/me/tracks/contains")
-                            .queryParam("ids", String.join(",", trackIds))
-                            .build())
-                    .header("Authorization", "Bearer " + userToken)
-                    .retrieve()
-                    .body(Boolean[].class);
         }
+        long succeeded = outcomes.stream().filter(TrackSaveOutcome::isSuccess).count();
+
+        if (outcomes.stream().anyMatch(outcome -> Integer.valueOf(401).equals(outcome.getUpstreamStatus()))) {
+            userTokenService.clearTokens(request);
+            return ResponseEntity.status(401)
+                    .body(Map.of("error", "NOT_AUTHENTICATED",
+                            "message", "Spotify session expired. Please log in again.",
+                            "results", outcomes,
+                            "succeeded", succeeded,
+                            "failed", outcomes.size() - succeeded));
+        }
+        List<TrackSaveOutcome> sent = outcomes.stream().filter(outcome -> outcome.getError() == null).toList();
+        if (!sent.isEmpty()
+                && sent.stream().allMatch(outcome -> Integer.valueOf(403).equals(outcome.getUpstreamStatus()))) {
+            return ResponseEntity.status(403)
+                    .body(Map.of("error", "INSUFFICIENT_SCOPE",
+                            "message", "Spotify authorization is missing required permissions. Please reconnect Spotify."));
+        }
+
+        return ResponseEntity.ok(Map.of("results", outcomes,
+                "succeeded", succeeded,
+                "failed", outcomes.size() - succeeded));
     }
 
-    private String toTrackUri(String trackId) {
-        return "spotify:track:" + trackId;
+    private String savedStateETag(Map<String, Boolean> savedByTrack) {
+        StringBuilder state = new StringBuilder();
+        savedByTrack.forEach((trackId, saved) -> state.append(trackId).append(saved ? '1' : '0').append(';'));
+        return "\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
     }
 }
-
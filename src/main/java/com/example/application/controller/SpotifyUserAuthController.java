@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
@@ -12,6 +13,8 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -21,14 +24,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.util.WebUtils;
 
 import com.example.application.config.SpotifyProperties;
+import com.example.application.config.TokenStoreProperties;
 import com.example.application.model.spotify_dto.SpotifyAuthResponse;
 import com.example.application.service.SpotifyUserTokenService;
 
+import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
 
 /**
  * Handles Spotify OAuth 2.0 Authorization Code Flow for user-level access.
@@ -41,15 +46,19 @@ public class SpotifyUserAuthController {
     private static final String SPOTIFY_AUTHORIZE_URL = "https://accounts.spotify.com/authorize";
     private static final List<String> REQUIRED_SCOPES = List.of("user-library-modify", "user-library-read");
     private static final String REQUIRED_SCOPE        = String.join(" ", REQUIRED_SCOPES);
-    private static final String SESSION_STATE_KEY     = "spotifyOAuthState";
+    private static final String STATE_COOKIE          = "spotifyOAuthState";
+    private static final Duration STATE_COOKIE_TTL    = Duration.ofMinutes(10);
 
     private final SpotifyProperties spotifyProperties;
+    private final TokenStoreProperties tokenStoreProperties;
     private final SpotifyUserTokenService userTokenService;
     private final RestClient restClient;
 
     public SpotifyUserAuthController(SpotifyProperties spotifyProperties,
+                                     TokenStoreProperties tokenStoreProperties,
                                      SpotifyUserTokenService userTokenService) {
         this.spotifyProperties = spotifyProperties;
+        this.tokenStoreProperties = tokenStoreProperties;
         this.userTokenService  = userTokenService;
         this.restClient        = RestClient.builder().build();
     }
@@ -59,8 +68,7 @@ public class SpotifyUserAuthController {
      * Redirects the browser to Spotify's authorization page.
      */
     @GetMapping("/login")
-    public void login(HttpSession session,
-                      HttpServletRequest request,
+    public void login(HttpServletRequest request,
                       HttpServletResponse response) throws IOException {
         if (isLoopbackLocalhost(request.getServerName())) {
             URI requestUri = URI.create(request.getRequestURL().toString());
@@ -75,7 +83,8 @@ public class SpotifyUserAuthController {
         }
 
         String state = UUID.randomUUID().toString().replace("-", "");
-        session.setAttribute(SESSION_STATE_KEY, state);
+        // The state travels in a short-lived cookie so the callback can land on any node.
+        response.addHeader(HttpHeaders.SET_COOKIE, stateCookie(state, STATE_COOKIE_TTL).toString());
 
         String redirectUri = resolveRedirectUri(request);
         String clientId    = spotifyProperties.getClientId();
@@ -92,14 +101,13 @@ public class SpotifyUserAuthController {
 
     /**
      * Handles the Spotify OAuth callback.
-     * Exchanges the authorization code for tokens and stores them in the session.
+     * Exchanges the authorization code for tokens and stores them in the token store.
      */
     @GetMapping("/callback")
     public void callback(@RequestParam(required = false) String code,
                          @RequestParam(required = false) String state,
                          @RequestParam(required = false) String error,
                          HttpServletRequest request,
-                         HttpSession session,
                          HttpServletResponse response) throws IOException {
 
         if (error != null) {
@@ -107,7 +115,8 @@ public class SpotifyUserAuthController {
             return;
         }
 
-        String expectedState = (String) session.getAttribute(SESSION_STATE_KEY);
+        Cookie stateCookie = WebUtils.getCookie(request, STATE_COOKIE);
+        String expectedState = stateCookie != null ? stateCookie.getValue() : null;
         if (expectedState == null || !expectedState.equals(state)) {
             response.sendRedirect("/?spotifyAuthError=state_mismatch");
             return;
@@ -118,7 +127,7 @@ public class SpotifyUserAuthController {
             return;
         }
 
-        session.removeAttribute(SESSION_STATE_KEY);
+        response.addHeader(HttpHeaders.SET_COOKIE, stateCookie("", Duration.ZERO).toString());
 
         String clientId     = spotifyProperties.getClientId();
         String clientSecret = spotifyProperties.getClientSecret();
@@ -153,12 +162,12 @@ public class SpotifyUserAuthController {
                         .collect(Collectors.toSet());
             boolean hasRequiredScopes = REQUIRED_SCOPES.stream().allMatch(grantedScopes::contains);
             if (!hasRequiredScopes) {
-                userTokenService.clearTokens(session);
+                userTokenService.clearTokens(request);
                 response.sendRedirect("/?spotifyAuthError=insufficient_scope");
                 return;
             }
 
-            userTokenService.storeTokens(session, authResponse);
+            userTokenService.storeTokens(request, response, authResponse);
             response.sendRedirect("/?spotifyAuthSuccess=true");
 
         } catch (Exception e) {
@@ -168,15 +177,15 @@ public class SpotifyUserAuthController {
 
     /** Returns whether the current session has a valid Spotify user token. */
     @GetMapping("/status")
-    public ResponseEntity<Map<String, Object>> status(HttpSession session) {
-        boolean loggedIn = userTokenService.isLoggedIn(session);
+    public ResponseEntity<Map<String, Object>> status(HttpServletRequest request) {
+        boolean loggedIn = userTokenService.isLoggedIn(request);
         return ResponseEntity.ok(Map.of("loggedIn", loggedIn));
     }
 
-    /** Clears the user's Spotify auth tokens from the session. */
+    /** Clears the user's Spotify auth tokens from the token store. */
     @PostMapping("/logout")
-    public ResponseEntity<Map<String, Object>> logout(HttpSession session) {
-        userTokenService.clearTokens(session);
+    public ResponseEntity<Map<String, Object>> logout(HttpServletRequest request) {
+        userTokenService.clearTokens(request);
         return ResponseEntity.ok(Map.of("loggedOut", true));
     }
 
@@ -186,6 +195,16 @@ public class SpotifyUserAuthController {
         return URLEncoder.encode(value, StandardCharsets.UTF_8);
     }
 
+    private ResponseCookie stateCookie(String value, Duration maxAge) {
+        return ResponseCookie.from(STATE_COOKIE, value)
+                .httpOnly(true)
+                .secure(tokenStoreProperties.isSecureCookies())
+                .sameSite("Lax")
+                .path("/api/spotify/auth")
+                .maxAge(maxAge)
+                .build();
+    }
+
     private String resolveRedirectUri(HttpServletRequest request) {
         String configuredRedirectUri = spotifyProperties.getRedirectUri();
         if (StringUtils.hasText(configuredRedirectUri)) {
@@ -0,0 +1,40 @@
+package com.example.application.controller;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.application.model.response.Suggestion;
+import com.example.application.service.SuggestionService;
+
+/**
+ * Typeahead for the search box. Kept off /api/links so keystrokes are not counted as conversions.
+ */
+@RestController
+@RequestMapping("/api/suggest")
+public class SuggestionController {
+
+    private final SuggestionService suggestionService;
+
+    public SuggestionController(SuggestionService suggestionService) {
+        this.suggestionService = suggestionService;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> suggest(@RequestParam(name = "q", defaultValue = "") String prefix,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+        List<Suggestion> suggestions = suggestionService.suggest(prefix, limit);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("query", prefix);
+        response.put("suggestions", suggestions);
+        response.put("count", suggestions.size());
+        return ResponseEntity.ok(response);
+    }
+}
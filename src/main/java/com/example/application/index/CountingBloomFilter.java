@@ -0,0 +1,115 @@
+package com.example.application.index;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counting Bloom filter over 64-bit keys: 4-bit counters instead of bits, so a key can be removed
+ * again. Sixteen counters share a long, and the k probe positions come from double hashing the
+ * MurmurHash3-mixed key. A counter that reaches 15 saturates and is never decremented, which can
+ * only leave a false positive behind, never a false negative.
+ * Thread-safe: counters are updated with compare-and-set.
+ */
+public final class CountingBloomFilter {
+
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long SATURATED = 0xF;
+
+    private final AtomicLongArray words;
+    private final int mask;
+    private final int hashes;
+    private final int expectedInsertions;
+    private final AtomicInteger insertions = new AtomicInteger();
+
+    /**
+     * Sizes the filter so that {@code expectedInsertions} keys give at most {@code falsePositiveRate}:
+     * m = -n ln p / (ln 2)^2 counters, rounded up to a power of two, and k = m / n ln 2 probes.
+     */
+    public CountingBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || !(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("Need a positive size and a rate in (0, 1): "
+                    + expectedInsertions + ", " + falsePositiveRate);
+        }
+        double optimal = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        if (optimal > 1 << 30) {
+            throw new IllegalArgumentException("Filter too large: " + expectedInsertions + " keys at " + falsePositiveRate);
+        }
+        int counters = Math.max(COUNTERS_PER_WORD, Integer.highestOneBit((int) Math.ceil(optimal) - 1) << 1);
+        this.words = new AtomicLongArray(counters / COUNTERS_PER_WORD);
+        this.mask = counters - 1;
+        this.hashes = Math.max(1, (int) Math.round((double) counters / expectedInsertions * Math.log(2)));
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    public boolean mightContain(long key) {
+        long hash = OpenAddressing.mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int counter = (h1 + i * h2) & mask;
+            if (counterAt(words.get(counter >>> 4), counter) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void add(long key) {
+        long hash = OpenAddressing.mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int counter = (h1 + i * h2) & mask;
+            long word;
+            do {
+                word = words.get(counter >>> 4);
+            } while (counterAt(word, counter) != SATURATED
+                    && !words.compareAndSet(counter >>> 4, word, word + (1L << shift(counter))));
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * Decrements the key's counters if it might be present. Removing a key that was never added
+     * can hide another key; callers only remove keys they know to be false positives or stale.
+     *
+     * @return whether the key might have been present
+     */
+    public boolean remove(long key) {
+        if (!mightContain(key)) {
+            return false;
+        }
+        long hash = OpenAddressing.mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int counter = (h1 + i * h2) & mask;
+            long word;
+            long count;
+            do {
+                word = words.get(counter >>> 4);
+                count = counterAt(word, counter);
+            } while (count != 0 && count != SATURATED
+                    && !words.compareAndSet(counter >>> 4, word, word - (1L << shift(counter))));
+        }
+        insertions.decrementAndGet();
+        return true;
+    }
+
+    /** Whether the filter holds as many keys as it was sized for; past that the false-positive rate climbs. */
+    public boolean isFull() {
+        return insertions.get() >= expectedInsertions;
+    }
+
+    public int expectedInsertions() {
+        return expectedInsertions;
+    }
+
+    private static long counterAt(long word, int counter) {
+        return (word >>> shift(counter)) & SATURATED;
+    }
+
+    private static int shift(int counter) {
+        return (counter & (COUNTERS_PER_WORD - 1)) << 2;
+    }
+}
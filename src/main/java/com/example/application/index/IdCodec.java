@@ -0,0 +1,145 @@
+package com.example.application.index;
+
+import java.util.Arrays;
+
+/**
+ * Lossless primitive forms of upstream IDs, for indexes that would otherwise hold one String per key.
+ * <p>
+ * A YouTube video ID is 11 base64url characters encoding a 64-bit value: ten characters carry 6 bits
+ * each and the last carries the remaining 4, so its two low bits are always zero. It packs into one
+ * {@code long}. A Spotify ID is a 128-bit value written as 22 base62 digits (0-9, a-z, A-Z) and
+ * packs into two. Strings that are not in those exact forms are rejected rather than truncated.
+ */
+public final class IdCodec {
+
+    public static final int YOUTUBE_ID_LENGTH = 11;
+    public static final int SPOTIFY_ID_LENGTH = 22;
+
+    private static final char[] BASE64URL =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+    private static final char[] BASE62 =
+            "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    private static final byte[] BASE64URL_VALUE = inverse(BASE64URL);
+    private static final byte[] BASE62_VALUE = inverse(BASE62);
+    private static final String MAX_SPOTIFY_ID = decodeSpotify(-1L, -1L);
+
+    private IdCodec() {
+    }
+
+    public static boolean isYoutubeId(String videoId) {
+        if (videoId == null || videoId.length() != YOUTUBE_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < YOUTUBE_ID_LENGTH; i++) {
+            if (digit(BASE64URL_VALUE, videoId.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return (digit(BASE64URL_VALUE, videoId.charAt(YOUTUBE_ID_LENGTH - 1)) & 3) == 0;
+    }
+
+    /** @throws IllegalArgumentException unless {@link #isYoutubeId} holds */
+    public static long encodeYoutube(String videoId) {
+        if (!isYoutubeId(videoId)) {
+            throw new IllegalArgumentException("Not a YouTube video ID: " + videoId);
+        }
+        long packed = 0;
+        for (int i = 0; i < YOUTUBE_ID_LENGTH - 1; i++) {
+            packed = (packed << 6) | BASE64URL_VALUE[videoId.charAt(i)];
+        }
+        return (packed << 4) | (BASE64URL_VALUE[videoId.charAt(YOUTUBE_ID_LENGTH - 1)] >>> 2);
+    }
+
+    public static String decodeYoutube(long packed) {
+        char[] id = new char[YOUTUBE_ID_LENGTH];
+        id[YOUTUBE_ID_LENGTH - 1] = BASE64URL[(int) (packed & 0xF) << 2];
+        packed >>>= 4;
+        for (int i = YOUTUBE_ID_LENGTH - 2; i >= 0; i--) {
+            id[i] = BASE64URL[(int) (packed & 0x3F)];
+            packed >>>= 6;
+        }
+        return new String(id);
+    }
+
+    public static boolean isSpotifyId(String trackId) {
+        if (trackId == null || trackId.length() != SPOTIFY_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < SPOTIFY_ID_LENGTH; i++) {
+            if (digit(BASE62_VALUE, trackId.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        // 62^22 slightly exceeds 2^128; the largest strings are not IDs.
+        return !exceeds128Bits(trackId);
+    }
+
+    /** Upper 64 bits of a Spotify ID. @throws IllegalArgumentException unless {@link #isSpotifyId} holds */
+    public static long spotifyHigh(String trackId) {
+        requireSpotifyId(trackId);
+        return parseSpotify(trackId, true);
+    }
+
+    /** Lower 64 bits of a Spotify ID. @throws IllegalArgumentException unless {@link #isSpotifyId} holds */
+    public static long spotifyLow(String trackId) {
+        requireSpotifyId(trackId);
+        return parseSpotify(trackId, false);
+    }
+
+    public static String decodeSpotify(long high, long low) {
+        char[] id = new char[SPOTIFY_ID_LENGTH];
+        for (int i = SPOTIFY_ID_LENGTH - 1; i >= 0; i--) {
+            // 128-by-62 long division, the low word in two 32-bit halves so nothing overflows.
+            long remainder = Long.remainderUnsigned(high, 62);
+            high = Long.divideUnsigned(high, 62);
+            long upper = (remainder << 32) | (low >>> 32);
+            long lower = ((upper % 62) << 32) | (low & 0xFFFFFFFFL);
+            low = ((upper / 62) << 32) | (lower / 62);
+            id[i] = BASE62[(int) (lower % 62)];
+        }
+        return new String(id);
+    }
+
+    private static void requireSpotifyId(String trackId) {
+        if (!isSpotifyId(trackId)) {
+            throw new IllegalArgumentException("Not a Spotify ID: " + trackId);
+        }
+    }
+
+    /** Digit-wise comparison with the largest 128-bit value; every candidate has 22 digits. */
+    private static boolean exceeds128Bits(String trackId) {
+        for (int i = 0; i < SPOTIFY_ID_LENGTH; i++) {
+            int digit = BASE62_VALUE[trackId.charAt(i)];
+            int max = BASE62_VALUE[MAX_SPOTIFY_ID.charAt(i)];
+            if (digit != max) {
+                return digit > max;
+            }
+        }
+        return false;
+    }
+
+    private static long parseSpotify(String trackId, boolean wantHigh) {
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < SPOTIFY_ID_LENGTH; i++) {
+            long carry = Math.unsignedMultiplyHigh(low, 62);
+            long shifted = low * 62;
+            low = shifted + BASE62_VALUE[trackId.charAt(i)];
+            high = high * 62 + carry + (Long.compareUnsigned(low, shifted) < 0 ? 1 : 0);
+        }
+        return wantHigh ? high : low;
+    }
+
+    private static int digit(byte[] values, char c) {
+        return c < values.length ? values[c] : -1;
+    }
+
+    private static byte[] inverse(char[] alphabet) {
+        byte[] values = new byte[128];
+        Arrays.fill(values, (byte) -1);
+        for (int i = 0; i < alphabet.length; i++) {
+            values[alphabet[i]] = (byte) i;
+        }
+        return values;
+    }
+}
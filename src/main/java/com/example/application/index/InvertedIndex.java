@@ -0,0 +1,470 @@
+package com.example.application.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Embedded full-text index of small documents (an ID, the text to match, and an opaque stored
+ * payload) ranked with BM25, kept as immutable segment files in one directory.
+ *
+ * Added documents collect in an in-memory buffer that is not searchable until {@link #flush}
+ * writes it as a new segment: [magic:4][format:4][docCount:4][termCount:4], then per document
+ * [id][length:4][payloadLength:4][payload], then per term, in sorted order, [term][pairs:4] and
+ * the (document, term frequency) pairs. Files are written to a temp name and atomically renamed,
+ * so a crash leaves either the old set of segments or the new one. {@link #merge} folds the
+ * smallest segments together to keep their number bounded. Segments are loaded fully into the heap
+ * and published as an immutable list, so searches take no lock; writers are synchronized.
+ *
+ * Every search also reports coverage: the IDF-weighted share of the query's terms a document
+ * contains, from 0 to 1. Unlike the BM25 score it is comparable across queries, so callers can use
+ * it as a confidence threshold. Terms the index has never seen count against coverage at full weight.
+ */
+public final class InvertedIndex implements Closeable {
+
+    private static final int MAGIC = 0x59544949; // "YTII"
+    private static final int FORMAT = 1;
+    private static final String FILE_PREFIX = "segment-";
+    private static final String FILE_SUFFIX = ".seg";
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    /** One search result. */
+    public record Hit(String id, byte[] payload, float score, float coverage) {
+    }
+
+    /** An immutable segment; postings hold (document, term frequency) pairs, documents ascending. */
+    private record Segment(long generation, String[] ids, int[] lengths, byte[][] payloads,
+                           Map<String, int[]> postings, long totalLength) {
+
+        int size() {
+            return ids.length;
+        }
+    }
+
+    private final Path directory;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final Set<String> ids = ConcurrentHashMap.newKeySet();
+    private volatile List<Segment> segments;
+    private final Map<String, Buffered> buffer = new LinkedHashMap<>();
+    private long nextGeneration;
+
+    private record Buffered(String text, byte[] payload) {
+    }
+
+    private InvertedIndex(Path directory, FileChannel lockChannel, FileLock lock, List<Segment> segments) {
+        this.directory = directory;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+        this.segments = segments;
+        for (Segment segment : segments) {
+            ids.addAll(Arrays.asList(segment.ids()));
+            nextGeneration = Math.max(nextGeneration, segment.generation() + 1);
+        }
+    }
+
+    /** Loads every segment in {@code directory}, creating it if needed. */
+    public static InvertedIndex open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel lockChannel = FileChannel.open(directory.resolve("index.lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Index " + directory + " is already open");
+        }
+        try {
+            List<Segment> segments = new ArrayList<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(FILE_SUFFIX)) {
+                        segments.add(read(file, Long.parseLong(name, FILE_PREFIX.length(),
+                                name.length() - FILE_SUFFIX.length(), 10)));
+                    } else {
+                        Files.deleteIfExists(file); // a segment write that never finished
+                    }
+                }
+            }
+            segments.sort(Comparator.comparingLong(Segment::generation));
+            return new InvertedIndex(directory, lockChannel, lock, List.copyOf(segments));
+        } catch (IOException | RuntimeException e) {
+            lock.release();
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    /** Whether the ID is indexed or waiting in the buffer. Lock-free. */
+    public boolean contains(String id) {
+        return ids.contains(id);
+    }
+
+    /** Buffers a document; it becomes searchable on the next {@link #flush}. A known ID is ignored. */
+    public synchronized boolean add(String id, String text, byte[] payload) {
+        if (!ids.add(id)) {
+            return false;
+        }
+        buffer.put(id, new Buffered(text, payload));
+        return true;
+    }
+
+    public synchronized int buffered() {
+        return buffer.size();
+    }
+
+    /** Documents in searchable segments. */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /** Writes the buffered documents as a new segment and makes them searchable. Returns how many. */
+    public synchronized int flush() throws IOException {
+        if (buffer.isEmpty()) {
+            return 0;
+        }
+        int count = buffer.size();
+        String[] docIds = new String[count];
+        int[] lengths = new int[count];
+        byte[][] payloads = new byte[count][];
+        Map<String, IntList> postings = new HashMap<>();
+        long totalLength = 0;
+        int doc = 0;
+        for (Map.Entry<String, Buffered> entry : buffer.entrySet()) {
+            docIds[doc] = entry.getKey();
+            payloads[doc] = entry.getValue().payload();
+            List<String> terms = TextAnalyzer.terms(entry.getValue().text());
+            lengths[doc] = terms.size();
+            totalLength += terms.size();
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (String term : terms) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+            for (Map.Entry<String, Integer> frequency : frequencies.entrySet()) {
+                postings.computeIfAbsent(frequency.getKey(), k -> new IntList()).add(doc, frequency.getValue());
+            }
+            doc++;
+        }
+        Segment segment = new Segment(nextGeneration++, docIds, lengths, payloads, toArrays(postings), totalLength);
+        write(segment);
+        List<Segment> published = new ArrayList<>(segments);
+        published.add(segment);
+        segments = List.copyOf(published);
+        buffer.clear();
+        return count;
+    }
+
+    /**
+     * Merges the smallest segments into one until at most {@code maxSegments} remain, then deletes
+     * the merged files. Returns the number of segments merged away.
+     */
+    public synchronized int merge(int maxSegments) throws IOException {
+        List<Segment> current = segments;
+        if (current.size() <= Math.max(1, maxSegments)) {
+            return 0;
+        }
+        // Merge enough of the smallest segments that the result brings the count to maxSegments
+        List<Segment> bySize = new ArrayList<>(current);
+        bySize.sort(Comparator.comparingInt(Segment::size));
+        List<Segment> merging = bySize.subList(0, current.size() - Math.max(1, maxSegments) + 1);
+        merging.sort(Comparator.comparingLong(Segment::generation));
+
+        Map<String, Integer> newest = new HashMap<>();
+        for (int s = 0; s < merging.size(); s++) {
+            for (String id : merging.get(s).ids()) {
+                newest.put(id, s);
+            }
+        }
+        List<String> docIds = new ArrayList<>();
+        List<byte[]> payloads = new ArrayList<>();
+        IntList lengths = new IntList();
+        Map<String, IntList> postings = new TreeMap<>();
+        long totalLength = 0;
+        for (int s = 0; s < merging.size(); s++) {
+            Segment segment = merging.get(s);
+            int[] remap = new int[segment.size()];
+            for (int doc = 0; doc < segment.size(); doc++) {
+                if (newest.get(segment.ids()[doc]) != s) {
+                    remap[doc] = -1;
+                    continue;
+                }
+                remap[doc] = docIds.size();
+                docIds.add(segment.ids()[doc]);
+                payloads.add(segment.payloads()[doc]);
+                lengths.add(segment.lengths()[doc]);
+                totalLength += segment.lengths()[doc];
+            }
+            for (Map.Entry<String, int[]> entry : segment.postings().entrySet()) {
+                int[] pairs = entry.getValue();
+                IntList merged = postings.computeIfAbsent(entry.getKey(), k -> new IntList());
+                for (int p = 0; p < pairs.length; p += 2) {
+                    if (remap[pairs[p]] >= 0) {
+                        merged.add(remap[pairs[p]], pairs[p + 1]);
+                    }
+                }
+            }
+        }
+        Segment merged = new Segment(nextGeneration++, docIds.toArray(String[]::new), lengths.toArray(),
+                payloads.toArray(byte[][]::new), toArrays(postings), totalLength);
+        write(merged);
+
+        Set<Long> replaced = new HashSet<>();
+        merging.forEach(segment -> replaced.add(segment.generation()));
+        List<Segment> published = new ArrayList<>(current.size());
+        for (Segment segment : current) {
+            if (!replaced.contains(segment.generation())) {
+                published.add(segment);
+            }
+        }
+        published.add(merged);
+        published.sort(Comparator.comparingLong(Segment::generation));
+        segments = List.copyOf(published);
+        for (Segment segment : merging) {
+            Files.deleteIfExists(file(segment.generation()));
+        }
+        return merging.size();
+    }
+
+    /**
+     * The best {@code limit} documents for the query by BM25, among those with at least
+     * {@code minCoverage} of the query's terms by IDF weight. Lock-free.
+     */
+    public List<Hit> search(String query, int limit, float minCoverage) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.terms(query)));
+        List<Segment> current = segments;
+        if (terms.isEmpty() || current.isEmpty()) {
+            return List.of();
+        }
+        long documents = 0;
+        long totalLength = 0;
+        for (Segment segment : current) {
+            documents += segment.size();
+            totalLength += segment.totalLength();
+        }
+        float averageLength = documents == 0 ? 1 : (float) totalLength / documents;
+        float[] idf = new float[terms.size()];
+        float idfSum = 0;
+        for (int t = 0; t < terms.size(); t++) {
+            int df = 0;
+            for (Segment segment : current) {
+                int[] pairs = segment.postings().get(terms.get(t));
+                df += pairs == null ? 0 : pairs.length / 2;
+            }
+            idf[t] = (float) Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+            idfSum += idf[t];
+        }
+
+        // Rarest terms first: once the terms left could not lift a document that has none of the
+        // earlier ones to minCoverage, the rest, the long common postings, are only probed for
+        // documents already found instead of scanned.
+        Integer[] order = new Integer[terms.size()];
+        for (int t = 0; t < order.length; t++) {
+            order[t] = t;
+        }
+        Arrays.sort(order, (x, y) -> Float.compare(idf[y], idf[x]));
+        float[] remaining = new float[order.length + 1];
+        for (int k = order.length - 1; k >= 0; k--) {
+            remaining[k] = remaining[k + 1] + idf[order[k]];
+        }
+        float required = minCoverage * idfSum * (1 - 1e-6f);
+
+        Map<String, Hit> best = new HashMap<>();
+        for (int s = current.size() - 1; s >= 0; s--) {
+            Segment segment = current.get(s);
+            Map<Integer, float[]> scores = new HashMap<>();
+            for (int k = 0; k < order.length; k++) {
+                int t = order[k];
+                int[] pairs = segment.postings().get(terms.get(t));
+                if (pairs == null) {
+                    continue;
+                }
+                if (remaining[k] >= required) {
+                    for (int p = 0; p < pairs.length; p += 2) {
+                        accumulate(scores.computeIfAbsent(pairs[p], d -> new float[2]), segment, pairs[p],
+                                pairs[p + 1], idf[t], averageLength);
+                    }
+                } else {
+                    for (Map.Entry<Integer, float[]> candidate : scores.entrySet()) {
+                        int p = find(pairs, candidate.getKey());
+                        if (p >= 0) {
+                            accumulate(candidate.getValue(), segment, pairs[p], pairs[p + 1], idf[t], averageLength);
+                        }
+                    }
+                }
+            }
+            for (Map.Entry<Integer, float[]> entry : scores.entrySet()) {
+                float coverage = idfSum == 0 ? 0 : entry.getValue()[1] / idfSum;
+                String id = segment.ids()[entry.getKey()];
+                // Newer segments are visited first and win for an ID indexed twice
+                if (coverage >= minCoverage && !best.containsKey(id)) {
+                    best.put(id, new Hit(id, segment.payloads()[entry.getKey()], entry.getValue()[0], coverage));
+                }
+            }
+        }
+        List<Hit> hits = new ArrayList<>(best.values());
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    /** Adds one term's BM25 contribution and IDF to a document's {score, matched IDF}. */
+    private static void accumulate(float[] score, Segment segment, int doc, int tf, float idf, float averageLength) {
+        float norm = K1 * (1 - B + B * segment.lengths()[doc] / averageLength);
+        score[0] += idf * tf * (K1 + 1) / (tf + norm);
+        score[1] += idf;
+    }
+
+    /** Index of the document's pair in postings sorted by document, or -1. */
+    private static int find(int[] pairs, int doc) {
+        int low = 0;
+        int high = pairs.length / 2 - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = pairs[mid * 2];
+            if (value < doc) {
+                low = mid + 1;
+            } else if (value > doc) {
+                high = mid - 1;
+            } else {
+                return mid * 2;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        lock.release();
+        lockChannel.close();
+    }
+
+    private Path file(long generation) {
+        return directory.resolve(String.format("%s%010d%s", FILE_PREFIX, generation, FILE_SUFFIX));
+    }
+
+    private void write(Segment segment) throws IOException {
+        Path target = file(segment.generation());
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeInt(segment.size());
+            out.writeInt(segment.postings().size());
+            for (int doc = 0; doc < segment.size(); doc++) {
+                out.writeUTF(segment.ids()[doc]);
+                out.writeInt(segment.lengths()[doc]);
+                out.writeInt(segment.payloads()[doc].length);
+                out.write(segment.payloads()[doc]);
+            }
+            for (Map.Entry<String, int[]> entry : new TreeMap<>(segment.postings()).entrySet()) {
+                out.writeUTF(entry.getKey());
+                int[] pairs = entry.getValue();
+                out.writeInt(pairs.length);
+                for (int pair : pairs) {
+                    out.writeInt(pair);
+                }
+            }
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static Segment read(Path file, long generation) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT) {
+                throw new IOException("Not an index segment of this format: " + file);
+            }
+            int count = in.readInt();
+            int termCount = in.readInt();
+            String[] ids = new String[count];
+            int[] lengths = new int[count];
+            byte[][] payloads = new byte[count][];
+            long totalLength = 0;
+            for (int doc = 0; doc < count; doc++) {
+                ids[doc] = in.readUTF();
+                lengths[doc] = in.readInt();
+                totalLength += lengths[doc];
+                payloads[doc] = in.readNBytes(in.readInt());
+            }
+            Map<String, int[]> postings = new HashMap<>(termCount * 4 / 3 + 1);
+            for (int t = 0; t < termCount; t++) {
+                String term = in.readUTF();
+                int[] pairs = new int[in.readInt()];
+                for (int p = 0; p < pairs.length; p++) {
+                    pairs[p] = in.readInt();
+                }
+                postings.put(term, pairs);
+            }
+            return new Segment(generation, ids, lengths, payloads, postings, totalLength);
+        }
+    }
+
+    private static Map<String, int[]> toArrays(Map<String, IntList> postings) {
+        Map<String, int[]> arrays = new HashMap<>(postings.size() * 4 / 3 + 1);
+        postings.forEach((term, pairs) -> arrays.put(term, pairs.toArray()));
+        return arrays;
+    }
+
+    /** Growable int[], for building postings without boxing. */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void add(int first, int second) {
+            add(first);
+            add(second);
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package com.example.application.index;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Off-heap, memory-mapped match index from a packed YouTube video ID to a packed Spotify track ID,
+ * with the match confidence and when it was made. Nothing is held on the Java heap per entry, so
+ * tens of millions of matches add no GC work, and reopening a store maps its file without a load phase.
+ *
+ * A generation is one file: a 64-byte header, a power-of-two table of 8-byte slots, and an
+ * append-only log of 32-byte records [video:8][trackHigh:8][trackLow:8][confidence:4][matchedAt:4].
+ * A slot holds its record's index plus one, zero meaning empty; slots are probed linearly from
+ * {@link OpenAddressing#slot(long, int)}. Records are never modified after they are published, and
+ * replacing a match appends a record and swings the slot to it with a single release store, so
+ * readers are lock-free and never see a torn entry.
+ *
+ * There is one writer at a time ({@link #put} and {@link #compact} are synchronized). When the log
+ * is full, or on {@link #compact}, the live records are copied into the next generation's file,
+ * which is renamed into place before readers switch to it; readers still on the old mapping finish
+ * undisturbed. Entries are replaced, never removed.
+ * Mapped writes survive a process crash; only {@link #flush} makes them survive an OS crash.
+ */
+public final class MappedMatchStore implements Closeable {
+
+    /** Mutable lookup result, so hot lookups allocate nothing; reuse one per thread. */
+    public static final class Match {
+        private long trackHigh;
+        private long trackLow;
+        private float confidence;
+        private long matchedAtEpochSecond;
+
+        public long trackHigh() {
+            return trackHigh;
+        }
+
+        public long trackLow() {
+            return trackLow;
+        }
+
+        public float confidence() {
+            return confidence;
+        }
+
+        public long matchedAtEpochSecond() {
+            return matchedAtEpochSecond;
+        }
+    }
+
+    private static final int MAGIC = 0x59544D49; // "YTMI"
+    private static final int FILE_FORMAT = 1;
+    private static final String FILE_PREFIX = "matches-";
+    private static final String FILE_SUFFIX = ".store";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final int HEADER_BYTES = 64;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int MAX_RECORDS_OFFSET = 12;
+    private static final int RECORD_COUNT_OFFSET = 16;
+    private static final int LIVE_COUNT_OFFSET = 24;
+    private static final int SLOT_BYTES = 8;
+    private static final int RECORD_BYTES = 32;
+
+    /** Files are mapped in 1 GB chunks; every field is aligned, so none straddles two chunks. */
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    private static final VarHandle LONG =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Path directory;
+    private final int expectedEntries;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private volatile Generation generation;
+
+    private MappedMatchStore(Path directory, int expectedEntries, FileChannel lockChannel, FileLock lock,
+                             Generation generation) {
+        this.directory = directory;
+        this.expectedEntries = expectedEntries;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+        this.generation = generation;
+    }
+
+    /**
+     * Maps the newest generation in {@code directory}, or creates one sized for {@code expectedEntries}.
+     * Leftovers of an interrupted compaction and superseded generations are deleted.
+     *
+     * @throws IOException if the directory is locked by another store or holds an unreadable file
+     */
+    public static MappedMatchStore open(Path directory, int expectedEntries) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel lockChannel = FileChannel.open(directory.resolve("matches.lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Match store " + directory + " is already open");
+        }
+        try {
+            long newest = 0;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+                for (Path file : files) {
+                    long number = generationNumber(file);
+                    if (number > newest) {
+                        newest = number;
+                    }
+                }
+            }
+            Generation generation = newest > 0
+                    ? Generation.map(directory.resolve(fileName(newest)), newest)
+                    : Generation.create(directory.resolve(fileName(1)), 1, OpenAddressing.capacityFor(expectedEntries));
+            deleteOtherFiles(directory, generation.number);
+            return new MappedMatchStore(directory, expectedEntries, lockChannel, lock, generation);
+        } catch (IOException | RuntimeException e) {
+            lock.release();
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Copies the match for {@code videoKey} into {@code into}. Lock-free and allocation-free.
+     *
+     * @return whether the video has a match; into is untouched if not
+     */
+    public boolean get(long videoKey, Match into) {
+        Generation current = current();
+        long record = current.find(videoKey);
+        if (record < 0) {
+            return false;
+        }
+        long offset = current.recordOffset(record);
+        into.trackHigh = current.getLong(offset + 8);
+        into.trackLow = current.getLong(offset + 16);
+        long tail = current.getLong(offset + 24);
+        into.confidence = Float.intBitsToFloat((int) tail);
+        into.matchedAtEpochSecond = tail >>> 32;
+        return true;
+    }
+
+    public boolean containsKey(long videoKey) {
+        return current().find(videoKey) >= 0;
+    }
+
+    /**
+     * Maps {@code videoKey} to the track, replacing any earlier match. May compact or grow the store
+     * into a new generation first when the current log is full.
+     *
+     * @param matchedAtEpochSecond seconds since the epoch, up to 2106
+     */
+    public synchronized void put(long videoKey, long trackHigh, long trackLow, float confidence,
+                                 long matchedAtEpochSecond) throws IOException {
+        if (matchedAtEpochSecond < 0 || matchedAtEpochSecond > 0xFFFFFFFFL) {
+            throw new IllegalArgumentException("Match time out of range: " + matchedAtEpochSecond);
+        }
+        Generation current = current();
+        if (current.recordCount() == current.maxRecords) {
+            current = rebuild(current, (int) Math.min(Integer.MAX_VALUE / 2, current.liveCount()) * 2);
+        }
+        long record = current.recordCount();
+        long offset = current.recordOffset(record);
+        current.putLong(offset, videoKey);
+        current.putLong(offset + 8, trackHigh);
+        current.putLong(offset + 16, trackLow);
+        current.putLong(offset + 24, (matchedAtEpochSecond << 32) | (Float.floatToIntBits(confidence) & 0xFFFFFFFFL));
+        current.setLongRelease(RECORD_COUNT_OFFSET, record + 1);
+        if (current.link(videoKey, record)) {
+            current.setLongRelease(LIVE_COUNT_OFFSET, current.liveCount() + 1);
+        }
+    }
+
+    /** Distinct videos with a match. */
+    public long size() {
+        return current().liveCount();
+    }
+
+    /** Superseded records that the next compaction drops. */
+    public long garbage() {
+        Generation current = current();
+        return current.recordCount() - current.liveCount();
+    }
+
+    /** Rewrites the live records into a new generation with room for as many again. */
+    public synchronized void compact() throws IOException {
+        Generation current = current();
+        rebuild(current, (int) Math.min(Integer.MAX_VALUE / 2, Math.max(current.liveCount(), expectedEntries / 2)) * 2);
+    }
+
+    /** Forces mapped writes to the storage device. */
+    public synchronized void flush() {
+        current().force();
+    }
+
+    /**
+     * Flushes and releases the directory. Readers already inside a lookup finish on the old mapping;
+     * later calls throw {@link IllegalStateException}.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        Generation current = generation;
+        if (current == null) {
+            return;
+        }
+        current.force();
+        generation = null;
+        lock.release();
+        lockChannel.close();
+    }
+
+    private Generation current() {
+        Generation current = generation;
+        if (current == null) {
+            throw new IllegalStateException("Match store " + directory + " is closed");
+        }
+        return current;
+    }
+
+    private Generation rebuild(Generation from, int entries) throws IOException {
+        long number = from.number + 1;
+        Path target = directory.resolve(fileName(number));
+        Path temp = directory.resolve(fileName(number) + TEMP_SUFFIX);
+        Generation to = Generation.create(temp, number, OpenAddressing.capacityFor(Math.max(entries, 1)));
+        long copied = 0;
+        for (int slot = 0; slot < from.capacity; slot++) {
+            long ref = from.getLong(slotOffset(slot));
+            if (ref == 0) {
+                continue;
+            }
+            long source = from.recordOffset(ref - 1);
+            long destination = to.recordOffset(copied);
+            for (int field = 0; field < RECORD_BYTES; field += 8) {
+                to.putLong(destination + field, from.getLong(source + field));
+            }
+            to.link(from.getLong(source), copied++);
+        }
+        to.setLongRelease(RECORD_COUNT_OFFSET, copied);
+        to.setLongRelease(LIVE_COUNT_OFFSET, copied);
+        to.force();
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        generation = to;
+        // Open mappings stay valid after the file is unlinked; where that is refused, open() retries.
+        try {
+            Files.deleteIfExists(directory.resolve(fileName(from.number)));
+        } catch (IOException e) {
+            // Left for the next open() to delete.
+        }
+        return to;
+    }
+
+    private static long slotOffset(int slot) {
+        return HEADER_BYTES + (long) slot * SLOT_BYTES;
+    }
+
+    private static String fileName(long number) {
+        return FILE_PREFIX + String.format("%010d", number) + FILE_SUFFIX;
+    }
+
+    /** @return the generation number of a complete generation file, or 0 for anything else */
+    private static long generationNumber(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(FILE_SUFFIX)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(name, FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length(), 10);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteOtherFiles(Path directory, long keep) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                if (generationNumber(file) != keep) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static final class Generation {
+        final long number;
+        final int capacity;
+        final int mask;
+        final long maxRecords;
+        final long recordsOffset;
+        private final MappedByteBuffer[] chunks;
+
+        private Generation(long number, MappedByteBuffer[] chunks) {
+            this.number = number;
+            this.chunks = chunks;
+            this.capacity = chunks[0].getInt(CAPACITY_OFFSET);
+            this.maxRecords = Integer.toUnsignedLong(chunks[0].getInt(MAX_RECORDS_OFFSET));
+            this.mask = capacity - 1;
+            this.recordsOffset = slotOffset(capacity);
+        }
+
+        static Generation create(Path path, long number, int capacity) throws IOException {
+            long maxRecords = OpenAddressing.maxFill(capacity);
+            Files.deleteIfExists(path);
+            MappedByteBuffer[] chunks = mapChunks(path, slotOffset(capacity) + maxRecords * RECORD_BYTES, true);
+            MappedByteBuffer header = chunks[0];
+            header.putInt(0, MAGIC);
+            header.putInt(4, FILE_FORMAT);
+            header.putInt(CAPACITY_OFFSET, capacity);
+            header.putInt(MAX_RECORDS_OFFSET, (int) maxRecords);
+            return new Generation(number, chunks);
+        }
+
+        static Generation map(Path path, long number) throws IOException {
+            long size = Files.size(path);
+            if (size < HEADER_BYTES) {
+                throw new IOException("Truncated match store " + path);
+            }
+            MappedByteBuffer[] chunks = mapChunks(path, size, false);
+            MappedByteBuffer header = chunks[0];
+            int capacity = header.getInt(CAPACITY_OFFSET);
+            long maxRecords = Integer.toUnsignedLong(header.getInt(MAX_RECORDS_OFFSET));
+            if (header.getInt(0) != MAGIC || header.getInt(4) != FILE_FORMAT
+                    || capacity < OpenAddressing.MIN_CAPACITY || Integer.bitCount(capacity) != 1
+                    || maxRecords > OpenAddressing.maxFill(capacity)
+                    || size < slotOffset(capacity) + maxRecords * RECORD_BYTES) {
+                throw new IOException("Unrecognised match store file " + path);
+            }
+            return new Generation(number, chunks);
+        }
+
+        private static MappedByteBuffer[] mapChunks(Path path, long size, boolean create) throws IOException {
+            MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT)];
+            try (FileChannel channel = create
+                    ? FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                    : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                for (int i = 0; i < chunks.length; i++) {
+                    long start = (long) i << CHUNK_SHIFT;
+                    chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.min(size - start, 1L << CHUNK_SHIFT));
+                    chunks[i].order(ByteOrder.LITTLE_ENDIAN);
+                }
+            }
+            return chunks;
+        }
+
+        /** @return the record index holding key, or -1 */
+        long find(long key) {
+            for (int slot = OpenAddressing.slot(key, mask); ; slot = (slot + 1) & mask) {
+                long ref = getLongAcquire(slotOffset(slot));
+                if (ref == 0) {
+                    return -1;
+                }
+                // A slot persisted without its record (OS crash before flush) is skipped, never followed.
+                if (ref <= maxRecords && getLong(recordOffset(ref - 1)) == key) {
+                    return ref - 1;
+                }
+            }
+        }
+
+        /**
+         * Points key's slot at {@code record}, which must already be written. Writer only.
+         *
+         * @return whether the key was new to this generation
+         */
+        boolean link(long key, long record) {
+            for (int slot = OpenAddressing.slot(key, mask); ; slot = (slot + 1) & mask) {
+                long offset = slotOffset(slot);
+                long ref = getLong(offset);
+                if (ref == 0 || getLong(recordOffset(ref - 1)) == key) {
+                    setLongRelease(offset, record + 1);
+                    return ref == 0;
+                }
+            }
+        }
+
+        long recordOffset(long record) {
+            return recordsOffset + record * RECORD_BYTES;
+        }
+
+        long recordCount() {
+            return getLongAcquire(RECORD_COUNT_OFFSET);
+        }
+
+        long liveCount() {
+            return getLongAcquire(LIVE_COUNT_OFFSET);
+        }
+
+        long getLong(long offset) {
+            return chunks[(int) (offset >>> CHUNK_SHIFT)].getLong((int) (offset & CHUNK_MASK));
+        }
+
+        void putLong(long offset, long value) {
+            chunks[(int) (offset >>> CHUNK_SHIFT)].putLong((int) (offset & CHUNK_MASK), value);
+        }
+
+        long getLongAcquire(long offset) {
+            ByteBuffer chunk = chunks[(int) (offset >>> CHUNK_SHIFT)];
+            return (long) LONG.getAcquire(chunk, (int) (offset & CHUNK_MASK));
+        }
+
+        void setLongRelease(long offset, long value) {
+            ByteBuffer chunk = chunks[(int) (offset >>> CHUNK_SHIFT)];
+            LONG.setRelease(chunk, (int) (offset & CHUNK_MASK), value);
+        }
+
+        void force() {
+            for (MappedByteBuffer chunk : chunks) {
+                chunk.force();
+            }
+        }
+    }
+}
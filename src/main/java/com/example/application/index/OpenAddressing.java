@@ -0,0 +1,41 @@
+package com.example.application.index;
+
+/**
+ * Sizing and hashing shared by the off-heap match store and the counting Bloom filter: power-of-two
+ * capacities, linear probing, a 0.75 load factor and the MurmurHash3 64-bit finalizer to spread
+ * packed IDs over the slots.
+ */
+final class OpenAddressing {
+
+    static final float LOAD_FACTOR = 0.75f;
+    static final int MIN_CAPACITY = 16;
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private OpenAddressing() {
+    }
+
+    static long mix(long x) {
+        x ^= x >>> 33;
+        x *= 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        x *= 0xc4ceb9fe1a85ec53L;
+        return x ^ (x >>> 33);
+    }
+
+    static int slot(long key, int mask) {
+        return (int) mix(key) & mask;
+    }
+
+    /** Smallest power-of-two capacity holding expectedSize entries under the load factor. */
+    static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(expectedSize / (double) LOAD_FACTOR);
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Too many entries for one table: " + expectedSize);
+        }
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit((int) Math.max(1, needed - 1)) << 1);
+    }
+
+    static int maxFill(int capacity) {
+        return Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.application.index;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Scalable, time-rotated set of recently seen 64-bit keys, built from {@link CountingBloomFilter} stages.
+ *
+ * Scalable: when the newest stage of the current generation is full, a stage twice as large with
+ * half the false-positive rate is added, so the compound rate stays under twice the first stage's
+ * for up to {@value #MAX_STAGES} stages; after that the newest stage overfills rather than growing
+ * without bound. Rotated: every {@code rotation} the previous generation is dropped and
+ * the current one takes its place, so a key is remembered for between one and two periods.
+ * Thread-safe; lookups take no lock.
+ */
+public final class RotatingBloomFilter {
+
+    static final int MAX_STAGES = 6;
+
+    private final int initialCapacity;
+    private final double falsePositiveRate;
+    private final long rotationMillis;
+    private final Clock clock;
+
+    private volatile List<CountingBloomFilter> current;
+    private volatile List<CountingBloomFilter> previous = List.of();
+    private volatile long rotatesAt;
+
+    public RotatingBloomFilter(int initialCapacity, double falsePositiveRate, Duration rotation, Clock clock) {
+        this.initialCapacity = initialCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rotationMillis = rotation.toMillis();
+        this.clock = clock;
+        this.current = newGeneration();
+        this.rotatesAt = clock.millis() + rotationMillis;
+    }
+
+    public boolean mightContain(long key) {
+        rotateIfDue();
+        return anyMightContain(current, key) || anyMightContain(previous, key);
+    }
+
+    public void add(long key) {
+        rotateIfDue();
+        List<CountingBloomFilter> stages = current;
+        CountingBloomFilter newest = stages.get(stages.size() - 1);
+        if (newest.isFull()) {
+            newest = addStage(stages);
+        }
+        newest.add(key);
+    }
+
+    /** Removes the key from whichever stages might hold it, e.g. once it is known to exist after all. */
+    public void remove(long key) {
+        for (CountingBloomFilter stage : current) {
+            stage.remove(key);
+        }
+        for (CountingBloomFilter stage : previous) {
+            stage.remove(key);
+        }
+    }
+
+    private static boolean anyMightContain(List<CountingBloomFilter> stages, long key) {
+        for (CountingBloomFilter stage : stages) {
+            if (stage.mightContain(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized CountingBloomFilter addStage(List<CountingBloomFilter> stages) {
+        CountingBloomFilter newest = stages.get(stages.size() - 1);
+        if (stages == current && newest.isFull() && stages.size() < MAX_STAGES) {
+            int size = stages.size();
+            newest = new CountingBloomFilter(initialCapacity << size, falsePositiveRate / (1 << size));
+            stages.add(newest);
+        }
+        return stages.get(stages.size() - 1);
+    }
+
+    private void rotateIfDue() {
+        if (clock.millis() < rotatesAt) {
+            return;
+        }
+        synchronized (this) {
+            long now = clock.millis();
+            if (now < rotatesAt) {
+                return;
+            }
+            // After an idle spell longer than two periods, both generations are stale.
+            previous = now < rotatesAt + rotationMillis ? current : List.of();
+            current = newGeneration();
+            rotatesAt = now + rotationMillis;
+        }
+    }
+
+    private List<CountingBloomFilter> newGeneration() {
+        List<CountingBloomFilter> stages = new CopyOnWriteArrayList<>();
+        stages.add(new CountingBloomFilter(initialCapacity, falsePositiveRate));
+        return stages;
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.application.index;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent ternary search tree from {@link TextAnalyzer#normalize normalized} keys to values
+ * ranked by how often they were added, for typeahead.
+ *
+ * Each node holds one character and lo, eq and hi children, so a key costs a node per character
+ * not shared with an earlier key, and siblings take no per-node arrays. Children, a node's entry
+ * and its ranking are published with compare-and-set only, so writers contend on single nodes and
+ * never take a lock, and readers never wait.
+ *
+ * Every add counts one more use of its key. The nodes of the first {@code cachedDepth} characters
+ * of each key keep the {@code topSize} most used entries below them, updated on the add, so a short
+ * prefix, which matches the most keys, is answered by reading one array. A longer prefix matches
+ * few keys and is answered by walking them. Rankings read counts while other adds move them, so
+ * under concurrent adds an ordering can be briefly out of date, never corrupt.
+ */
+public final class SuggestionTree<T> {
+
+    /** A value and the number of times its key was added. */
+    public record Match<T>(T value, long popularity) {
+    }
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Comparator<Entry> BY_POPULARITY = Comparator.comparingLong(Entry::count).reversed();
+
+    private static final VarHandle LO;
+    private static final VarHandle EQ;
+    private static final VarHandle HI;
+    private static final VarHandle ENTRY;
+    private static final VarHandle TOP;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            LO = lookup.findVarHandle(Node.class, "lo", Node.class);
+            EQ = lookup.findVarHandle(Node.class, "eq", Node.class);
+            HI = lookup.findVarHandle(Node.class, "hi", Node.class);
+            ENTRY = lookup.findVarHandle(Node.class, "entry", Entry.class);
+            TOP = lookup.findVarHandle(Node.class, "top", Entry[].class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int maxKeys;
+    private final int maxKeyLength;
+    private final int cachedDepth;
+    private final int topSize;
+    /** Holds the first characters of all keys as its eq subtree. */
+    private final Node head = new Node('\0');
+    private final AtomicInteger size = new AtomicInteger();
+
+    private static final class Node {
+        final char split;
+        volatile Node lo;
+        volatile Node eq;
+        volatile Node hi;
+        volatile Entry entry;
+        volatile Entry[] top;
+
+        Node(char split) {
+            this.split = split;
+        }
+    }
+
+    private static final class Entry {
+        final Object value;
+        final AtomicLong count = new AtomicLong();
+
+        Entry(Object value) {
+            this.value = value;
+        }
+
+        long count() {
+            return count.get();
+        }
+    }
+
+    /**
+     * @param maxKeys keys held at most; adds of new keys beyond it are dropped
+     * @param maxKeyLength normalized characters of a key that are kept
+     * @param cachedDepth prefix lengths up to which rankings are kept on the node
+     * @param topSize entries in each kept ranking, and the most a lookup returns
+     */
+    public SuggestionTree(int maxKeys, int maxKeyLength, int cachedDepth, int topSize) {
+        this.maxKeys = maxKeys;
+        this.maxKeyLength = Math.max(1, maxKeyLength);
+        this.cachedDepth = cachedDepth;
+        this.topSize = Math.max(1, topSize);
+    }
+
+    /**
+     * Counts one use of the key, storing the value when the key is new. Returns whether the key
+     * was new; a key already held keeps its first value.
+     */
+    public boolean add(String text, T value) {
+        String key = key(text);
+        if (key.isEmpty()) {
+            return false;
+        }
+        Node[] path = new Node[Math.min(key.length(), cachedDepth)];
+        Node node = descend(key, path, size.get() < maxKeys);
+        if (node == null) {
+            return false;
+        }
+        boolean added = false;
+        Entry entry = node.entry;
+        if (entry == null) {
+            if (size.get() >= maxKeys) {
+                return false;
+            }
+            Entry fresh = new Entry(value);
+            entry = (Entry) ENTRY.compareAndExchange(node, (Entry) null, fresh);
+            if (entry == null) {
+                entry = fresh;
+                size.incrementAndGet();
+                added = true;
+            }
+        }
+        entry.count.incrementAndGet();
+        for (Node prefix : path) {
+            promote(prefix, entry);
+        }
+        return added;
+    }
+
+    /** The most used values whose keys start with the normalized prefix, most used first. */
+    @SuppressWarnings("unchecked")
+    public List<Match<T>> suggest(String prefix, int limit) {
+        String key = key(prefix);
+        int wanted = Math.min(limit, topSize);
+        if (key.isEmpty() || wanted <= 0) {
+            return List.of();
+        }
+        Node node = descend(key, null, false);
+        if (node == null) {
+            return List.of();
+        }
+        Entry[] ranked = key.length() <= cachedDepth ? node.top : null;
+        if (ranked == null) {
+            ranked = collect(node);
+        }
+        List<Match<T>> matches = new ArrayList<>(Math.min(wanted, ranked.length));
+        List<Object> seen = new ArrayList<>(matches.size());
+        for (Entry entry : ranked) {
+            if (matches.size() == wanted) {
+                break;
+            }
+            if (!seen.contains(entry.value)) {
+                seen.add(entry.value);
+                matches.add(new Match<>((T) entry.value, entry.count()));
+            }
+        }
+        return matches;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private String key(String text) {
+        String key = TextAnalyzer.normalize(text);
+        if (key.length() <= maxKeyLength) {
+            return key;
+        }
+        int end = Character.isHighSurrogate(key.charAt(maxKeyLength - 1)) ? maxKeyLength - 1 : maxKeyLength;
+        return key.substring(0, end).stripTrailing();
+    }
+
+    /**
+     * The node of the key's last character, creating missing nodes when {@code create}, else null
+     * when the key is not in the tree. Fills {@code path} with the nodes of the key's leading characters.
+     */
+    private Node descend(String key, Node[] path, boolean create) {
+        Node node = child(head, EQ, key.charAt(0), create);
+        int i = 0;
+        while (node != null) {
+            char c = key.charAt(i);
+            if (c < node.split) {
+                node = child(node, LO, c, create);
+            } else if (c > node.split) {
+                node = child(node, HI, c, create);
+            } else {
+                if (path != null && i < path.length) {
+                    path[i] = node;
+                }
+                if (++i == key.length()) {
+                    return node;
+                }
+                node = child(node, EQ, key.charAt(i), create);
+            }
+        }
+        return null;
+    }
+
+    private static Node child(Node node, VarHandle link, char c, boolean create) {
+        Node child = (Node) link.getVolatile(node);
+        if (child != null || !create) {
+            return child;
+        }
+        Node fresh = new Node(c);
+        Node existing = (Node) link.compareAndExchange(node, (Node) null, fresh);
+        return existing == null ? fresh : existing;
+    }
+
+    /** Moves the entry to its place in the node's ranking, if it ranks at all. */
+    private void promote(Node node, Entry entry) {
+        while (true) {
+            Entry[] top = node.top;
+            Entry[] ranked = ranked(top == null ? NO_ENTRIES : top, entry);
+            if (ranked == top || TOP.compareAndSet(node, top, ranked)) {
+                return;
+            }
+        }
+    }
+
+    private Entry[] ranked(Entry[] top, Entry entry) {
+        long count = entry.count();
+        int at = -1;
+        for (int i = 0; i < top.length; i++) {
+            if (top[i] == entry) {
+                at = i;
+                break;
+            }
+        }
+        if (at < 0 && top.length == topSize && top[top.length - 1].count() >= count) {
+            return top;
+        }
+        if (at == 0 || (at > 0 && top[at - 1].count() >= count)) {
+            return top;
+        }
+        int length = at < 0 ? Math.min(top.length + 1, topSize) : top.length;
+        Entry[] ranked = new Entry[length];
+        int j = 0;
+        boolean placed = false;
+        for (Entry other : top) {
+            if (j == length) {
+                break;
+            }
+            if (other == entry) {
+                continue;
+            }
+            if (!placed && other.count() < count) {
+                ranked[j++] = entry;
+                placed = true;
+                if (j == length) {
+                    break;
+                }
+            }
+            ranked[j++] = other;
+        }
+        if (!placed && j < length) {
+            ranked[j++] = entry;
+        }
+        return ranked;
+    }
+
+    /** Every entry at or below the node's eq subtree, most used first. */
+    private static Entry[] collect(Node node) {
+        List<Entry> entries = new ArrayList<>();
+        if (node.entry != null) {
+            entries.add(node.entry);
+        }
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        if (node.eq != null) {
+            pending.push(node.eq);
+        }
+        while (!pending.isEmpty()) {
+            Node next = pending.pop();
+            if (next.entry != null) {
+                entries.add(next.entry);
+            }
+            if (next.lo != null) {
+                pending.push(next.lo);
+            }
+            if (next.eq != null) {
+                pending.push(next.eq);
+            }
+            if (next.hi != null) {
+                pending.push(next.hi);
+            }
+        }
+        entries.sort(BY_POPULARITY);
+        return entries.toArray(NO_ENTRIES);
+    }
+}
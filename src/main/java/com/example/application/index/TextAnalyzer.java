@@ -0,0 +1,140 @@
+package com.example.application.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns titles and queries into the terms {@link InvertedIndex} posts and looks up.
+ *
+ * Letters and digits form terms and everything else separates them. Terms are lower-cased with
+ * {@link Character#toLowerCase(int)} and stripped of diacritics, so "Beyoncé", "BEYONCE" and
+ * "beyonce" are one term. Letters that do not decompose ("ø", "ß", "ł") are folded through a small
+ * table. Han, kana and Hangul are written without spaces, so runs of them are posted as overlapping
+ * character bigrams, and as a single character when the run is one long.
+ *
+ * {@link #normalize} folds the same way but keeps the text whole, for prefix lookups: words are
+ * joined by single spaces, apostrophes are dropped so "Don't" and "dont" agree, and CJK is kept as
+ * written.
+ */
+public final class TextAnalyzer {
+
+    private static final Map<Integer, String> FOLDS = Map.of(
+            (int) 'ø', "o", (int) 'æ', "ae", (int) 'œ', "oe", (int) 'ß', "ss", (int) 'ł', "l",
+            (int) 'đ', "d", (int) 'ð', "d", (int) 'þ', "th", (int) 'ı', "i");
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        StringBuilder term = new StringBuilder(16);
+        int cjkStart = -1;
+        int i = 0;
+        while (i <= text.length()) {
+            int codePoint = i < text.length() ? text.codePointAt(i) : ' ';
+            int next = i + Character.charCount(codePoint);
+            if (isCjk(codePoint)) {
+                emit(term, terms);
+                if (cjkStart < 0) {
+                    cjkStart = i;
+                }
+            } else {
+                if (cjkStart >= 0) {
+                    emitBigrams(text, cjkStart, i, terms);
+                    cjkStart = -1;
+                }
+                if (Character.isLetterOrDigit(codePoint)) {
+                    fold(codePoint, term);
+                } else if (Character.getType(codePoint) != Character.NON_SPACING_MARK) {
+                    emit(term, terms);
+                }
+            }
+            i = next;
+        }
+        return terms;
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean separate = false;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (separate && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                separate = false;
+                if (isCjk(codePoint)) {
+                    normalized.appendCodePoint(codePoint);
+                } else {
+                    fold(codePoint, normalized);
+                }
+            } else if (codePoint != '\'' && codePoint != '\u2019'
+                    && Character.getType(codePoint) != Character.NON_SPACING_MARK) {
+                separate = true;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return normalized.toString();
+    }
+
+    private static void fold(int codePoint, StringBuilder term) {
+        if (codePoint < 0x80) {
+            term.append((char) Character.toLowerCase(codePoint));
+            return;
+        }
+        int lower = Character.toLowerCase(codePoint);
+        String folded = FOLDS.get(lower);
+        if (folded != null) {
+            term.append(folded);
+            return;
+        }
+        String decomposed = Normalizer.normalize(Character.toString(lower), Normalizer.Form.NFD);
+        for (int j = 0; j < decomposed.length(); ) {
+            int part = decomposed.codePointAt(j);
+            if (Character.getType(part) != Character.NON_SPACING_MARK) {
+                term.appendCodePoint(part);
+            }
+            j += Character.charCount(part);
+        }
+    }
+
+    private static void emit(StringBuilder term, List<String> terms) {
+        if (!term.isEmpty()) {
+            terms.add(term.toString());
+            term.setLength(0);
+        }
+    }
+
+    private static void emitBigrams(String text, int start, int end, List<String> terms) {
+        int second = start + Character.charCount(text.codePointAt(start));
+        if (second >= end) {
+            terms.add(text.substring(start, end));
+            return;
+        }
+        int first = start;
+        while (second < end) {
+            int after = second + Character.charCount(text.codePointAt(second));
+            terms.add(text.substring(first, after));
+            first = second;
+            second = after;
+        }
+    }
+
+    private static boolean isCjk(int codePoint) {
+        if (codePoint < 0x1100) {
+            return false;
+        }
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA || script == Character.UnicodeScript.HANGUL;
+    }
+}
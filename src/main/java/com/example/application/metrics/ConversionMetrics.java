@@ -0,0 +1,187 @@
+package com.example.application.metrics;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.application.config.ConversionMetricsProperties;
+
+/**
+ * Sliding-window latency and cost figures for conversions: per route, per fallback tier, and the
+ * upstream calls each conversion needed. A conversion is the span of one request on a
+ * {@code /api/links} route; upstream calls made on the request thread while it is open are
+ * attributed to it.
+ */
+@Component
+public class ConversionMetrics {
+
+    public enum Upstream {
+        SPOTIFY_SEARCH, SPOTIFY_TRACKS, SPOTIFY_PLAYLISTS, YOUTUBE_SEARCH, YOUTUBE_VIDEOS
+    }
+
+    /** Latencies are tracked in microseconds up to one minute. */
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final long MAX_CALLS_PER_CONVERSION = 1_000;
+
+    /** One open conversion on the current thread. Close it exactly once. */
+    public final class Conversion implements AutoCloseable {
+
+        private final String route;
+        private final long startNanos = System.nanoTime();
+        private final int[] calls = new int[Upstream.values().length];
+
+        private Conversion(String route) {
+            this.route = route;
+        }
+
+        /** Upstream calls of the given kind counted against this conversion so far. */
+        public int calls(Upstream upstream) {
+            return calls[upstream.ordinal()];
+        }
+
+        @Override
+        public void close() {
+            CURRENT.remove();
+            RouteStats stats = routes.computeIfAbsent(route, r -> new RouteStats());
+            stats.latencyMicros.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+            int total = 0;
+            for (int count : calls) {
+                total += count;
+            }
+            stats.upstreamCalls.record(total);
+            stats.conversions.increment();
+            if (calls[Upstream.YOUTUBE_SEARCH.ordinal()] == 0) {
+                stats.withoutYoutubeSearch.increment();
+            }
+        }
+    }
+
+    private final class RouteStats {
+        final SlidingWindowHistogram latencyMicros = histogram(MAX_LATENCY_MICROS);
+        final SlidingWindowHistogram upstreamCalls = histogram(MAX_CALLS_PER_CONVERSION);
+        final LongAdder conversions = new LongAdder();
+        final LongAdder withoutYoutubeSearch = new LongAdder();
+    }
+
+    private final class TierStats {
+        final SlidingWindowHistogram latencyMicros = histogram(MAX_LATENCY_MICROS);
+        final LongAdder attempts = new LongAdder();
+        final LongAdder answered = new LongAdder();
+    }
+
+    private static final ThreadLocal<Conversion> CURRENT = new ThreadLocal<>();
+
+    private final Duration window;
+    private final int slots;
+    private final Clock clock;
+    private final Map<String, RouteStats> routes = new ConcurrentHashMap<>();
+    private final Map<String, TierStats> tiers = new ConcurrentHashMap<>();
+    private final Map<Upstream, LongAdder> upstreamTotals = new EnumMap<>(Upstream.class);
+
+    public ConversionMetrics(ConversionMetricsProperties properties, Clock clock) {
+        this.clock = clock;
+        this.window = properties.getWindow();
+        this.slots = Math.max(1, properties.getSlots());
+        for (Upstream upstream : Upstream.values()) {
+            upstreamTotals.put(upstream, new LongAdder());
+        }
+    }
+
+    /** Opens a conversion for {@code route} on the current thread. */
+    public Conversion begin(String route) {
+        Conversion conversion = new Conversion(route);
+        CURRENT.set(conversion);
+        return conversion;
+    }
+
+    /** Counts one upstream call, against the open conversion if there is one. */
+    public void upstreamCall(Upstream upstream) {
+        upstreamTotals.get(upstream).increment();
+        Conversion conversion = CURRENT.get();
+        if (conversion != null) {
+            conversion.calls[upstream.ordinal()]++;
+        }
+    }
+
+    /** Records one attempt of a fallback tier and whether it produced the answer. */
+    public void recordTier(String tier, long elapsedNanos, boolean answered) {
+        TierStats stats = tiers.computeIfAbsent(tier, t -> new TierStats());
+        stats.latencyMicros.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        stats.attempts.increment();
+        if (answered) {
+            stats.answered.increment();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${conversion-metrics.drain-interval:PT10S}")
+    public void drain() {
+        routes.values().forEach(stats -> {
+            stats.latencyMicros.drain();
+            stats.upstreamCalls.drain();
+        });
+        tiers.values().forEach(stats -> stats.latencyMicros.drain());
+    }
+
+    /** Routes: latency percentiles (µs) and upstream calls per conversion over the window. */
+    public Map<String, Object> routeSnapshot() {
+        Map<String, Object> snapshot = new TreeMap<>();
+        routes.forEach((route, stats) -> {
+            long conversions = stats.conversions.sum();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("latencyMicros", stats.latencyMicros.snapshot());
+            entry.put("upstreamCallsPerConversion", stats.upstreamCalls.snapshot());
+            entry.put("conversions", conversions);
+            entry.put("withoutYoutubeSearchRatio", ratio(stats.withoutYoutubeSearch.sum(), conversions));
+            snapshot.put(route, entry);
+        });
+        return snapshot;
+    }
+
+    /** Tiers: latency percentiles (µs) and how often each tier produced the answer. */
+    public Map<String, Object> tierSnapshot() {
+        Map<String, Object> snapshot = new TreeMap<>();
+        tiers.forEach((tier, stats) -> {
+            long attempts = stats.attempts.sum();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("latencyMicros", stats.latencyMicros.snapshot());
+            entry.put("attempts", attempts);
+            entry.put("answeredRatio", ratio(stats.answered.sum(), attempts));
+            snapshot.put(tier, entry);
+        });
+        return snapshot;
+    }
+
+    public Map<Upstream, Long> upstreamTotals() {
+        Map<Upstream, Long> totals = new EnumMap<>(Upstream.class);
+        upstreamTotals.forEach((upstream, adder) -> totals.put(upstream, adder.sum()));
+        return totals;
+    }
+
+    /** Share of all conversions (since start) that needed no YouTube search call. */
+    public double withoutYoutubeSearchRatio() {
+        long conversions = 0;
+        long withoutSearch = 0;
+        for (RouteStats stats : routes.values()) {
+            conversions += stats.conversions.sum();
+            withoutSearch += stats.withoutYoutubeSearch.sum();
+        }
+        return ratio(withoutSearch, conversions);
+    }
+
+    private SlidingWindowHistogram histogram(long highestTrackableValue) {
+        return new SlidingWindowHistogram(window, slots, highestTrackableValue, clock);
+    }
+
+    private static double ratio(long part, long whole) {
+        return whole == 0 ? 0.0 : (double) part / whole;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.application.metrics;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Opens a {@link ConversionMetrics.Conversion} around every request on a link-processing route,
+ * labelled with the route's mapping pattern.
+ */
+@Component
+public class ConversionMetricsInterceptor implements HandlerInterceptor {
+
+    private static final String CONVERSION_ATTRIBUTE = ConversionMetricsInterceptor.class.getName() + ".conversion";
+
+    private final ConversionMetrics conversionMetrics;
+
+    public ConversionMetricsInterceptor(ConversionMetrics conversionMetrics) {
+        this.conversionMetrics = conversionMetrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : request.getRequestURI();
+        request.setAttribute(CONVERSION_ATTRIBUTE, conversionMetrics.begin(route));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object conversion = request.getAttribute(CONVERSION_ATTRIBUTE);
+        if (conversion instanceof ConversionMetrics.Conversion open) {
+            request.removeAttribute(CONVERSION_ATTRIBUTE);
+            open.close();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.application.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.example.application.cache.CacheStats;
+import com.example.application.cache.ConversionCaches;
+import com.example.application.service.TierRouter;
+
+/**
+ * {@code /actuator/conversions}: the figures needed to tell whether a change made conversions
+ * cheaper — route and tier latency percentiles over the sliding window, upstream calls per
+ * conversion, cache hit ratios, the share of conversions that needed no YouTube search, and how
+ * the Spotify search tiers are being routed.
+ */
+@Component
+@Endpoint(id = "conversions")
+public class ConversionSloEndpoint {
+
+    private final ConversionMetrics conversionMetrics;
+    private final ConversionCaches conversionCaches;
+    private final TierRouter tierRouter;
+
+    public ConversionSloEndpoint(ConversionMetrics conversionMetrics, ConversionCaches conversionCaches,
+                                 TierRouter tierRouter) {
+        this.conversionMetrics = conversionMetrics;
+        this.conversionCaches = conversionCaches;
+        this.tierRouter = tierRouter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> conversions() {
+        Map<String, Object> caches = new TreeMap<>();
+        for (CacheStats stats : conversionCaches.stats()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("hitRatio", stats.hitRatio());
+            entry.put("requests", stats.requests());
+            entry.put("l1Hits", stats.l1Hits());
+            entry.put("snapshotHits", stats.snapshotHits());
+            entry.put("l2Hits", stats.l2Hits());
+            entry.put("misses", stats.misses());
+            entry.put("l1Size", stats.l1Size());
+            caches.put(stats.name(), entry);
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("routes", conversionMetrics.routeSnapshot());
+        body.put("tiers", conversionMetrics.tierSnapshot());
+        body.put("upstreamCalls", conversionMetrics.upstreamTotals());
+        body.put("caches", caches);
+        body.put("withoutYoutubeSearchRatio", conversionMetrics.withoutYoutubeSearchRatio());
+        body.put("tierRouter", tierRouter.snapshot());
+        return body;
+    }
+}
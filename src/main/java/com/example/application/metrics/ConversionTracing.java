@@ -0,0 +1,74 @@
+package com.example.application.metrics;
+
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Spans for the stages of a conversion. Each stage is an observation named
+ * {@value #STAGE_OBSERVATION} whose span is named after the stage; with the OpenTelemetry bridge on
+ * the classpath it is exported over OTLP as a child of the request span, and the upstream HTTP
+ * client spans opened inside it carry the W3C {@code traceparent} downstream.
+ * <p>
+ * Only the stage name is a low-cardinality key (and therefore a metric tag); tier, cache and quota
+ * attributes are span-only so stages with different attribute sets share one timer.
+ */
+@Component
+public class ConversionTracing {
+
+    public static final String STAGE_OBSERVATION = "conversion.stage";
+
+    public static final String STAGE = "stage";
+    public static final String TIER = "tier";
+    public static final String CACHE_HIT = "cache.hit";
+    public static final String QUOTA_COST = "quota.cost";
+    public static final String ANSWERED = "answered";
+    public static final String REVALIDATED = "revalidated";
+
+    private final ObservationRegistry registry;
+
+    public ConversionTracing(ObservationRegistry registry) {
+        this.registry = registry;
+    }
+
+    /** Runs {@code work} inside a span for {@code stage}. */
+    public <T> T stage(String stage, Supplier<T> work) {
+        return stage(stage, KeyValues.empty(), work);
+    }
+
+    /** Runs {@code work} inside a span for {@code stage} carrying {@code attributes}. */
+    public <T> T stage(String stage, KeyValues attributes, Supplier<T> work) {
+        return Observation.createNotStarted(STAGE_OBSERVATION, registry)
+                .contextualName(stage)
+                .lowCardinalityKeyValue(STAGE, stage)
+                .highCardinalityKeyValues(attributes)
+                .observe(work);
+    }
+
+    /** Sets an attribute on the innermost open stage; a no-op outside one. */
+    public void annotate(String key, Object value) {
+        Observation current = registry.getCurrentObservation();
+        if (current != null && STAGE_OBSERVATION.equals(current.getContext().getName())) {
+            current.highCardinalityKeyValue(key, String.valueOf(value));
+        }
+    }
+
+    /**
+     * Marks the innermost open stage as a cache miss that spent {@code quotaCost} upstream units:
+     * YouTube Data API quota units, or calls for Spotify, which rate-limits rather than meters.
+     * Stages opened through {@link #cacheStage} start out as hits.
+     */
+    public void cacheMiss(int quotaCost) {
+        annotate(CACHE_HIT, false);
+        annotate(QUOTA_COST, quotaCost);
+    }
+
+    /** Runs a cache-fronted lookup; the loader calls {@link #cacheMiss} when it goes upstream. */
+    public <T> T cacheStage(String stage, Supplier<T> work) {
+        return stage(stage, KeyValues.of(CACHE_HIT, "true", QUOTA_COST, "0"), work);
+    }
+}
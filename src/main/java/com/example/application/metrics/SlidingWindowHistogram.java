@@ -0,0 +1,80 @@
+package com.example.application.metrics;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * HDR histogram over the last {@code window}, split into {@code slots} equal buckets. Writers go
+ * through a lock-free {@link Recorder}; readers (and the periodic {@link #drain()}) move what was
+ * recorded into the bucket of the current slot, and a snapshot merges the buckets still inside the
+ * window. Samples are therefore attributed with at most one drain interval of skew.
+ */
+public class SlidingWindowHistogram {
+
+    public record Summary(long count, double mean, long p50, long p90, long p99, long p999, long max) {
+    }
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Recorder recorder;
+    private final Histogram[] slots;
+    private final long[] slotEpochs;
+    private final long slotMillis;
+    private final long highestTrackableValue;
+    private final Clock clock;
+    private Histogram recycled;
+
+    public SlidingWindowHistogram(Duration window, int slots, long highestTrackableValue, Clock clock) {
+        this.recorder = new Recorder(highestTrackableValue, SIGNIFICANT_DIGITS);
+        this.slots = new Histogram[slots];
+        this.slotEpochs = new long[slots];
+        this.slotMillis = Math.max(1, window.toMillis() / slots);
+        this.highestTrackableValue = highestTrackableValue;
+        this.clock = clock;
+        for (int i = 0; i < slots; i++) {
+            this.slots[i] = new Histogram(highestTrackableValue, SIGNIFICANT_DIGITS);
+            this.slotEpochs[i] = -1;
+        }
+    }
+
+    /** Records one sample; values above the trackable range are clamped rather than dropped. */
+    public void record(long value) {
+        recorder.recordValue(Math.max(0, Math.min(value, highestTrackableValue)));
+    }
+
+    /** Moves everything recorded so far into the current slot. */
+    public synchronized void drain() {
+        long epoch = clock.millis() / slotMillis;
+        int index = (int) (epoch % slots.length);
+        if (slotEpochs[index] != epoch) {
+            slots[index].reset();
+            slotEpochs[index] = epoch;
+        }
+        recycled = recorder.getIntervalHistogram(recycled);
+        slots[index].add(recycled);
+    }
+
+    public synchronized Summary snapshot() {
+        drain();
+        long epoch = clock.millis() / slotMillis;
+        Histogram merged = new Histogram(highestTrackableValue, SIGNIFICANT_DIGITS);
+        for (int i = 0; i < slots.length; i++) {
+            if (slotEpochs[i] >= 0 && epoch - slotEpochs[i] < slots.length) {
+                merged.add(slots[i]);
+            }
+        }
+        if (merged.getTotalCount() == 0) {
+            return new Summary(0, 0, 0, 0, 0, 0, 0);
+        }
+        return new Summary(merged.getTotalCount(),
+                merged.getMean(),
+                merged.getValueAtPercentile(50),
+                merged.getValueAtPercentile(90),
+                merged.getValueAtPercentile(99),
+                merged.getValueAtPercentile(99.9),
+                merged.getMaxValue());
+    }
+}
@@ -1,16 +1,27 @@
 package com.example.application.model.queries;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class SpotifySearchQuery {
     private String title;
     private String artist;
     private String album;
+    /** The source video's channel as YouTube reports it, e.g. "Artist - Topic"; only used for routing. */
+    @JsonIgnore
+    private String channel;
+    /** How likely the title and artist split is to be right, from 0 to 1; 0 when not parsed from a video. */
+    private float confidence;
+
+    public SpotifySearchQuery(String title, String artist, String album) {
+        this.title = title;
+        this.artist = artist;
+        this.album = album;
+    }
     
     /**
      * Creates a query string for Spotify search API using Spotify's advanced search syntax
@@ -0,0 +1,16 @@
+package com.example.application.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Suggestion {
+
+    private String type;       // "track" or "artist"
+    private String title;      // track title, null for an artist
+    private String artistName;
+    private long popularity;   // resolved conversions that named it
+}
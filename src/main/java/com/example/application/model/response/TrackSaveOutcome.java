@@ -0,0 +1,20 @@
+package com.example.application.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-track result of a bulk Liked Songs save/unsave.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrackSaveOutcome {
+
+    private String trackId;
+    private boolean success;   // whether Spotify accepted the chunk containing this track
+    private Boolean saved;     // resulting library state when success is true; null (unknown) otherwise
+    private Integer upstreamStatus; // HTTP status returned by Spotify when success is false; null if it never answered
+    private String error;      // INVALID_TRACK_ID when the ID was rejected without calling Spotify
+}
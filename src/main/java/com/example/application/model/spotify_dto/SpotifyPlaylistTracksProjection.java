@@ -0,0 +1,17 @@
+package com.example.application.model.spotify_dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Lean view of the /v1/playlists/{id}/tracks response: only items[].track is bound. Episodes and
+ * local files come back with a null or ID-less track.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SpotifyPlaylistTracksProjection(List<Item> items) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Item(SpotifyTrackProjection track) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.application.model.spotify_dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Lean view of the /v1/search response: only tracks.items is bound.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SpotifySearchProjection(Tracks tracks) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Tracks(List<SpotifyTrackProjection> items) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.application.model.spotify_dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Lean, read-only view of a Spotify track object.
+ * Only the fields consumed when building a SpotifyResponse are bound; everything else is skipped by the parser.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SpotifyTrackProjection(
+        String id,
+        String name,
+        Album album,
+        List<Artist> artists,
+        @JsonProperty("preview_url") String previewUrl,
+        @JsonProperty("external_urls") ExternalUrls externalUrls) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Album(List<Image> images) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Image(String url, int width) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Artist(String name) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record ExternalUrls(String spotify) {
+    }
+}
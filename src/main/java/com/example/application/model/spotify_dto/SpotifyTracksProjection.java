@@ -0,0 +1,12 @@
+package com.example.application.model.spotify_dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Lean view of the /v1/tracks?ids=... response. Unknown IDs come back as null entries.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SpotifyTracksProjection(List<SpotifyTrackProjection> tracks) {
+}
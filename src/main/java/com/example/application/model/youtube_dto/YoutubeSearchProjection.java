@@ -0,0 +1,20 @@
+package com.example.application.model.youtube_dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Lean view of the /youtube/v3/search response: only items[].id and items[].snippet are bound.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record YoutubeSearchProjection(List<Item> items) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Item(ItemId id, YoutubeSnippetProjection snippet) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record ItemId(String kind, String videoId) {
+    }
+}
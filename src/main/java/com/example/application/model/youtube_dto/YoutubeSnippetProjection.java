@@ -0,0 +1,44 @@
+package com.example.application.model.youtube_dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Lean view of a YouTube snippet. Drops publishedAt, channelId, liveBroadcastContent
+ * and the standard/maxres thumbnails we never render.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record YoutubeSnippetProjection(
+        String title,
+        String channelTitle,
+        String description,
+        Thumbnails thumbnails) {
+
+    /** Picks the high quality thumbnail, falling back to medium and then default. */
+    public String bestThumbnailUrl() {
+        if (thumbnails == null) {
+            return null;
+        }
+        if (thumbnails.high() != null) {
+            return thumbnails.high().url();
+        }
+        if (thumbnails.medium() != null) {
+            return thumbnails.medium().url();
+        }
+        if (thumbnails.defaultThumbnail() != null) {
+            return thumbnails.defaultThumbnail().url();
+        }
+        return null;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Thumbnails(
+            @JsonProperty("default") Thumbnail defaultThumbnail,
+            Thumbnail medium,
+            Thumbnail high) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Thumbnail(String url) {
+    }
+}
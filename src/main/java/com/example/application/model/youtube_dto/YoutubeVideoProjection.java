@@ -0,0 +1,17 @@
+package com.example.application.model.youtube_dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Lean view of the /youtube/v3/videos response: only the response etag, items[].id and
+ * items[].snippet are bound.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record YoutubeVideoProjection(String etag, List<Item> items) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Item(String id, YoutubeSnippetProjection snippet) {
+    }
+}
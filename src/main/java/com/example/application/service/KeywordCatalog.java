@@ -0,0 +1,214 @@
+package com.example.application.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.application.cache.CacheCodec;
+import com.example.application.cache.CacheCodecs;
+import com.example.application.config.CacheProperties;
+import com.example.application.index.InvertedIndex;
+import com.example.application.index.TextAnalyzer;
+import com.example.application.model.response.SpotifyResponse;
+import com.example.application.model.response.YoutubeResponse;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Local keyword search over the Spotify tracks and YouTube videos already fetched, backed by one
+ * {@link InvertedIndex} each under cache.catalog.directory.
+ *
+ * Tracks are indexed by title and artist, videos by title and channel. Only tracks found in the
+ * default Spotify market are added, and only requests in that market are answered from them.
+ * Results are added on one writer thread behind a bounded queue, like {@link VideoMatchIndex}, and
+ * become searchable when the buffer is flushed, either once it holds cache.catalog.flush-documents
+ * or on the next refresh.
+ * A search answers only when its query has enough terms and some result covers at least
+ * cache.catalog.min-coverage of them; otherwise it returns null and the caller searches upstream.
+ */
+@Component
+public class KeywordCatalog {
+
+    private static final Logger LOGGER = Logger.getLogger(KeywordCatalog.class.getName());
+    private static final int WRITE_QUEUE_CAPACITY = 10_000;
+
+    private final CacheProperties.Catalog properties;
+    private Catalog<SpotifyResponse> tracks;
+    private Catalog<YoutubeResponse> videos;
+    private ThreadPoolExecutor writer;
+
+    /** One index with the codec for its stored results and the fields it matches on. */
+    private record Catalog<T>(InvertedIndex index, CacheCodec<T> codec, Function<T, String> id,
+                              Function<T, String> text) {
+    }
+
+    public KeywordCatalog(CacheProperties cacheProperties) {
+        this.properties = cacheProperties.getCatalog();
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Path directory = Path.of(properties.getDirectory());
+        try {
+            tracks = new Catalog<>(InvertedIndex.open(directory.resolve("spotify-tracks")), CacheCodecs.SPOTIFY_RESPONSE,
+                    SpotifyResponse::getTrackId, track -> text(track.getSongTitle(), track.getArtistName()));
+            videos = new Catalog<>(InvertedIndex.open(directory.resolve("youtube-videos")), CacheCodecs.YOUTUBE_RESPONSE,
+                    YoutubeResponse::getVideoId, video -> text(video.getSongTitle(), video.getArtistName()));
+            writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(WRITE_QUEUE_CAPACITY),
+                    runnable -> Thread.ofPlatform().daemon().name("keyword-catalog-writer").unstarted(runnable),
+                    new ThreadPoolExecutor.DiscardPolicy());
+            LOGGER.info("Opened keyword catalog " + directory + " with " + tracks.index().size() + " tracks and "
+                    + videos.index().size() + " videos");
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not open keyword catalog " + directory + "; running without it", e);
+            closeQuietly(tracks);
+            tracks = null;
+            videos = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return tracks != null;
+    }
+
+    /** Confident local results for the keywords, best first, or null to search upstream. */
+    public List<SpotifyResponse> searchTracks(String keywords) {
+        return search(tracks, keywords);
+    }
+
+    public List<YoutubeResponse> searchVideos(String keywords) {
+        return search(videos, keywords);
+    }
+
+    /** Queues tracks not yet in the catalog for indexing. */
+    public void addTracks(List<SpotifyResponse> results) {
+        add(tracks, results);
+    }
+
+    public void addVideos(List<YoutubeResponse> results) {
+        add(videos, results);
+    }
+
+    /** Makes buffered results searchable and merges small segments. */
+    @Scheduled(fixedDelayString = "${cache.catalog.refresh-interval:PT30S}",
+            initialDelayString = "${cache.catalog.refresh-interval:PT30S}")
+    public void refresh() {
+        if (!isEnabled()) {
+            return;
+        }
+        writer.execute(() -> {
+            flush(tracks, 0);
+            flush(videos, 0);
+        });
+    }
+
+    /**
+     * Closes the indexes once the writer has drained. A writer still flushing or merging after the
+     * grace period keeps them open; the next {@link #open} deletes any segment it left half written.
+     */
+    @PreDestroy
+    public void close() {
+        if (!isEnabled()) {
+            return;
+        }
+        writer.shutdown();
+        boolean stopped = false;
+        try {
+            stopped = writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!stopped) {
+            LOGGER.warning("Keyword catalog writer still running after 10s; leaving its indexes open");
+            return;
+        }
+        closeQuietly(tracks);
+        closeQuietly(videos);
+    }
+
+    private <T> List<T> search(Catalog<T> catalog, String keywords) {
+        if (catalog == null || keywords == null
+                || TextAnalyzer.terms(keywords).size() < properties.getMinQueryTerms()) {
+            return null;
+        }
+        List<InvertedIndex.Hit> hits = catalog.index().search(keywords, properties.getMaxResults(),
+                properties.getMinCoverage());
+        if (hits.isEmpty()) {
+            return null;
+        }
+        List<T> results = new ArrayList<>(hits.size());
+        for (InvertedIndex.Hit hit : hits) {
+            results.add(catalog.codec().decode(hit.payload()));
+        }
+        return results;
+    }
+
+    private <T> void add(Catalog<T> catalog, List<T> results) {
+        if (catalog == null || results == null) {
+            return;
+        }
+        List<T> added = new ArrayList<>(0);
+        for (T result : results) {
+            String id = catalog.id().apply(result);
+            if (id != null && !catalog.index().contains(id)) {
+                added.add(result);
+            }
+        }
+        if (added.isEmpty()) {
+            return;
+        }
+        writer.execute(() -> {
+            InvertedIndex index = catalog.index();
+            for (T result : added) {
+                if (index.size() + index.buffered() >= properties.getMaxDocuments()) {
+                    return;
+                }
+                index.add(catalog.id().apply(result), catalog.text().apply(result), catalog.codec().encode(result));
+            }
+            flush(catalog, properties.getFlushDocuments());
+        });
+    }
+
+    /** Flushes once at least {@code minBuffered} documents are waiting, then merges; runs on the writer. */
+    private void flush(Catalog<?> catalog, int minBuffered) {
+        InvertedIndex index = catalog.index();
+        try {
+            if (index.buffered() > 0 && index.buffered() >= minBuffered) {
+                index.flush();
+                index.merge(properties.getMaxSegments());
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not write keyword catalog segment under " + properties.getDirectory(), e);
+        }
+    }
+
+    private static String text(String title, String artist) {
+        return Objects.toString(title, "") + " " + Objects.toString(artist, "");
+    }
+
+    private static void closeQuietly(Catalog<?> catalog) {
+        if (catalog == null) {
+            return;
+        }
+        try {
+            catalog.index().close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not close keyword catalog index", e);
+        }
+    }
+}
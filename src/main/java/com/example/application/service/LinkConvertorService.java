@@ -5,15 +5,19 @@ import org.springframework.stereotype.Service;
 import com.example.application.model.response.SpotifyResponse;
 import com.example.application.model.response.YoutubeResponse;
 import com.example.application.exception.InvalidLinkException;
+import com.example.application.index.IdCodec;
 import com.example.application.model.queries.SpotifySearchQuery;
 import com.example.application.model.queries.YoutubeSearchQuery;
 
+import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Service
 public class LinkConvertorService {
     
+    private static final Logger LOGGER = Logger.getLogger(LinkConvertorService.class.getName());
+
     private final YoutubeService youtubeService;
     private final SpotifyService spotifyService;
     
@@ -81,7 +85,7 @@ public class LinkConvertorService {
      */
     public SpotifySearchQuery youtubeToSpotifyQuery(String youtubeUrl) {
         String videoId = extractYoutubeId(youtubeUrl);
-        if (videoId == null) {
+        if (!IdCodec.isYoutubeId(videoId)) {
             throw new InvalidLinkException("Invalid YouTube URL: " + youtubeUrl);
         }
         
@@ -91,7 +95,7 @@ public class LinkConvertorService {
 
     public YoutubeSearchQuery spotifyToYoutubeQuery(String spotifyUrl) {
         String trackId = extractSpotifyId(spotifyUrl);
-        if (trackId == null) {
+        if (!IdCodec.isSpotifyId(trackId)) {
             throw new InvalidLinkException("Invalid Spotify URL: " + spotifyUrl);
         }
         
@@ -104,26 +108,17 @@ public class LinkConvertorService {
     /**
      * Creates a Spotify search query from YouTube response data
      */
-    private SpotifySearchQuery createSpotifyQueryFromYoutubeResponse(YoutubeResponse ytResponse) {
+    public SpotifySearchQuery createSpotifyQueryFromYoutubeResponse(YoutubeResponse ytResponse) {
         if (ytResponse == null) {
             return new SpotifySearchQuery();
         }
         
-        // Clean up title and artist name to create an effective search query
-        String songTitle = cleanupTitle(ytResponse.getSongTitle());
-        String artistName = cleanupArtist(ytResponse.getArtistName());
-        
-        System.out.println("\n========== YOUTUBE TO SPOTIFY CONVERSION ==========");
-        System.out.println("YouTube video detected:");
-        System.out.println("  Original Title: " + ytResponse.getSongTitle());
-        System.out.println("  Original Artist: " + ytResponse.getArtistName());
-        System.out.println("  Cleaned Title: " + songTitle);
-        System.out.println("  Cleaned Artist: " + artistName);
-        System.out.println("====================================================\n");
+        // Split "Artist - Title" style titles; the channel is only the artist when nothing better is found
+        SpotifySearchQuery query = YoutubeTitleParser.parse(ytResponse.getSongTitle(), ytResponse.getArtistName());
         
-        SpotifySearchQuery query = new SpotifySearchQuery();
-        query.setTitle(songTitle);
-        query.setArtist(artistName);
+        LOGGER.fine(() -> "YouTube video \"" + ytResponse.getSongTitle() + "\" by " + ytResponse.getArtistName()
+                + " parsed as \"" + query.getTitle() + "\" by " + query.getArtist()
+                + " (confidence " + query.getConfidence() + ")");
         
         return query;
     }
@@ -171,21 +166,6 @@ public class LinkConvertorService {
         cleaned = cleaned.replaceAll("(?i)\\s*official\\s*music\\s*video.*", ""); // Remove "official music video"
         
         // Trim any leading/trailing whitespace
-        return cleaned.trim();
-    }    
-    
-    String cleanupArtist(String artist) {
-        if (artist == null) return "";
-        
-        // Remove common noise in artist names
-        String cleaned = artist.replaceAll("(?i)\\s*\\(.*?\\)", ""); // Remove anything in parentheses
-        cleaned = cleaned.replaceAll("(?i)\\s*\\[.*?\\]", ""); // Remove anything in brackets
-        cleaned = cleaned.replaceAll("(?i)\\s*ft\\..*", ""); // Remove featuring artists
-        cleaned = cleaned.replaceAll("(?i)\\s*-\\s*Topic\\s*$", ""); // Remove "- Topic" suffix
-        cleaned = cleaned.replaceAll("(?i)\\s*VEVO\\s*$", ""); // Remove "VEVO" suffix
-        cleaned = cleaned.replaceAll("(?i)\\s*Official\\s*$", ""); // Remove "Official" suffix
-        cleaned = cleaned.replaceAll("(?i)\\s*Music\\s*$", ""); // Remove "Music" suffix
-        
         return cleaned.trim();
     }
 }
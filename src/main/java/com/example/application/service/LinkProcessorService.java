@@ -2,27 +2,59 @@ package com.example.application.service;
 
 import org.springframework.stereotype.Service;
 
+import com.example.application.cache.ConversionCaches;
 import com.example.application.exception.InvalidLinkException;
+import com.example.application.index.IdCodec;
+import com.example.application.metrics.ConversionMetrics;
+import com.example.application.metrics.ConversionTracing;
 import com.example.application.model.queries.SpotifySearchQuery;
 import com.example.application.model.queries.YoutubeSearchQuery;
 import com.example.application.model.response.SpotifyResponse;
 import com.example.application.model.response.YoutubeResponse;
+import io.micrometer.common.KeyValues;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Service
 public class LinkProcessorService {
     
     private static final Logger LOGGER = Logger.getLogger(LinkProcessorService.class.getName());
-    
+
     private SpotifyService spotifyService;
     private YoutubeService youtubeService;
     private LinkConvertorService linkConvertor;
+    private ConversionCaches conversionCaches;
+    private ConversionMetrics conversionMetrics;
+    private ConversionTracing conversionTracing;
+    private VideoMatchIndex videoMatchIndex;
+    private TierRouter tierRouter;
+    private KeywordCatalog keywordCatalog;
+    private SuggestionService suggestionService;
+    private SpotifyMarkets spotifyMarkets;
     
-    public LinkProcessorService(SpotifyService spotifyService, YoutubeService youtubeService, LinkConvertorService linkConvertor) {
+    public LinkProcessorService(SpotifyService spotifyService, YoutubeService youtubeService, LinkConvertorService linkConvertor,
+                                ConversionCaches conversionCaches, ConversionMetrics conversionMetrics,
+                                ConversionTracing conversionTracing, VideoMatchIndex videoMatchIndex,
+                                TierRouter tierRouter, KeywordCatalog keywordCatalog,
+                                SuggestionService suggestionService, SpotifyMarkets spotifyMarkets) {
         this.spotifyService = spotifyService;
         this.youtubeService = youtubeService;
         this.linkConvertor = linkConvertor;
+        this.conversionCaches = conversionCaches;
+        this.conversionMetrics = conversionMetrics;
+        this.conversionTracing = conversionTracing;
+        this.videoMatchIndex = videoMatchIndex;
+        this.tierRouter = tierRouter;
+        this.keywordCatalog = keywordCatalog;
+        this.suggestionService = suggestionService;
+        this.spotifyMarkets = spotifyMarkets;
     }
 
     /**
@@ -30,10 +62,46 @@ public class LinkProcessorService {
      * Implements fallback search strategies if the initial search returns no results
      */
     public List<SpotifyResponse> processYoutubeLink(String youtubeUrl) {
+        List<SpotifyResponse> results = convertYoutubeLink(youtubeUrl);
+        suggestionService.recordTracks(results);
+        return results;
+    }
+
+    /** {@link #processYoutubeLink} without counting the result towards suggestions; the warmer's entry point. */
+    List<SpotifyResponse> convertYoutubeLink(String youtubeUrl) {
         LOGGER.info("Processing YouTube URL: " + youtubeUrl);
+
+        // Conversions are cached per video ID and market so repeat links skip metadata and search calls entirely
+        String videoId = linkConvertor.extractYoutubeId(youtubeUrl);
+        String market = spotifyMarkets.current();
+        String matchKey = videoId != null ? matchKey(videoId, market) : null;
+        boolean defaultMarket = spotifyMarkets.isDefault(market);
+        boolean indexed = videoId != null && defaultMarket;
+        if (matchKey != null) {
+            List<SpotifyResponse> cached = timedTier("spotify.match-cache",
+                    () -> matchCacheLookup(conversionCaches.youtubeToSpotifyMatch().getIfPresent(matchKey)));
+            if (cached != null) {
+                return cached;
+            }
+            // Past the match cache's TTL, a video matched before costs one track lookup instead of a search
+            if (indexed && videoMatchIndex.isEnabled()) {
+                List<SpotifyResponse> fromIndex = timedTier("spotify.match-index", () -> matchIndexLookup(videoId));
+                if (fromIndex != null) {
+                    conversionCaches.youtubeToSpotifyMatch().put(matchKey, fromIndex);
+                    return fromIndex;
+                }
+            }
+        }
         
-        SpotifySearchQuery query = linkConvertor.youtubeToSpotifyQuery(youtubeUrl);
-        return searchSpotifyWithFallbacks(query);
+        SpotifySearchQuery query = conversionTracing.stage("build-query", () -> linkConvertor.youtubeToSpotifyQuery(youtubeUrl));
+        List<SpotifyResponse> results = searchSpotifyWithFallbacks(query, indexed ? videoId : null);
+        if (defaultMarket) {
+            keywordCatalog.addTracks(results);
+        }
+        if (matchKey != null && !results.isEmpty()) {
+            conversionCaches.youtubeToSpotifyMatch().put(matchKey, results);
+        }
+        return results;
     }
 
     /**
@@ -58,10 +126,31 @@ public class LinkProcessorService {
      */
 
     public List<YoutubeResponse> processSpotifyLink(String spotifyUrl) {
+        List<YoutubeResponse> results = convertSpotifyLink(spotifyUrl);
+        suggestionService.recordVideos(results);
+        return results;
+    }
+
+    /** {@link #processSpotifyLink} without counting the result towards suggestions; the warmer's entry point. */
+    List<YoutubeResponse> convertSpotifyLink(String spotifyUrl) {
         LOGGER.info("Processing Spotify URL: " + spotifyUrl);
+
+        String trackId = linkConvertor.extractSpotifyId(spotifyUrl);
+        if (trackId != null) {
+            List<YoutubeResponse> cached = timedTier("youtube.match-cache",
+                    () -> matchCacheLookup(conversionCaches.spotifyToYoutubeMatch().getIfPresent(trackId)));
+            if (cached != null) {
+                return cached;
+            }
+        }
         
-        YoutubeSearchQuery query = linkConvertor.spotifyToYoutubeQuery(spotifyUrl);
-        return searchYoutubeWithFallbacks(query);
+        YoutubeSearchQuery query = conversionTracing.stage("build-query", () -> linkConvertor.spotifyToYoutubeQuery(spotifyUrl));
+        List<YoutubeResponse> results = searchYoutubeWithFallbacks(query);
+        keywordCatalog.addVideos(results);
+        if (trackId != null && !results.isEmpty()) {
+            conversionCaches.spotifyToYoutubeMatch().put(trackId, results);
+        }
+        return results;
     }
 
     /**
@@ -86,7 +175,20 @@ public class LinkProcessorService {
         if (query.isEmpty()) {
             return List.of();
         }
-        return spotifyService.getSpotifyResponse(query);
+        // Tracks fetched before answer confident keyword matches without a search call; the catalog
+        // holds default-market tracks only, which may not be playable in another market
+        boolean defaultMarket = spotifyMarkets.isDefault(spotifyMarkets.current());
+        if (defaultMarket && keywordCatalog.isEnabled()) {
+            List<SpotifyResponse> local = timedTier("spotify.catalog", () -> keywordCatalog.searchTracks(query));
+            if (local != null) {
+                return local;
+            }
+        }
+        List<SpotifyResponse> results = spotifyService.getSpotifyResponse(query);
+        if (defaultMarket) {
+            keywordCatalog.addTracks(results);
+        }
+        return results;
     }
 
     private List<YoutubeResponse> searchYoutubeByKeyword(String keywords) {
@@ -95,7 +197,15 @@ public class LinkProcessorService {
         if (query.isEmpty()) {
             return List.of();
         }
-        return youtubeService.getYoutubeResponse(query);
+        if (keywordCatalog.isEnabled()) {
+            List<YoutubeResponse> local = timedTier("youtube.catalog", () -> keywordCatalog.searchVideos(query));
+            if (local != null) {
+                return local;
+            }
+        }
+        List<YoutubeResponse> results = youtubeService.getYoutubeResponse(query);
+        keywordCatalog.addVideos(results);
+        return results;
     }
 
     /**
@@ -107,18 +217,18 @@ public class LinkProcessorService {
         String specificQuery = query.toQueryString();
         LOGGER.info("Searching YouTube with specific query: " + specificQuery);
         
-        List<YoutubeResponse> results = youtubeService.getYoutubeResponse(specificQuery);
+        List<YoutubeResponse> results = timedTier("youtube.specific", () -> youtubeService.getYoutubeResponse(specificQuery));
         
         if (results == null || results.isEmpty()) {
             String generalQuery = query.toGeneralQueryString();
             LOGGER.info("No results with specific query, trying general query: " + generalQuery);
-            results = youtubeService.getYoutubeResponse(generalQuery);
+            results = timedTier("youtube.general", () -> youtubeService.getYoutubeResponse(generalQuery));
         }
         
         if (results == null || results.isEmpty()) {
             String titleOnlyQuery = "track:" + query.getTitle();
             LOGGER.info("No results with general query, trying title-only query: " + titleOnlyQuery);
-            results = youtubeService.getYoutubeResponse(titleOnlyQuery);
+            results = timedTier("youtube.title-only", () -> youtubeService.getYoutubeResponse(titleOnlyQuery));
         }
         
         // SIMILARITY ALGORITHM DISABLED - Returning all results in original API order
@@ -137,25 +247,28 @@ public class LinkProcessorService {
     
     /**
      * Search Spotify with progressive fallback strategies
+     * The tier router picks which tiers to try and in what order; each outcome is fed back to it
+     * The top result is recorded in the match index for videoId, with the answering tier's confidence
      */
-    private List<SpotifyResponse> searchSpotifyWithFallbacks(SpotifySearchQuery query) {
+    private List<SpotifyResponse> searchSpotifyWithFallbacks(SpotifySearchQuery query, String videoId) {
         
-        String specificQuery = query.toQueryString();
-        LOGGER.info("Searching Spotify with specific query: " + specificQuery);
-        
-        List<SpotifyResponse> results = spotifyService.getSpotifyResponse(specificQuery);
-        
-        if (results == null || results.isEmpty()) {
-            String generalQuery = query.toGeneralQueryString();
-            LOGGER.info("No results with specific query, trying general query: " + generalQuery);
-            results = spotifyService.getSpotifyResponse(generalQuery);
-        }
-        
-        if (results == null || results.isEmpty()) {
-            String titleOnlyQuery = "track:" + query.getTitle();
-            LOGGER.info("No results with general query, trying title-only query: " + titleOnlyQuery);
-            results = spotifyService.getSpotifyResponse(titleOnlyQuery);
+        TierRouter.Features features = TierRouter.features(query);
+        List<SpotifyResponse> results = List.of();
+        int attempts = 0;
+        for (SpotifySearchTier tier : tierRouter.route(features)) {
+            String tierQuery = tier.query(query);
+            LOGGER.info("Searching Spotify with " + tier.metricName() + " query: " + tierQuery);
+            List<SpotifyResponse> tierResults = timedTier(tier.metricName(), () -> spotifyService.getSpotifyResponse(tierQuery));
+            attempts++;
+            boolean answered = tierResults != null && !tierResults.isEmpty();
+            tierRouter.record(features, tier, answered);
+            if (answered) {
+                results = tierResults;
+                recordMatch(videoId, results, tier.confidence());
+                break;
+            }
         }
+        tierRouter.recordConversion(attempts, !results.isEmpty());
         
         // SIMILARITY ALGORITHM DISABLED - Returning all results in original API order
         // List<SpotifyResponse> sorted = sortResultsByRelevanceSP(results, query);
@@ -169,6 +282,206 @@ public class LinkProcessorService {
         System.out.println("================================================================\n");
         return results;
     }
-    
 
+    private <T> List<T> matchCacheLookup(List<T> cached) {
+        conversionTracing.annotate(ConversionTracing.CACHE_HIT, cached != null);
+        return cached;
+    }
+
+    /** The indexed track as a one-result list, or null to search; a track Spotify no longer has falls through too. */
+    private List<SpotifyResponse> matchIndexLookup(String videoId) {
+        String trackId = videoMatchIndex.lookup(videoId);
+        if (trackId == null) {
+            return null;
+        }
+        try {
+            return List.of(spotifyService.getSingleTrack(trackId));
+        } catch (InvalidLinkException e) {
+            LOGGER.info("Indexed track " + trackId + " for video " + videoId + " is unavailable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private Mono<List<SpotifyResponse>> matchIndexLookupReactive(String videoId) {
+        return Mono.defer(() -> {
+            String trackId = videoMatchIndex.lookup(videoId);
+            return trackId == null
+                    ? Mono.<List<SpotifyResponse>>empty()
+                    : spotifyService.getSingleTrackReactive(trackId)
+                            .<List<SpotifyResponse>>map(List::of)
+                            .onErrorResume(InvalidLinkException.class, e -> Mono.empty());
+        });
+    }
+
+    /**
+     * The match cache key of a video in a market: the bare video ID in the default market, so the
+     * keys of existing entries and of the match index stay valid, suffixed with the market elsewhere
+     */
+    private String matchKey(String videoId, String market) {
+        return spotifyMarkets.isDefault(market) ? videoId : videoId + "@" + market;
+    }
+
+    private void recordMatch(String videoId, List<SpotifyResponse> results, float confidence) {
+        if (videoId != null && results != null && !results.isEmpty()) {
+            videoMatchIndex.record(videoId, results.get(0).getTrackId(), confidence);
+        }
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #processYoutubeInput(String)}: the same match cache,
+     * query building and fallback tiers, composed over the reactive service variants.
+     */
+    public Mono<List<SpotifyResponse>> processYoutubeInputReactive(String input) {
+        String linkType = linkConvertor.detectLinkType(input);
+        if ("YOUTUBE".equals(linkType)) {
+            return processYoutubeLinkReactive(input);
+        }
+        if ("UNKNOWN".equals(linkType)) {
+            String query = input == null ? "" : input.trim();
+            if (query.isEmpty()) {
+                return Mono.just(List.of());
+            }
+            Mono<List<SpotifyResponse>> upstream = Mono.defer(() -> spotifyService.getSpotifyResponseReactive(query));
+            return Mono.deferContextual(context -> spotifyMarkets.isDefault(spotifyMarkets.of(context))
+                    ? keywordSearchReactive("spotify.catalog", () -> keywordCatalog.searchTracks(query), upstream,
+                            keywordCatalog::addTracks)
+                    : upstream);
+        }
+        return Mono.error(new InvalidLinkException("Please provide a YouTube link or plain keywords"));
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #processSpotifyInput(String)}.
+     */
+    public Mono<List<YoutubeResponse>> processSpotifyInputReactive(String input) {
+        String linkType = linkConvertor.detectLinkType(input);
+        if ("SPOTIFY".equals(linkType)) {
+            return processSpotifyLinkReactive(input);
+        }
+        if ("UNKNOWN".equals(linkType)) {
+            String query = input == null ? "" : input.trim();
+            return query.isEmpty() ? Mono.just(List.of()) : keywordSearchReactive("youtube.catalog",
+                    () -> keywordCatalog.searchVideos(query), Mono.defer(() -> youtubeService.getYoutubeResponseReactive(query)),
+                    keywordCatalog::addVideos);
+        }
+        return Mono.error(new InvalidLinkException("Please provide a Spotify link or plain keywords"));
+    }
+
+    /**
+     * Converts several YouTube inputs with at most {@code maxConcurrency} conversions in flight.
+     * The map keeps the input order; an input whose conversion fails maps to an empty list.
+     */
+    public Mono<Map<String, List<SpotifyResponse>>> processYoutubeInputsReactive(List<String> inputs, int maxConcurrency) {
+        return Flux.fromIterable(inputs)
+                .distinct()
+                .flatMapSequential(input -> processYoutubeInputReactive(input)
+                        .onErrorResume(error -> {
+                            LOGGER.warning("Batch conversion failed for " + input + ": " + error.getMessage());
+                            return Mono.just(List.of());
+                        })
+                        .map(results -> Map.entry(input, results)), Math.max(1, maxConcurrency))
+                .collect(LinkedHashMap::new, (map, entry) -> map.put(entry.getKey(), entry.getValue()));
+    }
+
+    private Mono<List<SpotifyResponse>> processYoutubeLinkReactive(String youtubeUrl) {
+        String videoId = linkConvertor.extractYoutubeId(youtubeUrl);
+        if (!IdCodec.isYoutubeId(videoId)) {
+            return Mono.error(new InvalidLinkException("Invalid YouTube URL: " + youtubeUrl));
+        }
+        return Mono.deferContextual(context -> {
+            String market = spotifyMarkets.of(context);
+            boolean indexed = spotifyMarkets.isDefault(market);
+            Mono<List<SpotifyResponse>> search = youtubeService.getSingleVideoReactive(videoId)
+                    .map(linkConvertor::createSpotifyQueryFromYoutubeResponse)
+                    .flatMap(query -> searchSpotifyWithFallbacksReactive(query, indexed ? videoId : null))
+                    .doOnNext(results -> {
+                        if (indexed) {
+                            keywordCatalog.addTracks(results);
+                        }
+                    });
+            Mono<List<SpotifyResponse>> loader = indexed && videoMatchIndex.isEnabled()
+                    ? timedTierReactive("spotify.match-index", matchIndexLookupReactive(videoId)).switchIfEmpty(search)
+                    : search;
+            return ReactiveCacheSupport.cachedOrLoad(conversionCaches.youtubeToSpotifyMatch(), matchKey(videoId, market),
+                    loader, results -> !results.isEmpty());
+        }).doOnNext(suggestionService::recordTracks);
+    }
+
+    private Mono<List<YoutubeResponse>> processSpotifyLinkReactive(String spotifyUrl) {
+        String trackId = linkConvertor.extractSpotifyId(spotifyUrl);
+        if (!IdCodec.isSpotifyId(trackId)) {
+            return Mono.error(new InvalidLinkException("Invalid Spotify URL: " + spotifyUrl));
+        }
+        return ReactiveCacheSupport.cachedOrLoad(conversionCaches.spotifyToYoutubeMatch(), trackId,
+                spotifyService.getSingleTrackReactive(trackId)
+                        .map(linkConvertor::createYoutubeSearchQueryFromSpotify)
+                        .flatMap(this::searchYoutubeWithFallbacksReactive)
+                        .doOnNext(keywordCatalog::addVideos),
+                results -> !results.isEmpty())
+                .doOnNext(suggestionService::recordVideos);
+    }
+
+    /** The routed tiers in order; each tier is subscribed only if the previous came back empty. */
+    private Mono<List<SpotifyResponse>> searchSpotifyWithFallbacksReactive(SpotifySearchQuery query, String videoId) {
+        return Mono.defer(() -> {
+            TierRouter.Features features = TierRouter.features(query);
+            AtomicInteger attempts = new AtomicInteger();
+            Mono<List<SpotifyResponse>> chain = Mono.empty();
+            for (SpotifySearchTier tier : tierRouter.route(features)) {
+                chain = chain.switchIfEmpty(timedTierReactive(tier.metricName(),
+                        Mono.defer(() -> spotifyService.getSpotifyResponseReactive(tier.query(query)))
+                                .doOnNext(results -> {
+                                    attempts.incrementAndGet();
+                                    tierRouter.record(features, tier, !results.isEmpty());
+                                }))
+                        .doOnNext(results -> recordMatch(videoId, results, tier.confidence())));
+            }
+            return chain
+                    .doOnNext(results -> tierRouter.recordConversion(attempts.get(), true))
+                    .switchIfEmpty(Mono.fromRunnable(() -> tierRouter.recordConversion(attempts.get(), false)));
+        }).defaultIfEmpty(List.of());
+    }
+
+    private Mono<List<YoutubeResponse>> searchYoutubeWithFallbacksReactive(YoutubeSearchQuery query) {
+        return timedTierReactive("youtube.specific", Mono.defer(() -> youtubeService.getYoutubeResponseReactive(query.toQueryString())))
+                .switchIfEmpty(timedTierReactive("youtube.general",
+                        Mono.defer(() -> youtubeService.getYoutubeResponseReactive(query.toGeneralQueryString()))))
+                .switchIfEmpty(timedTierReactive("youtube.title-only",
+                        Mono.defer(() -> youtubeService.getYoutubeResponseReactive("track:" + query.getTitle()))))
+                .defaultIfEmpty(List.of());
+    }
+
+    /** The catalog's confident local results when it has them, else the upstream search, whose results it then indexes. */
+    private <T> Mono<List<T>> keywordSearchReactive(String tier, Supplier<List<T>> local, Mono<List<T>> upstream,
+                                                    Consumer<List<T>> index) {
+        Mono<List<T>> search = upstream.doOnNext(index);
+        if (!keywordCatalog.isEnabled()) {
+            return search;
+        }
+        return timedTierReactive(tier, Mono.fromSupplier(() -> {
+            List<T> results = local.get();
+            return results == null ? List.<T>of() : results;
+        })).switchIfEmpty(search);
+    }
+
+    /** Records a reactive tier like {@link #timedTier}; an empty result list completes the Mono empty. */
+    private <T> Mono<List<T>> timedTierReactive(String tier, Mono<List<T>> search) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return search.doOnNext(results ->
+                    conversionMetrics.recordTier(tier, System.nanoTime() - start, !results.isEmpty()));
+        }).filter(results -> !results.isEmpty());
+    }
+
+    /** Runs one fallback tier in its own span and records its latency and whether it produced results. */
+    private <T> List<T> timedTier(String tier, Supplier<List<T>> search) {
+        return conversionTracing.stage(tier, KeyValues.of(ConversionTracing.TIER, tier), () -> {
+            long start = System.nanoTime();
+            List<T> results = search.get();
+            boolean answered = results != null && !results.isEmpty();
+            conversionMetrics.recordTier(tier, System.nanoTime() - start, answered);
+            conversionTracing.annotate(ConversionTracing.ANSWERED, answered);
+            return results;
+        });
+    }
 }
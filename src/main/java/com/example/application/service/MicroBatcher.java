@@ -0,0 +1,150 @@
+package com.example.application.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.example.application.exception.UpstreamServiceException;
+
+/**
+ * Coalesces concurrent single-key lookups into one multi-key upstream call.
+ *
+ * The first key submitted opens a batch; the batch is flushed when either the window
+ * elapses or maxBatchSize distinct keys have been collected, whichever comes first.
+ * Concurrent requests for the same key share one future. Keys missing from the loader
+ * result complete with null. A blocking {@link #get} waits for the window plus the loader's
+ * timeout at most, so a stuck upstream call cannot hold its callers forever.
+ */
+public final class MicroBatcher<K, V> implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(MicroBatcher.class.getName());
+
+    private final String name;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final long getTimeoutNanos;
+    private final Function<List<K>, Map<K, V>> batchLoader;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService loaderExecutor;
+
+    private final Object lock = new Object();
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+
+    /**
+     * @param timeout how long the loader may take for one batch; {@link #get} gives up after the window plus this
+     */
+    public MicroBatcher(String name, int maxBatchSize, Duration window, Duration timeout,
+                        Function<List<K>, Map<K, V>> batchLoader) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+        this.getTimeoutNanos = windowNanos + timeout.toNanos();
+        this.batchLoader = batchLoader;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "micro-batcher-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.loaderExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /** Queues a key for the next batch and returns a future for its value. */
+    public CompletableFuture<V> submit(K key) {
+        Map<K, CompletableFuture<V>> toFlush = null;
+        CompletableFuture<V> future;
+        boolean openedBatch = false;
+
+        synchronized (lock) {
+            future = pending.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            openedBatch = pending.isEmpty();
+            pending.put(key, future);
+            if (pending.size() >= maxBatchSize) {
+                toFlush = pending;
+                pending = new LinkedHashMap<>();
+            }
+        }
+
+        if (toFlush != null) {
+            dispatch(toFlush);
+        } else if (openedBatch) {
+            scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+        }
+        return future;
+    }
+
+    /**
+     * Blocking variant of {@link #submit}; rethrows the loader's runtime exception unchanged, and
+     * throws {@link UpstreamServiceException} when the batch does not resolve in time.
+     */
+    public V get(K key) {
+        try {
+            return submit(key).get(getTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new UpstreamServiceException("[" + name + "] lookup of " + key + " timed out after "
+                    + Duration.ofNanos(getTimeoutNanos), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamServiceException("[" + name + "] interrupted while waiting for " + key, e);
+        }
+    }
+
+    private void flush() {
+        Map<K, CompletableFuture<V>> toFlush;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            toFlush = pending;
+            pending = new LinkedHashMap<>();
+        }
+        dispatch(toFlush);
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        loaderExecutor.execute(() -> load(batch));
+    }
+
+    private void load(Map<K, CompletableFuture<V>> batch) {
+        List<K> keys = new ArrayList<>(batch.keySet());
+        try {
+            Map<K, V> results = batchLoader.apply(keys);
+            LOGGER.fine(() -> "[" + name + "] batch of " + keys.size() + " resolved " + results.size());
+            batch.forEach((key, future) -> future.complete(results.get(key)));
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "[" + name + "] batch of " + keys.size() + " failed", e);
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        scheduler.shutdown();
+        loaderExecutor.shutdown();
+    }
+}
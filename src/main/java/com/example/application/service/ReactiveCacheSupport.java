@@ -0,0 +1,34 @@
+package com.example.application.service;
+
+import java.util.function.Predicate;
+
+import com.example.application.cache.TieredCache;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Bridges the blocking {@link TieredCache} into reactive chains. Lookups and writes may reach the
+ * shared L2 store, so they run on the bounded-elastic scheduler instead of an event-loop thread.
+ */
+final class ReactiveCacheSupport {
+
+    private ReactiveCacheSupport() {
+    }
+
+    /** Serves {@code key} from the cache, or subscribes to {@code loader} and stores its value. */
+    static <V> Mono<V> cachedOrLoad(TieredCache<V> cache, String key, Mono<V> loader) {
+        return cachedOrLoad(cache, key, loader, value -> true);
+    }
+
+    /** As {@link #cachedOrLoad(TieredCache, String, Mono)}, storing only values that pass {@code storeIf}. */
+    static <V> Mono<V> cachedOrLoad(TieredCache<V> cache, String key, Mono<V> loader, Predicate<V> storeIf) {
+        return Mono.fromCallable(() -> cache.getIfPresent(key))
+                .subscribeOn(Schedulers.boundedElastic())
+                .switchIfEmpty(loader.flatMap(value -> storeIf.test(value)
+                        ? Mono.fromRunnable(() -> cache.put(key, value))
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .thenReturn(value)
+                        : Mono.just(value)));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.application.service;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Liked Songs state the current user has already learned from Spotify (or written itself),
+ * keyed by track ID. Entries expire after a short TTL so saves made in other Spotify clients
+ * eventually show up. Kept per user on each node, next to the user's token lookup.
+ */
+public class SavedTrackStatusCache {
+
+    /** Per-user bound; expired entries are purged first when it is exceeded. */
+    static final int MAX_ENTRIES = 2_000;
+
+    private record Entry(boolean saved, long expiresAtMillis) {
+    }
+
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public SavedTrackStatusCache(long ttlMillis, Clock clock) {
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /** Fresh states for the given IDs; IDs that are unknown or expired are left out. */
+    public Map<String, Boolean> known(List<String> trackIds) {
+        long now = clock.millis();
+        Map<String, Boolean> known = new LinkedHashMap<>();
+        for (String trackId : trackIds) {
+            Entry entry = entries.get(trackId);
+            if (entry != null && now < entry.expiresAtMillis()) {
+                known.put(trackId, entry.saved());
+            }
+        }
+        return known;
+    }
+
+    public void put(String trackId, boolean saved) {
+        if (entries.size() >= MAX_ENTRIES) {
+            purge();
+        }
+        entries.put(trackId, new Entry(saved, clock.millis() + ttlMillis));
+    }
+
+    public void putAll(Map<String, Boolean> savedByTrack) {
+        savedByTrack.forEach(this::put);
+    }
+
+    public void remove(String trackId) {
+        entries.remove(trackId);
+    }
+
+    private void purge() {
+        long now = clock.millis();
+        entries.values().removeIf(entry -> now >= entry.expiresAtMillis());
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.clear();
+        }
+    }
+}
@@ -1,27 +1,47 @@
 package com.example.application.service;
 
+import java.time.Duration;
 import java.util.Base64;
+import java.util.concurrent.TimeoutException;
 
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
 
+import com.example.application.config.ApiProperties;
 import com.example.application.config.SpotifyProperties;
 import com.example.application.exception.UpstreamServiceException;
 import com.example.application.model.spotify_dto.SpotifyAuthResponse;
 
+import reactor.core.publisher.Mono;
+
 @Service
 public class SpotifyAuthService {
 
     private final SpotifyProperties spotifyProperties;
     private final RestClient authClient;
+    private final WebClient reactiveAuthClient;
+    private final Duration reactiveTimeout;
 
     private String accessToken;
     private long tokenExpirationTime;
 
-    public SpotifyAuthService(SpotifyProperties spotifyProperties) {
+    /** Token for the reactive pipeline; concurrent subscribers share one in-flight request. */
+    private final Mono<AppToken> reactiveToken;
+
+    private record AppToken(String value, Duration ttl) {
+    }
+
+    public SpotifyAuthService(SpotifyProperties spotifyProperties, ApiProperties apiProperties,
+                              RestClient.Builder restClientBuilder, WebClient.Builder webClientBuilder) {
         this.spotifyProperties = spotifyProperties;
         // Auth client has no base URL — the full auth URL comes from properties
-        this.authClient = RestClient.builder().build();
+        this.authClient = restClientBuilder.build();
+        this.reactiveAuthClient = webClientBuilder.build();
+        this.reactiveTimeout = apiProperties.getReactive().getTimeout();
+        this.reactiveToken = Mono.defer(this::requestTokenReactive)
+                .cache(AppToken::ttl, error -> Duration.ZERO, () -> Duration.ZERO);
     }
 
     public String getCachedAccessToken() {
@@ -33,6 +53,44 @@ public class SpotifyAuthService {
         return accessToken;
     }
 
+    /**
+     * Non-blocking counterpart of {@link #getCachedAccessToken()}. The token is reused until a minute
+     * before Spotify says it expires; a failed request is not cached.
+     */
+    public Mono<String> getCachedAccessTokenReactive() {
+        return reactiveToken.map(AppToken::value);
+    }
+
+    private Mono<AppToken> requestTokenReactive() {
+        String clientId = spotifyProperties.getClientId();
+        String clientSecret = spotifyProperties.getClientSecret();
+        String authUrl = spotifyProperties.getAuthUrl();
+
+        if (clientId == null || clientSecret == null || authUrl == null) {
+            return Mono.error(new IllegalStateException("Spotify credentials not configured."));
+        }
+
+        String authHeader = "Basic " + Base64.getEncoder()
+                .encodeToString((clientId + ":" + clientSecret).getBytes());
+
+        return reactiveAuthClient.post()
+                .uri(authUrl)
+                .header("Authorization", authHeader)
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .bodyValue("grant_type=client_credentials")
+                .retrieve()
+                .bodyToMono(SpotifyAuthResponse.class)
+                .timeout(reactiveTimeout)
+                .filter(response -> response.getAccessToken() != null)
+                .switchIfEmpty(Mono.error(() -> new UpstreamServiceException("Spotify auth response or access token is null")))
+                .map(response -> new AppToken(response.getAccessToken(),
+                        Duration.ofSeconds(Math.max(0, (response.getExpiresIn() > 0 ? response.getExpiresIn() : 3600) - 60))))
+                .onErrorMap(error -> !(error instanceof UpstreamServiceException),
+                        error -> new UpstreamServiceException(error instanceof TimeoutException
+                                ? "Timed out obtaining Spotify access token"
+                                : "Failed to obtain Spotify access token", error));
+    }
+
     private String fetchNewToken() {
         String clientId = spotifyProperties.getClientId();
         String clientSecret = spotifyProperties.getClientSecret();
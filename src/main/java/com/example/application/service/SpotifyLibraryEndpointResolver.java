@@ -0,0 +1,101 @@
+package com.example.application.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.springframework.stereotype.Component;
+
+import com.example.application.config.ApiProperties;
+
+/**
+ * Remembers which Liked Songs endpoint family Spotify currently serves, so save, unsave and
+ * contains go straight to the live one instead of probing {@code /v1/me/library} and falling back
+ * on 404 every time. The answer is trusted for {@code api.spotify.library-endpoint-ttl}; after that,
+ * or as soon as the remembered family 404s, the preferred family is probed again.
+ */
+@Component
+public class SpotifyLibraryEndpointResolver {
+
+    private static final Logger LOGGER = Logger.getLogger(SpotifyLibraryEndpointResolver.class.getName());
+
+    public enum EndpointFamily {
+        /** Newer URI-based endpoints: /v1/me/library?uris=spotify:track:... */
+        LIBRARY("/v1/me/library", "uris"),
+        /** Legacy ID-based endpoints: /v1/me/tracks?ids=... */
+        TRACKS("/v1/me/tracks", "ids");
+
+        private final String path;
+        private final String queryParam;
+
+        EndpointFamily(String path, String queryParam) {
+            this.path = path;
+            this.queryParam = queryParam;
+        }
+
+        public String path() {
+            return path;
+        }
+
+        public String containsPath() {
+            return path + "/contains";
+        }
+
+        public String queryParam() {
+            return queryParam;
+        }
+
+        public String queryValue(List<String> trackIds) {
+            if (this == TRACKS) {
+                return String.join(",", trackIds);
+            }
+            return String.join(",", trackIds.stream().map(trackId -> "spotify:track:" + trackId).toList());
+        }
+
+        public EndpointFamily other() {
+            return this == LIBRARY ? TRACKS : LIBRARY;
+        }
+    }
+
+    private record Resolution(EndpointFamily family, Instant expiresAt) {
+    }
+
+    private static final EndpointFamily PREFERRED = EndpointFamily.LIBRARY;
+
+    private final Clock clock;
+    private final Duration ttl;
+    private volatile Resolution resolution;
+
+    public SpotifyLibraryEndpointResolver(ApiProperties apiProperties, Clock clock) {
+        this.clock = clock;
+        this.ttl = apiProperties.getSpotify().getLibraryEndpointTtl();
+    }
+
+    /** The family to try first: the remembered one while fresh, otherwise the preferred one. */
+    public EndpointFamily current() {
+        Resolution known = resolution;
+        if (known == null || !clock.instant().isBefore(known.expiresAt())) {
+            return PREFERRED;
+        }
+        return known.family();
+    }
+
+    /** Records that {@code family} answered with something other than 404. */
+    public void confirm(EndpointFamily family) {
+        Resolution known = resolution;
+        if (known != null && known.family() == family && clock.instant().isBefore(known.expiresAt())) {
+            return;
+        }
+        resolution = new Resolution(family, clock.instant().plus(ttl));
+    }
+
+    /** Records that {@code family} returned 404; the other family becomes current until it fails too. */
+    public EndpointFamily reportMissing(EndpointFamily family) {
+        EndpointFamily fallback = family.other();
+        LOGGER.info("Spotify library endpoint " + family.path() + " returned 404, switching to " + fallback.path());
+        resolution = new Resolution(fallback, clock.instant().plus(ttl));
+        return fallback;
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.application.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+
+import com.example.application.index.IdCodec;
+import com.example.application.model.response.TrackSaveOutcome;
+import com.example.application.service.SpotifyLibraryEndpointResolver.EndpointFamily;
+
+/**
+ * Liked Songs operations on behalf of the logged-in user. Every upstream call goes through the
+ * {@link SpotifyRateLimiter}; bulk operations are split into chunks of at most
+ * {@link #MAX_IDS_PER_REQUEST} IDs that run in parallel.
+ */
+@Service
+public class SpotifyLibraryService {
+
+    /** The /v1/me/library endpoints accept at most 40 URIs; /v1/me/tracks accepts 50 IDs. */
+    public static final int MAX_IDS_PER_REQUEST = 40;
+    public static final String INVALID_TRACK_ID = "INVALID_TRACK_ID";
+
+    private final RestClient spotifyClient;
+    private final SpotifyRateLimiter rateLimiter;
+    private final SpotifyLibraryEndpointResolver endpointResolver;
+
+    public SpotifyLibraryService(@Qualifier("spotifyClient") RestClient spotifyClient,
+                                 SpotifyRateLimiter rateLimiter,
+                                 SpotifyLibraryEndpointResolver endpointResolver) {
+        this.spotifyClient = spotifyClient;
+        this.rateLimiter = rateLimiter;
+        this.endpointResolver = endpointResolver;
+    }
+
+    public void save(String userToken, List<String> trackIds) {
+        rateLimiter.execute(() -> saveWithFallback(userToken, trackIds));
+    }
+
+    public void unsave(String userToken, List<String> trackIds) {
+        rateLimiter.execute(() -> unsaveWithFallback(userToken, trackIds));
+    }
+
+    /** Saved flag per distinct requested track, in request order; larger lists are chunked. */
+    public Map<String, Boolean> contains(String userToken, List<String> trackIds) {
+        List<List<String>> chunks = chunk(trackIds);
+        Map<String, Boolean> savedByTrack = new LinkedHashMap<>();
+        if (chunks.size() == 1) {
+            putStatuses(savedByTrack, chunks.get(0), rateLimiter.execute(() -> callContains(userToken, chunks.get(0))));
+            return savedByTrack;
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<Boolean[]>> futures = chunks.stream()
+                    .map(chunk -> CompletableFuture.supplyAsync(
+                            () -> rateLimiter.execute(() -> callContains(userToken, chunk)), executor))
+                    .toList();
+            for (int index = 0; index < chunks.size(); index++) {
+                putStatuses(savedByTrack, chunks.get(index), join(futures.get(index)));
+            }
+            return savedByTrack;
+        }
+    }
+
+    public List<TrackSaveOutcome> saveAll(String userToken, List<String> trackIds) {
+        return runChunked(trackIds, true, chunk -> saveWithFallback(userToken, chunk));
+    }
+
+    public List<TrackSaveOutcome> unsaveAll(String userToken, List<String> trackIds) {
+        return runChunked(trackIds, false, chunk -> unsaveWithFallback(userToken, chunk));
+    }
+
+    /**
+     * Malformed IDs fail on their own without an upstream call, so they cannot get a whole chunk
+     * rejected; valid ones are chunked and sent in parallel.
+     */
+    private List<TrackSaveOutcome> runChunked(List<String> trackIds,
+                                              boolean savedOnSuccess,
+                                              Consumer<List<String>> operation) {
+        List<String> malformed = trackIds.stream()
+                .filter(trackId -> trackId != null && !trackId.isBlank() && !IdCodec.isSpotifyId(trackId))
+                .distinct()
+                .toList();
+        List<List<String>> chunks = chunk(trackIds.stream().filter(IdCodec::isSpotifyId).toList());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<List<TrackSaveOutcome>>> futures = chunks.stream()
+                    .map(chunk -> CompletableFuture.supplyAsync(() -> {
+                        try {
+                            rateLimiter.execute(() -> operation.accept(chunk));
+                            return outcomes(chunk, true, savedOnSuccess, null, null);
+                        } catch (RestClientResponseException ex) {
+                            return outcomes(chunk, false, null, ex.getStatusCode().value(), null);
+                        } catch (RestClientException ex) {
+                            // No answer from Spotify (timeout, connection reset): the chunk's state is unknown
+                            return outcomes(chunk, false, null, null, null);
+                        }
+                    }, executor))
+                    .toList();
+            List<TrackSaveOutcome> outcomes = new ArrayList<>(outcomes(malformed, false, null, null, INVALID_TRACK_ID));
+            for (CompletableFuture<List<TrackSaveOutcome>> future : futures) {
+                outcomes.addAll(join(future));
+            }
+            return outcomes;
+        }
+    }
+
+    private void saveWithFallback(String userToken, List<String> trackIds) {
+        withResolvedEndpoint(family -> spotifyClient.put()
+                .uri(uriBuilder -> uriBuilder.path(family.path())
+                        .queryParam(family.queryParam(), family.queryValue(trackIds))
+                        .build())
+                .header("Authorization", "Bearer " + userToken)
+                .header("Content-Type", "application/json")
+                .retrieve()
+                .toBodilessEntity());
+    }
+
+    private void unsaveWithFallback(String userToken, List<String> trackIds) {
+        withResolvedEndpoint(family -> spotifyClient.delete()
+                .uri(uriBuilder -> uriBuilder.path(family.path())
+                        .queryParam(family.queryParam(), family.queryValue(trackIds))
+                        .build())
+                .header("Authorization", "Bearer " + userToken)
+                .header("Content-Type", "application/json")
+                .retrieve()
+                .toBodilessEntity());
+    }
+
+    private Boolean[] callContains(String userToken, List<String> trackIds) {
+        return withResolvedEndpoint(family -> spotifyClient.get()
+                .uri(uriBuilder -> uriBuilder.path(family.containsPath())
+                        .queryParam(family.queryParam(), family.queryValue(trackIds))
+                        .build())
+                .header("Authorization", "Bearer " + userToken)
+                .retrieve()
+                .body(Boolean[].class));
+    }
+
+    /**
+     * Calls the endpoint family the resolver currently trusts. Only a 404 costs a second call:
+     * the resolver flips to the other family and that one is tried immediately.
+     */
+    private <T> T withResolvedEndpoint(Function<EndpointFamily, T> call) {
+        EndpointFamily family = endpointResolver.current();
+        try {
+            T result = call.apply(family);
+            endpointResolver.confirm(family);
+            return result;
+        } catch (RestClientResponseException endpointEx) {
+            if (endpointEx.getStatusCode().value() != 404) {
+                endpointResolver.confirm(family);
+                throw endpointEx;
+            }
+            EndpointFamily fallback = endpointResolver.reportMissing(family);
+            T result = call.apply(fallback);
+            endpointResolver.confirm(fallback);
+            return result;
+        }
+    }
+
+    /** Drops blanks and duplicates, then splits into upstream-sized chunks. */
+    static List<List<String>> chunk(List<String> trackIds) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(trackIds.stream()
+                .filter(trackId -> trackId != null && !trackId.isBlank())
+                .toList()));
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += MAX_IDS_PER_REQUEST) {
+            chunks.add(distinct.subList(from, Math.min(distinct.size(), from + MAX_IDS_PER_REQUEST)));
+        }
+        return chunks;
+    }
+
+    private static List<TrackSaveOutcome> outcomes(List<String> chunk, boolean success, Boolean saved, Integer status,
+                                                   String error) {
+        return chunk.stream()
+                .map(trackId -> new TrackSaveOutcome(trackId, success, saved, status, error))
+                .toList();
+    }
+
+    private static void putStatuses(Map<String, Boolean> savedByTrack, List<String> chunk, Boolean[] statuses) {
+        for (int index = 0; index < chunk.size(); index++) {
+            boolean isSaved = statuses != null
+                    && index < statuses.length
+                    && Boolean.TRUE.equals(statuses[index]);
+            savedByTrack.put(chunk.get(index), isSaved);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+}
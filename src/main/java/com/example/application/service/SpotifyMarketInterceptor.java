@@ -0,0 +1,48 @@
+package com.example.application.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.example.application.cache.ResultETags;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Binds the request's {@link SpotifyMarkets Spotify market} to the request thread while the handler
+ * runs. A market read from a header changes the body without changing the URL, so it is added to
+ * the result ETag key and the headers are listed in Vary for shared caches.
+ */
+@Component
+public class SpotifyMarketInterceptor implements AsyncHandlerInterceptor {
+
+    private final SpotifyMarkets spotifyMarkets;
+    private final String vary;
+
+    public SpotifyMarketInterceptor(SpotifyMarkets spotifyMarkets) {
+        this.spotifyMarkets = spotifyMarkets;
+        this.vary = String.join(", ", spotifyMarkets.headers());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String market = spotifyMarkets.resolve(request);
+        spotifyMarkets.bind(market);
+        request.setAttribute(ResultETags.VARIANT_ATTRIBUTE, market);
+        if (!vary.isEmpty()) {
+            response.addHeader(HttpHeaders.VARY, vary);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        spotifyMarkets.unbind();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        spotifyMarkets.unbind();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.application.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.example.application.config.SpotifyProperties;
+
+import jakarta.servlet.http.HttpServletRequest;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * The Spotify market a request searches in: its market query parameter, else the first of
+ * spotify.market.headers that holds a country code, else spotify.market.default-market.
+ *
+ * {@link SpotifyMarketInterceptor} binds the market to the request thread for the blocking
+ * pipeline. Reactive pipelines hop threads, so their controllers write it into the Reactor
+ * {@link Context} with {@link #context()} and the services read it back with {@link #of(ContextView)}.
+ * Work outside a request, such as the warmer, runs in the default market.
+ */
+@Component
+public class SpotifyMarkets {
+
+    public static final String PARAMETER = "market";
+    private static final String CONTEXT_KEY = SpotifyMarkets.class.getName();
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+    private static final Set<String> COUNTRIES = Set.of(Locale.getISOCountries());
+
+    private final String defaultMarket;
+    private final List<String> headers;
+    private final List<String> alsoSearch;
+
+    public SpotifyMarkets(SpotifyProperties spotifyProperties) {
+        SpotifyProperties.Market properties = spotifyProperties.getMarket();
+        String configured = normalize(properties.getDefaultMarket());
+        this.defaultMarket = configured != null ? configured : "US";
+        this.headers = List.copyOf(properties.getHeaders());
+        List<String> extra = new ArrayList<>();
+        for (String market : properties.getAlsoSearch()) {
+            String normalized = normalize(market);
+            if (normalized != null && !extra.contains(normalized)) {
+                extra.add(normalized);
+            }
+        }
+        this.alsoSearch = List.copyOf(extra);
+    }
+
+    /** The market bound to this thread, or the default one. */
+    public String current() {
+        String market = CURRENT.get();
+        return market != null ? market : defaultMarket;
+    }
+
+    public String defaultMarket() {
+        return defaultMarket;
+    }
+
+    public boolean isDefault(String market) {
+        return defaultMarket.equals(market);
+    }
+
+    /** The request headers the market may come from, for Vary. */
+    public List<String> headers() {
+        return headers;
+    }
+
+    /** The markets a search in {@code market} runs in: that market first, then spotify.market.also-search. */
+    public List<String> searchMarkets(String market) {
+        if (alsoSearch.isEmpty() || (alsoSearch.size() == 1 && alsoSearch.get(0).equals(market))) {
+            return List.of(market);
+        }
+        List<String> markets = new ArrayList<>(alsoSearch.size() + 1);
+        markets.add(market);
+        for (String extra : alsoSearch) {
+            if (!extra.equals(market)) {
+                markets.add(extra);
+            }
+        }
+        return markets;
+    }
+
+    /** Upstream searches one search may fan out to. */
+    public int maxSearchMarkets() {
+        return alsoSearch.size() + 1;
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String market = normalize(request.getParameter(PARAMETER));
+        for (int i = 0; market == null && i < headers.size(); i++) {
+            market = normalize(request.getHeader(headers.get(i)));
+        }
+        return market != null ? market : defaultMarket;
+    }
+
+    /** The current market as a Reactor context, for a reactive pipeline assembled on the request thread. */
+    public Context context() {
+        return Context.of(CONTEXT_KEY, current());
+    }
+
+    /** The market a reactive pipeline was given with {@link #context()}, or the default one. */
+    public String of(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, defaultMarket);
+    }
+
+    void bind(String market) {
+        CURRENT.set(market);
+    }
+
+    void unbind() {
+        CURRENT.remove();
+    }
+
+    /** An upper-cased ISO country code, or null when {@code candidate} is not one (CDNs send "XX" for unknown). */
+    static String normalize(String candidate) {
+        if (candidate == null) {
+            return null;
+        }
+        String market = candidate.trim().toUpperCase(Locale.ROOT);
+        return COUNTRIES.contains(market) ? market : null;
+    }
+}
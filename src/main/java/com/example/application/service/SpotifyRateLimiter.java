@@ -0,0 +1,94 @@
+package com.example.application.service;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+
+import com.example.application.config.ApiProperties;
+import com.example.application.exception.UpstreamServiceException;
+
+/**
+ * Node-wide throttle for Spotify Web API calls: bounds the calls in flight, spaces them to the
+ * configured rate, and backs off for Retry-After seconds whenever Spotify answers 429.
+ */
+@Component
+public class SpotifyRateLimiter {
+
+    private static final long DEFAULT_RETRY_AFTER_SECONDS = 1;
+
+    private final Semaphore inFlight;
+    private final long intervalNanos;
+    private final AtomicLong nextSlotNanos = new AtomicLong(System.nanoTime());
+    private volatile long pausedUntilNanos = System.nanoTime();
+
+    public SpotifyRateLimiter(ApiProperties apiProperties) {
+        ApiProperties.Spotify spotify = apiProperties.getSpotify();
+        this.inFlight = new Semaphore(Math.max(1, spotify.getMaxConcurrentRequests()), true);
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, spotify.getRequestsPerSecond());
+    }
+
+    /** Runs the call once a concurrency permit and a rate slot are available. */
+    public <T> T execute(Supplier<T> call) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamServiceException("Interrupted while waiting for Spotify rate limit", e);
+        }
+        try {
+            awaitSlot();
+            return call.get();
+        } catch (RestClientResponseException e) {
+            if (e.getStatusCode().value() == 429) {
+                pauseFor(retryAfterSeconds(e));
+            }
+            throw e;
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    public void execute(Runnable call) {
+        execute(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private void awaitSlot() {
+        long now = System.nanoTime();
+        long slot = nextSlotNanos.getAndUpdate(previous -> Math.max(previous, now) + intervalNanos);
+        long waitNanos = Math.max(Math.max(slot, now), pausedUntilNanos) - now;
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UpstreamServiceException("Interrupted while waiting for Spotify rate limit", e);
+            }
+        }
+    }
+
+    private void pauseFor(long seconds) {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        if (until - pausedUntilNanos > 0) {
+            pausedUntilNanos = until;
+        }
+    }
+
+    private long retryAfterSeconds(RestClientResponseException e) {
+        String header = e.getResponseHeaders() != null ? e.getResponseHeaders().getFirst("Retry-After") : null;
+        if (header == null) {
+            return DEFAULT_RETRY_AFTER_SECONDS;
+        }
+        try {
+            return Math.max(1, Long.parseLong(header.trim()));
+        } catch (NumberFormatException ignored) {
+            return DEFAULT_RETRY_AFTER_SECONDS;
+        }
+    }
+}
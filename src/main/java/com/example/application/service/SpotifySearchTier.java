@@ -0,0 +1,43 @@
+package com.example.application.service;
+
+import java.util.List;
+
+import com.example.application.model.queries.SpotifySearchQuery;
+
+/**
+ * The fallback query forms for a YouTube to Spotify search, strictest first. The confidence is how
+ * far the match index trusts a top result the tier produced.
+ */
+enum SpotifySearchTier {
+
+    SPECIFIC("spotify.specific", 1.0f),
+    GENERAL("spotify.general", 0.8f),
+    TITLE_ONLY("spotify.title-only", 0.5f);
+
+    static final List<SpotifySearchTier> DEFAULT_ORDER = List.of(values());
+
+    private final String metricName;
+    private final float confidence;
+
+    SpotifySearchTier(String metricName, float confidence) {
+        this.metricName = metricName;
+        this.confidence = confidence;
+    }
+
+    String query(SpotifySearchQuery query) {
+        return switch (this) {
+            case SPECIFIC -> query.toQueryString();
+            case GENERAL -> query.toGeneralQueryString();
+            case TITLE_ONLY -> "track:" + query.getTitle();
+        };
+    }
+
+    /** Tier name in metrics and spans, e.g. {@code spotify.general}. */
+    String metricName() {
+        return metricName;
+    }
+
+    float confidence() {
+        return confidence;
+    }
+}
@@ -1,103 +1,513 @@
 package com.example.application.service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
 
+import com.example.application.cache.ConversionCaches;
+import com.example.application.cache.MissingIdFilter;
+import com.example.application.cache.TieredCache;
+import com.example.application.config.ApiProperties;
+import com.example.application.exception.InvalidLinkException;
 import com.example.application.exception.UpstreamServiceException;
+import com.example.application.index.IdCodec;
+import com.example.application.metrics.ConversionMetrics;
+import com.example.application.metrics.ConversionMetrics.Upstream;
+import com.example.application.metrics.ConversionTracing;
 import com.example.application.model.response.SpotifyResponse;
-import com.example.application.model.spotify_dto.SpotifySearchApiResponse;
-import com.example.application.model.spotify_dto.TrackItem;
+import com.example.application.model.spotify_dto.SpotifyPlaylistTracksProjection;
+import com.example.application.model.spotify_dto.SpotifySearchProjection;
+import com.example.application.model.spotify_dto.SpotifyTrackProjection;
+import com.example.application.model.spotify_dto.SpotifyTracksProjection;
+
+import jakarta.annotation.PreDestroy;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Service
 public class SpotifyService {
 
+    private static final Logger LOGGER = Logger.getLogger(SpotifyService.class.getName());
+
     private final RestClient spotifyClient;
+    private final WebClient spotifyWebClient;
+    private final Duration reactiveTimeout;
     private final SpotifyAuthService spotifyAuthService;
 
     private static final String SEARCH_PATH = "/v1/search";
     private static final String TRACK_PATH  = "/v1/tracks";
+    private static final String PLAYLIST_TRACKS_PATH = "/v1/playlists/{id}/tracks";
+    private static final String PLAYLIST_TRACK_FIELDS =
+            "items(track(id,name,artists(name),album(images),preview_url,external_urls))";
+    private static final int    MAX_PLAYLIST_TRACKS = 100;
     private static final String TYPE_PARAM  = "track";
     private static final int    LIMIT_PARAM = 10;
     private static final int    OFFSET_PARAM = 0;
+    private static final int    MAX_IDS_PER_CALL = 50;
+
+    private final int batchSize;
+    private final TieredCache<SpotifyResponse> trackCache;
+    private final TieredCache<List<SpotifyResponse>> searchCache;
+    private final MissingIdFilter missingTracks;
+    private final MicroBatcher<String, SpotifyResponse> trackBatcher;
+    private final ConversionMetrics conversionMetrics;
+    private final ConversionTracing conversionTracing;
+    private final SpotifyMarkets spotifyMarkets;
 
     public SpotifyService(@Qualifier("spotifyClient") RestClient spotifyClient,
-                          SpotifyAuthService spotifyAuthService) {
+                          @Qualifier("spotifyWebClient") WebClient spotifyWebClient,
+                          SpotifyAuthService spotifyAuthService,
+                          ApiProperties apiProperties,
+                          ConversionCaches conversionCaches,
+                          ConversionMetrics conversionMetrics,
+                          ConversionTracing conversionTracing,
+                          SpotifyMarkets spotifyMarkets) {
         this.spotifyClient = spotifyClient;
+        this.spotifyWebClient = spotifyWebClient;
+        this.reactiveTimeout = apiProperties.getReactive().getTimeout();
         this.spotifyAuthService = spotifyAuthService;
+        this.conversionMetrics = conversionMetrics;
+        this.conversionTracing = conversionTracing;
+        this.spotifyMarkets = spotifyMarkets;
+        this.trackCache = conversionCaches.trackMetadata();
+        this.searchCache = conversionCaches.spotifySearch();
+        this.missingTracks = conversionCaches.missingTracks();
+        ApiProperties.Batch batch = apiProperties.getBatch();
+        this.batchSize = Math.max(1, Math.min(batch.getMaxSize(), MAX_IDS_PER_CALL));
+        this.trackBatcher = batch.getWindowMs() > 0
+                ? new MicroBatcher<>("spotify-tracks", batchSize, Duration.ofMillis(batch.getWindowMs()),
+                        reactiveTimeout, this::fetchTracks)
+                : null;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (trackBatcher != null) {
+            trackBatcher.close();
+        }
     }
 
+    /**
+     * Searches Spotify tracks in the request's market; identical queries in the same market are
+     * served from the search cache.
+     */
     public List<SpotifyResponse> getSpotifyResponse(String searchQuery) {
+        return getSpotifyResponse(searchQuery, spotifyMarkets.current());
+    }
+
+    /**
+     * Searches Spotify tracks in {@code market}, and concurrently in spotify.market.also-search when
+     * set, merging the results by track ID.
+     */
+    public List<SpotifyResponse> getSpotifyResponse(String searchQuery, String market) {
+        List<String> markets = spotifyMarkets.searchMarkets(market);
+        if (markets.size() == 1) {
+            return conversionTracing.cacheStage("spotify.search",
+                    () -> searchCache.get(searchKey(searchQuery, market), () -> searchTracks(searchQuery, market)));
+        }
+        return conversionTracing.cacheStage("spotify.search", () -> searchMarkets(searchQuery, markets));
+    }
+
+    private List<SpotifyResponse> searchTracks(String searchQuery, String market) {
+        conversionMetrics.upstreamCall(Upstream.SPOTIFY_SEARCH);
+        conversionTracing.cacheMiss(1);
+        return fetchSearch(searchQuery, market);
+    }
+
+    /**
+     * One cached search per market, the missing ones fetched concurrently. Calls are counted here, on
+     * the request thread, so they are attributed to its conversion. Only a failure in the first
+     * market fails the search; the others just contribute nothing.
+     */
+    private List<SpotifyResponse> searchMarkets(String searchQuery, List<String> markets) {
+        List<CompletableFuture<List<SpotifyResponse>>> searches = new ArrayList<>(markets.size());
+        int misses = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String market : markets) {
+                String key = searchKey(searchQuery, market);
+                List<SpotifyResponse> cached = searchCache.getIfPresent(key);
+                if (cached != null) {
+                    searches.add(CompletableFuture.completedFuture(cached));
+                    continue;
+                }
+                misses++;
+                conversionMetrics.upstreamCall(Upstream.SPOTIFY_SEARCH);
+                searches.add(CompletableFuture.supplyAsync(
+                        () -> searchCache.get(key, () -> fetchSearch(searchQuery, market)), executor));
+            }
+            if (misses > 0) {
+                conversionTracing.cacheMiss(misses);
+            }
+            List<List<SpotifyResponse>> results = new ArrayList<>(markets.size());
+            results.add(join(searches.get(0)));
+            for (int i = 1; i < searches.size(); i++) {
+                try {
+                    results.add(join(searches.get(i)));
+                } catch (RuntimeException e) {
+                    LOGGER.warning("Spotify search in market " + markets.get(i) + " failed: " + e.getMessage());
+                }
+            }
+            return mergeByTrackId(results);
+        }
+    }
+
+    private List<SpotifyResponse> fetchSearch(String searchQuery, String market) {
         String token = spotifyAuthService.getCachedAccessToken();
 
-        SpotifySearchApiResponse apiResponse = spotifyClient.get()
+        SpotifySearchProjection apiResponse = spotifyClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path(SEARCH_PATH)
                         .queryParam("q", searchQuery)
                         .queryParam("type", TYPE_PARAM)
                         .queryParam("limit", LIMIT_PARAM)
                         .queryParam("offset", OFFSET_PARAM)
-                        .queryParam("market", "US")
+                        .queryParam("market", market)
                         .build())
                 .header("Authorization", "Bearer " + token)
                 .retrieve()
-                .body(SpotifySearchApiResponse.class);
+                .body(SpotifySearchProjection.class);
+
+        return toSearchResults(apiResponse);
+    }
 
+    /**
+     * Non-blocking counterpart of {@link #getSpotifyResponse(String)}, sharing its search cache. The
+     * market comes from the subscriber's context, see {@link SpotifyMarkets#context()}.
+     */
+    public Mono<List<SpotifyResponse>> getSpotifyResponseReactive(String searchQuery) {
+        return Mono.deferContextual(context -> {
+            List<String> markets = spotifyMarkets.searchMarkets(spotifyMarkets.of(context));
+            if (markets.size() == 1) {
+                return searchMarketReactive(searchQuery, markets.get(0));
+            }
+            List<Mono<List<SpotifyResponse>>> searches = new ArrayList<>(markets.size());
+            searches.add(searchMarketReactive(searchQuery, markets.get(0)));
+            for (String market : markets.subList(1, markets.size())) {
+                searches.add(searchMarketReactive(searchQuery, market).onErrorResume(error -> {
+                    LOGGER.warning("Spotify search in market " + market + " failed: " + error.getMessage());
+                    return Mono.just(List.of());
+                }));
+            }
+            return Flux.mergeSequential(searches)
+                    .collectList()
+                    .map(SpotifyService::mergeByTrackId);
+        });
+    }
+
+    private Mono<List<SpotifyResponse>> searchMarketReactive(String searchQuery, String market) {
+        return ReactiveCacheSupport.cachedOrLoad(searchCache, searchKey(searchQuery, market),
+                Mono.defer(() -> searchTracksReactive(searchQuery, market)));
+    }
+
+    private Mono<List<SpotifyResponse>> searchTracksReactive(String searchQuery, String market) {
+        return spotifyAuthService.getCachedAccessTokenReactive()
+                .flatMap(token -> {
+                    conversionMetrics.upstreamCall(Upstream.SPOTIFY_SEARCH);
+                    return spotifyWebClient.get()
+                            .uri(uriBuilder -> uriBuilder
+                                    .path(SEARCH_PATH)
+                                    .queryParam("q", searchQuery)
+                                    .queryParam("type", TYPE_PARAM)
+                                    .queryParam("limit", LIMIT_PARAM)
+                                    .queryParam("offset", OFFSET_PARAM)
+                                    .queryParam("market", market)
+                                    .build())
+                            .header("Authorization", "Bearer " + token)
+                            .retrieve()
+                            .bodyToMono(SpotifySearchProjection.class)
+                            .timeout(reactiveTimeout);
+                })
+                .map(this::toSearchResults)
+                .defaultIfEmpty(Collections.emptyList())
+                .onErrorMap(error -> !(error instanceof UpstreamServiceException),
+                        error -> upstreamError("Spotify search", error));
+    }
+
+    /** Search cache keys carry the market: the same query finds different tracks in different markets. */
+    private static String searchKey(String searchQuery, String market) {
+        return market + ":" + searchQuery.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Interleaves per-market results rank by rank, the first market first, keeping each track ID
+     * once and at most one search's worth of results.
+     */
+    private static List<SpotifyResponse> mergeByTrackId(List<List<SpotifyResponse>> perMarket) {
+        Map<String, SpotifyResponse> merged = new LinkedHashMap<>();
+        int longest = perMarket.stream().mapToInt(List::size).max().orElse(0);
+        for (int rank = 0; rank < longest && merged.size() < LIMIT_PARAM; rank++) {
+            for (List<SpotifyResponse> results : perMarket) {
+                if (rank < results.size() && merged.size() < LIMIT_PARAM) {
+                    merged.putIfAbsent(results.get(rank).getTrackId(), results.get(rank));
+                }
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    private List<SpotifyResponse> toSearchResults(SpotifySearchProjection apiResponse) {
         if (apiResponse == null
-                || apiResponse.getTracks() == null
-                || apiResponse.getTracks().getItems() == null) {
+                || apiResponse.tracks() == null
+                || apiResponse.tracks().items() == null) {
             return Collections.emptyList();
         }
 
-        return apiResponse.getTracks().getItems().stream()
+        List<SpotifyResponse> results = apiResponse.tracks().items().stream()
                 .map(this::mapTrackItemToSpotifyResponse)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        results.forEach(track -> missingTracks.forget(track.getTrackId()));
+        return results;
     }
 
+    /**
+     * Looks up one track. Concurrent lookups are coalesced into a single /v1/tracks?ids= call
+     * when api.batch.window-ms is positive.
+     *
+     * @throws InvalidLinkException for a malformed ID, or one Spotify recently reported missing
+     */
     public SpotifyResponse getSingleTrack(String trackId) {
+        requireWellFormed(trackId);
+        return conversionTracing.cacheStage("spotify.track", () -> lookupTrack(trackId));
+    }
+
+    private SpotifyResponse lookupTrack(String trackId) {
+        SpotifyResponse track = trackCache.getIfPresent(trackId);
+        if (track != null) {
+            return track;
+        }
+        if (missingTracks.isKnownMissing(trackId)) {
+            throw notFound(trackId);
+        }
+
+        // Counted here, on the request thread; batched lookups share the call this counts.
+        conversionMetrics.upstreamCall(Upstream.SPOTIFY_TRACKS);
+        conversionTracing.cacheMiss(1);
+        track = trackBatcher != null
+                ? trackBatcher.get(trackId)
+                : fetchTracks(List.of(trackId)).get(trackId);
+
+        if (track == null) {
+            missingTracks.recordMissing(trackId);
+            throw notFound(trackId);
+        }
+        trackCache.put(trackId, track);
+        return track;
+    }
+
+    /** Malformed IDs never reach the cache, the batcher or the API; Spotify fails a whole ids= call over one. */
+    private static void requireWellFormed(String trackId) {
+        if (!IdCodec.isSpotifyId(trackId)) {
+            throw new InvalidLinkException("Invalid Spotify track ID: " + trackId);
+        }
+    }
+
+    private static InvalidLinkException notFound(String trackId) {
+        return new InvalidLinkException("Spotify track not found: " + trackId);
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #getSingleTrack(String)}, sharing its metadata cache.
+     * Reactive lookups are not micro-batched.
+     */
+    public Mono<SpotifyResponse> getSingleTrackReactive(String trackId) {
+        if (!IdCodec.isSpotifyId(trackId)) {
+            return Mono.error(new InvalidLinkException("Invalid Spotify track ID: " + trackId));
+        }
+        return ReactiveCacheSupport.cachedOrLoad(trackCache, trackId, Mono.defer(() -> {
+            if (missingTracks.isKnownMissing(trackId)) {
+                return Mono.error(notFound(trackId));
+            }
+            conversionMetrics.upstreamCall(Upstream.SPOTIFY_TRACKS);
+            return spotifyAuthService.getCachedAccessTokenReactive()
+                    .flatMap(token -> spotifyWebClient.get()
+                            .uri(uriBuilder -> uriBuilder
+                                    .path(TRACK_PATH)
+                                    .queryParam("ids", trackId)
+                                    .build())
+                            .header("Authorization", "Bearer " + token)
+                            .retrieve()
+                            .bodyToMono(SpotifyTracksProjection.class)
+                            .timeout(reactiveTimeout))
+                    .mapNotNull(apiResponse -> toTrackMap(apiResponse).get(trackId))
+                    .onErrorMap(error -> !(error instanceof UpstreamServiceException),
+                            error -> upstreamError("Spotify track lookup", error))
+                    .switchIfEmpty(Mono.error(() -> {
+                        missingTracks.recordMissing(trackId);
+                        return notFound(trackId);
+                    }));
+        }));
+    }
+
+    /**
+     * Looks up several tracks, issuing one upstream call per 50 IDs.
+     * Unknown IDs are absent from the returned map, which keeps the request order; malformed and
+     * recently missing IDs are left out of the upstream calls.
+     */
+    public Map<String, SpotifyResponse> getTracks(Collection<String> trackIds) {
+        return conversionTracing.cacheStage("spotify.tracks", () -> lookupTracks(trackIds));
+    }
+
+    private Map<String, SpotifyResponse> lookupTracks(Collection<String> trackIds) {
+        Map<String, SpotifyResponse> results = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String trackId : new LinkedHashSet<>(trackIds)) {
+            if (!IdCodec.isSpotifyId(trackId)) {
+                continue;
+            }
+            SpotifyResponse cached = trackCache.getIfPresent(trackId);
+            results.put(trackId, cached);
+            if (cached == null && !missingTracks.isKnownMissing(trackId)) {
+                missing.add(trackId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            conversionTracing.cacheMiss((missing.size() + batchSize - 1) / batchSize);
+        }
+        for (int from = 0; from < missing.size(); from += batchSize) {
+            List<String> chunk = missing.subList(from, Math.min(from + batchSize, missing.size()));
+            conversionMetrics.upstreamCall(Upstream.SPOTIFY_TRACKS);
+            Map<String, SpotifyResponse> fetched = fetchTracks(chunk);
+            for (String trackId : chunk) {
+                SpotifyResponse track = fetched.get(trackId);
+                if (track == null) {
+                    missingTracks.recordMissing(trackId);
+                } else {
+                    trackCache.put(trackId, track);
+                    results.put(trackId, track);
+                }
+            }
+        }
+        results.values().removeIf(Objects::isNull);
+        return results;
+    }
+
+    /**
+     * The first tracks of a playlist, in playlist order: one upstream call for up to 100. They also
+     * seed the track metadata cache; episodes and local files are left out.
+     *
+     * @throws InvalidLinkException for a malformed playlist ID
+     */
+    public List<SpotifyResponse> getPlaylistTracks(String playlistId, int limit) {
+        if (!IdCodec.isSpotifyId(playlistId)) {
+            throw new InvalidLinkException("Invalid Spotify playlist ID: " + playlistId);
+        }
         String token = spotifyAuthService.getCachedAccessToken();
+        conversionMetrics.upstreamCall(Upstream.SPOTIFY_PLAYLISTS);
 
-        TrackItem trackItem = spotifyClient.get()
-                .uri(TRACK_PATH + "/{id}", trackId)
+        SpotifyPlaylistTracksProjection apiResponse = spotifyClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path(PLAYLIST_TRACKS_PATH)
+                        .queryParam("limit", Math.max(1, Math.min(limit, MAX_PLAYLIST_TRACKS)))
+                        .queryParam("fields", PLAYLIST_TRACK_FIELDS)
+                        .build(playlistId))
                 .header("Authorization", "Bearer " + token)
                 .retrieve()
-                .body(TrackItem.class);
+                .body(SpotifyPlaylistTracksProjection.class);
 
-        if (trackItem == null) {
-            throw new UpstreamServiceException("Track not found");
+        List<SpotifyResponse> tracks = new ArrayList<>();
+        if (apiResponse == null || apiResponse.items() == null) {
+            return tracks;
         }
+        for (SpotifyPlaylistTracksProjection.Item item : apiResponse.items()) {
+            SpotifyResponse track = item == null ? null : mapTrackItemToSpotifyResponse(item.track());
+            if (track != null && IdCodec.isSpotifyId(track.getTrackId())) {
+                missingTracks.forget(track.getTrackId());
+                trackCache.put(track.getTrackId(), track);
+                tracks.add(track);
+            }
+        }
+        return tracks;
+    }
+
+    private Map<String, SpotifyResponse> fetchTracks(List<String> trackIds) {
+        String token = spotifyAuthService.getCachedAccessToken();
+
+        SpotifyTracksProjection apiResponse = spotifyClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path(TRACK_PATH)
+                        .queryParam("ids", String.join(",", trackIds))
+                        .build())
+                .header("Authorization", "Bearer " + token)
+                .retrieve()
+                .body(SpotifyTracksProjection.class);
+
+        return toTrackMap(apiResponse);
+    }
+
+    private Map<String, SpotifyResponse> toTrackMap(SpotifyTracksProjection apiResponse) {
+        Map<String, SpotifyResponse> results = new LinkedHashMap<>();
+        if (apiResponse == null || apiResponse.tracks() == null) {
+            return results;
+        }
+        for (SpotifyTrackProjection item : apiResponse.tracks()) {
+            SpotifyResponse response = mapTrackItemToSpotifyResponse(item);
+            if (response != null) {
+                results.put(response.getTrackId(), response);
+            }
+        }
+        return results;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
 
-        return mapTrackItemToSpotifyResponse(trackItem);
+    private static UpstreamServiceException upstreamError(String call, Throwable error) {
+        return new UpstreamServiceException(error instanceof TimeoutException
+                ? call + " timed out"
+                : call + " failed", error);
     }
 
-    private SpotifyResponse mapTrackItemToSpotifyResponse(TrackItem item) {
+    private SpotifyResponse mapTrackItemToSpotifyResponse(SpotifyTrackProjection item) {
         if (item == null
-                || item.getAlbum() == null
-                || item.getAlbum().getImages() == null
-                || item.getArtists() == null
-                || item.getArtists().isEmpty()) {
+                || item.album() == null
+                || item.album().images() == null
+                || item.artists() == null
+                || item.artists().isEmpty()) {
             return null;
         }
 
-        String albumImageUrl = item.getAlbum().getImages().stream()
-                .max(Comparator.comparingInt(img -> img.getWidth()))
-                .map(img -> img.getUrl())
+        String albumImageUrl = item.album().images().stream()
+                .max(Comparator.comparingInt(SpotifyTrackProjection.Image::width))
+                .map(SpotifyTrackProjection.Image::url)
                 .orElse(null);
 
         return new SpotifyResponse(
-                item.getId(),
-                item.getName(),
-                item.getArtists().get(0).getName(),
+                item.id(),
+                item.name(),
+                item.artists().get(0).name(),
                 albumImageUrl,
-                item.getPreview_url(),
-                item.getExternalUrls() != null ? item.getExternalUrls().getSpotify() : null
+                item.previewUrl(),
+                item.externalUrls() != null ? item.externalUrls().spotify() : null
         );
     }
 }
@@ -1,156 +1,334 @@
 package com.example.application.service;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
 import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.util.WebUtils;
 
+import com.example.application.config.ApiProperties;
 import com.example.application.config.SpotifyProperties;
+import com.example.application.config.TokenStoreProperties;
 import com.example.application.exception.UpstreamServiceException;
 import com.example.application.model.spotify_dto.SpotifyAuthResponse;
+import com.example.application.tokenstore.TokenCipher;
+import com.example.application.tokenstore.UserTokenStore;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
- * Manages Spotify user-level access tokens stored in the HTTP session.
+ * Manages Spotify user-level access tokens.
  * Required for user-specific operations like saving tracks to Liked Songs.
+ *
+ * <p>The browser only holds an opaque random session cookie. Its SHA-256 keys an encrypted
+ * {@link SpotifyUserTokens} record in the configured {@link UserTokenStore}, so any node can serve
+ * any user. Records are versioned: a refresh only replaces, or on invalid_grant deletes, the exact
+ * version it started from, so a rotated refresh token is never overwritten or lost. Within a node,
+ * concurrent requests that find the token near expiry share a single refresh call.
  */
 @Service
 public class SpotifyUserTokenService {
 
-    private static final String SESSION_ACCESS_TOKEN  = "spotifyUserAccessToken";
-    private static final String SESSION_REFRESH_TOKEN = "spotifyUserRefreshToken";
-    private static final String SESSION_TOKEN_EXPIRY  = "spotifyUserTokenExpiry";
-    private static final String SESSION_SCOPE         = "spotifyUserScope";
-    private static final String REQUIRED_SCOPE        = "user-library-modify";
+    private static final Logger LOGGER = Logger.getLogger(SpotifyUserTokenService.class.getName());
+
+    private static final String REQUIRED_SCOPE = "user-library-modify";
+    private static final int SESSION_ID_BYTES = 32;
+    /** Bound on users whose Liked Songs state this node remembers. */
+    private static final int MAX_SAVED_STATUS_USERS = 10_000;
+
+    private record StoredSnapshot(String key, long version, SpotifyUserTokens tokens) {
+    }
 
     private final SpotifyProperties spotifyProperties;
+    private final TokenStoreProperties tokenStoreProperties;
+    private final UserTokenStore tokenStore;
+    private final TokenCipher tokenCipher;
+    private final Clock clock;
     private final RestClient restClient;
+    private final SecureRandom random = new SecureRandom();
+    private final long savedStatusTtlMillis;
+    private final long refreshAheadMillis;
+    private final Map<String, CompletableFuture<SpotifyUserTokens>> refreshing = new ConcurrentHashMap<>();
+    private final Map<String, SavedTrackStatusCache> savedStatusByUser = new ConcurrentHashMap<>();
 
-    public SpotifyUserTokenService(SpotifyProperties spotifyProperties) {
+    public SpotifyUserTokenService(SpotifyProperties spotifyProperties,
+                                   ApiProperties apiProperties,
+                                   TokenStoreProperties tokenStoreProperties,
+                                   UserTokenStore tokenStore,
+                                   TokenCipher tokenCipher,
+                                   Clock clock) {
         this.spotifyProperties = spotifyProperties;
+        this.tokenStoreProperties = tokenStoreProperties;
+        this.tokenStore = tokenStore;
+        this.tokenCipher = tokenCipher;
+        this.clock = clock;
         this.restClient = RestClient.builder().build();
+        this.savedStatusTtlMillis = apiProperties.getSpotify().getSavedStatusTtl().toMillis();
+        this.refreshAheadMillis = spotifyProperties.getTokenRefreshAhead().toMillis();
     }
 
-    /** Returns true if the session contains a valid (non-expired) user access token. */
-    public boolean isLoggedIn(HttpSession session) {
-        String token = (String) session.getAttribute(SESSION_ACCESS_TOKEN);
-        if (token == null) {
+    /**
+     * Returns true if the request carries a token with the required scope that is either still
+     * valid or can be refreshed.
+     */
+    public boolean isLoggedIn(HttpServletRequest request) {
+        StoredSnapshot snapshot = load(recordKey(request));
+        if (snapshot == null) {
             return false;
         }
-        Long expiry = (Long) session.getAttribute(SESSION_TOKEN_EXPIRY);
-        return expiry != null
-                && System.currentTimeMillis() < expiry
-                && hasRequiredScope(session);
+        SpotifyUserTokens tokens = snapshot.tokens();
+        return tokens.hasScope(REQUIRED_SCOPE)
+                && (!tokens.isExpired(clock.millis()) || tokens.refreshToken() != null);
     }
 
     /**
-     * Returns the user access token, refreshing it first if it has expired.
+     * Returns the user access token. Within {@code spotify.token-refresh-ahead} of expiry a
+     * background refresh is started and the still-valid token is returned; once expired, the
+     * caller waits for the (shared) refresh.
      * Throws IllegalStateException when the user is not authenticated at all.
      */
-    public String getUserAccessToken(HttpSession session) {
-        if (session.getAttribute(SESSION_ACCESS_TOKEN) == null) {
+    public String getUserAccessToken(HttpServletRequest request) {
+        StoredSnapshot snapshot = load(recordKey(request));
+        if (snapshot == null) {
             throw new IllegalStateException("User not authenticated with Spotify");
         }
 
-        if (!hasRequiredScope(session)) {
-            clearTokens(session);
+        SpotifyUserTokens tokens = snapshot.tokens();
+        if (!tokens.hasScope(REQUIRED_SCOPE)) {
+            clearTokens(request);
             throw new IllegalStateException("Spotify authorization is missing required scope; please log in again");
         }
 
-        Long expiry = (Long) session.getAttribute(SESSION_TOKEN_EXPIRY);
-        if (expiry != null && System.currentTimeMillis() >= expiry) {
-            String refreshToken = (String) session.getAttribute(SESSION_REFRESH_TOKEN);
-            if (refreshToken != null) {
-                refreshTokens(session, refreshToken);
-            } else {
-                clearTokens(session);
+        long now = clock.millis();
+        if (now < tokens.expiresAtMillis() - refreshAheadMillis) {
+            return tokens.accessToken();
+        }
+
+        if (tokens.refreshToken() == null) {
+            if (tokens.isExpired(now)) {
+                tokenStore.delete(snapshot.key(), snapshot.version());
                 throw new IllegalStateException("User session expired; please log in again");
             }
+            return tokens.accessToken();
         }
 
-        return (String) session.getAttribute(SESSION_ACCESS_TOKEN);
+        CompletableFuture<SpotifyUserTokens> refresh = refresh(snapshot);
+        if (!tokens.isExpired(now)) {
+            return tokens.accessToken();
+        }
+        return await(refresh).accessToken();
     }
 
-    /** Stores a new token set (access + optional refresh) in the session. */
-    public void storeTokens(HttpSession session, SpotifyAuthResponse authResponse) {
-        long expiry = System.currentTimeMillis() + ((long) authResponse.getExpiresIn() * 1000) - 30_000;
-        session.setAttribute(SESSION_ACCESS_TOKEN, authResponse.getAccessToken());
-        session.setAttribute(SESSION_TOKEN_EXPIRY, expiry);
-        if (authResponse.getRefreshToken() != null) {
-            session.setAttribute(SESSION_REFRESH_TOKEN, authResponse.getRefreshToken());
+    /**
+     * Stores a new token set under a freshly issued session cookie. Any record the request was
+     * already bound to is dropped, so a login never inherits another account's state.
+     */
+    public void storeTokens(HttpServletRequest request, HttpServletResponse response, SpotifyAuthResponse authResponse) {
+        clearTokens(request);
+
+        byte[] sessionId = new byte[SESSION_ID_BYTES];
+        random.nextBytes(sessionId);
+        String cookieValue = Base64.getUrlEncoder().withoutPadding().encodeToString(sessionId);
+        String key = hash(cookieValue);
+
+        SpotifyUserTokens tokens = new SpotifyUserTokens(authResponse.getAccessToken(),
+                authResponse.getRefreshToken(),
+                expiresAt(authResponse),
+                authResponse.getScope());
+        tokenStore.save(key, tokenCipher.encrypt(tokens.encode(), key), recordExpiry());
+
+        ResponseCookie cookie = ResponseCookie.from(tokenStoreProperties.getCookieName(), cookieValue)
+                .httpOnly(true)
+                .secure(tokenStoreProperties.isSecureCookies())
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(tokenStoreProperties.getTtl())
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    /** Removes the user's token record, and everything learned with it. */
+    public void clearTokens(HttpServletRequest request) {
+        String key = recordKey(request);
+        if (key != null) {
+            tokenStore.delete(key);
+            savedStatusByUser.remove(key);
+        }
+    }
+
+    /** The logged-in user's Liked Songs state cache on this node, created on first use. */
+    public SavedTrackStatusCache getSavedTrackStatus(HttpServletRequest request) {
+        String key = recordKey(request);
+        if (key == null) {
+            return new SavedTrackStatusCache(savedStatusTtlMillis, clock);
         }
-        if (authResponse.getScope() != null) {
-            session.setAttribute(SESSION_SCOPE, authResponse.getScope());
+        if (savedStatusByUser.size() >= MAX_SAVED_STATUS_USERS && !savedStatusByUser.containsKey(key)) {
+            savedStatusByUser.clear();
         }
+        return savedStatusByUser.computeIfAbsent(key, k -> new SavedTrackStatusCache(savedStatusTtlMillis, clock));
     }
 
-    /** Removes all user auth data from the session. */
-    public void clearTokens(HttpSession session) {
-        session.removeAttribute(SESSION_ACCESS_TOKEN);
-        session.removeAttribute(SESSION_REFRESH_TOKEN);
-        session.removeAttribute(SESSION_TOKEN_EXPIRY);
-        session.removeAttribute(SESSION_SCOPE);
+    @Scheduled(fixedDelayString = "${user-tokens.purge-interval:PT1H}")
+    public void purgeExpiredTokens() {
+        tokenStore.purgeExpired();
     }
 
     // -------------------------------------------------------------------------
 
-    private void refreshTokens(HttpSession session, String refreshToken) {
+    private String recordKey(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, tokenStoreProperties.getCookieName());
+        if (cookie == null || cookie.getValue() == null || cookie.getValue().isBlank()) {
+            return null;
+        }
+        return hash(cookie.getValue());
+    }
+
+    private StoredSnapshot load(String key) {
+        if (key == null) {
+            return null;
+        }
+        return tokenStore.load(key)
+                .map(stored -> {
+                    try {
+                        SpotifyUserTokens tokens = SpotifyUserTokens.decode(tokenCipher.decrypt(stored.payload(), key));
+                        return new StoredSnapshot(key, stored.version(), tokens);
+                    } catch (IllegalArgumentException e) {
+                        // Sealed with a previous key or written in an unknown format: treat as logged out.
+                        LOGGER.warning("Discarding unreadable token record: " + e.getMessage());
+                        tokenStore.delete(key, stored.version());
+                        return null;
+                    }
+                })
+                .orElse(null);
+    }
+
+    /**
+     * Joins the refresh already running for this user on this node, or starts one from
+     * {@code basis}. The result is written back only if the record is still at the version the
+     * refresh started from; otherwise whatever another node stored in the meantime wins.
+     */
+    private CompletableFuture<SpotifyUserTokens> refresh(StoredSnapshot basis) {
+        CompletableFuture<SpotifyUserTokens> flight = new CompletableFuture<>();
+        CompletableFuture<SpotifyUserTokens> existing = refreshing.putIfAbsent(basis.key(), flight);
+        if (existing != null) {
+            return existing;
+        }
+
+        Thread.ofVirtual().name("spotify-user-token-refresh").start(() -> {
+            try {
+                // Another request may have finished a refresh between our read and winning the flight.
+                StoredSnapshot latest = load(basis.key());
+                if (latest == null) {
+                    throw new IllegalStateException("User session expired; please log in again");
+                }
+                if (latest.version() != basis.version()
+                        && clock.millis() < latest.tokens().expiresAtMillis() - refreshAheadMillis) {
+                    flight.complete(latest.tokens());
+                    return;
+                }
+
+                SpotifyUserTokens refreshed;
+                try {
+                    refreshed = requestRefresh(latest.tokens());
+                } catch (RestClientResponseException e) {
+                    int status = e.getStatusCode().value();
+                    if (status == 400 || status == 401) {
+                        // Refresh token revoked or already rotated away: the user has to log in again.
+                        tokenStore.delete(latest.key(), latest.version());
+                    }
+                    throw new UpstreamServiceException("Failed to refresh Spotify user token", e);
+                }
+                byte[] payload = tokenCipher.encrypt(refreshed.encode(), latest.key());
+                if (tokenStore.replace(latest.key(), latest.version(), payload, recordExpiry())) {
+                    flight.complete(refreshed);
+                } else {
+                    StoredSnapshot winner = load(latest.key());
+                    if (winner == null) {
+                        throw new IllegalStateException("User session expired; please log in again");
+                    }
+                    flight.complete(winner.tokens());
+                }
+            } catch (RuntimeException e) {
+                flight.completeExceptionally(e);
+            } finally {
+                refreshing.remove(basis.key(), flight);
+            }
+        });
+        return flight;
+    }
+
+    private SpotifyUserTokens requestRefresh(SpotifyUserTokens basis) {
         String clientId     = spotifyProperties.getClientId();
         String clientSecret = spotifyProperties.getClientSecret();
         String authUrl      = spotifyProperties.getAuthUrl();
-        String currentScope = (String) session.getAttribute(SESSION_SCOPE);
 
         String authHeader = "Basic " + Base64.getEncoder()
                 .encodeToString((clientId + ":" + clientSecret).getBytes());
 
-        try {
-            SpotifyAuthResponse response = restClient.post()
-                    .uri(authUrl)
-                    .header("Authorization", authHeader)
-                    .header("Content-Type", "application/x-www-form-urlencoded")
-                    .body("grant_type=refresh_token&refresh_token=" + refreshToken)
-                    .retrieve()
-                    .body(SpotifyAuthResponse.class);
-
-            if (response == null || response.getAccessToken() == null) {
-                clearTokens(session);
-                throw new UpstreamServiceException("Failed to refresh Spotify user token");
-            }
+        SpotifyAuthResponse response = restClient.post()
+                .uri(authUrl)
+                .header("Authorization", authHeader)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .body("grant_type=refresh_token&refresh_token="
+                        + URLEncoder.encode(basis.refreshToken(), StandardCharsets.UTF_8))
+                .retrieve()
+                .body(SpotifyAuthResponse.class);
 
-            // Spotify may issue a new refresh token; keep the old one if not
-            if (response.getRefreshToken() == null) {
-                response = new SpotifyAuthResponse(
-                        response.getAccessToken(),
-                        response.getTokenType(),
-                        response.getExpiresIn(),
-                        refreshToken,
-                        response.getScope());
-            }
+        if (response == null || response.getAccessToken() == null) {
+            throw new UpstreamServiceException("Failed to refresh Spotify user token");
+        }
 
-            // Refresh responses may omit scope; preserve prior granted scope.
-            if (response.getScope() == null && currentScope != null) {
-                response = new SpotifyAuthResponse(
-                        response.getAccessToken(),
-                        response.getTokenType(),
-                        response.getExpiresIn(),
-                        response.getRefreshToken(),
-                        currentScope);
-            }
+        LOGGER.fine("Refreshed Spotify user token");
+        // Spotify may issue a new refresh token and may omit scope; rotate() keeps ours otherwise.
+        return basis.rotate(response.getAccessToken(),
+                response.getRefreshToken(),
+                expiresAt(response),
+                response.getScope());
+    }
 
-            storeTokens(session, response);
-        } catch (Exception e) {
-            clearTokens(session);
+    private SpotifyUserTokens await(CompletableFuture<SpotifyUserTokens> refresh) {
+        try {
+            return refresh.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
             throw new UpstreamServiceException("Failed to refresh Spotify user token", e);
         }
     }
 
-    private boolean hasRequiredScope(HttpSession session) {
-        String scope = (String) session.getAttribute(SESSION_SCOPE);
-        if (scope == null || scope.isBlank()) {
-            return false;
+    private long expiresAt(SpotifyAuthResponse authResponse) {
+        return clock.millis() + ((long) authResponse.getExpiresIn() * 1000);
+    }
+
+    private Instant recordExpiry() {
+        return clock.instant().plus(tokenStoreProperties.getTtl());
+    }
+
+    private static String hash(String cookieValue) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(cookieValue.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        return java.util.Arrays.stream(scope.split("\\s+"))
-                .anyMatch(REQUIRED_SCOPE::equals);
     }
 }
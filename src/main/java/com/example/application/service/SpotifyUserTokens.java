@@ -0,0 +1,58 @@
+package com.example.application.service;
+
+import java.util.Arrays;
+
+import com.example.application.cache.BinaryReader;
+import com.example.application.cache.BinaryWriter;
+
+/**
+ * Immutable view of one user's Spotify tokens. A login or refresh produces a new instance that
+ * replaces the previous one atomically, so readers never observe an access token paired with
+ * another token's expiry or scope. Encoded as [version][access][refresh][expiresAt][scope] for the
+ * token store.
+ */
+public record SpotifyUserTokens(String accessToken,
+                                String refreshToken,
+                                long expiresAtMillis,
+                                String scope) {
+
+    private static final int VERSION = 1;
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    public boolean hasScope(String requiredScope) {
+        if (scope == null || scope.isBlank()) {
+            return false;
+        }
+        return Arrays.stream(scope.split("\\s+")).anyMatch(requiredScope::equals);
+    }
+
+    /** Copy carrying tokens from a refresh; keeps our refresh token and scope when Spotify omits them. */
+    public SpotifyUserTokens rotate(String newAccessToken, String newRefreshToken, long newExpiresAtMillis, String newScope) {
+        return new SpotifyUserTokens(newAccessToken,
+                newRefreshToken != null ? newRefreshToken : refreshToken,
+                newExpiresAtMillis,
+                newScope != null ? newScope : scope);
+    }
+
+    public byte[] encode() {
+        return new BinaryWriter(512)
+                .writeByte(VERSION)
+                .writeString(accessToken)
+                .writeString(refreshToken)
+                .writeLong(expiresAtMillis)
+                .writeString(scope)
+                .toByteArray();
+    }
+
+    public static SpotifyUserTokens decode(byte[] bytes) {
+        BinaryReader reader = new BinaryReader(bytes);
+        int version = reader.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported token record version " + version);
+        }
+        return new SpotifyUserTokens(reader.readString(), reader.readString(), reader.readLong(), reader.readString());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.application.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.example.application.config.SuggestProperties;
+import com.example.application.index.SuggestionTree;
+import com.example.application.model.queries.SpotifySearchQuery;
+import com.example.application.model.response.Suggestion;
+import com.example.application.model.response.SpotifyResponse;
+import com.example.application.model.response.YoutubeResponse;
+
+/**
+ * Typeahead over the tracks and artists conversions have resolved, ranked by how many conversions
+ * resolved them.
+ *
+ * A resolved conversion counts its best match: the first Spotify track, or the first YouTube video
+ * once {@link YoutubeTitleParser} names its artist with at least {@link YoutubeTitleParser#VEVO_CONFIDENCE}.
+ * The track is held under "title artist" and the artist under its name, so typing the start of
+ * either finds it. Counts live in memory and start over with the process.
+ */
+@Component
+public class SuggestionService {
+
+    static final String TRACK = "track";
+    static final String ARTIST = "artist";
+
+    private final SuggestProperties properties;
+    private final SuggestionTree<Completion> tree;
+
+    /** What a key completes to; equal completions from different keys are suggested once. */
+    private record Completion(String type, String title, String artistName) {
+    }
+
+    public SuggestionService(SuggestProperties properties) {
+        this.properties = properties;
+        this.tree = new SuggestionTree<>(properties.getMaxKeys(), properties.getMaxKeyLength(),
+                properties.getCachedDepth(), properties.getMaxResults());
+    }
+
+    /** Counts the best Spotify match of a resolved conversion. */
+    public void recordTracks(List<SpotifyResponse> results) {
+        if (results == null || results.isEmpty()) {
+            return;
+        }
+        SpotifyResponse best = results.get(0);
+        record(best.getSongTitle(), best.getArtistName());
+    }
+
+    /** Counts the best YouTube match of a resolved conversion when its title names the artist. */
+    public void recordVideos(List<YoutubeResponse> results) {
+        if (results == null || results.isEmpty()) {
+            return;
+        }
+        YoutubeResponse best = results.get(0);
+        SpotifySearchQuery parsed = YoutubeTitleParser.parse(best.getSongTitle(), best.getArtistName());
+        if (parsed.getConfidence() >= YoutubeTitleParser.VEVO_CONFIDENCE) {
+            record(parsed.getTitle(), parsed.getArtist());
+        }
+    }
+
+    /** Up to {@code limit} tracks and artists starting with the prefix, most converted first. */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        if (!properties.isEnabled()) {
+            return List.of();
+        }
+        List<SuggestionTree.Match<Completion>> matches = tree.suggest(prefix, limit);
+        List<Suggestion> suggestions = new ArrayList<>(matches.size());
+        for (SuggestionTree.Match<Completion> match : matches) {
+            Completion completion = match.value();
+            suggestions.add(new Suggestion(completion.type(), completion.title(), completion.artistName(),
+                    match.popularity()));
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        return tree.size();
+    }
+
+    private void record(String title, String artistName) {
+        if (!properties.isEnabled() || isBlank(title) || isBlank(artistName)) {
+            return;
+        }
+        tree.add(title + " " + artistName, new Completion(TRACK, title, artistName));
+        tree.add(artistName, new Completion(ARTIST, null, artistName));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.application.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.example.application.config.TierRouterProperties;
+import com.example.application.model.queries.SpotifySearchQuery;
+
+/**
+ * Online model of which Spotify search tier answers which kind of query, used to order or skip
+ * tiers per conversion.
+ *
+ * Each query is reduced to a few features: the title's dominant script, its token count, whether
+ * the source is a "- Topic" channel, whether the title reads "Artist - Title", and the channel
+ * itself. For every feature value and tier the router counts attempts and answers. A tier's
+ * estimate is its overall answer rate, shifted in log-odds by each feature value's own rate, which
+ * is shrunk towards the overall rate while it has few samples.
+ *
+ * Routing keeps the strict-to-loose default order, since stricter tiers give better matches, but
+ * tries a tier that is unlikely to answer after the others and leaves out one that almost never
+ * does. Counts halve periodically so the model follows changes upstream, and a share of
+ * conversions runs in the default order to keep every tier measured.
+ */
+@Component
+public class TierRouter {
+
+    /** A query's routing features; {@code channel} is null when the source channel is unknown. */
+    record Features(List<String> keys, String channel) {
+    }
+
+    /** Shrinkage: a feature value needs this many attempts before its own rate counts as much as the prior. */
+    private static final int PRIOR_WEIGHT = 10;
+    private static final int HALVE_AT = 10_000;
+    private static final double MAX_LOGIT = 6;
+
+    /** Attempts and answers, halved together once attempts reach {@link #HALVE_AT}. */
+    private static final class Outcomes {
+        private int attempts;
+        private int answered;
+
+        synchronized void record(boolean answer) {
+            attempts++;
+            if (answer) {
+                answered++;
+            }
+            if (attempts >= HALVE_AT) {
+                attempts /= 2;
+                answered /= 2;
+            }
+        }
+
+        synchronized int attempts() {
+            return attempts;
+        }
+
+        synchronized double rate(double prior, int priorWeight) {
+            return (answered + prior * priorWeight) / (attempts + priorWeight);
+        }
+    }
+
+    private final TierRouterProperties properties;
+    private final Map<SpotifySearchTier, Outcomes> overall = new EnumMap<>(SpotifySearchTier.class);
+    private final Map<String, Map<SpotifySearchTier, Outcomes>> byFeature = new ConcurrentHashMap<>();
+    private final Map<String, Map<SpotifySearchTier, Outcomes>> byChannel = new ConcurrentHashMap<>();
+
+    private final LongAdder routed = new LongAdder();
+    private final LongAdder explored = new LongAdder();
+    private final LongAdder reordered = new LongAdder();
+    private final LongAdder skippedTiers = new LongAdder();
+    private final LongAdder conversions = new LongAdder();
+    private final LongAdder answeredConversions = new LongAdder();
+    private final LongAdder attemptsInAnswered = new LongAdder();
+
+    public TierRouter(TierRouterProperties properties) {
+        this.properties = properties;
+        for (SpotifySearchTier tier : SpotifySearchTier.values()) {
+            overall.put(tier, new Outcomes());
+        }
+    }
+
+    static Features features(SpotifySearchQuery query) {
+        String title = query.getTitle() == null ? "" : query.getTitle();
+        String channel = query.getChannel();
+        int tokens = title.isBlank() ? 0 : title.trim().split("\\s+").length;
+        List<String> keys = List.of(
+                "script=" + dominantScript(title),
+                "tokens=" + (tokens <= 2 ? "1-2" : tokens <= 5 ? "3-5" : "6+"),
+                "topic=" + (channel != null && channel.strip().toLowerCase(Locale.ROOT).endsWith("- topic")),
+                "dashed=" + title.contains(" - "));
+        return new Features(keys, channel == null || channel.isBlank() ? null : channel.strip().toLowerCase(Locale.ROOT));
+    }
+
+    /** The tiers to try for a query with these features, in order. Never empty. */
+    List<SpotifySearchTier> route(Features features) {
+        routed.increment();
+        if (!properties.isEnabled() || ThreadLocalRandom.current().nextDouble() < properties.getExploration()) {
+            explored.increment();
+            return SpotifySearchTier.DEFAULT_ORDER;
+        }
+        List<SpotifySearchTier> first = new ArrayList<>(3);
+        List<SpotifySearchTier> deferred = new ArrayList<>(3);
+        SpotifySearchTier best = null;
+        double bestEstimate = -1;
+        for (SpotifySearchTier tier : SpotifySearchTier.DEFAULT_ORDER) {
+            double estimate = estimate(features, tier);
+            if (estimate > bestEstimate) {
+                best = tier;
+                bestEstimate = estimate;
+            }
+            if (overall.get(tier).attempts() < properties.getMinSamples() || estimate >= properties.getDeferBelow()) {
+                first.add(tier);
+            } else if (estimate >= properties.getSkipBelow()) {
+                deferred.add(tier);
+            } else {
+                skippedTiers.increment();
+            }
+        }
+        first.addAll(deferred);
+        if (first.isEmpty()) {
+            skippedTiers.decrement();
+            first.add(best);
+        }
+        if (!first.equals(SpotifySearchTier.DEFAULT_ORDER)) {
+            reordered.increment();
+        }
+        return first;
+    }
+
+    /** Records one tier attempt for a query with these features. */
+    void record(Features features, SpotifySearchTier tier, boolean answered) {
+        overall.get(tier).record(answered);
+        for (String key : features.keys()) {
+            byFeature.computeIfAbsent(key, k -> newOutcomes()).get(tier).record(answered);
+        }
+        if (features.channel() != null) {
+            Map<SpotifySearchTier, Outcomes> channel = byChannel.get(features.channel());
+            if (channel == null && byChannel.size() < properties.getMaxChannels()) {
+                channel = byChannel.computeIfAbsent(features.channel(), k -> newOutcomes());
+            }
+            if (channel != null) {
+                channel.get(tier).record(answered);
+            }
+        }
+    }
+
+    /** Records how many tiers one conversion tried and whether any answered. */
+    void recordConversion(int tierAttempts, boolean answered) {
+        conversions.increment();
+        if (answered) {
+            answeredConversions.increment();
+            attemptsInAnswered.add(tierAttempts);
+        }
+    }
+
+    /** Estimated probability that the tier answers a query with these features. */
+    double estimate(Features features, SpotifySearchTier tier) {
+        double base = overall.get(tier).rate(0.5, 2);
+        double logit = logit(base);
+        for (String key : features.keys()) {
+            logit += shift(byFeature.get(key), tier, base);
+        }
+        if (features.channel() != null) {
+            logit += shift(byChannel.get(features.channel()), tier, base);
+        }
+        return 1 / (1 + Math.exp(-Math.max(-MAX_LOGIT, Math.min(MAX_LOGIT, logit))));
+    }
+
+    /**
+     * Counters, the share of reordered routes, tier attempts per answered conversion, and each
+     * tier's answer rate overall and per feature value.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        long routes = routed.sum();
+        long answered = answeredConversions.sum();
+        snapshot.put("routed", routes);
+        snapshot.put("explored", explored.sum());
+        snapshot.put("reorderedRatio", routes == 0 ? 0.0 : (double) reordered.sum() / routes);
+        snapshot.put("skippedTiers", skippedTiers.sum());
+        snapshot.put("conversions", conversions.sum());
+        snapshot.put("answeredConversions", answered);
+        snapshot.put("tierAttemptsPerAnsweredConversion", answered == 0 ? 0.0 : (double) attemptsInAnswered.sum() / answered);
+        snapshot.put("trackedChannels", byChannel.size());
+        snapshot.put("tiers", outcomeSnapshot(overall));
+        Map<String, Object> features = new TreeMap<>();
+        byFeature.forEach((key, outcomes) -> features.put(key, outcomeSnapshot(outcomes)));
+        snapshot.put("features", features);
+        return snapshot;
+    }
+
+    private static Map<String, Object> outcomeSnapshot(Map<SpotifySearchTier, Outcomes> outcomes) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        outcomes.forEach((tier, counts) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            int attempts = counts.attempts();
+            entry.put("attempts", attempts);
+            entry.put("answeredRatio", attempts == 0 ? 0.0 : counts.rate(0, 0));
+            snapshot.put(tier.metricName(), entry);
+        });
+        return snapshot;
+    }
+
+    private static double shift(Map<SpotifySearchTier, Outcomes> outcomes, SpotifySearchTier tier, double base) {
+        if (outcomes == null) {
+            return 0;
+        }
+        Outcomes counts = outcomes.get(tier);
+        return counts.attempts() == 0 ? 0 : logit(counts.rate(base, PRIOR_WEIGHT)) - logit(base);
+    }
+
+    private static double logit(double p) {
+        double clamped = Math.max(1e-4, Math.min(1 - 1e-4, p));
+        return Math.log(clamped / (1 - clamped));
+    }
+
+    private static Map<SpotifySearchTier, Outcomes> newOutcomes() {
+        Map<SpotifySearchTier, Outcomes> outcomes = new EnumMap<>(SpotifySearchTier.class);
+        for (SpotifySearchTier tier : SpotifySearchTier.values()) {
+            outcomes.put(tier, new Outcomes());
+        }
+        return outcomes;
+    }
+
+    /** LATIN, CJK, CYRILLIC, OTHER or NONE, by which script most of the title's letters are in. */
+    static String dominantScript(String title) {
+        int latin = 0;
+        int cjk = 0;
+        int cyrillic = 0;
+        int other = 0;
+        for (int i = 0; i < title.length(); ) {
+            int codePoint = title.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (!Character.isLetter(codePoint)) {
+                continue;
+            }
+            switch (Character.UnicodeScript.of(codePoint)) {
+                case LATIN -> latin++;
+                case HAN, HIRAGANA, KATAKANA, HANGUL -> cjk++;
+                case CYRILLIC -> cyrillic++;
+                default -> other++;
+            }
+        }
+        int max = Math.max(Math.max(latin, cjk), Math.max(cyrillic, other));
+        if (max == 0) {
+            return "NONE";
+        }
+        return max == latin ? "LATIN" : max == cjk ? "CJK" : max == cyrillic ? "CYRILLIC" : "OTHER";
+    }
+}
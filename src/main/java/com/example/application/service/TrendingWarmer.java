@@ -0,0 +1,193 @@
+package com.example.application.service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.application.config.WarmerProperties;
+import com.example.application.metrics.ConversionMetrics;
+import com.example.application.metrics.ConversionMetrics.Upstream;
+import com.example.application.model.response.SpotifyResponse;
+import com.example.application.model.response.YoutubeResponse;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Converts what users are about to convert before they do: the region's YouTube music chart
+ * (videos?chart=mostPopular&videoCategoryId=10) and the tracks of warmer.playlists, run through
+ * the same {@link LinkProcessorService} pipeline, so the metadata, search and match caches are
+ * warm when the traffic arrives.
+ *
+ * Each run spends at most warmer.youtube-quota-budget YouTube units and warmer.spotify-call-budget
+ * Spotify calls. A conversion starts only if its worst case still fits; what it actually spent is
+ * then read from its {@link ConversionMetrics.Conversion}, so conversions answered from cache cost
+ * nothing. Runs happen on one daemon thread, off the shared scheduler, and a run due while another
+ * is still going is dropped. Warmed conversions count on the "warmer" route and not towards
+ * suggestions, and run in the default Spotify market, each search fanning out to
+ * spotify.market.also-search as well.
+ */
+@Component
+public class TrendingWarmer {
+
+    private static final Logger LOGGER = Logger.getLogger(TrendingWarmer.class.getName());
+
+    static final String ROUTE = "warmer";
+    private static final String YOUTUBE_WATCH_URL = "https://www.youtube.com/watch?v=";
+    private static final String SPOTIFY_TRACK_URL = "https://open.spotify.com/track/";
+    private static final int YOUTUBE_FALLBACK_TIERS = 3;
+
+    /** A video conversion looks the video up at most once and runs every search tier, plus a match index lookup. */
+    private static final int VIDEO_CONVERSION_UNITS = YoutubeService.VIDEOS_QUOTA_COST;
+    /** A track conversion looks the track up at most once and runs every YouTube search tier. */
+    private static final int TRACK_CONVERSION_UNITS = YOUTUBE_FALLBACK_TIERS * YoutubeService.SEARCH_QUOTA_COST;
+    private static final int TRACK_CONVERSION_CALLS = 1;
+
+    private final WarmerProperties properties;
+    private final LinkProcessorService linkProcessorService;
+    private final YoutubeService youtubeService;
+    private final SpotifyService spotifyService;
+    private final ConversionMetrics conversionMetrics;
+    private final int videoConversionCalls;
+    private ThreadPoolExecutor runner;
+
+    /** What one run fetched, converted and spent. */
+    public record Run(int videos, int tracks, int converted, int failed, int skipped, int youtubeUnits,
+                      int spotifyCalls) {
+    }
+
+    /** The running totals of one run, checked before and charged after every upstream step. */
+    private final class Budget {
+        int videos;
+        int tracks;
+        int converted;
+        int failed;
+        int skipped;
+        int youtubeUnits;
+        int spotifyCalls;
+
+        boolean allows(int units, int calls) {
+            return youtubeUnits + units <= properties.getYoutubeQuotaBudget()
+                    && spotifyCalls + calls <= properties.getSpotifyCallBudget();
+        }
+
+        void charge(ConversionMetrics.Conversion conversion) {
+            youtubeUnits += conversion.calls(Upstream.YOUTUBE_SEARCH) * YoutubeService.SEARCH_QUOTA_COST
+                    + conversion.calls(Upstream.YOUTUBE_VIDEOS) * YoutubeService.VIDEOS_QUOTA_COST;
+            spotifyCalls += conversion.calls(Upstream.SPOTIFY_SEARCH) + conversion.calls(Upstream.SPOTIFY_TRACKS)
+                    + conversion.calls(Upstream.SPOTIFY_PLAYLISTS);
+        }
+
+        Run toRun() {
+            return new Run(videos, tracks, converted, failed, skipped, youtubeUnits, spotifyCalls);
+        }
+    }
+
+    public TrendingWarmer(WarmerProperties properties, LinkProcessorService linkProcessorService,
+                          YoutubeService youtubeService, SpotifyService spotifyService,
+                          ConversionMetrics conversionMetrics, SpotifyMarkets spotifyMarkets) {
+        this.properties = properties;
+        this.linkProcessorService = linkProcessorService;
+        this.youtubeService = youtubeService;
+        this.spotifyService = spotifyService;
+        this.conversionMetrics = conversionMetrics;
+        // Each search tier queries every market searched
+        this.videoConversionCalls = SpotifySearchTier.values().length * spotifyMarkets.maxSearchMarkets() + 1;
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        runner = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                runnable -> Thread.ofPlatform().daemon().name("trending-warmer").unstarted(runnable),
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @Scheduled(fixedDelayString = "${warmer.interval:PT1H}", initialDelayString = "${warmer.initial-delay:PT2M}")
+    public void schedule() {
+        if (runner != null && runner.getActiveCount() == 0) {
+            runner.execute(this::warm);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (runner != null) {
+            runner.shutdownNow();
+        }
+    }
+
+    /** Fetches the chart and playlists and converts their entries until the budget runs out. */
+    public Run warm() {
+        Budget budget = new Budget();
+        List<YoutubeResponse> videos = fetch(budget, YoutubeService.VIDEOS_QUOTA_COST, 0, "YouTube music chart",
+                () -> youtubeService.getTrendingVideos(properties.getRegion(), properties.getMaxVideos()));
+        budget.videos = videos.size();
+        for (int i = 0; i < videos.size(); i++) {
+            if (!budget.allows(VIDEO_CONVERSION_UNITS, videoConversionCalls)) {
+                budget.skipped += videos.size() - i;
+                break;
+            }
+            String url = YOUTUBE_WATCH_URL + videos.get(i).getVideoId();
+            convert(budget, () -> linkProcessorService.convertYoutubeLink(url));
+        }
+
+        for (String playlistId : properties.getPlaylists()) {
+            List<SpotifyResponse> tracks = fetch(budget, 0, 1, "Spotify playlist " + playlistId,
+                    () -> spotifyService.getPlaylistTracks(playlistId, properties.getMaxTracksPerPlaylist()));
+            budget.tracks += tracks.size();
+            for (int i = 0; i < tracks.size(); i++) {
+                if (!budget.allows(TRACK_CONVERSION_UNITS, TRACK_CONVERSION_CALLS)) {
+                    budget.skipped += tracks.size() - i;
+                    break;
+                }
+                String url = SPOTIFY_TRACK_URL + tracks.get(i).getTrackId();
+                convert(budget, () -> linkProcessorService.convertSpotifyLink(url));
+            }
+        }
+
+        Run run = budget.toRun();
+        LOGGER.info("Warmed " + run.converted() + " of " + (run.videos() + run.tracks()) + " trending conversions ("
+                + run.failed() + " failed, " + run.skipped() + " over budget) for " + run.youtubeUnits()
+                + " YouTube units and " + run.spotifyCalls() + " Spotify calls");
+        return run;
+    }
+
+    /** A chart or playlist of known cost, or nothing when it does not fit the budget or fails. */
+    private <T> List<T> fetch(Budget budget, int units, int calls, String source, Supplier<List<T>> fetch) {
+        if (!budget.allows(units, calls)) {
+            return List.of();
+        }
+        budget.youtubeUnits += units;
+        budget.spotifyCalls += calls;
+        try {
+            return fetch.get();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not fetch " + source + " to warm", e);
+            return List.of();
+        }
+    }
+
+    private void convert(Budget budget, Supplier<List<?>> conversion) {
+        ConversionMetrics.Conversion measured = conversionMetrics.begin(ROUTE);
+        try {
+            conversion.get();
+            budget.converted++;
+        } catch (RuntimeException e) {
+            budget.failed++;
+            LOGGER.log(Level.FINE, "Warming conversion failed", e);
+        } finally {
+            budget.charge(measured);
+            measured.close();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.application.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.application.config.CacheProperties;
+import com.example.application.index.IdCodec;
+import com.example.application.index.MappedMatchStore;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Long-lived record of which Spotify track each converted YouTube video matched, backed by a
+ * {@link MappedMatchStore} under cache.match-store.directory.
+ *
+ * Lookups read the mapping directly on the request thread. Writes and compaction run on one
+ * writer thread behind a bounded queue; when the queue is full a match is dropped rather than
+ * holding up the conversion, as the next conversion of that video records it again.
+ * If the store cannot be opened the index stays disabled and conversions search as usual.
+ */
+@Component
+public class VideoMatchIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(VideoMatchIndex.class.getName());
+    private static final int WRITE_QUEUE_CAPACITY = 10_000;
+
+    private final CacheProperties.MatchStore properties;
+    private final Clock clock;
+    private final ThreadLocal<MappedMatchStore.Match> scratch = ThreadLocal.withInitial(MappedMatchStore.Match::new);
+    private MappedMatchStore store;
+    private ThreadPoolExecutor writer;
+
+    public VideoMatchIndex(CacheProperties cacheProperties, Clock clock) {
+        this.properties = cacheProperties.getMatchStore();
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Path directory = Path.of(properties.getDirectory());
+        try {
+            long start = System.nanoTime();
+            store = MappedMatchStore.open(directory, properties.getExpectedEntries());
+            writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(WRITE_QUEUE_CAPACITY),
+                    runnable -> Thread.ofPlatform().daemon().name("match-index-writer").unstarted(runnable),
+                    new ThreadPoolExecutor.DiscardPolicy());
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            LOGGER.info("Mapped " + store.size() + " video matches from " + directory + " in " + elapsedMillis + " ms");
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not open match store " + directory + "; running without it", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return store != null;
+    }
+
+    /**
+     * @return the Spotify track ID matched to the video with at least cache.match-store.min-confidence,
+     *         or null
+     */
+    public String lookup(String videoId) {
+        if (store == null || !IdCodec.isYoutubeId(videoId)) {
+            return null;
+        }
+        MappedMatchStore.Match match = scratch.get();
+        if (!store.get(IdCodec.encodeYoutube(videoId), match) || match.confidence() < properties.getMinConfidence()) {
+            return null;
+        }
+        return IdCodec.decodeSpotify(match.trackHigh(), match.trackLow());
+    }
+
+    /** Queues the match for the writer thread; IDs that do not pack are skipped. */
+    public void record(String videoId, String trackId, float confidence) {
+        if (store == null || !IdCodec.isYoutubeId(videoId) || !IdCodec.isSpotifyId(trackId)) {
+            return;
+        }
+        long video = IdCodec.encodeYoutube(videoId);
+        long high = IdCodec.spotifyHigh(trackId);
+        long low = IdCodec.spotifyLow(trackId);
+        long matchedAt = clock.instant().getEpochSecond();
+        writer.execute(() -> {
+            try {
+                store.put(video, high, low, confidence, matchedAt);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Could not record match for video " + videoId, e);
+            }
+        });
+    }
+
+    /** Compacts once superseded records outnumber live ones, then flushes to disk. */
+    @Scheduled(fixedDelayString = "${cache.match-store.compaction-interval:PT1H}",
+            initialDelayString = "${cache.match-store.compaction-interval:PT1H}")
+    public void maintain() {
+        if (store == null) {
+            return;
+        }
+        writer.execute(() -> {
+            try {
+                if (store.garbage() > store.size()) {
+                    store.compact();
+                }
+                store.flush();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Could not compact match store " + properties.getDirectory(), e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        if (store == null) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+            store.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not close match store " + properties.getDirectory(), e);
+        }
+    }
+}
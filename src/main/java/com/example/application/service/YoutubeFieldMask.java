@@ -0,0 +1,28 @@
+package com.example.application.service;
+
+/**
+ * The part and fields (partial response) parameters one YouTube Data API operation sends.
+ * Each mask names exactly what the matching projection binds, so YouTube omits tags, localized
+ * text, standard/maxres thumbnails, statistics and contentDetails before they reach the wire.
+ * The description is only requested when api.youtube.description-max-length keeps some of it.
+ */
+record YoutubeFieldMask(String part, String fields) {
+
+    private static final String THUMBNAILS = "thumbnails(default(url),medium(url),high(url))";
+
+    /** search.list: items(id/kind, id/videoId, snippet) as bound by YoutubeSearchProjection. */
+    static YoutubeFieldMask search(boolean withDescription) {
+        return new YoutubeFieldMask("snippet", "items(id(kind,videoId),snippet(" + snippet(withDescription) + "))");
+    }
+
+    /** videos.list: the response etag plus items(id, snippet) as bound by YoutubeVideoProjection. */
+    static YoutubeFieldMask videos(boolean withDescription) {
+        return new YoutubeFieldMask("snippet", "etag,items(id,snippet(" + snippet(withDescription) + "))");
+    }
+
+    private static String snippet(boolean withDescription) {
+        return withDescription
+                ? "title,channelTitle,description," + THUMBNAILS
+                : "title,channelTitle," + THUMBNAILS;
+    }
+}
@@ -1,75 +1,191 @@
 package com.example.application.service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
 
+import com.example.application.cache.ConversionCaches;
+import com.example.application.cache.ETagged;
+import com.example.application.cache.MissingIdFilter;
+import com.example.application.cache.TieredCache;
+import com.example.application.config.ApiProperties;
 import com.example.application.config.YoutubeProperties;
+import com.example.application.exception.InvalidLinkException;
 import com.example.application.exception.UpstreamServiceException;
+import com.example.application.index.IdCodec;
+import com.example.application.metrics.ConversionMetrics;
+import com.example.application.metrics.ConversionMetrics.Upstream;
+import com.example.application.metrics.ConversionTracing;
 import com.example.application.model.response.YoutubeResponse;
-import com.example.application.model.youtube_dto.SearchItem;
-import com.example.application.model.youtube_dto.VideoItem;
-import com.example.application.model.youtube_dto.YouTubeSearchApiResponse;
-import com.example.application.model.youtube_dto.YouTubeVideoApiResponse;
+import com.example.application.model.youtube_dto.YoutubeSearchProjection;
+import com.example.application.model.youtube_dto.YoutubeSnippetProjection;
+import com.example.application.model.youtube_dto.YoutubeVideoProjection;
+
+import jakarta.annotation.PreDestroy;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @Service
 public class YoutubeService {
 
     private final YoutubeProperties youtubeProperties;
+    private final TieredCache<YoutubeResponse> videoCache;
+    private final TieredCache<ETagged<YoutubeResponse>> revalidationCache;
+    private final TieredCache<List<YoutubeResponse>> searchCache;
+    private final MissingIdFilter missingVideos;
+    private final int descriptionMaxLength;
+    private final YoutubeFieldMask searchMask;
+    private final YoutubeFieldMask videosMask;
 
     // injecting rest client
     private final RestClient searchWebClientYt;
     private final RestClient trackWebClientYt;
+    private final WebClient reactiveWebClientYt;
+    private final Duration reactiveTimeout;
 
 
     // api parameters
     private static final int MAX_RESULTS = 10;
     private static final String orderUrlParam = "relevance";
-    private static final String partUrlParam = "snippet";
     private static final String typeUrlParam = "video";
+    private static final int MAX_IDS_PER_CALL = 50;
+    static final int SEARCH_QUOTA_COST = 100;
+    static final int VIDEOS_QUOTA_COST = 1;
+    private static final int MUSIC_CATEGORY_ID = 10;
+    private static final int MAX_CHART_RESULTS = 50;
+
+    private final int batchSize;
+    private final MicroBatcher<String, YoutubeResponse> videoBatcher;
+    private final ConversionMetrics conversionMetrics;
+    private final ConversionTracing conversionTracing;
 
 
     public YoutubeService(@Qualifier("youtubeClient") RestClient searchWebClient,
                           @Qualifier("youtubeClient") RestClient trackWebClient,
-                          YoutubeProperties youtubeProperties) {
+                          @Qualifier("youtubeWebClient") WebClient reactiveWebClient,
+                          YoutubeProperties youtubeProperties,
+                          ApiProperties apiProperties,
+                          ConversionCaches conversionCaches,
+                          ConversionMetrics conversionMetrics,
+                          ConversionTracing conversionTracing) {
         this.searchWebClientYt = searchWebClient;
+        this.conversionMetrics = conversionMetrics;
+        this.conversionTracing = conversionTracing;
         this.trackWebClientYt = trackWebClient;
+        this.reactiveWebClientYt = reactiveWebClient;
+        this.reactiveTimeout = apiProperties.getReactive().getTimeout();
         this.youtubeProperties = youtubeProperties;
+        this.descriptionMaxLength = apiProperties.getYoutube().getDescriptionMaxLength();
+        this.searchMask = YoutubeFieldMask.search(descriptionMaxLength != 0);
+        this.videosMask = YoutubeFieldMask.videos(descriptionMaxLength != 0);
+        this.videoCache = conversionCaches.videoMetadata();
+        this.revalidationCache = conversionCaches.videoRevalidation();
+        this.searchCache = conversionCaches.youtubeSearch();
+        this.missingVideos = conversionCaches.missingVideos();
+        ApiProperties.Batch batch = apiProperties.getBatch();
+        this.batchSize = Math.max(1, Math.min(batch.getMaxSize(), MAX_IDS_PER_CALL));
+        this.videoBatcher = batch.getWindowMs() > 0
+                ? new MicroBatcher<>("youtube-videos", batchSize, Duration.ofMillis(batch.getWindowMs()),
+                        reactiveTimeout, this::fetchVideos)
+                : null;
 
     }
 
+    @PreDestroy
+    public void close() {
+        if (videoBatcher != null) {
+            videoBatcher.close();
+        }
+    }
+
+    /**
+     * Searches YouTube (100 quota units per upstream call); identical queries are served from the search cache.
+     */
     public List<YoutubeResponse> getYoutubeResponse(String searchQuery) {
+        return conversionTracing.cacheStage("youtube.search",
+                () -> searchCache.get(searchKey(searchQuery), () -> searchVideos(searchQuery)));
+    }
+
+    private List<YoutubeResponse> searchVideos(String searchQuery) {
         String apiKey = youtubeProperties.getApiKey();
+        conversionMetrics.upstreamCall(Upstream.YOUTUBE_SEARCH);
+        conversionTracing.cacheMiss(SEARCH_QUOTA_COST);
         System.out.println("\n[YouTube Search] Query: " + searchQuery);
         
-        YouTubeSearchApiResponse apiResponse = searchWebClientYt.get()
+        YoutubeSearchProjection apiResponse = searchWebClientYt.get()
                 .uri(uriBuilder -> uriBuilder
                 .path("/youtube/v3/search")
                 .queryParam("key", apiKey)
                         .queryParam("q", searchQuery)
-                        .queryParam("part", partUrlParam)
+                        .queryParam("part", searchMask.part())
+                        .queryParam("fields", searchMask.fields())
                         .queryParam("type", typeUrlParam)
                         .queryParam("order", orderUrlParam)
                         .queryParam("maxResults", MAX_RESULTS)
                         .build())
                 .retrieve()
-                .body(YouTubeSearchApiResponse.class);
+                .body(YoutubeSearchProjection.class);
         
-        if (apiResponse == null || apiResponse.getItems() == null) {
+        return toSearchResults(apiResponse);
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #getYoutubeResponse(String)}, sharing its search cache.
+     */
+    public Mono<List<YoutubeResponse>> getYoutubeResponseReactive(String searchQuery) {
+        return ReactiveCacheSupport.cachedOrLoad(searchCache, searchKey(searchQuery), Mono.defer(() -> {
+            conversionMetrics.upstreamCall(Upstream.YOUTUBE_SEARCH);
+            return reactiveWebClientYt.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/youtube/v3/search")
+                            .queryParam("key", youtubeProperties.getApiKey())
+                            .queryParam("q", searchQuery)
+                            .queryParam("part", searchMask.part())
+                            .queryParam("fields", searchMask.fields())
+                            .queryParam("type", typeUrlParam)
+                            .queryParam("order", orderUrlParam)
+                            .queryParam("maxResults", MAX_RESULTS)
+                            .build())
+                    .retrieve()
+                    .bodyToMono(YoutubeSearchProjection.class)
+                    .timeout(reactiveTimeout)
+                    .map(this::toSearchResults)
+                    .defaultIfEmpty(Collections.emptyList())
+                    .onErrorMap(error -> !(error instanceof UpstreamServiceException),
+                            error -> upstreamError("YouTube search", error));
+        }));
+    }
+
+    private List<YoutubeResponse> toSearchResults(YoutubeSearchProjection apiResponse) {
+        if (apiResponse == null || apiResponse.items() == null) {
             System.out.println("[YouTube Search] No results found");
             return Collections.emptyList(); // Return an empty list if no data
         }
         // Map the API response to a list of YoutubeResponse objects
-        List<YoutubeResponse> results = apiResponse.getItems().stream()
-            .filter(item -> item.getId() != null && "youtube#video".equals(item.getId().getKind()))
+        List<YoutubeResponse> results = apiResponse.items().stream()
+            .filter(item -> item.id() != null && "youtube#video".equals(item.id().kind()))
             .map(this::mapSearchItemToYoutubeResponse)
             .filter(Objects::nonNull) // Filter out any null responses
             .collect((Collectors.toList()));
+        results.forEach(video -> missingVideos.forget(video.getVideoId()));
         
         System.out.println("[YouTube Search] Found " + results.size() + " videos:");
         for (int i = 0; i < results.size() && i < 10; i++) {
@@ -80,81 +196,309 @@ public class YoutubeService {
         return results;
     }   
 
+    /**
+     * Looks up one video. Concurrent lookups are coalesced into a single videos?id= call
+     * when api.batch.window-ms is positive.
+     *
+     * @throws InvalidLinkException for a malformed ID, or one YouTube recently reported missing
+     */
     public YoutubeResponse getSingleVideo(String videoId) {
+        requireWellFormed(videoId);
+        return conversionTracing.cacheStage("youtube.video", () -> lookupVideo(videoId));
+    }
+
+    private YoutubeResponse lookupVideo(String videoId) {
+        YoutubeResponse video = videoCache.getIfPresent(videoId);
+        if (video != null) {
+            return video;
+        }
+        if (missingVideos.isKnownMissing(videoId)) {
+            throw notFound(videoId);
+        }
+
+        // Counted here, on the request thread; batched lookups share the call this counts.
+        conversionMetrics.upstreamCall(Upstream.YOUTUBE_VIDEOS);
+        conversionTracing.cacheMiss(VIDEOS_QUOTA_COST);
+        ETagged<YoutubeResponse> known = revalidationCache.getIfPresent(videoId);
+        if (known != null) {
+            video = revalidateVideo(videoId, known);
+        } else {
+            video = videoBatcher != null
+                    ? videoBatcher.get(videoId)
+                    : fetchVideos(List.of(videoId)).get(videoId);
+        }
+
+        if (video == null) {
+            missingVideos.recordMissing(videoId);
+            throw notFound(videoId);
+        }
+        videoCache.put(videoId, video);
+        return video;
+    }
+
+    /** Search cache keys ignore case and surrounding blanks, folded the same way under any default locale. */
+    private static String searchKey(String searchQuery) {
+        return searchQuery.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Malformed IDs never reach the cache, the batcher or the API; one would fail a whole batched call. */
+    private static void requireWellFormed(String videoId) {
+        if (!IdCodec.isYoutubeId(videoId)) {
+            throw new InvalidLinkException("Invalid YouTube video ID: " + videoId);
+        }
+    }
+
+    private static InvalidLinkException notFound(String videoId) {
+        return new InvalidLinkException("YouTube video not found: " + videoId);
+    }
+
+    /**
+     * Re-fetches one expired video with If-None-Match. On 304 the stored body is still current and
+     * goes back into the metadata cache without downloading or parsing the snippet again.
+     * Conditional requests carry their own ETag, so they bypass the micro-batcher. A video first
+     * fetched in a batch has no ETag of its own yet: it is re-fetched alone, unconditionally, so
+     * the single-ID response's ETag is captured and later expiries can revalidate.
+     */
+    private YoutubeResponse revalidateVideo(String videoId, ETagged<YoutubeResponse> known) {
+        ResponseEntity<YoutubeVideoProjection> response = trackWebClientYt.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/youtube/v3/videos")
+                        .queryParam("key", youtubeProperties.getApiKey())
+                        .queryParam("id", videoId)
+                        .queryParam("part", videosMask.part())
+                        .queryParam("fields", videosMask.fields())
+                        .build())
+                .headers(headers -> {
+                    if (known.eTag() != null) {
+                        headers.setIfNoneMatch(known.eTag());
+                    }
+                })
+                .retrieve()
+                .toEntity(YoutubeVideoProjection.class);
+        return fromConditionalResponse(videoId, known, response);
+    }
+
+    private YoutubeResponse fromConditionalResponse(String videoId, ETagged<YoutubeResponse> known,
+                                                    ResponseEntity<YoutubeVideoProjection> response) {
+        if (known != null && known.eTag() != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            conversionTracing.annotate(ConversionTracing.REVALIDATED, true);
+            revalidationCache.put(videoId, known);
+            return known.value();
+        }
+        return rememberETag(List.of(videoId), response.getBody()).get(videoId);
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #getSingleVideo(String)}, sharing its metadata cache and
+     * revalidating expired entries the same way. Reactive lookups are not micro-batched.
+     */
+    public Mono<YoutubeResponse> getSingleVideoReactive(String videoId) {
+        if (!IdCodec.isYoutubeId(videoId)) {
+            return Mono.error(new InvalidLinkException("Invalid YouTube video ID: " + videoId));
+        }
+        return ReactiveCacheSupport.cachedOrLoad(videoCache, videoId, Mono.defer(() -> {
+            if (missingVideos.isKnownMissing(videoId)) {
+                return Mono.error(notFound(videoId));
+            }
+            conversionMetrics.upstreamCall(Upstream.YOUTUBE_VIDEOS);
+            return Mono.fromCallable(() -> Optional.ofNullable(revalidationCache.getIfPresent(videoId)))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(known -> reactiveWebClientYt.get()
+                            .uri(uriBuilder -> uriBuilder
+                                    .path("/youtube/v3/videos")
+                                    .queryParam("key", youtubeProperties.getApiKey())
+                                    .queryParam("id", videoId)
+                                    .queryParam("part", videosMask.part())
+                                    .queryParam("fields", videosMask.fields())
+                                    .build())
+                            .headers(headers -> known.map(ETagged::eTag).ifPresent(headers::setIfNoneMatch))
+                            .retrieve()
+                            .toEntity(YoutubeVideoProjection.class)
+                            .timeout(reactiveTimeout)
+                            // Remembering the ETag may write to the shared store.
+                            .publishOn(Schedulers.boundedElastic())
+                            .mapNotNull(response -> fromConditionalResponse(videoId, known.orElse(null), response)))
+                    .onErrorMap(error -> !(error instanceof UpstreamServiceException),
+                            error -> upstreamError("YouTube video lookup", error))
+                    .switchIfEmpty(Mono.error(() -> {
+                        missingVideos.recordMissing(videoId);
+                        return notFound(videoId);
+                    }));
+        }));
+    }
+
+    /**
+     * Looks up several videos, issuing one upstream call (1 quota unit) per 50 IDs.
+     * Unknown IDs are absent from the returned map, which keeps the request order; malformed and
+     * recently missing IDs are left out of the upstream calls.
+     */
+    public Map<String, YoutubeResponse> getVideos(Collection<String> videoIds) {
+        return conversionTracing.cacheStage("youtube.videos", () -> lookupVideos(videoIds));
+    }
+
+    private Map<String, YoutubeResponse> lookupVideos(Collection<String> videoIds) {
+        Map<String, YoutubeResponse> results = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String videoId : new LinkedHashSet<>(videoIds)) {
+            if (!IdCodec.isYoutubeId(videoId)) {
+                continue;
+            }
+            YoutubeResponse cached = videoCache.getIfPresent(videoId);
+            results.put(videoId, cached);
+            if (cached == null && !missingVideos.isKnownMissing(videoId)) {
+                missing.add(videoId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            conversionTracing.cacheMiss(VIDEOS_QUOTA_COST * ((missing.size() + batchSize - 1) / batchSize));
+        }
+        for (int from = 0; from < missing.size(); from += batchSize) {
+            List<String> chunk = missing.subList(from, Math.min(from + batchSize, missing.size()));
+            conversionMetrics.upstreamCall(Upstream.YOUTUBE_VIDEOS);
+            Map<String, YoutubeResponse> fetched = fetchVideos(chunk);
+            for (String videoId : chunk) {
+                YoutubeResponse video = fetched.get(videoId);
+                if (video == null) {
+                    missingVideos.recordMissing(videoId);
+                } else {
+                    videoCache.put(videoId, video);
+                    results.put(videoId, video);
+                }
+            }
+        }
+        results.values().removeIf(Objects::isNull);
+        return results;
+    }
+
+    /**
+     * The most popular music videos in a region, in chart order: one upstream call (1 quota unit) for
+     * up to 50. They also seed the video metadata cache, so converting them needs no further lookup.
+     */
+    public List<YoutubeResponse> getTrendingVideos(String regionCode, int maxResults) {
         String apiKey = youtubeProperties.getApiKey();
-        YouTubeVideoApiResponse apiResponse = trackWebClientYt.get()
+        conversionMetrics.upstreamCall(Upstream.YOUTUBE_VIDEOS);
+        YoutubeVideoProjection apiResponse = trackWebClientYt.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/youtube/v3/videos")
+                        .queryParam("key", apiKey)
+                        .queryParam("chart", "mostPopular")
+                        .queryParam("videoCategoryId", MUSIC_CATEGORY_ID)
+                        .queryParam("regionCode", regionCode)
+                        .queryParam("maxResults", Math.max(1, Math.min(maxResults, MAX_CHART_RESULTS)))
+                        .queryParam("part", videosMask.part())
+                        .queryParam("fields", videosMask.fields())
+                        .build())
+                .retrieve()
+                .body(YoutubeVideoProjection.class);
+
+        List<YoutubeResponse> videos = new ArrayList<>(toVideoMap(apiResponse).values());
+        for (YoutubeResponse video : videos) {
+            missingVideos.forget(video.getVideoId());
+            videoCache.put(video.getVideoId(), video);
+        }
+        return videos;
+    }
+
+    private Map<String, YoutubeResponse> fetchVideos(List<String> videoIds) {
+        String apiKey = youtubeProperties.getApiKey();
+        YoutubeVideoProjection apiResponse = trackWebClientYt.get()
                 .uri(uriBuilder -> uriBuilder
                 .path("/youtube/v3/videos")
                 .queryParam("key", apiKey)
-                        .queryParam("id", videoId)
-                        .queryParam("part", "snippet,contentDetails,statistics")  // Request additional parts
+                        .queryParam("id", String.join(",", videoIds))
+                        .queryParam("part", videosMask.part())
+                        .queryParam("fields", videosMask.fields())
                         .build())
                 .retrieve()
-                .body(YouTubeVideoApiResponse.class);
-        
-        if (apiResponse == null || apiResponse.getItems() == null || apiResponse.getItems().isEmpty()) {
-            throw new UpstreamServiceException("Video not found");
-        }
-        
-        // Get the first item (should be the only one since we're querying by ID)
-        VideoItem item = apiResponse.getItems().get(0);
-        return mapVideoItemToYoutubeResponse(item);
+                .body(YoutubeVideoProjection.class);
+
+        return rememberETag(videoIds, apiResponse);
     }
 
+    /**
+     * Maps a videos response and, when it was for a single ID, keeps its ETag for revalidation.
+     * A multi-ID response's ETag covers the whole list and cannot validate one video later; its
+     * videos are remembered without an ETag so their next expiry fetches them alone.
+     */
+    private Map<String, YoutubeResponse> rememberETag(List<String> videoIds, YoutubeVideoProjection apiResponse) {
+        Map<String, YoutubeResponse> results = toVideoMap(apiResponse);
+        String eTag = videoIds.size() == 1 && apiResponse != null ? apiResponse.etag() : null;
+        for (YoutubeResponse video : results.values()) {
+            revalidationCache.put(video.getVideoId(), new ETagged<>(eTag, video));
+        }
+        return results;
+    }
 
-    private YoutubeResponse mapVideoItemToYoutubeResponse(VideoItem item) {
-        if (item == null || item.getSnippet() == null) {
-            return null;
+    private Map<String, YoutubeResponse> toVideoMap(YoutubeVideoProjection apiResponse) {
+        Map<String, YoutubeResponse> results = new LinkedHashMap<>();
+        if (apiResponse == null || apiResponse.items() == null) {
+            return results;
         }
-        
-        String videoId = item.getId();  // Direct string, not an object property
-        String songTitle = item.getSnippet().getTitle();
-        String artistName = item.getSnippet().getChannelTitle();
-        String description = item.getSnippet().getDescription();
-        
-        String thumbnailUrl = null;
-        if (item.getSnippet().getThumbnails() != null) {
-            // Try to get the high quality thumbnail, or fallback to others
-            if (item.getSnippet().getThumbnails().getHigh() != null) {
-                thumbnailUrl = item.getSnippet().getThumbnails().getHigh().getUrl();
-            } else if (item.getSnippet().getThumbnails().getMedium() != null) {
-                thumbnailUrl = item.getSnippet().getThumbnails().getMedium().getUrl();
-            } else if (item.getSnippet().getThumbnails().getDefaultThumbnail() != null) {
-                thumbnailUrl = item.getSnippet().getThumbnails().getDefaultThumbnail().getUrl();
+        for (YoutubeVideoProjection.Item item : apiResponse.items()) {
+            YoutubeResponse response = mapVideoItemToYoutubeResponse(item);
+            if (response != null) {
+                results.put(response.getVideoId(), response);
             }
         }
+        return results;
+    }
+
+
+    private static UpstreamServiceException upstreamError(String call, Throwable error) {
+        return new UpstreamServiceException(error instanceof TimeoutException
+                ? call + " timed out"
+                : call + " failed", error);
+    }
+
+    private YoutubeResponse mapVideoItemToYoutubeResponse(YoutubeVideoProjection.Item item) {
+        if (item == null || item.snippet() == null) {
+            return null;
+        }
         
-        return new YoutubeResponse(videoId, songTitle, artistName, thumbnailUrl, description);
+        String videoId = item.id();  // Direct string, not an object property
+        return mapSnippetToYoutubeResponse(videoId, item.snippet());
     }
 
 
-    private YoutubeResponse mapSearchItemToYoutubeResponse(SearchItem item) {
+    private YoutubeResponse mapSearchItemToYoutubeResponse(YoutubeSearchProjection.Item item) {
         // Perform basic null checks to prevent NullPointerExceptions
-        if (item == null || item.getId() == null || item.getSnippet() == null) {
+        if (item == null || item.id() == null || item.snippet() == null) {
             return null; // Cannot map if core parts are missing
         }
 
-        String videoId = item.getId().getVideoId();
-        String songTitle = item.getSnippet().getTitle();
-        // Commonly, channelTitle is used for artistName in search results if no direct artist field exists
-        String artistName = item.getSnippet().getChannelTitle();
-        String description = item.getSnippet().getDescription();
-
-        String thumbnailUrl = null;
-        // Logic to select the best available thumbnail URL
-        if (item.getSnippet().getThumbnails() != null) {
-            if (item.getSnippet().getThumbnails().getHigh() != null) {
-                thumbnailUrl = item.getSnippet().getThumbnails().getHigh().getUrl();
-            } else if (item.getSnippet().getThumbnails().getMedium() != null) {
-                thumbnailUrl = item.getSnippet().getThumbnails().getMedium().getUrl();
-            } else if (item.getSnippet().getThumbnails().getDefaultThumbnail() != null) {
-                thumbnailUrl = item.getSnippet().getThumbnails().getDefaultThumbnail().getUrl();
-            }
-        }
+        return mapSnippetToYoutubeResponse(item.id().videoId(), item.snippet());
+    }
+
+    private YoutubeResponse mapSnippetToYoutubeResponse(String videoId, YoutubeSnippetProjection snippet) {
+        // Commonly, channelTitle is used for artistName if no direct artist field exists
+        return new YoutubeResponse(
+                videoId,
+                snippet.title(),
+                snippet.channelTitle(),
+                snippet.bestThumbnailUrl(),
+                trimDescription(snippet.description()));
+    }
 
-        // Create and return an instance of your simplified YoutubeResponse DTO
-        return new YoutubeResponse(videoId, songTitle, artistName, thumbnailUrl, description);
+    /**
+     * Applies api.youtube.description-max-length so multi-KB descriptions are not
+     * carried around (and later cached) when the caller has no use for them.
+     */
+    String trimDescription(String description) {
+        if (description == null || descriptionMaxLength < 0) {
+            return description;
+        }
+        if (descriptionMaxLength == 0) {
+            return null;
+        }
+        if (description.length() <= descriptionMaxLength) {
+            return description;
+        }
+        int end = descriptionMaxLength;
+        // Never cut a surrogate pair in half
+        if (Character.isHighSurrogate(description.charAt(end - 1))) {
+            end--;
+        }
+        return description.substring(0, end);
     }
-    
 
 }
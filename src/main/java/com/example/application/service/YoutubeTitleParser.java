@@ -0,0 +1,409 @@
+package com.example.application.service;
+
+import java.util.Locale;
+import java.util.Set;
+
+import com.example.application.model.queries.SpotifySearchQuery;
+
+/**
+ * Splits a YouTube video title and channel name into the track and artist to search Spotify for.
+ *
+ * Patterns are data, not code: the tables below list the brackets, separators, quote pairs,
+ * featuring markers, noise words and channel suffixes the parser knows, and the parsing itself is a
+ * few passes of plain string scanning, without regular expressions.
+ *
+ * In order: a "- Topic" channel (YouTube's auto-generated artist channel) names the artist and its
+ * titles are the exact track names. Otherwise "Artist - Title" in the title wins over the channel,
+ * with the sides swapped when the right-hand side is the channel's artist. Then comes
+ * {@code Artist "Title"}, and finally the channel name, unless it looks like a label or a
+ * re-upload channel, which says nothing about the artist.
+ *
+ * The resulting query's confidence is how likely the split is to be right, from 0.95 for a Topic
+ * channel down to 0.3 when the artist is unknown.
+ */
+public final class YoutubeTitleParser {
+
+    static final float TOPIC_CONFIDENCE = 0.95f;
+    static final float SEPARATOR_MATCHING_CHANNEL_CONFIDENCE = 0.9f;
+    static final float SEPARATOR_CONFIDENCE = 0.8f;
+    static final float QUOTED_CONFIDENCE = 0.75f;
+    static final float VEVO_CONFIDENCE = 0.7f;
+    static final float CHANNEL_CONFIDENCE = 0.5f;
+    static final float UNKNOWN_ARTIST_CONFIDENCE = 0.3f;
+
+    private static final String[][] BRACKETS = {{"(", ")"}, {"[", "]"}, {"【", "】"}, {"（", "）"}};
+    /** Single quotes come last: an apostrophe is far more often just an apostrophe. */
+    private static final String[][] QUOTES = {{"\"", "\""}, {"“", "”"}, {"「", "」"}, {"『", "』"}, {"'", "'"}};
+    /** Artist/title separators; the first one in the title splits it. */
+    private static final String[] SEPARATORS = {" - ", " – ", " — ", " -- ", " ~ "};
+    /** Separators only trusted when the left-hand side is the channel's artist, e.g. "Metallica: Enter Sandman". */
+    private static final String[] CHANNEL_SEPARATORS = {": "};
+    /** {@code "Title" by Artist}. */
+    private static final String[] BY_MARKERS = {" by "};
+    /** Everything from these on is a description, a playlist name or hashtags. */
+    private static final String[] CUTS = {" | ", " ｜ ", " // ", " #"};
+    /** Featuring markers; "with" only counts at the start of a bracket, e.g. "(with Khalid)". */
+    private static final String[] FEATURING = {"featuring ", "feat. ", "feat ", "ft. ", "ft "};
+    private static final String[] BRACKET_FEATURING = {"with "};
+    /** Brackets starting with these are dropped too, e.g. "(from A Star Is Born)". */
+    private static final String[] BRACKET_DROPS = {"from "};
+    private static final String[] ARTIST_SEPARATORS = {", ", " & ", " x ", " X ", " × ", " vs. ", " vs ", " / ", " + "};
+    /** A bracket containing any of these words is dropped, e.g. "(Official Music Video)" or "[4K Remaster]". */
+    private static final Set<String> NOISE_WORDS = Set.of("official", "video", "audio", "lyrics", "lyric",
+            "visualizer", "visualiser", "mv", "m/v", "hd", "hq", "4k", "1080p", "clip", "officiel", "oficial", "remaster",
+            "remastered", "explicit", "clean");
+    /** Unbracketed noise at the end of a title, longest first. */
+    private static final String[] TRAILING_NOISE = {"official music video", "official lyric video", "official video",
+            "official audio", "official mv", "lyric video", "music video", "lyrics", "visualizer", "m/v", "mv"};
+    /** Channels whose name ends in one of these are labels or re-upload channels, not the artist. */
+    private static final String[] LABEL_SUFFIXES = {"records", "recordings", "entertainment", "music group",
+            "lyrics", "hits", "vibes", "nation", "channel", "productions", "tv", "label", "labels", "sounds"};
+    /** Stripped from an artist's own channel name, e.g. "Adele Official" or "ColdplayOfficial". */
+    private static final String[] CHANNEL_SUFFIXES = {" official", "official", " music"};
+
+    enum ChannelKind {
+        TOPIC, VEVO, ARTIST, LABEL
+    }
+
+    private YoutubeTitleParser() {
+    }
+
+    /** The search query for a video; {@code channel} may be null, and the query's channel is set to it. */
+    public static SpotifySearchQuery parse(String videoTitle, String channel) {
+        String title = videoTitle == null ? "" : videoTitle.strip();
+        ChannelKind kind = channelKind(channel);
+        String channelArtist = channelArtist(channel, kind);
+
+        title = cutDescription(removeBrackets(title));
+
+        String channelKey = channelArtist == null ? "" : key(channelArtist);
+        String artist;
+        String track;
+        float confidence;
+        int separator = kind == ChannelKind.TOPIC ? -1 : firstOf(title, SEPARATORS);
+        if (separator < 0 && !channelKey.isEmpty()) {
+            int colon = firstOf(title, CHANNEL_SEPARATORS);
+            separator = colon > 0 && key(title.substring(0, colon)).equals(channelKey) ? colon : -1;
+        }
+        String[] quoted;
+        if (kind == ChannelKind.TOPIC) {
+            artist = channelArtist;
+            track = cutFeaturing(title);
+            confidence = TOPIC_CONFIDENCE;
+        } else if (separator >= 0) {
+            int end = title.indexOf(' ', separator + 1) + 1;
+            String left = cutFeaturing(title.substring(0, separator));
+            String right = cutFeaturing(title.substring(end));
+            if (!channelKey.isEmpty() && key(primaryArtist(right)).equals(channelKey)
+                    && !key(primaryArtist(left)).equals(channelKey)) {
+                artist = right;
+                track = left;
+                confidence = SEPARATOR_MATCHING_CHANNEL_CONFIDENCE;
+            } else {
+                artist = left;
+                track = cutRepeatedArtist(right, left);
+                confidence = !channelKey.isEmpty() && key(primaryArtist(left)).equals(channelKey)
+                        ? SEPARATOR_MATCHING_CHANNEL_CONFIDENCE : SEPARATOR_CONFIDENCE;
+            }
+        } else if ((quoted = splitQuoted(title)) != null) {
+            artist = cutFeaturing(quoted[0]);
+            track = quoted[1];
+            confidence = QUOTED_CONFIDENCE;
+        } else {
+            track = cutFeaturing(title);
+            artist = channelArtist;
+            confidence = switch (kind) {
+                case VEVO -> VEVO_CONFIDENCE;
+                case ARTIST -> channelArtist == null ? UNKNOWN_ARTIST_CONFIDENCE : CHANNEL_CONFIDENCE;
+                default -> UNKNOWN_ARTIST_CONFIDENCE;
+            };
+        }
+
+        track = unquote(stripTrailingNoise(collapse(track)));
+        if (track.isEmpty()) {
+            track = collapse(title);
+        }
+        if (artist != null) {
+            // A credit the channel carries verbatim is one name, e.g. "Earth, Wind & Fire"
+            artist = stripTrailingNoise(collapse(removeAllBrackets(artist)));
+            artist = key(artist).equals(channelKey) ? artist : primaryArtist(artist).strip();
+            if (artist.isEmpty()) {
+                artist = null;
+            }
+        }
+
+        SpotifySearchQuery query = new SpotifySearchQuery(track, artist, null);
+        query.setChannel(channel);
+        query.setConfidence(confidence);
+        return query;
+    }
+
+    static ChannelKind channelKind(String channel) {
+        if (channel == null || channel.isBlank()) {
+            return ChannelKind.LABEL;
+        }
+        String name = channel.strip();
+        if (endsWithIgnoreCase(name, "- topic")) {
+            return ChannelKind.TOPIC;
+        }
+        if (endsWithIgnoreCase(name, "vevo")) {
+            return ChannelKind.VEVO;
+        }
+        for (String suffix : LABEL_SUFFIXES) {
+            if (endsWithIgnoreCase(name, suffix)
+                    && (name.length() == suffix.length() || !Character.isLetter(name.charAt(name.length() - suffix.length() - 1)))) {
+                return ChannelKind.LABEL;
+            }
+        }
+        return ChannelKind.ARTIST;
+    }
+
+    private static String channelArtist(String channel, ChannelKind kind) {
+        if (kind == ChannelKind.LABEL) {
+            return null;
+        }
+        String name = channel.strip();
+        switch (kind) {
+            case TOPIC -> name = name.substring(0, name.length() - "- topic".length());
+            case VEVO -> name = splitCamelCase(name.substring(0, name.length() - "vevo".length()).strip());
+            default -> {
+                for (String suffix : CHANNEL_SUFFIXES) {
+                    if (endsWithIgnoreCase(name, suffix) && name.length() > suffix.length()) {
+                        name = name.substring(0, name.length() - suffix.length());
+                        break;
+                    }
+                }
+            }
+        }
+        name = name.strip();
+        return name.isEmpty() ? null : name;
+    }
+
+    /** Drops noise brackets and featuring brackets, keeping the rest, e.g. "(Remix)" or "(Live)". */
+    private static String removeBrackets(String title) {
+        StringBuilder kept = null;
+        int copiedTo = 0;
+        for (int i = 0; i < title.length(); i++) {
+            for (String[] pair : BRACKETS) {
+                if (!title.startsWith(pair[0], i)) {
+                    continue;
+                }
+                int close = title.indexOf(pair[1], i + 1);
+                if (close < 0) {
+                    break;
+                }
+                String content = title.substring(i + 1, close).strip();
+                if (startsWithAny(content, FEATURING) || startsWithAny(content, BRACKET_FEATURING)
+                        || startsWithAny(content, BRACKET_DROPS) || isNoise(content)) {
+                    if (kept == null) {
+                        kept = new StringBuilder(title.length());
+                    }
+                    kept.append(title, copiedTo, i).append(' ');
+                    copiedTo = close + pair[1].length();
+                }
+                i = close;
+                break;
+            }
+        }
+        if (kept == null) {
+            return title;
+        }
+        return kept.append(title, copiedTo, title.length()).toString();
+    }
+
+    private static boolean isNoise(String content) {
+        String lower = content.toLowerCase(Locale.ROOT);
+        int start = 0;
+        while (start < lower.length()) {
+            int end = lower.indexOf(' ', start);
+            if (end < 0) {
+                end = lower.length();
+            }
+            if (end > start && NOISE_WORDS.contains(lower.substring(start, end))) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    private static String cutDescription(String title) {
+        int cut = title.length();
+        for (String marker : CUTS) {
+            int at = title.indexOf(marker);
+            if (at > 0 && at < cut) {
+                cut = at;
+            }
+        }
+        return title.substring(0, cut);
+    }
+
+    private static int firstOf(String title, String[] separators) {
+        int first = -1;
+        for (String separator : separators) {
+            int at = title.indexOf(separator);
+            if (at > 0 && (first < 0 || at < first)) {
+                first = at;
+            }
+        }
+        return first;
+    }
+
+    /** Drops a trailing repeat of the artist, e.g. "Numb – Linkin Park" after "Linkin Park - ". */
+    private static String cutRepeatedArtist(String track, String artist) {
+        int separator = firstOf(track, SEPARATORS);
+        if (separator > 0 && key(track.substring(separator)).equals(key(artist))) {
+            return track.substring(0, separator);
+        }
+        return track;
+    }
+
+    /** Removes every bracketed part, for artist credits such as "BTS (방탄소년단)". */
+    private static String removeAllBrackets(String text) {
+        for (String[] pair : BRACKETS) {
+            int open;
+            while ((open = text.indexOf(pair[0])) >= 0) {
+                int close = text.indexOf(pair[1], open + 1);
+                if (close < 0) {
+                    break;
+                }
+                text = text.substring(0, open) + " " + text.substring(close + pair[1].length());
+            }
+        }
+        return text;
+    }
+
+    /** {@code Artist "Title"} or {@code "Title" by Artist} as {artist, title}, or null. */
+    private static String[] splitQuoted(String title) {
+        for (String[] pair : QUOTES) {
+            int open = title.indexOf(pair[0]);
+            if (open < 0) {
+                continue;
+            }
+            int close = title.indexOf(pair[1], open + pair[0].length());
+            if (close <= open + pair[0].length()) {
+                continue;
+            }
+            String quoted = title.substring(open + pair[0].length(), close);
+            String before = title.substring(0, open).strip();
+            if (!before.isEmpty()) {
+                return new String[] {before, quoted};
+            }
+            String after = title.substring(close + pair[1].length());
+            for (String marker : BY_MARKERS) {
+                if (after.regionMatches(true, 0, marker, 0, marker.length())) {
+                    return new String[] {after.substring(marker.length()), quoted};
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Drops an unbracketed "ft. X" and everything after it. */
+    private static String cutFeaturing(String text) {
+        for (int i = 1; i < text.length(); i++) {
+            if (text.charAt(i - 1) == ' ' && startsWithAny(text, i, FEATURING)) {
+                return text.substring(0, i - 1);
+            }
+        }
+        return text;
+    }
+
+    /** The first of several credited artists, e.g. "Calvin Harris" for "Calvin Harris, Dua Lipa". */
+    private static String primaryArtist(String artist) {
+        int cut = artist.length();
+        for (String separator : ARTIST_SEPARATORS) {
+            int at = artist.indexOf(separator);
+            if (at > 0 && at < cut) {
+                cut = at;
+            }
+        }
+        return artist.substring(0, cut);
+    }
+
+    /** Drops unbracketed noise at the end, and any separator left dangling before it. */
+    private static String stripTrailingNoise(String text) {
+        for (String noise : TRAILING_NOISE) {
+            if (text.length() > noise.length() && endsWithIgnoreCase(text, noise)
+                    && text.charAt(text.length() - noise.length() - 1) == ' ') {
+                String stripped = text.substring(0, text.length() - noise.length()).strip();
+                int end = stripped.length();
+                while (end > 0 && "-–—|~".indexOf(stripped.charAt(end - 1)) >= 0) {
+                    end--;
+                }
+                return stripped.substring(0, end).strip();
+            }
+        }
+        return text;
+    }
+
+    private static String unquote(String track) {
+        for (String[] pair : QUOTES) {
+            if (track.length() > pair[0].length() + pair[1].length() && track.startsWith(pair[0]) && track.endsWith(pair[1])) {
+                return track.substring(pair[0].length(), track.length() - pair[1].length()).strip();
+            }
+        }
+        return track;
+    }
+
+    /** "TaylorSwift" to "Taylor Swift", for VEVO channel names. */
+    private static String splitCamelCase(String name) {
+        StringBuilder split = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (i > 0 && Character.isUpperCase(c) && Character.isLowerCase(name.charAt(i - 1))) {
+                split.append(' ');
+            }
+            split.append(c);
+        }
+        return split.toString();
+    }
+
+    /** Trims and collapses runs of whitespace to one space. */
+    private static String collapse(String text) {
+        StringBuilder collapsed = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = !collapsed.isEmpty();
+            } else {
+                if (space) {
+                    collapsed.append(' ');
+                    space = false;
+                }
+                collapsed.append(c);
+            }
+        }
+        return collapsed.toString();
+    }
+
+    /** Letters and digits only, lower-cased, for comparing artist names. */
+    private static String key(String name) {
+        StringBuilder key = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                key.append(Character.toLowerCase(c));
+            }
+        }
+        return key.toString();
+    }
+
+    private static boolean startsWithAny(String text, String[] prefixes) {
+        return startsWithAny(text, 0, prefixes);
+    }
+
+    private static boolean startsWithAny(String text, int offset, String[] prefixes) {
+        for (String prefix : prefixes) {
+            if (text.regionMatches(true, offset, prefix, 0, prefix.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean endsWithIgnoreCase(String text, String suffix) {
+        return text.regionMatches(true, text.length() - suffix.length(), suffix, 0, suffix.length());
+    }
+}
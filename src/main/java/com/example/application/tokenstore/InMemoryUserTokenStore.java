@@ -0,0 +1,80 @@
+package com.example.application.tokenstore;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-node store. Logins survive neither restarts nor a move to another node; use it for
+ * development or single-instance deployments.
+ */
+public class InMemoryUserTokenStore implements UserTokenStore {
+
+    private record Entry(byte[] payload, long version, Instant expiresAt) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public InMemoryUserTokenStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<StoredTokens> load(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (!clock.instant().isBefore(entry.expiresAt())) {
+            entries.remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.of(new StoredTokens(entry.payload(), entry.version()));
+    }
+
+    @Override
+    public void save(String key, byte[] payload, Instant expiresAt) {
+        entries.compute(key, (k, previous) ->
+                new Entry(payload, previous == null ? 1 : previous.version() + 1, expiresAt));
+    }
+
+    @Override
+    public boolean replace(String key, long expectedVersion, byte[] payload, Instant expiresAt) {
+        boolean[] replaced = new boolean[1];
+        entries.computeIfPresent(key, (k, previous) -> {
+            if (previous.version() != expectedVersion) {
+                return previous;
+            }
+            replaced[0] = true;
+            return new Entry(payload, expectedVersion + 1, expiresAt);
+        });
+        return replaced[0];
+    }
+
+    @Override
+    public void delete(String key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public boolean delete(String key, long expectedVersion) {
+        boolean[] deleted = new boolean[1];
+        entries.computeIfPresent(key, (k, previous) -> {
+            if (previous.version() != expectedVersion) {
+                return previous;
+            }
+            deleted[0] = true;
+            return null;
+        });
+        return deleted[0];
+    }
+
+    @Override
+    public void purgeExpired() {
+        Instant now = clock.instant();
+        entries.values().removeIf(entry -> !now.isBefore(entry.expiresAt()));
+    }
+}
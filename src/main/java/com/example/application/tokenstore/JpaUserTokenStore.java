@@ -0,0 +1,66 @@
+package com.example.application.tokenstore;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Relational store on the application's JPA datasource (H2 by default). Point
+ * {@code spring.datasource.url} at a file or server database to keep logins across restarts and
+ * share them between nodes.
+ */
+public class JpaUserTokenStore implements UserTokenStore {
+
+    private final UserTokenRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    public JpaUserTokenStore(UserTokenRepository repository, TransactionTemplate transactionTemplate, Clock clock) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<StoredTokens> load(String key) {
+        return repository.findById(key)
+                .filter(entity -> clock.instant().isBefore(entity.getExpiresAt()))
+                .map(entity -> new StoredTokens(entity.getPayload(), entity.getVersion()));
+    }
+
+    @Override
+    public void save(String key, byte[] payload, Instant expiresAt) {
+        transactionTemplate.executeWithoutResult(status -> {
+            UserTokenEntity entity = repository.findById(key).orElseGet(() -> {
+                UserTokenEntity created = new UserTokenEntity();
+                created.setId(key);
+                return created;
+            });
+            entity.setPayload(payload);
+            entity.setExpiresAt(expiresAt);
+            repository.save(entity);
+        });
+    }
+
+    @Override
+    public boolean replace(String key, long expectedVersion, byte[] payload, Instant expiresAt) {
+        return repository.replaceIfVersion(key, expectedVersion, payload, expiresAt) == 1;
+    }
+
+    @Override
+    public void delete(String key) {
+        repository.deleteById(key);
+    }
+
+    @Override
+    public boolean delete(String key, long expectedVersion) {
+        return repository.deleteIfVersion(key, expectedVersion) == 1;
+    }
+
+    @Override
+    public void purgeExpired() {
+        repository.deleteExpired(clock.instant());
+    }
+}
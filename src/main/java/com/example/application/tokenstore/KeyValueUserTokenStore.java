@@ -0,0 +1,84 @@
+package com.example.application.tokenstore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import com.example.application.cache.BinaryReader;
+import com.example.application.cache.BinaryWriter;
+import com.example.application.cache.SharedCacheStore;
+
+/**
+ * Store on top of the shared cache tier's key-value backend (Redis or the disk stand-in), with
+ * the store's native TTL doing expiry. Values are [version][payload]. The version check and the
+ * write are two round trips, so compare-and-set here is best effort: two nodes refreshing the same
+ * user in the same instant both succeed and the later snapshot wins, which is still a valid one.
+ */
+public class KeyValueUserTokenStore implements UserTokenStore {
+
+    private static final String KEY_PREFIX = "user-token:";
+
+    private final SharedCacheStore store;
+    private final Clock clock;
+
+    public KeyValueUserTokenStore(SharedCacheStore store, Clock clock) {
+        this.store = store;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<StoredTokens> load(String key) {
+        byte[] value = store.get(KEY_PREFIX + key);
+        if (value == null) {
+            return Optional.empty();
+        }
+        BinaryReader reader = new BinaryReader(value);
+        long version = reader.readLong();
+        return Optional.of(new StoredTokens(reader.readBytes(), version));
+    }
+
+    @Override
+    public void save(String key, byte[] payload, Instant expiresAt) {
+        long version = load(key).map(StoredTokens::version).orElse(0L) + 1;
+        write(key, version, payload, expiresAt);
+    }
+
+    @Override
+    public boolean replace(String key, long expectedVersion, byte[] payload, Instant expiresAt) {
+        Optional<StoredTokens> current = load(key);
+        if (current.isEmpty() || current.get().version() != expectedVersion) {
+            return false;
+        }
+        write(key, expectedVersion + 1, payload, expiresAt);
+        return true;
+    }
+
+    @Override
+    public void delete(String key) {
+        store.delete(KEY_PREFIX + key);
+    }
+
+    @Override
+    public boolean delete(String key, long expectedVersion) {
+        Optional<StoredTokens> current = load(key);
+        if (current.isEmpty() || current.get().version() != expectedVersion) {
+            return false;
+        }
+        delete(key);
+        return true;
+    }
+
+    private void write(String key, long version, byte[] payload, Instant expiresAt) {
+        Duration ttl = Duration.between(clock.instant(), expiresAt);
+        if (ttl.isNegative() || ttl.isZero()) {
+            delete(key);
+            return;
+        }
+        byte[] value = new BinaryWriter(payload.length + 16)
+                .writeLong(version)
+                .writeBytes(payload)
+                .toByteArray();
+        store.put(KEY_PREFIX + key, value, ttl);
+    }
+}
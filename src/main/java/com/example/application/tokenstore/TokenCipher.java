@@ -0,0 +1,82 @@
+package com.example.application.tokenstore;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.logging.Logger;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * AES-GCM encryption of token records at rest. Output is [12-byte IV][ciphertext + tag]; the record
+ * key is bound in as associated data, so a payload copied to another user's record fails to decrypt.
+ */
+public class TokenCipher {
+
+    private static final Logger LOGGER = Logger.getLogger(TokenCipher.class.getName());
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecretKey key;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * @param base64Key         16, 24 or 32 key bytes in Base64
+     * @param allowEphemeralKey whether a blank key may fall back to a random per-process key, which
+     *                          makes stored tokens unreadable after a restart; otherwise a blank key fails
+     */
+    public TokenCipher(String base64Key, boolean allowEphemeralKey) {
+        byte[] keyBytes;
+        if (base64Key == null || base64Key.isBlank()) {
+            if (!allowEphemeralKey) {
+                throw new IllegalStateException("user-tokens.encryption-key is not set; set USER_TOKEN_ENCRYPTION_KEY,"
+                        + " or user-tokens.allow-ephemeral-key=true (dev profile) to use a random key");
+            }
+            LOGGER.warning("user-tokens.encryption-key is not set; using a random key, stored logins will not survive a restart");
+            keyBytes = new byte[32];
+            random.nextBytes(keyBytes);
+        } else {
+            keyBytes = Base64.getDecoder().decode(base64Key.trim());
+            if (keyBytes.length != 16 && keyBytes.length != 24 && keyBytes.length != 32) {
+                throw new IllegalStateException("user-tokens.encryption-key must decode to 16, 24 or 32 bytes");
+            }
+        }
+        this.key = new SecretKeySpec(keyBytes, "AES");
+    }
+
+    public byte[] encrypt(byte[] plaintext, String recordKey) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(recordKey.getBytes(StandardCharsets.UTF_8));
+            byte[] sealed = cipher.doFinal(plaintext);
+            return ByteBuffer.allocate(IV_LENGTH + sealed.length).put(iv).put(sealed).array();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt token record", e);
+        }
+    }
+
+    /** Throws IllegalArgumentException when the payload was not sealed by this key for this record. */
+    public byte[] decrypt(byte[] payload, String recordKey) {
+        if (payload.length <= IV_LENGTH) {
+            throw new IllegalArgumentException("Token record is truncated");
+        }
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, payload, 0, IV_LENGTH));
+            cipher.updateAAD(recordKey.getBytes(StandardCharsets.UTF_8));
+            return cipher.doFinal(payload, IV_LENGTH, payload.length - IV_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Token record cannot be decrypted", e);
+        }
+    }
+}
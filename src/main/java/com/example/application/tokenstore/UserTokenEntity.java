@@ -0,0 +1,33 @@
+package com.example.application.tokenstore;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "user_tokens")
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserTokenEntity {
+
+    @Id
+    @Column(length = 64)
+    private String id;          // SHA-256 of the session cookie, never the cookie itself
+
+    @Column(nullable = false, length = 4096)
+    private byte[] payload;     // AES-GCM encrypted token snapshot
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Version
+    private long version;
+}
@@ -0,0 +1,31 @@
+package com.example.application.tokenstore;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface UserTokenRepository extends JpaRepository<UserTokenEntity, String> {
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update UserTokenEntity t set t.payload = :payload, t.expiresAt = :expiresAt, t.version = t.version + 1 "
+            + "where t.id = :id and t.version = :version")
+    int replaceIfVersion(@Param("id") String id,
+                         @Param("version") long version,
+                         @Param("payload") byte[] payload,
+                         @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from UserTokenEntity t where t.id = :id and t.version = :version")
+    int deleteIfVersion(@Param("id") String id, @Param("version") long version);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from UserTokenEntity t where t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,33 @@
+package com.example.application.tokenstore;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Storage SPI for per-user OAuth token records, so any node can serve any user without session
+ * affinity. Payloads are opaque (already encrypted) bytes; every write bumps the record's version,
+ * and {@link #replace} / {@link #delete(String, long)} only succeed against the version the caller
+ * read, which keeps concurrent refreshes on different nodes from overwriting each other.
+ */
+public interface UserTokenStore {
+
+    record StoredTokens(byte[] payload, long version) {
+    }
+
+    Optional<StoredTokens> load(String key);
+
+    /** Creates or overwrites the record unconditionally. */
+    void save(String key, byte[] payload, Instant expiresAt);
+
+    /** Overwrites the record only if it is still at {@code expectedVersion}. */
+    boolean replace(String key, long expectedVersion, byte[] payload, Instant expiresAt);
+
+    void delete(String key);
+
+    /** Deletes the record only if it is still at {@code expectedVersion}. */
+    boolean delete(String key, long expectedVersion);
+
+    /** Drops records past their expiry; stores with native TTLs may ignore it. */
+    default void purgeExpired() {
+    }
+}
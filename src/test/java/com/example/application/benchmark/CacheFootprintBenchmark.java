@@ -0,0 +1,118 @@
+package com.example.application.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.application.cache.ConversionCaches;
+import com.example.application.cache.NoopSharedCacheStore;
+import com.example.application.cache.TieredCache;
+import com.example.application.config.CacheProperties;
+import com.example.application.index.IdCodec;
+import com.example.application.model.response.SpotifyResponse;
+
+/**
+ * Fills the YouTube to Spotify match cache with {@code entries} five-track results, as objects
+ * and with cache.compact-local, and prints the retained heap as match results per GB. Tracks draw
+ * artists from a skewed pool of 20,000 names, so popular names repeat across entries the way they
+ * do in real traffic; every String is a fresh copy, as JSON binding would produce.
+ * The benchmark itself measures a hit, which for the compact form includes decoding the entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class CacheFootprintBenchmark {
+
+    private static final int TRACKS_PER_ENTRY = 5;
+    private static final int ARTISTS = 20_000;
+
+    @Param({"false", "true"})
+    public boolean compactLocal;
+
+    @Param({"50000"})
+    public int entries;
+
+    private TieredCache<List<SpotifyResponse>> matches;
+    private final SplittableRandom readKeys = new SplittableRandom(7);
+
+    @Setup
+    public void setUp() {
+        CacheProperties properties = new CacheProperties();
+        properties.setCompactLocal(compactLocal);
+        properties.setLocalMaxEntries(entries + 1);
+
+        long before = usedHeapAfterGc();
+        matches = new ConversionCaches(properties, new NoopSharedCacheStore(), Clock.systemUTC()).youtubeToSpotifyMatch();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < entries; i++) {
+            matches.put(key(i), result(random));
+        }
+        long retained = usedHeapAfterGc() - before;
+
+        System.out.printf("%n%s L1: %d entries in %.1f MB, %d bytes per entry, %,.0f entries per GB%n",
+                compactLocal ? "compact" : "object", entries, retained / 1e6, retained / entries,
+                entries / (retained / (double) (1L << 30)));
+    }
+
+    @Benchmark
+    public List<SpotifyResponse> hit() {
+        return matches.getIfPresent(key(readKeys.nextInt(entries)));
+    }
+
+    private static String key(int i) {
+        return IdCodec.decodeYoutube(i * 0x9E3779B97F4A7C15L);
+    }
+
+    private static List<SpotifyResponse> result(SplittableRandom random) {
+        List<SpotifyResponse> tracks = new ArrayList<>(TRACKS_PER_ENTRY);
+        for (int t = 0; t < TRACKS_PER_ENTRY; t++) {
+            String trackId = IdCodec.decodeSpotify(random.nextLong(), random.nextLong());
+            byte[] imageHash = new byte[20];
+            random.nextBytes(imageHash);
+            // Square the uniform draw: a few artists get most of the tracks.
+            double skew = random.nextDouble();
+            String artist = "Artist " + (int) (skew * skew * ARTISTS);
+            tracks.add(new SpotifyResponse(trackId, "Song title " + random.nextInt(1_000_000) + " (Remastered)", artist,
+                    "https://i.scdn.co/image/" + HexFormat.of().formatHex(imageHash),
+                    null, "https://open.spotify.com/track/" + trackId));
+        }
+        return tracks;
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CacheFootprintBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.application.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.application.index.InvertedIndex;
+
+/**
+ * Keyword searches against an {@link InvertedIndex} of {@code documents} synthetic "title artist"
+ * entries over a Zipf-ish vocabulary, spread over several segments as the catalog would be between
+ * merges. {@code hit} searches a title and artist that are indexed; {@code miss} one that is not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogSearchBenchmark {
+
+    private static final int SEGMENTS = 8;
+    private static final int VOCABULARY = 20_000;
+
+    @Param({"100000"})
+    public int documents;
+
+    private Path directory;
+    private InvertedIndex index;
+    private String[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("catalog-benchmark");
+        index = InvertedIndex.open(directory);
+        SplittableRandom random = new SplittableRandom(42);
+        queries = new String[1024];
+        for (int doc = 0; doc < documents; doc++) {
+            String text = word(random) + " " + word(random) + " " + word(random) + " artist" + random.nextInt(documents / 10);
+            index.add("id" + doc, text, ("payload " + doc).getBytes(StandardCharsets.UTF_8));
+            if (doc % (documents / queries.length) == 0 && doc / (documents / queries.length) < queries.length) {
+                queries[doc / (documents / queries.length)] = text;
+            }
+            if ((doc + 1) % (documents / SEGMENTS) == 0) {
+                index.flush();
+            }
+        }
+        index.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        index.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<InvertedIndex.Hit> hit() {
+        String query = queries[next++ & (queries.length - 1)];
+        return index.search(query, 10, 0.95f);
+    }
+
+    @Benchmark
+    public List<InvertedIndex.Hit> miss() {
+        return index.search("unindexed words here", 10, 0.95f);
+    }
+
+    /** Skewed word choice, so a few words are common and most are rare, as in real titles. */
+    private static String word(SplittableRandom random) {
+        int rank = (int) Math.pow(VOCABULARY, random.nextDouble());
+        return "w" + rank;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CatalogSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
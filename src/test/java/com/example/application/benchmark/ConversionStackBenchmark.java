@@ -0,0 +1,250 @@
+package com.example.application.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.application.cache.ConversionCaches;
+import com.example.application.cache.NoopSharedCacheStore;
+import com.example.application.config.ApiProperties;
+import com.example.application.config.CacheProperties;
+import com.example.application.config.ConversionMetricsProperties;
+import com.example.application.config.SpotifyProperties;
+import com.example.application.config.SuggestProperties;
+import com.example.application.config.TierRouterProperties;
+import com.example.application.config.YoutubeProperties;
+import com.example.application.metrics.ConversionMetrics;
+import com.example.application.metrics.ConversionTracing;
+import com.example.application.model.response.SpotifyResponse;
+import com.example.application.service.KeywordCatalog;
+import com.example.application.service.LinkConvertorService;
+import com.example.application.service.LinkProcessorService;
+import com.example.application.service.SpotifyAuthService;
+import com.example.application.service.SpotifyMarkets;
+import com.example.application.service.SpotifyService;
+import com.example.application.service.SuggestionService;
+import com.example.application.service.TierRouter;
+import com.example.application.service.VideoMatchIndex;
+import com.example.application.service.YoutubeService;
+import com.sun.management.OperatingSystemMXBean;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Drives the blocking (RestClient) and reactive (WebClient) YouTube to Spotify pipelines against the
+ * same in-process stub, which answers every call after {@code upstreamLatencyMs}. Each invocation
+ * converts {@value #CONVERSIONS} distinct videos concurrently, so every conversion misses the caches
+ * and costs one video lookup plus one search. The blocking stack gets one platform thread per
+ * conversion, like servlet workers; the reactive stack runs them through one flatMap.
+ * <p>
+ * JMH reports conversions per second. Run {@link #main} for conversions per CPU-second as well: the
+ * process CPU time over each iteration divided into the conversions done, stub included. The stub
+ * work is identical for both stacks, so the difference is the client stack's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversionStackBenchmark {
+
+    static final int CONVERSIONS = 64;
+
+    @Param({"20"})
+    public long upstreamLatencyMs;
+
+    private final AtomicLong videoSequence = new AtomicLong();
+    private HttpServer stub;
+    private ExecutorService stubExecutor;
+    private ExecutorService blockingWorkers;
+    private LinkProcessorService blockingStack;
+    private LinkProcessorService reactiveStack;
+    private PrintStream stdout;
+
+    private final OperatingSystemMXBean os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    private long iterationCpuNanos;
+    private long iterationConversions;
+    private final AtomicLong conversions = new AtomicLong();
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] spotifySearch = Payloads.load("spotify-search.json");
+        stubExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        stub.setExecutor(stubExecutor);
+        stub.createContext("/api/token", exchange -> respond(exchange,
+                "{\"access_token\":\"bench\",\"token_type\":\"Bearer\",\"expires_in\":3600}".getBytes(StandardCharsets.UTF_8)));
+        stub.createContext("/v1/search", exchange -> respond(exchange, spotifySearch));
+        stub.createContext("/youtube/v3/videos", exchange -> respond(exchange, videoPayload(exchange.getRequestURI())));
+        stub.start();
+
+        String baseUrl = "http://127.0.0.1:" + stub.getAddress().getPort();
+        blockingStack = pipeline(baseUrl);
+        reactiveStack = pipeline(baseUrl);
+        blockingWorkers = Executors.newFixedThreadPool(CONVERSIONS);
+
+        // The pipelines log every conversion to stdout; keep that I/O out of the measurement.
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(stdout);
+        blockingWorkers.shutdownNow();
+        stub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        iterationCpuNanos = os.getProcessCpuTime();
+        iterationConversions = conversions.get();
+    }
+
+    @TearDown(Level.Iteration)
+    public void endIteration() {
+        double cpuSeconds = (os.getProcessCpuTime() - iterationCpuNanos) / 1e9;
+        long done = conversions.get() - iterationConversions;
+        stdout.printf("  %d conversions, %.2f CPU-s, %.0f conversions per CPU-second%n",
+                done, cpuSeconds, cpuSeconds > 0 ? done / cpuSeconds : 0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONVERSIONS)
+    public int blockingRestClient() throws Exception {
+        List<Future<List<SpotifyResponse>>> pending = new ArrayList<>(CONVERSIONS);
+        for (String link : nextLinks()) {
+            pending.add(blockingWorkers.submit(() -> blockingStack.processYoutubeInput(link)));
+        }
+        int found = 0;
+        for (Future<List<SpotifyResponse>> conversion : pending) {
+            found += conversion.get().size();
+        }
+        conversions.addAndGet(CONVERSIONS);
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONVERSIONS)
+    public int reactiveWebClient() {
+        int found = reactiveStack.processYoutubeInputsReactive(nextLinks(), CONVERSIONS)
+                .block()
+                .values().stream()
+                .mapToInt(List::size)
+                .sum();
+        conversions.addAndGet(CONVERSIONS);
+        return found;
+    }
+
+    private List<String> nextLinks() {
+        List<String> links = new ArrayList<>(CONVERSIONS);
+        for (int i = 0; i < CONVERSIONS; i++) {
+            links.add("https://www.youtube.com/watch?v=" + videoId(videoSequence.incrementAndGet()));
+        }
+        return links;
+    }
+
+    /** Eleven URL-safe characters, unique per sequence number. */
+    private static String videoId(long sequence) {
+        String digits = Long.toString(sequence, 36);
+        return "v" + "0".repeat(10 - digits.length()) + digits;
+    }
+
+    private LinkProcessorService pipeline(String baseUrl) {
+        ApiProperties apiProperties = new ApiProperties();
+        apiProperties.getSpotify().setBaseUrl(baseUrl);
+        apiProperties.getYoutube().setBaseUrl(baseUrl);
+        // Reactive lookups are never micro-batched, so keep the blocking ones unbatched too.
+        apiProperties.getBatch().setWindowMs(0);
+        SpotifyProperties spotifyProperties = new SpotifyProperties();
+        spotifyProperties.setAuthUrl(baseUrl + "/api/token");
+        spotifyProperties.setClientId("bench");
+        spotifyProperties.setClientSecret("bench");
+        YoutubeProperties youtubeProperties = new YoutubeProperties();
+        youtubeProperties.setApiKey("bench");
+
+        ConversionCaches caches = new ConversionCaches(new CacheProperties(), new NoopSharedCacheStore(), Clock.systemUTC());
+        ConversionMetrics metrics = new ConversionMetrics(new ConversionMetricsProperties(), Clock.systemUTC());
+        ConversionTracing tracing = new ConversionTracing(ObservationRegistry.NOOP);
+        RestClient restClient = RestClient.builder().baseUrl(baseUrl).build();
+        WebClient webClient = WebClient.builder().baseUrl(baseUrl).build();
+
+        SpotifyAuthService auth = new SpotifyAuthService(spotifyProperties, apiProperties,
+                RestClient.builder(), WebClient.builder());
+        SpotifyMarkets markets = new SpotifyMarkets(spotifyProperties);
+        SpotifyService spotify = new SpotifyService(restClient, webClient, auth, apiProperties, caches, metrics, tracing,
+                markets);
+        YoutubeService youtube = new YoutubeService(restClient, restClient, webClient, youtubeProperties, apiProperties,
+                caches, metrics, tracing);
+        return new LinkProcessorService(spotify, youtube, new LinkConvertorService(youtube, spotify), caches, metrics,
+                tracing, new VideoMatchIndex(new CacheProperties(), Clock.systemUTC()),
+                new TierRouter(new TierRouterProperties()), new KeywordCatalog(new CacheProperties()),
+                new SuggestionService(new SuggestProperties()), markets);
+    }
+
+    private byte[] videoPayload(URI uri) {
+        String query = uri.getRawQuery();
+        int start = query.indexOf("id=") + 3;
+        int end = query.indexOf('&', start);
+        String id = end < 0 ? query.substring(start) : query.substring(start, end);
+        return ("{\"items\":[{\"id\":\"" + id + "\",\"snippet\":{\"title\":\"Song " + id
+                + " (Official Video)\",\"channelTitle\":\"Artist " + id + " - Topic\",\"description\":\"\"}}]}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        try {
+            exchange.getRequestBody().readAllBytes();
+            Thread.sleep(upstreamLatencyMs);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConversionStackBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.application.benchmark;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.application.model.response.SpotifyResponse;
+import com.example.application.model.response.YoutubeResponse;
+import com.example.application.model.spotify_dto.Image;
+import com.example.application.model.spotify_dto.SpotifySearchApiResponse;
+import com.example.application.model.spotify_dto.SpotifySearchProjection;
+import com.example.application.model.spotify_dto.SpotifyTrackProjection;
+import com.example.application.model.spotify_dto.TrackItem;
+import com.example.application.model.youtube_dto.SearchItem;
+import com.example.application.model.youtube_dto.YouTubeSearchApiResponse;
+import com.example.application.model.youtube_dto.YoutubeSearchProjection;
+
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Compares the full Lombok bean binding against the record projections for recorded
+ * search payloads. Run {@link #main} to get gc.alloc.rate.norm (bytes allocated per response).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeserializationBenchmark {
+
+    private JsonMapper mapper;
+    private byte[] spotifySearch;
+    private byte[] youtubeSearch;
+
+    @Setup
+    public void setUp() {
+        mapper = JsonMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        spotifySearch = Payloads.load("spotify-search.json");
+        youtubeSearch = Payloads.load("youtube-search.json");
+    }
+
+    @Benchmark
+    public List<SpotifyResponse> spotifySearchBeans() {
+        SpotifySearchApiResponse response = mapper.readValue(spotifySearch, SpotifySearchApiResponse.class);
+        List<SpotifyResponse> results = new ArrayList<>();
+        for (TrackItem item : response.getTracks().getItems()) {
+            String image = item.getAlbum().getImages().stream()
+                    .max(Comparator.comparingInt(Image::getWidth))
+                    .map(Image::getUrl)
+                    .orElse(null);
+            results.add(new SpotifyResponse(item.getId(), item.getName(), item.getArtists().get(0).getName(),
+                    image, item.getPreview_url(), item.getExternalUrls().getSpotify()));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<SpotifyResponse> spotifySearchProjection() {
+        SpotifySearchProjection response = mapper.readValue(spotifySearch, SpotifySearchProjection.class);
+        List<SpotifyResponse> results = new ArrayList<>();
+        for (SpotifyTrackProjection item : response.tracks().items()) {
+            String image = item.album().images().stream()
+                    .max(Comparator.comparingInt(SpotifyTrackProjection.Image::width))
+                    .map(SpotifyTrackProjection.Image::url)
+                    .orElse(null);
+            results.add(new SpotifyResponse(item.id(), item.name(), item.artists().get(0).name(),
+                    image, item.previewUrl(), item.externalUrls().spotify()));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<YoutubeResponse> youtubeSearchBeans() {
+        YouTubeSearchApiResponse response = mapper.readValue(youtubeSearch, YouTubeSearchApiResponse.class);
+        List<YoutubeResponse> results = new ArrayList<>();
+        for (SearchItem item : response.getItems()) {
+            results.add(new YoutubeResponse(item.getId().getVideoId(), item.getSnippet().getTitle(),
+                    item.getSnippet().getChannelTitle(), item.getSnippet().getThumbnails().getHigh().getUrl(),
+                    item.getSnippet().getDescription()));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<YoutubeResponse> youtubeSearchProjection() {
+        YoutubeSearchProjection response = mapper.readValue(youtubeSearch, YoutubeSearchProjection.class);
+        List<YoutubeResponse> results = new ArrayList<>();
+        for (YoutubeSearchProjection.Item item : response.items()) {
+            results.add(new YoutubeResponse(item.id().videoId(), item.snippet().title(),
+                    item.snippet().channelTitle(), item.snippet().bestThumbnailUrl(),
+                    item.snippet().description()));
+        }
+        return results;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DeserializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
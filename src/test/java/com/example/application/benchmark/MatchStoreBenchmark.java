@@ -0,0 +1,96 @@
+package com.example.application.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.application.index.MappedMatchStore;
+
+/**
+ * Random hits on a memory-mapped match store of {@code entries} videos, from four reader threads.
+ * Run with {@code -prof gc} to confirm lookups allocate nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class MatchStoreBenchmark {
+
+    @Param({"1000000"})
+    public int entries;
+
+    private Path directory;
+    private MappedMatchStore store;
+
+    @State(Scope.Thread)
+    public static class Reader {
+        final SplittableRandom random = new SplittableRandom();
+        final MappedMatchStore.Match match = new MappedMatchStore.Match();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("match-store-benchmark");
+        store = MappedMatchStore.open(directory, entries);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < entries; i++) {
+            store.put(video(i), random.nextLong(), random.nextLong(), 1f, 1_700_000_000L);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public long hit(Reader reader) {
+        store.get(video(reader.random.nextInt(entries)), reader.match);
+        return reader.match.trackLow();
+    }
+
+    @Benchmark
+    public boolean miss(Reader reader) {
+        return store.get(video(entries + reader.random.nextInt(entries)), reader.match);
+    }
+
+    private static long video(int i) {
+        return i * 0x9E3779B97F4A7C15L;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MatchStoreBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
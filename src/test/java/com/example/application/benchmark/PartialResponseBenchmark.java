@@ -0,0 +1,139 @@
+package com.example.application.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.application.model.response.YoutubeResponse;
+import com.example.application.model.youtube_dto.YoutubeSearchProjection;
+import com.example.application.model.youtube_dto.YoutubeVideoProjection;
+
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Compares recorded YouTube payloads fetched without masks (part=snippet,contentDetails,statistics
+ * for videos, part=snippet for search) against the same payloads under YoutubeService's part and
+ * fields masks. A YouTube to Spotify conversion costs one videos call; Spotify to YouTube costs
+ * one search call. Setup prints the bytes each costs on the wire, plain and gzipped; the
+ * benchmarks measure inflating and binding each body. Run {@link #main} for bytes allocated too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartialResponseBenchmark {
+
+    private JsonMapper mapper;
+    private byte[] videoFull;
+    private byte[] videoFields;
+    private byte[] searchFull;
+    private byte[] searchFields;
+
+    @Setup
+    public void setUp() {
+        mapper = JsonMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        videoFull = gzip(Payloads.load("youtube-video.json"));
+        videoFields = gzip(Payloads.load("youtube-video-fields.json"));
+        searchFull = gzip(Payloads.load("youtube-search.json"));
+        searchFields = gzip(Payloads.load("youtube-search-fields.json"));
+
+        report("videos", "youtube-video.json", videoFull, "youtube-video-fields.json", videoFields);
+        report("search", "youtube-search.json", searchFull, "youtube-search-fields.json", searchFields);
+    }
+
+    @Benchmark
+    public List<YoutubeResponse> videoWithoutMask() {
+        return videos(mapper.readValue(gunzip(videoFull), YoutubeVideoProjection.class));
+    }
+
+    @Benchmark
+    public List<YoutubeResponse> videoWithFieldMask() {
+        return videos(mapper.readValue(gunzip(videoFields), YoutubeVideoProjection.class));
+    }
+
+    @Benchmark
+    public List<YoutubeResponse> searchWithoutMask() {
+        return search(mapper.readValue(gunzip(searchFull), YoutubeSearchProjection.class));
+    }
+
+    @Benchmark
+    public List<YoutubeResponse> searchWithFieldMask() {
+        return search(mapper.readValue(gunzip(searchFields), YoutubeSearchProjection.class));
+    }
+
+    private static List<YoutubeResponse> videos(YoutubeVideoProjection response) {
+        List<YoutubeResponse> results = new ArrayList<>();
+        for (YoutubeVideoProjection.Item item : response.items()) {
+            results.add(new YoutubeResponse(item.id(), item.snippet().title(), item.snippet().channelTitle(),
+                    item.snippet().bestThumbnailUrl(), item.snippet().description()));
+        }
+        return results;
+    }
+
+    private static List<YoutubeResponse> search(YoutubeSearchProjection response) {
+        List<YoutubeResponse> results = new ArrayList<>();
+        for (YoutubeSearchProjection.Item item : response.items()) {
+            results.add(new YoutubeResponse(item.id().videoId(), item.snippet().title(),
+                    item.snippet().channelTitle(), item.snippet().bestThumbnailUrl(),
+                    item.snippet().description()));
+        }
+        return results;
+    }
+
+    private static void report(String call, String full, byte[] fullGzip, String masked, byte[] maskedGzip) {
+        System.out.printf("%s per conversion: %d -> %d bytes plain, %d -> %d bytes gzipped%n", call,
+                Payloads.load(full).length, Payloads.load(masked).length, fullGzip.length, maskedGzip.length);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static InputStream gunzip(byte[] body) {
+        try {
+            return new GZIPInputStream(new ByteArrayInputStream(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PartialResponseBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.application.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Loads recorded upstream payloads from src/test/resources/payloads.
+ */
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    static byte[] load(String name) {
+        try (InputStream in = Payloads.class.getResourceAsStream("/payloads/" + name)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Missing payload fixture: " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
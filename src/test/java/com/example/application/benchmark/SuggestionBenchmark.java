@@ -0,0 +1,94 @@
+package com.example.application.benchmark;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.application.index.SuggestionTree;
+
+/**
+ * Typeahead lookups against a {@link SuggestionTree} of {@code keys} synthetic "title artist" keys,
+ * added with skewed popularity as conversions would. {@code shortPrefix} types the first two
+ * characters of a key, answered from the kept rankings; {@code longPrefix} types twelve, answered
+ * by walking the matches; {@code add} counts one more conversion of a popular key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuggestionBenchmark {
+
+    private static final int VOCABULARY = 20_000;
+
+    @Param({"100000"})
+    public int keys;
+
+    private SuggestionTree<String> tree;
+    private String[] texts;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = new SuggestionTree<>(keys, 48, 8, 10);
+        SplittableRandom random = new SplittableRandom(42);
+        texts = new String[1024];
+        for (int key = 0; key < keys; key++) {
+            String text = word(random) + " " + word(random) + " artist" + random.nextInt(keys / 10);
+            int adds = 1 + (int) Math.pow(50, random.nextDouble());
+            for (int add = 0; add < adds; add++) {
+                tree.add(text, text);
+            }
+            if (key < texts.length) {
+                texts[key] = text;
+            }
+        }
+    }
+
+    @Benchmark
+    public List<SuggestionTree.Match<String>> shortPrefix() {
+        String text = texts[next++ & (texts.length - 1)];
+        return tree.suggest(text.substring(0, 2), 10);
+    }
+
+    @Benchmark
+    public List<SuggestionTree.Match<String>> longPrefix() {
+        String text = texts[next++ & (texts.length - 1)];
+        return tree.suggest(text.substring(0, Math.min(12, text.length())), 10);
+    }
+
+    @Benchmark
+    public boolean add() {
+        String text = texts[next++ & (texts.length - 1)];
+        return tree.add(text, text);
+    }
+
+    /** Skewed word choice, so a few words are common and most are rare, as in real titles. */
+    private static String word(SplittableRandom random) {
+        int rank = (int) Math.pow(VOCABULARY, random.nextDouble());
+        return "w" + rank;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SuggestionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
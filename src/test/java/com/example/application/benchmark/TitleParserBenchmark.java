@@ -0,0 +1,74 @@
+package com.example.application.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.application.model.queries.SpotifySearchQuery;
+import com.example.application.service.YoutubeTitleParser;
+
+/**
+ * Titles parsed per second by {@link YoutubeTitleParser}, cycling through the fixture corpus in
+ * src/test/resources/titles. Run {@link #main} for gc.alloc.rate.norm as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TitleParserBenchmark {
+
+    private String[] titles;
+    private String[] channels;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<String[]> rows = new ArrayList<>();
+        try (InputStream in = TitleParserBenchmark.class.getResourceAsStream("/titles/youtube-titles.tsv")) {
+            for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    rows.add(line.split("\t", -1));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        titles = rows.stream().map(row -> row[0]).toArray(String[]::new);
+        channels = rows.stream().map(row -> row[1]).toArray(String[]::new);
+    }
+
+    @Benchmark
+    public SpotifySearchQuery parse() {
+        int i = next;
+        next = i + 1 == titles.length ? 0 : i + 1;
+        return YoutubeTitleParser.parse(titles[i], channels[i]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TitleParserBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.application.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.application.model.response.SpotifyResponse;
+import com.example.application.model.response.YoutubeResponse;
+
+public class CompactResultCodecsTest {
+
+    private static final SpotifyResponse TRACK = new SpotifyResponse("4uLU6hMCjMI75M1A2tKUQC", "Never Gonna Give You Up",
+            "Rick Astley", "https://i.scdn.co/image/ab67616d0000b2734f0fd9dad63977146e685700",
+            "https://p.scdn.co/mp3-preview/8f1a2b3c?cid=abc", "https://open.spotify.com/track/4uLU6hMCjMI75M1A2tKUQC");
+    private static final YoutubeResponse VIDEO = new YoutubeResponse("dQw4w9WgXcQ",
+            "Rick Astley - Never Gonna Give You Up (Official Music Video)", "Rick Astley",
+            "https://i.ytimg.com/vi/dQw4w9WgXcQ/hqdefault.jpg", "The official video for “Never Gonna Give You Up”");
+
+    private final NameDictionary artists = new NameDictionary(1_000);
+    private final CompactResultCodecs codecs = new CompactResultCodecs(artists);
+
+    @Test
+    @DisplayName("Results round-trip and shed IDs, URL prefixes and repeated artist names")
+    public void roundTrip_isLosslessAndSmaller() {
+        List<SpotifyResponse> tracks = List.of(TRACK, new SpotifyResponse("1BxfuPKGuaTgP7aM0Bbdwr",
+                "Cruel Summer", "Taylor Swift", null, null, "https://open.spotify.com/track/1BxfuPKGuaTgP7aM0Bbdwr"));
+        byte[] compact = codecs.spotifyList.encode(tracks);
+
+        assertEquals(tracks, codecs.spotifyList.decode(compact));
+        assertEquals(VIDEO, codecs.youtubeResponse.decode(codecs.youtubeResponse.encode(VIDEO)));
+        assertTrue(compact.length * 2 < CacheCodecs.SPOTIFY_LIST.encode(tracks).length,
+                compact.length + " vs " + CacheCodecs.SPOTIFY_LIST.encode(tracks).length);
+
+        // The video's channel is already in the dictionary, so the entry refers to it instead of adding it.
+        assertEquals(2, artists.size());
+    }
+
+    @Test
+    @DisplayName("Values that do not fit a shortcut are kept verbatim")
+    public void roundTrip_keepsIrregularValues() {
+        List<SpotifyResponse> tracks = List.of(
+                new SpotifyResponse(null, null, null, null, null, null),
+                new SpotifyResponse("local:track:1", "Demo", "", "https://i.scdn.co/image/ABCDEF",
+                        "https://example.com/preview.mp3", "https://open.spotify.com/track/other"),
+                new SpotifyResponse("4uLU6hMCjMI75M1A2tKUQC", "Title", "Artist", "https://i.scdn.co/image/abc",
+                        null, "https://open.spotify.com/track/4uLU6hMCjMI75M1A2tKUQC?si=share"));
+        List<YoutubeResponse> videos = List.of(
+                new YoutubeResponse(null, null, null, null, null),
+                new YoutubeResponse("not-an-id", "Title", "Channel", "https://i.ytimg.com/vi/not-an-id/hqdefault.jpg", ""),
+                new YoutubeResponse("dQw4w9WgXcQ", "Title", "Channel", "https://i.ytimg.com/vi/otherVideo1/hqdefault.jpg", null),
+                new YoutubeResponse("dQw4w9WgXcQ", "Title", "Channel", "https://i.ytimg.com/vi/dQw4w9WgXcQ/hq720.jpg", null),
+                new YoutubeResponse("dQw4w9WgXcQ", "Title", "Channel", "https://i.ytimg.com/vi/dQw4w9WgXcQ/maxresdefault.jpg", null));
+
+        assertEquals(tracks, codecs.spotifyList.decode(codecs.spotifyList.encode(tracks)));
+        assertEquals(videos, codecs.youtubeList.decode(codecs.youtubeList.encode(videos)));
+    }
+
+    @Test
+    @DisplayName("A full dictionary falls back to inline names")
+    public void fullDictionary_storesNamesInline() {
+        CompactResultCodecs small = new CompactResultCodecs(new NameDictionary(1));
+        SpotifyResponse other = new SpotifyResponse("1BxfuPKGuaTgP7aM0Bbdwr", "Cruel Summer", "Taylor Swift",
+                null, null, null);
+
+        assertEquals(TRACK, small.spotifyResponse.decode(small.spotifyResponse.encode(TRACK)));
+        assertEquals(other, small.spotifyResponse.decode(small.spotifyResponse.encode(other)));
+    }
+
+    @Test
+    @DisplayName("A compact L1 decodes on every hit, so callers never share or alter the cached copy")
+    public void compactL1_returnsFreshCopies() {
+        TieredCache<SpotifyResponse> cache = new TieredCache<>("track", 100, Duration.ofHours(1), Duration.ofMinutes(1),
+                CacheCodecs.SPOTIFY_RESPONSE, codecs.spotifyResponse, new NoopSharedCacheStore(), Clock.systemUTC());
+        cache.put("id", TRACK);
+
+        SpotifyResponse first = cache.getIfPresent("id");
+        first.setSongTitle("changed");
+        SpotifyResponse second = cache.getIfPresent("id");
+
+        assertEquals(TRACK, second);
+        assertNotSame(first, second);
+        assertEquals(2, cache.stats().l1Hits());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.application.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.application.config.HttpCacheProperties;
+import com.example.application.model.response.SpotifyResponse;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import tools.jackson.databind.json.JsonMapper;
+
+public class ResultETagsTest {
+
+    private static final List<SpotifyResponse> RESULTS = List.of(new SpotifyResponse("4uLU6hMCjMI75M1A2tKUQC",
+            "Never Gonna Give You Up", "Rick Astley", null, null, "https://open.spotify.com/track/4uLU6hMCjMI75M1A2tKUQC"));
+
+    private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+
+    private final ResultETags resultETags = new ResultETags(new HttpCacheProperties(), clock);
+    private final ResultETagInterceptor interceptor = new ResultETagInterceptor(resultETags);
+    private final ResultETagFilter filter = new ResultETagFilter(resultETags);
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private MockHttpServletRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/links/youtube-to-spotify-tracks");
+        request.addParameter("youtubeUrl", "https://youtu.be/dQw4w9WgXcQ");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+
+    /** Runs one request through the filter and interceptor and, if it reaches the handler, writes the results. */
+    private MockHttpServletResponse exchange(MockHttpServletRequest request, boolean[] handlerRan) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (filteredRequest, filteredResponse) -> {
+            HttpServletResponse httpResponse = (HttpServletResponse) filteredResponse;
+            if (interceptor.preHandle((HttpServletRequest) filteredRequest, httpResponse, new Object())) {
+                handlerRan[0] = true;
+                httpResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                httpResponse.getOutputStream().write(jsonMapper.writeValueAsBytes(RESULTS));
+            }
+        });
+        if (response.getStatus() == 304) {
+            assertEquals(0, response.getContentAsByteArray().length);
+        }
+        return response;
+    }
+
+    @Test
+    @DisplayName("A matching If-None-Match gets 304 without reaching the handler")
+    public void revalidation_whenETagMatches_skipsHandler() throws Exception {
+        boolean[] firstRan = {false};
+        MockHttpServletResponse first = exchange(request(null), firstRan);
+        String eTag = first.getHeader(HttpHeaders.ETAG);
+
+        assertTrue(firstRan[0]);
+        assertEquals(resultETags.eTagOf(jsonMapper.writeValueAsBytes(RESULTS)), eTag, "the ETag hashes the written body");
+        assertEquals(jsonMapper.writeValueAsString(RESULTS), first.getContentAsString());
+        assertNotNull(eTag);
+        assertTrue(eTag.matches("\"[0-9a-f]{32}\""), eTag);
+        assertTrue(first.getHeader(HttpHeaders.CACHE_CONTROL).contains("stale-while-revalidate=3600"));
+
+        boolean[] secondRan = {false};
+        MockHttpServletResponse second = exchange(request("W/" + eTag), secondRan);
+
+        assertFalse(secondRan[0]);
+        assertEquals(304, second.getStatus());
+        assertEquals(eTag, second.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("Once the remembered ETag expires the handler runs again and may still answer 304")
+    public void revalidation_afterEtagTtl_rerunsHandler() throws Exception {
+        String eTag = exchange(request(null), new boolean[1]).getHeader(HttpHeaders.ETAG);
+        now = now.plus(new HttpCacheProperties().getEtagTtl()).plus(Duration.ofSeconds(1));
+
+        assertNull(resultETags.current(resultETags.requestKey(request(null))));
+        boolean[] ran = {false};
+        MockHttpServletResponse response = exchange(request(eTag), ran);
+
+        assertTrue(ran[0]);
+        assertEquals(304, response.getStatus());
+    }
+
+    @Test
+    @DisplayName("If-None-Match accepts lists, weak tags and *")
+    public void matches_handlesListsWeakTagsAndWildcard() {
+        assertTrue(ResultETags.matches("\"a\", W/\"b\"", "\"b\""));
+        assertTrue(ResultETags.matches("*", "\"b\""));
+        assertFalse(ResultETags.matches("\"a\"", "\"b\""));
+        assertFalse(ResultETags.matches(null, "\"b\""));
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.application.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.application.model.response.SpotifyResponse;
+
+public class TieredCacheTest {
+
+    private static final SpotifyResponse TRACK = new SpotifyResponse("4uLU6hMCjMI75M1A2tKUQC", "Never Gonna Give You Up",
+            "Rick Astley", "https://i.scdn.co/image/ab67616d0000b273", null,
+            "https://open.spotify.com/track/4uLU6hMCjMI75M1A2tKUQC");
+
+    private final Clock clock = Clock.systemUTC();
+
+    private TieredCache<SpotifyResponse> node(SharedCacheStore store) {
+        return new TieredCache<>("track", 100, Duration.ofHours(1), Duration.ofMinutes(1),
+                CacheCodecs.SPOTIFY_RESPONSE, store, clock);
+    }
+
+    @Test
+    @DisplayName("Loader runs once; later reads are L1 hits")
+    public void get_whenCalledTwice_loadsOnce() {
+        TieredCache<SpotifyResponse> cache = node(new NoopSharedCacheStore());
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("id", () -> { loads.incrementAndGet(); return TRACK; });
+        SpotifyResponse second = cache.get("id", () -> { loads.incrementAndGet(); return TRACK; });
+
+        assertEquals(TRACK, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().l1Hits());
+    }
+
+    @Test
+    @DisplayName("Codec round-trips and rejects unknown format versions")
+    public void codec_roundTripsAndChecksVersion() {
+        byte[] encoded = CacheCodecs.SPOTIFY_RESPONSE.encode(TRACK);
+        assertEquals(TRACK, CacheCodecs.SPOTIFY_RESPONSE.decode(encoded));
+
+        encoded[0] = 99;
+        byte[] unknownVersion = encoded;
+        assertThrows(IllegalArgumentException.class, () -> CacheCodecs.SPOTIFY_RESPONSE.decode(unknownVersion));
+    }
+
+    @Nested
+    @DisplayName("Disk-backed L2")
+    class DiskStore {
+
+        @TempDir
+        Path directory;
+
+        @Test
+        @DisplayName("A value loaded on one node is an L2 hit on another")
+        public void get_onSecondNode_hitsSharedTier() {
+            TieredCache<SpotifyResponse> first = node(new DiskSharedCacheStore(directory, clock));
+            TieredCache<SpotifyResponse> second = node(new DiskSharedCacheStore(directory, clock));
+
+            first.put("id", TRACK);
+
+            assertEquals(TRACK, second.get("id", () -> null));
+            assertEquals(1, second.stats().l2Hits());
+        }
+    }
+
+    @Nested
+    @DisplayName("Warm snapshot")
+    class WarmSnapshot {
+
+        @TempDir
+        Path directory;
+
+        private TieredCache<SpotifyResponse> nodeAt(Instant now) {
+            return new TieredCache<>("track", 100, Duration.ofHours(1), Duration.ofMinutes(1),
+                    CacheCodecs.SPOTIFY_RESPONSE, new NoopSharedCacheStore(), Clock.fixed(now, ZoneOffset.UTC));
+        }
+
+        @Test
+        @DisplayName("A restarted node serves snapshot entries lazily and drops expired ones")
+        public void attachSnapshot_servesLiveEntriesOnly() throws Exception {
+            Instant start = Instant.parse("2026-01-01T00:00:00Z");
+            TieredCache<SpotifyResponse> before = nodeAt(start);
+            before.put("id", TRACK);
+            Path file = directory.resolve("cache.snapshot");
+            assertEquals(1, CacheSnapshotFile.write(file, List.of(before), start.toEpochMilli()));
+
+            TieredCache<SpotifyResponse> restarted = nodeAt(start.plus(Duration.ofMinutes(30)));
+            restarted.attachSnapshot(CacheSnapshotFile.open(file).get("track"));
+            assertEquals(TRACK, restarted.getIfPresent("id"));
+            assertEquals(1, restarted.stats().snapshotHits());
+
+            TieredCache<SpotifyResponse> tooLate = nodeAt(start.plus(Duration.ofHours(2)));
+            tooLate.attachSnapshot(CacheSnapshotFile.open(file).get("track"));
+            assertNull(tooLate.getIfPresent("id"));
+        }
+
+        @Test
+        @DisplayName("A truncated snapshot is rejected instead of failing lookups")
+        public void open_whenTruncated_returnsNoSections() throws Exception {
+            Instant start = Instant.parse("2026-01-01T00:00:00Z");
+            TieredCache<SpotifyResponse> before = nodeAt(start);
+            before.put("id", TRACK);
+            Path file = directory.resolve("cache.snapshot");
+            CacheSnapshotFile.write(file, List.of(before), start.toEpochMilli());
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 10));
+
+            assertEquals(Map.of(), CacheSnapshotFile.open(file));
+        }
+
+        @Test
+        @DisplayName("An entry promoted from L2 keeps its original write time across a snapshot")
+        public void getIfPresent_afterPromotion_keepsWriteTime() throws Exception {
+            Instant start = Instant.parse("2026-01-01T00:00:00Z");
+            Path shared = directory.resolve("l2");
+            TieredCache<SpotifyResponse> writer = new TieredCache<>("track", 100, Duration.ofHours(1),
+                    Duration.ofMinutes(1), CacheCodecs.SPOTIFY_RESPONSE,
+                    new DiskSharedCacheStore(shared, Clock.fixed(start, ZoneOffset.UTC)), Clock.fixed(start, ZoneOffset.UTC));
+            writer.put("id", TRACK);
+
+            Instant later = start.plus(Duration.ofMinutes(50));
+            TieredCache<SpotifyResponse> reader = new TieredCache<>("track", 100, Duration.ofHours(1),
+                    Duration.ofMinutes(1), CacheCodecs.SPOTIFY_RESPONSE,
+                    new DiskSharedCacheStore(shared, Clock.fixed(later, ZoneOffset.UTC)), Clock.fixed(later, ZoneOffset.UTC));
+            assertEquals(TRACK, reader.getIfPresent("id"));
+            Path file = directory.resolve("cache.snapshot");
+            CacheSnapshotFile.write(file, List.of(reader), later.toEpochMilli());
+
+            TieredCache<SpotifyResponse> restarted = nodeAt(start.plus(Duration.ofMinutes(70)));
+            restarted.attachSnapshot(CacheSnapshotFile.open(file).get("track"));
+            assertNull(restarted.getIfPresent("id"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Redis-protocol L2")
+    class RedisStore {
+
+        @Test
+        @DisplayName("A value loaded on one node is an L2 hit on another")
+        public void get_onSecondNode_hitsSharedTier() throws Exception {
+            try (FakeRedisServer server = new FakeRedisServer();
+                 RedisSharedCacheStore storeA = new RedisSharedCacheStore("127.0.0.1", server.port(), Duration.ofSeconds(2), "t:", 2, 3, Duration.ofSeconds(30));
+                 RedisSharedCacheStore storeB = new RedisSharedCacheStore("127.0.0.1", server.port(), Duration.ofSeconds(2), "t:", 2, 3, Duration.ofSeconds(30))) {
+
+                TieredCache<SpotifyResponse> first = node(storeA);
+                TieredCache<SpotifyResponse> second = node(storeB);
+
+                first.put("id", TRACK);
+
+                assertEquals(TRACK, second.get("id", () -> null));
+                assertEquals(1, second.stats().l2Hits());
+            }
+        }
+
+        @Test
+        @DisplayName("A server that stops answering opens the circuit; misses then skip L2 until the cool-down ends")
+        public void get_whenServerStopsAnswering_opensCircuit() throws Exception {
+            try (FakeRedisServer server = new FakeRedisServer();
+                 RedisSharedCacheStore store = new RedisSharedCacheStore("127.0.0.1", server.port(),
+                         Duration.ofMillis(200), "t:", 2, 2, Duration.ofMillis(800))) {
+                TieredCache<SpotifyResponse> cache = node(store);
+                cache.put("warm", TRACK);
+                server.stopAnswering();
+
+                assertThrows(RuntimeException.class, () -> store.get("a"));
+                assertThrows(RuntimeException.class, () -> store.get("b"));
+                assertTrue(store.isCircuitOpen());
+
+                long start = System.nanoTime();
+                assertEquals(TRACK, cache.get("cold", () -> TRACK));
+                assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 100,
+                        "an open circuit fails fast instead of waiting for the timeout");
+                assertEquals(1, cache.stats().misses());
+
+                server.resumeAnswering();
+                Thread.sleep(900);
+                assertNull(store.get("missing"));
+                assertFalse(store.isCircuitOpen());
+            }
+        }
+    }
+
+    /**
+     * In-process stand-in for a Redis server supporting GET, SET (PX ignored) and DEL. While
+     * {@link #stopAnswering stopped}, connections are still accepted by the listen backlog but
+     * nothing is read or answered, like a hung server.
+     */
+    static final class FakeRedisServer implements AutoCloseable {
+
+        private final ServerSocket serverSocket = new ServerSocket(0);
+        private final Map<String, byte[]> data = new ConcurrentHashMap<>();
+        private volatile boolean answering = true;
+
+        FakeRedisServer() throws IOException {
+            Thread.ofVirtual().start(this::acceptLoop);
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        void stopAnswering() {
+            answering = false;
+        }
+
+        void resumeAnswering() {
+            answering = true;
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    Thread.ofVirtual().start(() -> serve(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket) {
+                InputStream in = new BufferedInputStream(socket.getInputStream());
+                OutputStream out = socket.getOutputStream();
+                while (true) {
+                    List<byte[]> command = readCommand(in);
+                    if (command == null) {
+                        return;
+                    }
+                    if (!answering) {
+                        while (!answering) {
+                            Thread.sleep(10);
+                        }
+                        return; // the client has timed out by now; drop the connection unanswered
+                    }
+                    String name = new String(command.get(0), StandardCharsets.UTF_8).toUpperCase();
+                    String key = command.size() > 1 ? new String(command.get(1), StandardCharsets.UTF_8) : null;
+                    switch (name) {
+                        case "GET" -> writeBulk(out, data.get(key));
+                        case "SET" -> { data.put(key, command.get(2)); out.write("+OK\r\n".getBytes()); }
+                        case "DEL" -> out.write((":" + (data.remove(key) == null ? 0 : 1) + "\r\n").getBytes());
+                        default -> out.write("-ERR unknown command\r\n".getBytes());
+                    }
+                    out.flush();
+                }
+            } catch (IOException | InterruptedException e) {
+                // client went away
+            }
+        }
+
+        private static List<byte[]> readCommand(InputStream in) throws IOException {
+            int marker = in.read();
+            if (marker != '*') {
+                return null;
+            }
+            int count = Integer.parseInt(readLine(in));
+            List<byte[]> args = new java.util.ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                in.read(); // '$'
+                int length = Integer.parseInt(readLine(in));
+                args.add(in.readNBytes(length));
+                readLine(in);
+            }
+            return args;
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int b;
+            while ((b = in.read()) != '\r') {
+                if (b == -1) {
+                    throw new IOException("closed");
+                }
+                line.append((char) b);
+            }
+            in.read();
+            return line.toString();
+        }
+
+        private static void writeBulk(OutputStream out, byte[] value) throws IOException {
+            if (value == null) {
+                out.write("$-1\r\n".getBytes());
+                return;
+            }
+            out.write(("$" + value.length + "\r\n").getBytes());
+            out.write(value);
+            out.write("\r\n".getBytes());
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
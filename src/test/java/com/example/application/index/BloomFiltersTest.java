@@ -0,0 +1,111 @@
+package com.example.application.index;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.function.LongPredicate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BloomFiltersTest {
+
+    private static final double RATE = 0.01;
+    private static final int PROBES = 200_000;
+
+    private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+
+    @Test
+    @DisplayName("CountingBloomFilter has no false negatives, keeps to its rate and forgets removed keys")
+    public void countingFilter_addsAndRemoves() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, RATE);
+        SplittableRandom random = new SplittableRandom(1);
+        long[] keys = random.longs(10_000).toArray();
+        for (long key : keys) {
+            filter.add(key);
+        }
+        assertTrue(filter.isFull());
+        for (long key : keys) {
+            assertTrue(filter.mightContain(key));
+        }
+        assertTrue(falsePositives(filter::mightContain, random) < PROBES * RATE * 1.5);
+
+        // Drop half; the other half must all still be found.
+        for (int i = 0; i < keys.length / 2; i++) {
+            assertTrue(filter.remove(keys[i]));
+        }
+        for (int i = keys.length / 2; i < keys.length; i++) {
+            assertTrue(filter.mightContain(keys[i]));
+        }
+        int stillPresent = 0;
+        for (int i = 0; i < keys.length / 2; i++) {
+            stillPresent += filter.mightContain(keys[i]) ? 1 : 0;
+        }
+        assertTrue(stillPresent < keys.length / 2 * RATE * 1.5, stillPresent + " removed keys still present");
+    }
+
+    @Test
+    @DisplayName("RotatingBloomFilter adds stages as it fills, so ten times its size stays near its rate")
+    public void rotatingFilter_scales() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(1_000, RATE, Duration.ofHours(1), clock);
+        SplittableRandom random = new SplittableRandom(2);
+        long[] keys = random.longs(10_000).toArray();
+        for (long key : keys) {
+            filter.add(key);
+        }
+        for (long key : keys) {
+            assertTrue(filter.mightContain(key));
+        }
+        // Stages at 1%, 0.5%, 0.25%, ...: the compound rate stays under 2%.
+        assertTrue(falsePositives(filter::mightContain, random) < PROBES * RATE * 2);
+    }
+
+    @Test
+    @DisplayName("RotatingBloomFilter remembers a key for one to two rotations")
+    public void rotatingFilter_forgetsAfterTwoRotations() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(1_000, RATE, Duration.ofHours(1), clock);
+        filter.add(42);
+
+        now = now.plus(Duration.ofMinutes(61));
+        assertTrue(filter.mightContain(42));
+        filter.add(43);
+
+        now = now.plus(Duration.ofMinutes(61));
+        assertFalse(filter.mightContain(42));
+        assertTrue(filter.mightContain(43));
+
+        // Idle for more than two periods: everything is stale.
+        now = now.plus(Duration.ofHours(3));
+        assertFalse(filter.mightContain(43));
+    }
+
+    private static int falsePositives(LongPredicate mightContain, SplittableRandom random) {
+        int positives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            positives += mightContain.test(random.nextLong()) ? 1 : 0;
+        }
+        return positives;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.application.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class IdCodecTest {
+
+    @Test
+    @DisplayName("YouTube IDs round-trip through a long, including the extremes")
+    public void youtube_roundTrips() {
+        for (String id : new String[] {"dQw4w9WgXcQ", "TddB-XhkAS0", "AAAAAAAAAAA", "__________8", "-_-_-_-_-_8"}) {
+            assertTrue(IdCodec.isYoutubeId(id), id);
+            assertEquals(id, IdCodec.decodeYoutube(IdCodec.encodeYoutube(id)));
+        }
+        assertEquals(0L, IdCodec.encodeYoutube("AAAAAAAAAAA"));
+        assertEquals(-1L, IdCodec.encodeYoutube("__________8"));
+
+        SplittableRandom random = new SplittableRandom(41);
+        for (int i = 0; i < 10_000; i++) {
+            long packed = random.nextLong();
+            assertEquals(packed, IdCodec.encodeYoutube(IdCodec.decodeYoutube(packed)));
+        }
+    }
+
+    @Test
+    @DisplayName("Strings that are not 64-bit YouTube IDs are rejected")
+    public void youtube_rejectsNonIds() {
+        // The last character of a real ID carries 4 bits, so 'R' (17) cannot end one.
+        for (String id : new String[] {null, "", "dQw4w9WgXc", "dQw4w9WgXcQQ", "dQw4w9WgXc=", "dQw4w9WgXcR", "dQw4w9WgXé"}) {
+            assertFalse(IdCodec.isYoutubeId(id), String.valueOf(id));
+        }
+        assertThrows(IllegalArgumentException.class, () -> IdCodec.encodeYoutube("dQw4w9WgXcR"));
+    }
+
+    @Test
+    @DisplayName("Spotify IDs round-trip through two longs, including the largest 128-bit value")
+    public void spotify_roundTrips() {
+        String max = IdCodec.decodeSpotify(-1L, -1L);
+        for (String id : new String[] {"4uLU6hMCjMI75M1A2tKUQC", "0000000000000000000000", "7GhIk7Il098yCjg4BQjzvb", max}) {
+            assertTrue(IdCodec.isSpotifyId(id), id);
+            assertEquals(id, IdCodec.decodeSpotify(IdCodec.spotifyHigh(id), IdCodec.spotifyLow(id)));
+        }
+        assertEquals(-1L, IdCodec.spotifyHigh(max));
+        assertEquals(-1L, IdCodec.spotifyLow(max));
+        assertEquals(61L, IdCodec.spotifyLow("000000000000000000000Z"));
+
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 10_000; i++) {
+            long high = random.nextLong();
+            long low = random.nextLong();
+            String id = IdCodec.decodeSpotify(high, low);
+            assertEquals(high, IdCodec.spotifyHigh(id));
+            assertEquals(low, IdCodec.spotifyLow(id));
+        }
+    }
+
+    @Test
+    @DisplayName("Base62 strings above 2^128 and malformed strings are not Spotify IDs")
+    public void spotify_rejectsNonIds() {
+        assertEquals("7N42dgm5tFLK9N8MT7fHC7", IdCodec.decodeSpotify(-1L, -1L));
+        // So anything with a leading 8 is beyond 2^128 - 1.
+        String aboveMax = "8000000000000000000000";
+        for (String id : new String[] {null, "4uLU6hMCjMI75M1A2tKUQ", "4uLU6hMCjMI75M1A2tKUQC0",
+                "4uLU6hMCjMI75M1A2tKUQ-", "ZZZZZZZZZZZZZZZZZZZZZZ", aboveMax}) {
+            assertFalse(IdCodec.isSpotifyId(id), String.valueOf(id));
+        }
+        assertThrows(IllegalArgumentException.class, () -> IdCodec.spotifyHigh("ZZZZZZZZZZZZZZZZZZZZZZ"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.application.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class InvertedIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Terms are case- and diacritics-folded, and CJK runs become bigrams")
+    public void terms_foldCaseDiacriticsAndCjk() {
+        assertEquals(List.of("beyonce", "halo"), TextAnalyzer.terms("BEYONCÉ – Halo!"));
+        assertEquals(List.of("maneskin", "beggin"), TextAnalyzer.terms("Måneskin: Beggin'"));
+        assertEquals(List.of("strasse", "motley", "crue"), TextAnalyzer.terms("Straße Mötley Crüe"));
+        assertEquals(List.of("yoasobi", "夜に", "に駆", "駆け", "ける"), TextAnalyzer.terms("YOASOBI 夜に駆ける"));
+    }
+
+    @Test
+    @DisplayName("BM25 ranks the closer match first and coverage filters partial matches")
+    public void search_ranksAndFiltersByCoverage() throws IOException {
+        try (InvertedIndex index = InvertedIndex.open(directory)) {
+            index.add("a", "Blinding Lights The Weeknd", payload("a"));
+            index.add("b", "Save Your Tears The Weeknd", payload("b"));
+            index.add("c", "Lights Up Harry Styles", payload("c"));
+            index.add("d", "Blinding Lights Blinding Lights Karaoke Version", payload("d"));
+            assertTrue(index.search("blinding lights", 10, 0).isEmpty(), "not searchable before a flush");
+            index.flush();
+
+            List<InvertedIndex.Hit> hits = index.search("the weeknd blinding lights", 10, 0);
+            assertEquals("a", hits.get(0).id());
+            assertEquals(1f, hits.get(0).coverage(), 1e-6);
+            assertEquals("a", new String(hits.get(0).payload(), StandardCharsets.UTF_8));
+
+            List<InvertedIndex.Hit> confident = index.search("weeknd blinding", 10, 0.95f);
+            assertEquals(List.of("a"), confident.stream().map(InvertedIndex.Hit::id).toList());
+            assertTrue(index.search("weeknd unknownword", 10, 0.95f).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Segments survive a reopen, merge down to the limit, and IDs are indexed once")
+    public void flushMergeAndReopen() throws IOException {
+        try (InvertedIndex index = InvertedIndex.open(directory)) {
+            for (int segment = 0; segment < 6; segment++) {
+                for (int i = 0; i < 50; i++) {
+                    String id = segment + "-" + i;
+                    assertTrue(index.add(id, "track " + i + " artist" + segment, payload(id)));
+                }
+                index.flush();
+            }
+            assertFalse(index.add("0-0", "duplicate", payload("0-0")));
+            assertEquals(6, index.segmentCount());
+            assertEquals(4, index.merge(3));
+            assertEquals(3, index.segmentCount());
+            assertEquals(300, index.size());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(3, files.filter(file -> file.toString().endsWith(".seg")).count());
+        }
+
+        try (InvertedIndex index = InvertedIndex.open(directory)) {
+            assertEquals(300, index.size());
+            assertTrue(index.contains("5-49"));
+            List<InvertedIndex.Hit> hits = index.search("track 7 artist3", 10, 1f);
+            assertEquals(List.of("3-7"), hits.stream().map(InvertedIndex.Hit::id).toList());
+        }
+    }
+
+    private static byte[] payload(String id) {
+        return id.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.application.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MappedMatchStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Matches agree with a HashMap across growth and survive a reopen")
+    public void putAndReopen_matchHashMap() throws IOException {
+        SplittableRandom random = new SplittableRandom(5);
+        Map<Long, List<Long>> reference = new HashMap<>();
+        MappedMatchStore.Match match = new MappedMatchStore.Match();
+
+        // Sized for 16 entries, so the store rolls over to new generations many times.
+        try (MappedMatchStore store = MappedMatchStore.open(directory, 16)) {
+            for (int i = 0; i < 20_000; i++) {
+                // The zero key is the all-'A' video ID and must work like any other.
+                long video = random.nextInt(5_000);
+                long high = random.nextLong();
+                long low = random.nextLong();
+                store.put(video, high, low, i / 20_000f, 1_700_000_000L + i);
+                reference.put(video, List.of(high, low, (long) i));
+            }
+            assertEquals(reference.size(), store.size());
+        }
+
+        try (MappedMatchStore store = MappedMatchStore.open(directory, 16)) {
+            assertEquals(reference.size(), store.size());
+            for (Map.Entry<Long, List<Long>> entry : reference.entrySet()) {
+                assertTrue(store.get(entry.getKey(), match), String.valueOf(entry.getKey()));
+                assertEquals(entry.getValue().get(0), match.trackHigh());
+                assertEquals(entry.getValue().get(1), match.trackLow());
+                assertEquals(entry.getValue().get(2) / 20_000f, match.confidence());
+                assertEquals(1_700_000_000L + entry.getValue().get(2), match.matchedAtEpochSecond());
+            }
+            assertFalse(store.get(5_000, match));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.filter(file -> file.toString().endsWith(".store")).count(),
+                    "superseded generations are deleted");
+        }
+    }
+
+    @Test
+    @DisplayName("Compaction drops superseded records and keeps the latest match")
+    public void compact_dropsGarbage() throws IOException {
+        MappedMatchStore.Match match = new MappedMatchStore.Match();
+        try (MappedMatchStore store = MappedMatchStore.open(directory, 1_000)) {
+            for (int round = 0; round < 5; round++) {
+                for (long video = 0; video < 100; video++) {
+                    store.put(video, video, round, 1f, 1_700_000_000L);
+                }
+            }
+            assertEquals(100, store.size());
+            assertEquals(400, store.garbage());
+
+            store.compact();
+
+            assertEquals(100, store.size());
+            assertEquals(0, store.garbage());
+            assertTrue(store.get(42, match));
+            assertEquals(4, match.trackLow());
+        }
+    }
+
+    @Test
+    @DisplayName("Lock-free readers never see a torn or foreign match while the writer appends and compacts")
+    public void concurrentReaders_seeWholeMatches() throws Exception {
+        int videos = 2_000;
+        try (MappedMatchStore store = MappedMatchStore.open(directory, 64)) {
+            AtomicBoolean done = new AtomicBoolean();
+            AtomicReference<String> failure = new AtomicReference<>();
+            Thread[] readers = new Thread[4];
+            for (int r = 0; r < readers.length; r++) {
+                long seed = r;
+                readers[r] = Thread.ofPlatform().start(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    MappedMatchStore.Match match = new MappedMatchStore.Match();
+                    while (!done.get() && failure.get() == null) {
+                        long video = random.nextInt(videos);
+                        // Every version written for a video satisfies low == ~(high ^ video).
+                        if (store.get(video, match) && match.trackLow() != ~(match.trackHigh() ^ video)) {
+                            failure.set("video " + video + " read " + match.trackHigh() + "/" + match.trackLow());
+                        }
+                    }
+                });
+            }
+            SplittableRandom random = new SplittableRandom(9);
+            for (int i = 0; i < 200_000; i++) {
+                long video = random.nextInt(videos);
+                long high = random.nextLong();
+                store.put(video, high, ~(high ^ video), 1f, 1_700_000_000L);
+                if (i % 50_000 == 0) {
+                    store.compact();
+                }
+            }
+            done.set(true);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+            assertEquals(null, failure.get());
+        }
+    }
+
+    @Test
+    @DisplayName("A directory is owned by one store at a time")
+    public void open_refusesSecondWriter() throws IOException {
+        try (MappedMatchStore store = MappedMatchStore.open(directory, 16)) {
+            assertThrows(IOException.class, () -> MappedMatchStore.open(directory, 16));
+        }
+        MappedMatchStore.open(directory, 16).close();
+    }
+}
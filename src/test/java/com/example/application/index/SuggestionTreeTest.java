@@ -0,0 +1,75 @@
+package com.example.application.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SuggestionTreeTest {
+
+    @Test
+    @DisplayName("Prefixes match folded keys and rank by adds, from the kept ranking and past it")
+    public void suggest_ranksByPopularity() {
+        SuggestionTree<String> tree = new SuggestionTree<>(100, 48, 3, 5);
+        tree.add("Blinding Lights The Weeknd", "blinding");
+        tree.add("Blank Space Taylor Swift", "blank");
+        tree.add("Blank Space Taylor Swift", "ignored");
+        tree.add("Beyoncé", "beyonce");
+        tree.add("Don't Start Now Dua Lipa", "dont");
+
+        assertEquals(List.of("blank", "blinding"), values(tree.suggest("BL", 10)));
+        assertEquals(2, tree.suggest("bl", 10).get(0).popularity());
+        assertEquals(List.of("blinding"), values(tree.suggest("blinding li", 10)));
+        assertEquals(List.of("beyonce"), values(tree.suggest("beyonce", 10)));
+        assertEquals(List.of("dont"), values(tree.suggest("dont st", 10)));
+        assertEquals(List.of("blank"), values(tree.suggest("b", 1)));
+        assertTrue(tree.suggest("blx", 10).isEmpty());
+        assertEquals(4, tree.size());
+    }
+
+    @Test
+    @DisplayName("Concurrent adds lose no keys or counts")
+    public void add_concurrentWritersLoseNothing() throws Exception {
+        SuggestionTree<Integer> tree = new SuggestionTree<>(10_000, 48, 8, 10);
+        int threads = 4;
+        int keys = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < keys; i++) {
+                        for (int repeat = 0; repeat <= i % 3; repeat++) {
+                            tree.add("track " + i, i);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(keys, tree.size());
+        List<SuggestionTree.Match<Integer>> top = tree.suggest("track", 10);
+        assertEquals(10, top.size());
+        for (SuggestionTree.Match<Integer> match : top) {
+            assertEquals(2, match.value() % 3);
+            assertEquals(threads * 3L, match.popularity());
+        }
+        assertEquals(threads * 2L, tree.suggest("track 499", 1).get(0).popularity());
+    }
+
+    private static <T> List<T> values(List<SuggestionTree.Match<T>> matches) {
+        return matches.stream().map(SuggestionTree.Match::value).toList();
+    }
+}
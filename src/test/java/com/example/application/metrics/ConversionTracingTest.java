@@ -0,0 +1,152 @@
+package com.example.application.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.observation.ObservationHandler.FirstMatchingCompositeObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.handler.PropagatingSenderTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelBaggageManager;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+
+/**
+ * Wires the same OpenTelemetry bridge Boot auto-configures, exporting over OTLP/HTTP to a local
+ * collector stand-in, and checks stage spans reach it and upstream calls carry a W3C traceparent.
+ */
+public class ConversionTracingTest {
+
+    private final List<String> traceparents = new CopyOnWriteArrayList<>();
+    private final List<byte[]> exportedBatches = new CopyOnWriteArrayList<>();
+    private HttpServer upstream;
+    private HttpServer collector;
+    private SdkTracerProvider tracerProvider;
+    private ConversionTracing tracing;
+    private RestClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/youtube/v3/search", exchange -> {
+            traceparents.add(exchange.getRequestHeaders().getFirst("traceparent"));
+            byte[] body = "{\"items\":[]}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        upstream.start();
+
+        collector = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        collector.createContext("/v1/traces", exchange -> {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            exchange.getRequestBody().transferTo(body);
+            exportedBatches.add(body.toByteArray());
+            exchange.getResponseHeaders().add("Content-Type", "application/x-protobuf");
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        collector.start();
+
+        tracerProvider = SdkTracerProvider.builder()
+                .setSampler(Sampler.alwaysOn())
+                .addSpanProcessor(SimpleSpanProcessor.create(OtlpHttpSpanExporter.builder()
+                        .setEndpoint("http://127.0.0.1:" + collector.getAddress().getPort() + "/v1/traces")
+                        .build()))
+                .build();
+        io.opentelemetry.api.trace.Tracer otelTracer = tracerProvider.get("conversion-tracing-test");
+        ContextPropagators propagators = ContextPropagators.create(W3CTraceContextPropagator.getInstance());
+        OtelCurrentTraceContext currentTraceContext = new OtelCurrentTraceContext();
+        OtelTracer tracer = new OtelTracer(otelTracer, currentTraceContext, event -> { },
+                new OtelBaggageManager(currentTraceContext, List.of(), List.of()));
+
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new FirstMatchingCompositeObservationHandler(
+                new PropagatingSenderTracingObservationHandler<>(tracer, new OtelPropagator(propagators, otelTracer)),
+                new DefaultTracingObservationHandler(tracer)));
+
+        tracing = new ConversionTracing(registry);
+        client = RestClient.builder()
+                .baseUrl("http://127.0.0.1:" + upstream.getAddress().getPort())
+                .observationRegistry(registry)
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        tracerProvider.shutdown().join(5, TimeUnit.SECONDS);
+        upstream.stop(0);
+        collector.stop(0);
+    }
+
+    @Test
+    @DisplayName("Stage spans are exported over OTLP and upstream calls carry a W3C traceparent")
+    public void exportsStageSpansAndPropagatesContext() {
+        String body = tracing.cacheStage("youtube.search", () -> {
+            tracing.cacheMiss(100);
+            return client.get().uri("/youtube/v3/search").retrieve().body(String.class);
+        });
+        assertEquals("{\"items\":[]}", body);
+
+        assertTrue(tracerProvider.forceFlush().join(5, TimeUnit.SECONDS).isSuccess());
+
+        assertEquals(1, traceparents.size());
+        String traceparent = traceparents.get(0);
+        assertNotNull(traceparent);
+        assertTrue(traceparent.matches("00-[0-9a-f]{32}-[0-9a-f]{16}-01"), traceparent);
+
+        String exported = new String(concat(exportedBatches), StandardCharsets.ISO_8859_1);
+        assertTrue(exported.contains("youtube.search"), "stage span exported");
+        assertTrue(exported.contains(ConversionTracing.QUOTA_COST), "quota attribute exported");
+        assertTrue(exported.contains(ConversionTracing.CACHE_HIT), "cache attribute exported");
+        // The client span is a child of the stage span and shares its trace ID with the header sent upstream.
+        String traceId = traceparent.substring(3, 35);
+        assertTrue(exported.contains(new String(hex(traceId), StandardCharsets.ISO_8859_1)), "trace ID exported");
+    }
+
+    @Test
+    @DisplayName("Annotations outside a stage are ignored")
+    public void annotateOutsideStageIsNoop() {
+        tracing.cacheMiss(1);
+        assertEquals("ok", tracing.stage("build-query", () -> "ok"));
+    }
+
+    private static byte[] concat(List<byte[]> chunks) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        chunks.forEach(out::writeBytes);
+        return out.toByteArray();
+    }
+
+    private static byte[] hex(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.application.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SlidingWindowHistogramTest {
+
+    private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+
+    @Test
+    @DisplayName("Percentiles cover the samples recorded inside the window")
+    public void snapshot_reportsPercentilesOfRecordedValues() {
+        SlidingWindowHistogram histogram = new SlidingWindowHistogram(Duration.ofMinutes(1), 6, 100_000, clock);
+        for (int value = 1; value <= 1_000; value++) {
+            histogram.record(value);
+        }
+
+        SlidingWindowHistogram.Summary summary = histogram.snapshot();
+
+        assertEquals(1_000, summary.count());
+        assertTrue(Math.abs(summary.p50() - 500) <= 5);
+        assertTrue(Math.abs(summary.p99() - 990) <= 10);
+    }
+
+    @Test
+    @DisplayName("Samples older than the window slide out")
+    public void snapshot_dropsSlotsOutsideTheWindow() {
+        SlidingWindowHistogram histogram = new SlidingWindowHistogram(Duration.ofMinutes(1), 6, 100_000, clock);
+        histogram.record(10);
+        histogram.drain();
+
+        now = now.plus(Duration.ofSeconds(30));
+        histogram.record(20);
+        assertEquals(2, histogram.snapshot().count());
+
+        now = now.plus(Duration.ofSeconds(40));
+        assertEquals(1, histogram.snapshot().count());
+        assertEquals(20, histogram.snapshot().max());
+    }
+}
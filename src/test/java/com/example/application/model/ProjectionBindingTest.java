@@ -0,0 +1,119 @@
+package com.example.application.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.application.model.spotify_dto.SpotifyPlaylistTracksProjection;
+import com.example.application.model.spotify_dto.SpotifySearchProjection;
+import com.example.application.model.spotify_dto.SpotifyTrackProjection;
+import com.example.application.model.spotify_dto.SpotifyTracksProjection;
+import com.example.application.model.youtube_dto.YoutubeSearchProjection;
+import com.example.application.model.youtube_dto.YoutubeSnippetProjection;
+import com.example.application.model.youtube_dto.YoutubeVideoProjection;
+
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Binds recorded upstream payloads into the lean projections. Unknown properties fail here, so
+ * every field the projections skip must be covered by their {@code @JsonIgnoreProperties}.
+ */
+public class ProjectionBindingTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder()
+            .enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private static byte[] payload(String name) throws IOException {
+        try (InputStream in = ProjectionBindingTest.class.getResourceAsStream("/payloads/" + name)) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    @DisplayName("A /videos response binds its etag, id, snippet and all three kept thumbnails")
+    public void youtubeVideo_bindsSnippetAndThumbnails() throws IOException {
+        YoutubeVideoProjection videos = jsonMapper.readValue(payload("youtube-video.json"), YoutubeVideoProjection.class);
+
+        assertEquals("videoEtag", videos.etag());
+        assertEquals(1, videos.items().size());
+        YoutubeVideoProjection.Item item = videos.items().get(0);
+        assertEquals("TddB-XhkAS0", item.id());
+        YoutubeSnippetProjection snippet = item.snippet();
+        assertEquals("Artist 3 - Song Title 3 (Official Music Video)", snippet.title());
+        assertEquals("Artist3VEVO", snippet.channelTitle());
+        assertEquals(2106, snippet.description().length());
+        assertEquals("https://i.ytimg.com/vi/TddB-XhkAS0/default.jpg", snippet.thumbnails().defaultThumbnail().url());
+        assertEquals("https://i.ytimg.com/vi/TddB-XhkAS0/mqdefault.jpg", snippet.thumbnails().medium().url());
+        assertEquals("https://i.ytimg.com/vi/TddB-XhkAS0/hqdefault.jpg", snippet.bestThumbnailUrl());
+    }
+
+    @Test
+    @DisplayName("The \"default\" thumbnail is the fallback when high and medium are missing")
+    public void youtubeSnippet_fallsBackToDefaultThumbnail() throws IOException {
+        JsonNode snippet = jsonMapper.readTree(payload("youtube-video.json")).get("items").get(0).get("snippet");
+        ((ObjectNode) snippet.get("thumbnails")).remove(List.of("medium", "high"));
+
+        YoutubeSnippetProjection projection = jsonMapper.treeToValue(snippet, YoutubeSnippetProjection.class);
+
+        assertNull(projection.thumbnails().high());
+        assertEquals("https://i.ytimg.com/vi/TddB-XhkAS0/default.jpg", projection.bestThumbnailUrl());
+    }
+
+    @Test
+    @DisplayName("A /search response binds the nested video ID of every item")
+    public void youtubeSearch_bindsItemIds() throws IOException {
+        YoutubeSearchProjection search = jsonMapper.readValue(payload("youtube-search.json"), YoutubeSearchProjection.class);
+
+        assertEquals(10, search.items().size());
+        YoutubeSearchProjection.Item first = search.items().get(0);
+        assertEquals("youtube#video", first.id().kind());
+        assertEquals("pTyGJMuHbEI", first.id().videoId());
+        assertEquals("Artist0VEVO", first.snippet().channelTitle());
+        assertEquals("https://i.ytimg.com/vi/pTyGJMuHbEI/default.jpg", first.snippet().thumbnails().defaultThumbnail().url());
+    }
+
+    @Test
+    @DisplayName("A Spotify /search response binds tracks with their nested artists and album images")
+    public void spotifySearch_bindsArtistsAndImages() throws IOException {
+        SpotifySearchProjection search = jsonMapper.readValue(payload("spotify-search.json"), SpotifySearchProjection.class);
+
+        assertEquals(10, search.tracks().items().size());
+        assertFirstTrack(search.tracks().items().get(0));
+    }
+
+    @Test
+    @DisplayName("/tracks and playlist items bind the same track object, keeping unknown IDs as null")
+    public void spotifyTracksAndPlaylist_bindTrackObjects() throws IOException {
+        JsonNode items = jsonMapper.readTree(payload("spotify-search.json")).get("tracks").get("items");
+        String tracksJson = "{\"tracks\":[" + items.get(0) + ",null]}";
+        String playlistJson = "{\"items\":[{\"track\":" + items.get(0) + "},{\"track\":null}]}";
+
+        SpotifyTracksProjection tracks = jsonMapper.readValue(tracksJson, SpotifyTracksProjection.class);
+        SpotifyPlaylistTracksProjection playlist = jsonMapper.readValue(playlistJson, SpotifyPlaylistTracksProjection.class);
+
+        assertFirstTrack(tracks.tracks().get(0));
+        assertNull(tracks.tracks().get(1));
+        assertFirstTrack(playlist.items().get(0).track());
+        assertNull(playlist.items().get(1).track());
+    }
+
+    private static void assertFirstTrack(SpotifyTrackProjection track) {
+        assertEquals("YNdaKy8isWydfhl3Tvtnyt", track.id());
+        assertEquals("Song Title 0", track.name());
+        assertEquals(List.of("Artist 24", "Artist 43"), track.artists().stream().map(SpotifyTrackProjection.Artist::name).toList());
+        assertEquals(List.of(640, 300, 64), track.album().images().stream().map(SpotifyTrackProjection.Image::width).toList());
+        assertEquals("https://i.scdn.co/image/ab67616d0000b2737sVTUUJ596lLlGUriAX1Dy", track.album().images().get(0).url());
+        assertNull(track.previewUrl());
+        assertEquals("https://open.spotify.com/track/YNdaKy8isWydfhl3Tvtnyt", track.externalUrls().spotify());
+    }
+}
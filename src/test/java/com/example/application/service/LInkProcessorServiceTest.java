@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
+import java.time.Clock;
 import java.util.List;
 
 import com.example.application.exception.InvalidLinkException;
@@ -14,10 +15,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.micrometer.observation.ObservationRegistry;
+
+import com.example.application.cache.ConversionCaches;
+import com.example.application.cache.NoopSharedCacheStore;
+import com.example.application.config.CacheProperties;
+import com.example.application.config.ConversionMetricsProperties;
+import com.example.application.config.SpotifyProperties;
+import com.example.application.config.SuggestProperties;
+import com.example.application.config.TierRouterProperties;
+import com.example.application.metrics.ConversionMetrics;
+import com.example.application.metrics.ConversionTracing;
 import com.example.application.model.queries.SpotifySearchQuery;
 import com.example.application.model.response.SpotifyResponse;
+import com.example.application.model.response.YoutubeResponse;
+
+import reactor.core.publisher.Mono;
 
 @ExtendWith(MockitoExtension.class)
 public class LInkProcessorServiceTest {
@@ -31,6 +47,32 @@ public class LInkProcessorServiceTest {
     @Mock
     private YoutubeService youtubeService;
 
+    @Spy
+    private ConversionCaches conversionCaches =
+            new ConversionCaches(new CacheProperties(), new NoopSharedCacheStore(), Clock.systemUTC());
+
+    @Spy
+    private ConversionMetrics conversionMetrics = new ConversionMetrics(new ConversionMetricsProperties(), Clock.systemUTC());
+
+    @Spy
+    private ConversionTracing conversionTracing = new ConversionTracing(ObservationRegistry.NOOP);
+
+    // Never opened, so the match index stays disabled
+    @Spy
+    private VideoMatchIndex videoMatchIndex = new VideoMatchIndex(new CacheProperties(), Clock.systemUTC());
+
+    @Spy
+    private TierRouter tierRouter = new TierRouter(new TierRouterProperties());
+
+    @Spy
+    private KeywordCatalog keywordCatalog = new KeywordCatalog(new CacheProperties());
+
+    @Spy
+    private SuggestionService suggestionService = new SuggestionService(new SuggestProperties());
+
+    @Spy
+    private SpotifyMarkets spotifyMarkets = new SpotifyMarkets(new SpotifyProperties());
+
     @InjectMocks
     private LinkProcessorService linkProcessorService;
 
@@ -145,6 +187,24 @@ public class LInkProcessorServiceTest {
     }
 
 
+    @Test
+    @DisplayName("processYoutubeInput - keywords in another market skip the default-market catalog")
+    public void processYoutubeInput_whenMarketNotDefault_searchesUpstreamOnly() {
+        when(linkConvertorService.detectLinkType(anyString())).thenReturn("UNKNOWN");
+        lenient().doReturn(true).when(keywordCatalog).isEnabled();
+        when(spotifyService.getSpotifyResponse("test song")).thenReturn(testResults);
+
+        spotifyMarkets.bind("DE");
+        try {
+            assertEquals(testResults, linkProcessorService.processYoutubeInput("test song"));
+        } finally {
+            spotifyMarkets.unbind();
+        }
+
+        verify(keywordCatalog, never()).searchTracks(anyString());
+        verify(keywordCatalog, never()).addTracks(any());
+    }
+
     @Test
     @DisplayName("processYoutubeInput - SPOTIFY link shouold throw InvalidLinkException")
     public void processYoutubeInput_whenLinkTypeSpotify_shouldThrowInvalidLinkException() {
@@ -156,5 +216,23 @@ public class LInkProcessorServiceTest {
         assertThrows(InvalidLinkException.class, () -> linkProcessorService.processYoutubeInput("spotify.com/track/123"));
     }
 
+    @Test
+    @DisplayName("processYoutubeInputReactive - falls back to the general query and skips title-only")
+    public void processYoutubeInputReactive_whenFirstQueryEmpty_shouldFallbackGeneralQuery() {
+        YoutubeResponse video = new YoutubeResponse("dQw4w9WgXcQ", "Test Song", "Test Artist", null, null);
+        when(linkConvertorService.detectLinkType(anyString())).thenReturn("YOUTUBE");
+        when(linkConvertorService.extractYoutubeId(anyString())).thenReturn("dQw4w9WgXcQ");
+        when(youtubeService.getSingleVideoReactive("dQw4w9WgXcQ")).thenReturn(Mono.just(video));
+        when(linkConvertorService.createSpotifyQueryFromYoutubeResponse(video)).thenReturn(spotifyQuery);
+        when(spotifyService.getSpotifyResponseReactive(spotifyQuery.toQueryString())).thenReturn(Mono.just(emptyTestResults));
+        when(spotifyService.getSpotifyResponseReactive(spotifyQuery.toGeneralQueryString())).thenReturn(Mono.just(generalTestResults));
+
+        List<SpotifyResponse> results = linkProcessorService
+                .processYoutubeInputReactive("https://www.youtube.com/watch?v=dQw4w9WgXcQ")
+                .block();
+
+        assertEquals(generalTestResults, results);
+        verify(spotifyService, never()).getSpotifyResponseReactive("track:" + spotifyQuery.getTitle());
+    }
 
 }
@@ -34,7 +34,6 @@ public class LinkConverterServiceTest {
     // String extractYoutubeId(String youtubeUrl)
     // String extractSpotifyId(String spotifyUrl)
     // String cleanupTitle(String title)
-    // String cleanupArtist(String artist)
 
     // Writing tests (parameterized) for detectLinkType method
     @Order(1)
@@ -144,34 +143,6 @@ public class LinkConverterServiceTest {
         }
     }
 
-    @Nested
-    @DisplayName("Cleanup Artist Tests")
-    class CleanupArtistTests {
-
-        @Order(1)
-        @ParameterizedTest
-        @CsvSource({
-            "Ed Sheeran (Official),        Ed Sheeran",
-            "Drake [Explicit],             Drake",
-            "Eminem ft. Rihanna,           Eminem",
-            "Lofi Girl - Topic,            Lofi Girl",
-            "JustinBieberVEVO,             JustinBieber",
-            "Adele Official,               Adele",
-            "Universal Music,              Universal",
-            "The Weeknd,                   The Weeknd"
-        })
-        public void cleanupArtist_withVariousArtists_returnsCleanArtist(String input, String expected) {
-            assertEquals(expected, linkConvertorService.cleanupArtist(input));
-        }
-
-        @Order(2)
-        @ParameterizedTest
-        @NullAndEmptySource
-        public void cleanupArtist_withNullOrEmpty_returnsEmpty(String input) {
-            assertEquals("", linkConvertorService.cleanupArtist(input));
-        }
-    }
-
     // Writing tests (method source) for extractSpotifyId method
     @Order(5)
     @ParameterizedTest
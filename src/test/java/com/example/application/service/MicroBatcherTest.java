@@ -0,0 +1,74 @@
+package com.example.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MicroBatcherTest {
+
+    private final List<List<String>> calls = new CopyOnWriteArrayList<>();
+    private MicroBatcher<String, String> batcher;
+
+    private final Function<List<String>, Map<String, String>> upperCaseLoader = keys -> {
+        calls.add(keys);
+        return keys.stream()
+                .filter(key -> !key.startsWith("missing"))
+                .collect(Collectors.toMap(key -> key, String::toUpperCase));
+    };
+
+    @AfterEach
+    public void tearDown() {
+        batcher.close();
+    }
+
+    @Test
+    @DisplayName("Concurrent lookups within the window share one upstream call")
+    public void submit_withinWindow_coalescesIntoOneCall() {
+        batcher = new MicroBatcher<>("test", 50, Duration.ofMillis(50), Duration.ofSeconds(5), upperCaseLoader);
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (String key : List.of("a", "b", "c", "a", "missing")) {
+            futures.add(batcher.submit(key));
+        }
+
+        assertEquals(List.of("A", "B", "C", "A"), futures.subList(0, 4).stream().map(CompletableFuture::join).toList());
+        assertNull(futures.get(4).join());
+        assertEquals(List.of(List.of("a", "b", "c", "missing")), calls);
+    }
+
+    @Test
+    @DisplayName("A full batch is flushed without waiting for the window")
+    public void submit_whenBatchFull_flushesImmediately() {
+        batcher = new MicroBatcher<>("test", 2, Duration.ofSeconds(30), Duration.ofSeconds(5), upperCaseLoader);
+
+        CompletableFuture<String> first = batcher.submit("a");
+        CompletableFuture<String> second = batcher.submit("b");
+
+        assertEquals("A", first.join());
+        assertEquals("B", second.join());
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    @DisplayName("Loader failures propagate to every caller in the batch")
+    public void get_whenLoaderFails_rethrowsToCaller() {
+        batcher = new MicroBatcher<>("test", 50, Duration.ofMillis(1), Duration.ofSeconds(5), keys -> {
+            throw new IllegalStateException("upstream down");
+        });
+
+        assertThrows(IllegalStateException.class, () -> batcher.get("a"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.application.config.ApiProperties;
+import com.example.application.service.SpotifyLibraryEndpointResolver.EndpointFamily;
+
+public class SpotifyLibraryEndpointResolverTest {
+
+    private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+
+    private SpotifyLibraryEndpointResolver resolver() {
+        ApiProperties properties = new ApiProperties();
+        properties.getSpotify().setLibraryEndpointTtl(Duration.ofMinutes(10));
+        return new SpotifyLibraryEndpointResolver(properties, clock);
+    }
+
+    @Test
+    @DisplayName("Prefers the /v1/me/library family until told otherwise")
+    public void current_unknown_returnsPreferredFamily() {
+        assertEquals(EndpointFamily.LIBRARY, resolver().current());
+    }
+
+    @Test
+    @DisplayName("A 404 switches every later call to the other family while the TTL lasts")
+    public void reportMissing_remembersFallbackUntilTtlExpires() {
+        SpotifyLibraryEndpointResolver resolver = resolver();
+
+        assertEquals(EndpointFamily.TRACKS, resolver.reportMissing(EndpointFamily.LIBRARY));
+        resolver.confirm(EndpointFamily.TRACKS);
+        now = now.plus(Duration.ofMinutes(9));
+        assertEquals(EndpointFamily.TRACKS, resolver.current());
+
+        now = now.plus(Duration.ofMinutes(2));
+        assertEquals(EndpointFamily.LIBRARY, resolver.current());
+    }
+
+    @Test
+    @DisplayName("Builds the query value each family expects")
+    public void queryValue_formatsIdsPerFamily() {
+        List<String> ids = List.of("a1", "b2");
+
+        assertEquals("spotify:track:a1,spotify:track:b2", EndpointFamily.LIBRARY.queryValue(ids));
+        assertEquals("a1,b2", EndpointFamily.TRACKS.queryValue(ids));
+    }
+}
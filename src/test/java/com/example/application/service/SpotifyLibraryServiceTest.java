@@ -0,0 +1,103 @@
+package com.example.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import com.example.application.config.ApiProperties;
+import com.example.application.model.response.TrackSaveOutcome;
+import com.sun.net.httpserver.HttpServer;
+
+public class SpotifyLibraryServiceTest {
+
+    private static final List<String> TRACKS = List.of("4uLU6hMCjMI75M1A2tKUQC", "0VjIjW4GlUZAMYd2vXMi3b");
+
+    private static SpotifyLibraryService service(String baseUrl) {
+        ApiProperties properties = new ApiProperties();
+        return new SpotifyLibraryService(RestClient.builder().baseUrl(baseUrl).build(),
+                new SpotifyRateLimiter(properties),
+                new SpotifyLibraryEndpointResolver(properties, Clock.systemUTC()));
+    }
+
+    @Test
+    @DisplayName("A rejected chunk reports Spotify's status and leaves the saved state unknown")
+    public void saveAll_whenRejected_reportsStatus() throws IOException {
+        HttpServer stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        stub.start();
+        try {
+            List<TrackSaveOutcome> outcomes = service("http://127.0.0.1:" + stub.getAddress().getPort())
+                    .saveAll("token", TRACKS);
+
+            assertEquals(TRACKS.size(), outcomes.size());
+            for (TrackSaveOutcome outcome : outcomes) {
+                assertFalse(outcome.isSuccess());
+                assertNull(outcome.getSaved());
+                assertEquals(500, outcome.getUpstreamStatus());
+            }
+        } finally {
+            stub.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Malformed IDs fail on their own without reaching Spotify; the valid ones are saved")
+    public void saveAll_whenSomeIdsMalformed_failsOnlyThose() throws IOException {
+        List<String> queries = new CopyOnWriteArrayList<>();
+        HttpServer stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/", exchange -> {
+            queries.add(exchange.getRequestURI().getQuery());
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        stub.start();
+        try {
+            List<String> requested = List.of(TRACKS.get(0), "not-a-track", TRACKS.get(1));
+            List<TrackSaveOutcome> outcomes = service("http://127.0.0.1:" + stub.getAddress().getPort())
+                    .saveAll("token", requested);
+
+            assertEquals(3, outcomes.size());
+            TrackSaveOutcome malformed = outcomes.stream()
+                    .filter(outcome -> outcome.getTrackId().equals("not-a-track")).findFirst().orElseThrow();
+            assertFalse(malformed.isSuccess());
+            assertEquals(SpotifyLibraryService.INVALID_TRACK_ID, malformed.getError());
+            assertEquals(2, outcomes.stream().filter(TrackSaveOutcome::isSuccess).count());
+            assertEquals(1, queries.size());
+            assertFalse(queries.get(0).contains("not-a-track"));
+        } finally {
+            stub.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("An unreachable Spotify fails the chunk without a status instead of the whole batch")
+    public void unsaveAll_whenUnreachable_reportsNullStatus() throws IOException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+
+        List<TrackSaveOutcome> outcomes = service("http://127.0.0.1:" + closedPort).unsaveAll("token", TRACKS);
+
+        assertEquals(TRACKS.size(), outcomes.size());
+        for (TrackSaveOutcome outcome : outcomes) {
+            assertFalse(outcome.isSuccess());
+            assertNull(outcome.getSaved());
+            assertNull(outcome.getUpstreamStatus());
+        }
+    }
+}
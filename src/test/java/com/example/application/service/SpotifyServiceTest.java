@@ -0,0 +1,132 @@
+package com.example.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.application.cache.ConversionCaches;
+import com.example.application.cache.NoopSharedCacheStore;
+import com.example.application.config.ApiProperties;
+import com.example.application.config.CacheProperties;
+import com.example.application.config.ConversionMetricsProperties;
+import com.example.application.config.SpotifyProperties;
+import com.example.application.metrics.ConversionMetrics;
+import com.example.application.metrics.ConversionTracing;
+import com.example.application.model.response.SpotifyResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.observation.ObservationRegistry;
+
+public class SpotifyServiceTest {
+
+    private static final String SHARED = "3n3Ppam7vgaVa1iaRUc9Lp";
+    private static final Map<String, List<String>> TRACKS_BY_MARKET = Map.of(
+            "US", List.of("4uLU6hMCjMI75M1A2tKUQC", SHARED),
+            "GB", List.of("0VjIjW4GlUZAMYd2vXMi3b", SHARED),
+            "DE", List.of("7qiZfU4dY1lWllzX7mPBI3"));
+
+    private final List<String> searchedMarkets = new CopyOnWriteArrayList<>();
+    private HttpServer stub;
+    private SpotifyService spotifyService;
+    private SpotifyMarkets spotifyMarkets;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/api/token", exchange -> respond(exchange,
+                "{\"access_token\":\"test\",\"token_type\":\"Bearer\",\"expires_in\":3600}"));
+        stub.createContext("/v1/search", exchange -> {
+            String market = exchange.getRequestURI().getQuery().replaceAll(".*market=([A-Z]{2}).*", "$1");
+            searchedMarkets.add(market);
+            StringBuilder items = new StringBuilder();
+            for (String id : TRACKS_BY_MARKET.get(market)) {
+                items.append(items.isEmpty() ? "" : ",").append(track(id));
+            }
+            respond(exchange, "{\"tracks\":{\"items\":[" + items + "]}}");
+        });
+        stub.start();
+
+        String baseUrl = "http://127.0.0.1:" + stub.getAddress().getPort();
+        ApiProperties apiProperties = new ApiProperties();
+        apiProperties.getSpotify().setBaseUrl(baseUrl);
+        apiProperties.getBatch().setWindowMs(0);
+        SpotifyProperties spotifyProperties = new SpotifyProperties();
+        spotifyProperties.setAuthUrl(baseUrl + "/api/token");
+        spotifyProperties.setClientId("test");
+        spotifyProperties.setClientSecret("test");
+        spotifyProperties.getMarket().setAlsoSearch(List.of("GB"));
+
+        ConversionCaches caches = new ConversionCaches(new CacheProperties(), new NoopSharedCacheStore(), Clock.systemUTC());
+        SpotifyAuthService auth = new SpotifyAuthService(spotifyProperties, apiProperties,
+                RestClient.builder(), WebClient.builder());
+        spotifyMarkets = new SpotifyMarkets(spotifyProperties);
+        spotifyService = new SpotifyService(RestClient.builder().baseUrl(baseUrl).build(),
+                WebClient.builder().baseUrl(baseUrl).build(), auth, apiProperties, caches,
+                new ConversionMetrics(new ConversionMetricsProperties(), Clock.systemUTC()), new ConversionTracing(ObservationRegistry.NOOP),
+                spotifyMarkets);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        stub.stop(0);
+    }
+
+    @Test
+    @DisplayName("A search also runs in the also-search markets, merged rank by rank and cached per market")
+    public void getSpotifyResponse_mergesMarkets() {
+        List<SpotifyResponse> us = spotifyService.getSpotifyResponse("song", "US");
+        List<SpotifyResponse> gb = spotifyService.getSpotifyResponse("Song", "GB");
+
+        assertEquals(List.of("4uLU6hMCjMI75M1A2tKUQC", "0VjIjW4GlUZAMYd2vXMi3b", SHARED), trackIds(us));
+        assertEquals(List.of("0VjIjW4GlUZAMYd2vXMi3b", SHARED), trackIds(gb), "GB is searched alone, from cache");
+        assertEquals(2, searchedMarkets.size(), "each market is searched once");
+    }
+
+    @Test
+    @DisplayName("A reactive search runs in the market of its subscriber's context")
+    public void getSpotifyResponseReactive_usesContextMarket() {
+        spotifyMarkets.bind("DE");
+        try {
+            List<SpotifyResponse> de = spotifyService.getSpotifyResponseReactive("song")
+                    .contextWrite(spotifyMarkets.context())
+                    .block();
+
+            assertEquals(List.of("7qiZfU4dY1lWllzX7mPBI3", "0VjIjW4GlUZAMYd2vXMi3b", SHARED), trackIds(de));
+            assertEquals(Set.of("DE", "GB"), Set.copyOf(searchedMarkets));
+        } finally {
+            spotifyMarkets.unbind();
+        }
+    }
+
+    private static List<String> trackIds(List<SpotifyResponse> results) {
+        return results.stream().map(SpotifyResponse::getTrackId).toList();
+    }
+
+    private static String track(String id) {
+        return "{\"id\":\"" + id + "\",\"name\":\"Song " + id + "\",\"artists\":[{\"name\":\"Artist " + id + "\"}],"
+                + "\"album\":{\"images\":[{\"url\":\"https://i.scdn.co/" + id + "\",\"width\":640}]}}";
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
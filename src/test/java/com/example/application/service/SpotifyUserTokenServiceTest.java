@@ -0,0 +1,153 @@
+package com.example.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.application.config.ApiProperties;
+import com.example.application.config.SpotifyProperties;
+import com.example.application.config.TokenStoreProperties;
+import com.example.application.exception.UpstreamServiceException;
+import com.example.application.model.spotify_dto.SpotifyAuthResponse;
+import com.example.application.tokenstore.InMemoryUserTokenStore;
+import com.example.application.tokenstore.TokenCipher;
+import com.example.application.tokenstore.UserTokenStore;
+import com.sun.net.httpserver.HttpServer;
+
+import jakarta.servlet.http.Cookie;
+
+public class SpotifyUserTokenServiceTest {
+
+    private static final String SCOPE = "user-library-read user-library-modify";
+
+    private final AtomicInteger refreshCalls = new AtomicInteger();
+    private volatile int refreshStatus = 200;
+    private final UserTokenStore tokenStore = new InMemoryUserTokenStore(Clock.systemUTC());
+    private HttpServer authServer;
+    private SpotifyUserTokenService service;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        authServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        authServer.createContext("/api/token", exchange -> {
+            int call = refreshCalls.incrementAndGet();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = (refreshStatus == 200
+                    ? "{\"access_token\":\"access-" + call + "\",\"token_type\":\"Bearer\",\"expires_in\":3600,"
+                            + "\"refresh_token\":\"refresh-" + call + "\"}"
+                    : "{\"error\":\"invalid_grant\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(refreshStatus, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        authServer.start();
+
+        SpotifyProperties properties = new SpotifyProperties();
+        properties.setAuthUrl("http://127.0.0.1:" + authServer.getAddress().getPort() + "/api/token");
+        properties.setClientId("client");
+        properties.setClientSecret("secret");
+        service = new SpotifyUserTokenService(properties,
+                new ApiProperties(),
+                new TokenStoreProperties(),
+                tokenStore,
+                new TokenCipher(null, true),
+                Clock.systemUTC());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        authServer.stop(0);
+    }
+
+    /** Logs in and returns a request carrying the issued session cookie, as the browser would send it. */
+    private MockHttpServletRequest loggedInRequestExpiringIn(int seconds) {
+        MockHttpServletResponse loginResponse = new MockHttpServletResponse();
+        service.storeTokens(new MockHttpServletRequest(), loginResponse,
+                new SpotifyAuthResponse("access-0", "Bearer", seconds, "refresh-0", SCOPE));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(loginResponse.getCookies());
+        return request;
+    }
+
+    @Test
+    @DisplayName("Concurrent requests with an expired token share one refresh call")
+    public void getUserAccessToken_expiredAndConcurrent_refreshesOnce() {
+        MockHttpServletRequest request = loggedInRequestExpiringIn(0);
+
+        List<String> tokens;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<String>> futures = IntStream.range(0, 8)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> service.getUserAccessToken(request), executor))
+                    .toList();
+            tokens = futures.stream().map(CompletableFuture::join).toList();
+        }
+
+        assertEquals(1, refreshCalls.get());
+        assertTrue(tokens.stream().allMatch("access-1"::equals));
+        assertEquals("access-1", service.getUserAccessToken(request));
+    }
+
+    @Test
+    @DisplayName("A token close to expiry is returned immediately while it is refreshed in the background")
+    public void getUserAccessToken_nearExpiry_refreshesProactively() throws InterruptedException {
+        MockHttpServletRequest request = loggedInRequestExpiringIn(30);
+
+        assertEquals("access-0", service.getUserAccessToken(request));
+        for (int i = 0; i < 50 && refreshCalls.get() == 0; i++) {
+            Thread.sleep(20);
+        }
+        Thread.sleep(200);
+
+        assertEquals(1, refreshCalls.get());
+        assertEquals("access-1", service.getUserAccessToken(request));
+    }
+
+    @Test
+    @DisplayName("A rejected refresh token logs the user out")
+    public void getUserAccessToken_refreshRejected_clearsTokens() {
+        refreshStatus = 400;
+        MockHttpServletRequest request = loggedInRequestExpiringIn(0);
+
+        assertThrows(UpstreamServiceException.class, () -> service.getUserAccessToken(request));
+        assertFalse(service.isLoggedIn(request));
+    }
+
+    @Test
+    @DisplayName("Token records are stored encrypted and only the cookie's owner can read them")
+    public void storeTokens_encryptsRecordAndBindsItToTheCookie() {
+        MockHttpServletRequest request = loggedInRequestExpiringIn(3600);
+        String cookieValue = request.getCookies()[0].getValue();
+
+        assertTrue(service.isLoggedIn(request));
+        assertEquals("access-0", service.getUserAccessToken(request));
+        assertTrue(tokenStore.load(cookieValue).isEmpty());
+
+        MockHttpServletRequest stranger = new MockHttpServletRequest();
+        stranger.setCookies(new Cookie(request.getCookies()[0].getName(), "forged"));
+        assertFalse(service.isLoggedIn(stranger));
+    }
+}
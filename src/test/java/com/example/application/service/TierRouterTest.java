@@ -0,0 +1,85 @@
+package com.example.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.application.config.TierRouterProperties;
+import com.example.application.model.queries.SpotifySearchQuery;
+
+class TierRouterTest {
+
+    @Test
+    @DisplayName("Learning that field-filtered searches miss CJK titles cuts tier attempts per answered conversion")
+    void learnedRoutingNeedsFewerSearches() {
+        TierRouterProperties disabled = new TierRouterProperties();
+        disabled.setEnabled(false);
+
+        double fixedOrder = simulate(new TierRouter(disabled));
+        double routed = simulate(new TierRouter(new TierRouterProperties()));
+
+        assertTrue(routed < fixedOrder - 0.3, "routed " + routed + " vs fixed order " + fixedOrder);
+    }
+
+    @Test
+    @DisplayName("Routes keep the strict-first order for unseen queries and never come back empty")
+    void routesAreNeverEmpty() {
+        TierRouterProperties properties = new TierRouterProperties();
+        properties.setExploration(0);
+        TierRouter router = new TierRouter(properties);
+        TierRouter.Features features = TierRouter.features(query("夜に駆ける", "YOASOBI - Topic"));
+
+        assertEquals(SpotifySearchTier.DEFAULT_ORDER, router.route(features));
+        assertEquals(List.of("script=CJK", "tokens=1-2", "topic=true", "dashed=false"), features.keys());
+
+        for (int i = 0; i < 200; i++) {
+            for (SpotifySearchTier tier : SpotifySearchTier.values()) {
+                router.record(features, tier, false);
+            }
+        }
+        assertEquals(1, router.route(features).size());
+        assertEquals(2L, router.snapshot().get("skippedTiers"));
+    }
+
+    /**
+     * 4000 conversions, a third with CJK titles from "- Topic" channels. The specific query never
+     * answers those while the general one usually does; Latin titles mostly match on the first tier.
+     */
+    private static double simulate(TierRouter router) {
+        Random random = new Random(42);
+        for (int i = 0; i < 4000; i++) {
+            boolean cjk = i % 3 == 0;
+            SpotifySearchQuery query = cjk
+                    ? query("紅蓮華 アニメ", "LiSA - Topic")
+                    : query("Blinding Lights Official Video", "The Weeknd");
+            TierRouter.Features features = TierRouter.features(query);
+            int attempts = 0;
+            boolean answered = false;
+            for (SpotifySearchTier tier : router.route(features)) {
+                attempts++;
+                answered = switch (tier) {
+                    case SPECIFIC -> !cjk && random.nextDouble() < 0.8;
+                    case GENERAL -> random.nextDouble() < (cjk ? 0.9 : 0.95);
+                    case TITLE_ONLY -> random.nextDouble() < 0.5;
+                };
+                router.record(features, tier, answered);
+                if (answered) {
+                    break;
+                }
+            }
+            router.recordConversion(attempts, answered);
+        }
+        return (double) router.snapshot().get("tierAttemptsPerAnsweredConversion");
+    }
+
+    private static SpotifySearchQuery query(String title, String channel) {
+        SpotifySearchQuery query = new SpotifySearchQuery(title, channel.replace(" - Topic", ""), null);
+        query.setChannel(channel);
+        return query;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.application.cache.ConversionCaches;
+import com.example.application.cache.NoopSharedCacheStore;
+import com.example.application.config.ApiProperties;
+import com.example.application.config.CacheProperties;
+import com.example.application.config.ConversionMetricsProperties;
+import com.example.application.config.SpotifyProperties;
+import com.example.application.config.SuggestProperties;
+import com.example.application.config.TierRouterProperties;
+import com.example.application.config.WarmerProperties;
+import com.example.application.config.YoutubeProperties;
+import com.example.application.metrics.ConversionMetrics;
+import com.example.application.metrics.ConversionTracing;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.observation.ObservationRegistry;
+
+public class TrendingWarmerTest {
+
+    private static final List<String> CHART = List.of("dQw4w9WgXcQ", "kJQP7kiw5Fk", "9bZkp7q19f0");
+    private static final List<String> PLAYLIST_TRACKS =
+            List.of("4uLU6hMCjMI75M1A2tKUQC", "0VjIjW4GlUZAMYd2vXMi3b", "7qiZfU4dY1lWllzX7mPBI3");
+    private static final String PLAYLIST = "37i9dQZF1DXcBWIGoYBM5M";
+    private static final String SEARCH_TRACK = "3n3Ppam7vgaVa1iaRUc9Lp";
+
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private final WarmerProperties properties = new WarmerProperties();
+    private HttpServer stub;
+    private ConversionCaches caches;
+    private SuggestionService suggestionService;
+    private TrendingWarmer warmer;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/api/token", exchange -> respond(exchange, "token",
+                "{\"access_token\":\"test\",\"token_type\":\"Bearer\",\"expires_in\":3600}"));
+        stub.createContext("/youtube/v3/videos", exchange -> respond(exchange,
+                exchange.getRequestURI().getQuery().contains("chart=mostPopular") ? "chart" : "videos", videos(CHART)));
+        stub.createContext("/youtube/v3/search", exchange -> respond(exchange, "youtube-search",
+                "{\"items\":[{\"id\":{\"kind\":\"youtube#video\",\"videoId\":\"JGwWNGJdvx8\"},"
+                        + "\"snippet\":{\"title\":\"Found\",\"channelTitle\":\"Someone\"}}]}"));
+        stub.createContext("/v1/playlists/", exchange -> respond(exchange, "playlist", playlist()));
+        stub.createContext("/v1/search", exchange -> respond(exchange, "spotify-search",
+                "{\"tracks\":{\"items\":[" + track(SEARCH_TRACK) + "]}}"));
+        stub.createContext("/v1/tracks", exchange -> respond(exchange, "tracks", "{\"tracks\":[]}"));
+        stub.start();
+
+        String baseUrl = "http://127.0.0.1:" + stub.getAddress().getPort();
+        ApiProperties apiProperties = new ApiProperties();
+        apiProperties.getSpotify().setBaseUrl(baseUrl);
+        apiProperties.getYoutube().setBaseUrl(baseUrl);
+        apiProperties.getBatch().setWindowMs(0);
+        SpotifyProperties spotifyProperties = new SpotifyProperties();
+        spotifyProperties.setAuthUrl(baseUrl + "/api/token");
+        spotifyProperties.setClientId("test");
+        spotifyProperties.setClientSecret("test");
+        YoutubeProperties youtubeProperties = new YoutubeProperties();
+        youtubeProperties.setApiKey("test");
+
+        caches = new ConversionCaches(new CacheProperties(), new NoopSharedCacheStore(), Clock.systemUTC());
+        ConversionMetrics metrics = new ConversionMetrics(new ConversionMetricsProperties(), Clock.systemUTC());
+        ConversionTracing tracing = new ConversionTracing(ObservationRegistry.NOOP);
+        RestClient restClient = RestClient.builder().baseUrl(baseUrl).build();
+        WebClient webClient = WebClient.builder().baseUrl(baseUrl).build();
+        SpotifyAuthService auth = new SpotifyAuthService(spotifyProperties, apiProperties,
+                RestClient.builder(), WebClient.builder());
+        SpotifyMarkets markets = new SpotifyMarkets(spotifyProperties);
+        SpotifyService spotify = new SpotifyService(restClient, webClient, auth, apiProperties, caches, metrics, tracing,
+                markets);
+        YoutubeService youtube = new YoutubeService(restClient, restClient, webClient, youtubeProperties, apiProperties,
+                caches, metrics, tracing);
+        suggestionService = new SuggestionService(new SuggestProperties());
+        LinkProcessorService pipeline = new LinkProcessorService(spotify, youtube, new LinkConvertorService(youtube, spotify),
+                caches, metrics, tracing, new VideoMatchIndex(new CacheProperties(), Clock.systemUTC()),
+                new TierRouter(new TierRouterProperties()), new KeywordCatalog(new CacheProperties()), suggestionService,
+                markets);
+
+        properties.setPlaylists(List.of(PLAYLIST));
+        warmer = new TrendingWarmer(properties, pipeline, youtube, spotify, metrics, markets);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        stub.stop(0);
+    }
+
+    @Test
+    @DisplayName("A run fills the match caches for the chart and playlists; the next run converts from cache")
+    public void warm_fillsMatchCaches() {
+        TrendingWarmer.Run first = warmer.warm();
+
+        assertEquals(new TrendingWarmer.Run(3, 3, 6, 0, 0, 1 + 3 * YoutubeService.SEARCH_QUOTA_COST, 1 + 3), first);
+        for (String videoId : CHART) {
+            assertNotNull(caches.youtubeToSpotifyMatch().getIfPresent(videoId), videoId);
+        }
+        for (String trackId : PLAYLIST_TRACKS) {
+            assertNotNull(caches.spotifyToYoutubeMatch().getIfPresent(trackId), trackId);
+        }
+        // Metadata came with the chart and the playlist, so no single lookups were needed.
+        assertNull(calls.get("videos"));
+        assertNull(calls.get("tracks"));
+        assertEquals(0, suggestionService.size(), "warming is not user popularity");
+
+        TrendingWarmer.Run second = warmer.warm();
+        assertEquals(new TrendingWarmer.Run(3, 3, 6, 0, 0, 1, 1), second);
+        assertEquals(3, calls.get("youtube-search").get());
+    }
+
+    @Test
+    @DisplayName("Conversions whose worst case no longer fits the quota budget are skipped")
+    public void warm_staysWithinBudget() {
+        properties.setYoutubeQuotaBudget(400);
+
+        TrendingWarmer.Run run = warmer.warm();
+
+        assertEquals(4, run.converted());
+        assertEquals(2, run.skipped());
+        assertEquals(1 + YoutubeService.SEARCH_QUOTA_COST, run.youtubeUnits());
+        assertTrue(run.youtubeUnits() <= properties.getYoutubeQuotaBudget());
+        assertEquals(1, calls.get("youtube-search").get());
+    }
+
+    private static String videos(List<String> ids) {
+        StringBuilder json = new StringBuilder("{\"items\":[");
+        for (String id : ids) {
+            json.append(json.length() > 10 ? "," : "").append("{\"id\":\"").append(id)
+                    .append("\",\"snippet\":{\"title\":\"Artist ").append(id).append(" - Song ").append(id)
+                    .append("\",\"channelTitle\":\"Artist ").append(id).append("\"}}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String playlist() {
+        StringBuilder json = new StringBuilder("{\"items\":[{\"track\":null}");
+        for (String id : PLAYLIST_TRACKS) {
+            json.append(",{\"track\":").append(track(id)).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String track(String id) {
+        return "{\"id\":\"" + id + "\",\"name\":\"Song " + id + "\",\"artists\":[{\"name\":\"Artist " + id + "\"}],"
+                + "\"album\":{\"images\":[{\"url\":\"https://i.scdn.co/" + id + "\",\"width\":640}]}}";
+    }
+
+    private void respond(HttpExchange exchange, String call, String body) throws IOException {
+        calls.computeIfAbsent(call, c -> new AtomicInteger()).incrementAndGet();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
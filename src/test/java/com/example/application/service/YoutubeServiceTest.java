@@ -0,0 +1,235 @@
+package com.example.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.application.cache.ConversionCaches;
+import com.example.application.cache.NoopSharedCacheStore;
+import com.example.application.config.ApiProperties;
+import com.example.application.config.CacheProperties;
+import com.example.application.config.ConversionMetricsProperties;
+import com.example.application.config.YoutubeProperties;
+import com.example.application.exception.InvalidLinkException;
+import com.example.application.metrics.ConversionMetrics;
+import com.example.application.metrics.ConversionTracing;
+import com.example.application.model.response.YoutubeResponse;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.observation.ObservationRegistry;
+
+public class YoutubeServiceTest {
+
+    private static final String VIDEO_ID = "dQw4w9WgXcQ";
+    private static final String SECOND_VIDEO_ID = "9bZkp7q19f0";
+    private static final String ETAG = "\"video-etag-1\"";
+
+    private final List<String> ifNoneMatchHeaders = new CopyOnWriteArrayList<>();
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private volatile String lastQuery;
+    private volatile String currentETag = ETAG;
+    private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+
+    private HttpServer youtube;
+    private YoutubeService service;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        youtube = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        youtube.createContext("/youtube/v3/videos", exchange -> {
+            lastQuery = exchange.getRequestURI().getQuery();
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            ifNoneMatchHeaders.add(String.valueOf(ifNoneMatch));
+            if (currentETag.equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            fullResponses.incrementAndGet();
+            StringBuilder items = new StringBuilder();
+            for (String id : lastQuery.replaceAll("(?:^|.*&)id=([^&]*).*", "$1").split(",")) {
+                if (id.equals(VIDEO_ID) || id.equals(SECOND_VIDEO_ID)) {
+                    items.append(items.isEmpty() ? "" : ",").append("{\"id\":\"").append(id)
+                            .append("\",\"snippet\":{\"title\":\"Never Gonna Give You Up\",")
+                            .append("\"channelTitle\":\"Rick Astley\",\"description\":\"")
+                            .append("x".repeat(4_000)).append("\"}}");
+                }
+            }
+            byte[] body = ("{\"etag\":\"" + currentETag.replace("\"", "\\\"") + "\",\"items\":[" + items + "]}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        youtube.start();
+        service = service(0);
+    }
+
+    private YoutubeService service(int batchWindowMs) {
+        String baseUrl = "http://127.0.0.1:" + youtube.getAddress().getPort();
+        ApiProperties apiProperties = new ApiProperties();
+        apiProperties.getYoutube().setBaseUrl(baseUrl);
+        apiProperties.getBatch().setWindowMs(batchWindowMs);
+        YoutubeProperties youtubeProperties = new YoutubeProperties();
+        youtubeProperties.setApiKey("test");
+        // Without an L2 every entry would drop out after the L1 TTL; let each cache keep its own TTL.
+        CacheProperties cacheProperties = new CacheProperties();
+        cacheProperties.setLocalTtl(cacheProperties.getRevalidationTtl());
+        RestClient restClient = RestClient.builder().baseUrl(baseUrl).build();
+        return new YoutubeService(restClient, restClient, WebClient.builder().baseUrl(baseUrl).build(),
+                youtubeProperties, apiProperties,
+                new ConversionCaches(cacheProperties, new NoopSharedCacheStore(), clock),
+                new ConversionMetrics(new ConversionMetricsProperties(), Clock.systemUTC()),
+                new ConversionTracing(ObservationRegistry.NOOP));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        youtube.stop(0);
+    }
+
+    @Test
+    @DisplayName("An expired video is revalidated with its ETag; 304 reuses the stored body")
+    public void getSingleVideo_afterExpiry_revalidatesWithETag() {
+        YoutubeResponse first = service.getSingleVideo(VIDEO_ID);
+        service.getSingleVideo(VIDEO_ID);
+        assertEquals(List.of("null"), ifNoneMatchHeaders);
+
+        now = now.plus(new CacheProperties().getMetadataTtl()).plus(Duration.ofMinutes(1));
+        YoutubeResponse revalidated = service.getSingleVideo(VIDEO_ID);
+
+        assertEquals(first, revalidated);
+        assertEquals(List.of("null", ETAG), ifNoneMatchHeaders);
+        assertEquals(1, fullResponses.get());
+
+        // The 304 refreshed the TTL: no further upstream call within the new window.
+        service.getSingleVideo(VIDEO_ID);
+        assertEquals(2, ifNoneMatchHeaders.size());
+    }
+
+    @Test
+    @DisplayName("A changed video answers the conditional request in full and replaces the stored ETag")
+    public void getSingleVideo_whenChanged_downloadsAndStoresNewETag() {
+        service.getSingleVideo(VIDEO_ID);
+        currentETag = "\"video-etag-2\"";
+        now = now.plus(new CacheProperties().getMetadataTtl()).plus(Duration.ofMinutes(1));
+
+        service.getSingleVideo(VIDEO_ID);
+        now = now.plus(new CacheProperties().getMetadataTtl()).plus(Duration.ofMinutes(1));
+        service.getSingleVideo(VIDEO_ID);
+
+        assertEquals(List.of("null", ETAG, "\"video-etag-2\""), ifNoneMatchHeaders);
+        assertEquals(2, fullResponses.get());
+    }
+
+    @Test
+    @DisplayName("Videos first fetched in a batch are re-fetched alone on expiry, then revalidated with their ETag")
+    public void getSingleVideo_afterBatchedFetch_capturesETagThenRevalidates() throws Exception {
+        YoutubeService batching = service(200);
+        try {
+            lookUpConcurrently(batching, VIDEO_ID, SECOND_VIDEO_ID);
+            assertEquals(1, fullResponses.get(), "both lookups shared one batched call");
+
+            now = now.plus(new CacheProperties().getMetadataTtl()).plus(Duration.ofMinutes(1));
+            lookUpConcurrently(batching, VIDEO_ID, SECOND_VIDEO_ID);
+            assertEquals(3, fullResponses.get(), "each expired video was fetched alone");
+
+            now = now.plus(new CacheProperties().getMetadataTtl()).plus(Duration.ofMinutes(1));
+            lookUpConcurrently(batching, VIDEO_ID, SECOND_VIDEO_ID);
+            assertEquals(3, fullResponses.get());
+            assertEquals(List.of(ETAG, ETAG), ifNoneMatchHeaders.subList(3, 5));
+        } finally {
+            batching.close();
+        }
+    }
+
+    private static void lookUpConcurrently(YoutubeService service, String... videoIds) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (String videoId : videoIds) {
+            threads.add(Thread.ofVirtual().start(() -> service.getSingleVideo(videoId)));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    @Test
+    @DisplayName("The reactive lookup revalidates the same way")
+    public void getSingleVideoReactive_afterExpiry_revalidatesWithETag() {
+        YoutubeResponse first = service.getSingleVideoReactive(VIDEO_ID).block();
+        now = now.plus(new CacheProperties().getMetadataTtl()).plus(Duration.ofMinutes(1));
+
+        assertEquals(first, service.getSingleVideoReactive(VIDEO_ID).block());
+        assertEquals(List.of("null", ETAG), ifNoneMatchHeaders);
+        assertEquals(1, fullResponses.get());
+    }
+
+    @Test
+    @DisplayName("Video lookups request only the snippet part and the fields the projection binds")
+    public void getSingleVideo_sendsPartAndFieldsMasks() {
+        service.getSingleVideo(VIDEO_ID);
+
+        assertTrue(lastQuery.contains("part=snippet&"), lastQuery);
+        assertTrue(lastQuery.contains("fields=etag,items(id,snippet(title,channelTitle,description,"
+                + "thumbnails(default(url),medium(url),high(url))))"), lastQuery);
+    }
+
+    @Test
+    @DisplayName("Malformed IDs never reach YouTube, and a missing video is asked for once per rotation")
+    public void getSingleVideo_rejectsMalformedAndRecentlyMissingIds() {
+        for (String malformed : new String[] {"dQw4w9WgXc", "dQw4w9WgXcR", "dQw4w9WgXc,TddB-XhkAS0"}) {
+            assertThrows(InvalidLinkException.class, () -> service.getSingleVideo(malformed));
+            assertThrows(InvalidLinkException.class, () -> service.getSingleVideoReactive(malformed).block());
+        }
+        assertEquals(0, ifNoneMatchHeaders.size());
+
+        // The stub only knows VIDEO_ID, so any other well-formed ID comes back missing.
+        String missing = "TddB-XhkAS0";
+        for (int i = 0; i < 3; i++) {
+            assertThrows(InvalidLinkException.class, () -> service.getSingleVideo(missing));
+            assertThrows(InvalidLinkException.class, () -> service.getSingleVideoReactive(missing).block());
+        }
+        assertEquals(1, ifNoneMatchHeaders.size());
+
+        now = now.plus(new CacheProperties().getMissingIds().getRotation().multipliedBy(2));
+        assertThrows(InvalidLinkException.class, () -> service.getSingleVideo(missing));
+        assertEquals(2, ifNoneMatchHeaders.size());
+    }
+}
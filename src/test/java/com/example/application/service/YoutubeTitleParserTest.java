@@ -0,0 +1,103 @@
+package com.example.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.application.model.queries.SpotifySearchQuery;
+
+class YoutubeTitleParserTest {
+
+    /** One row of src/test/resources/titles/youtube-titles.tsv; an empty artist means it cannot be told. */
+    record Fixture(String title, String channel, String artist, String track) {
+    }
+
+    static List<Fixture> corpus() throws IOException {
+        try (InputStream in = YoutubeTitleParserTest.class.getResourceAsStream("/titles/youtube-titles.tsv")) {
+            List<Fixture> fixtures = new ArrayList<>();
+            for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split("\t", -1);
+                fixtures.add(new Fixture(columns[0], columns[1], columns[2].isEmpty() ? null : columns[2], columns[3]));
+            }
+            return fixtures;
+        }
+    }
+
+    @Test
+    @DisplayName("Splits at least 90% of the fixture corpus exactly, well ahead of title and channel cleanup alone")
+    void parsesFixtureCorpus() throws IOException {
+        List<Fixture> corpus = corpus();
+        LinkConvertorService convertor = new LinkConvertorService(null, null);
+
+        List<String> misses = new ArrayList<>();
+        double parsed = accuracy(corpus, YoutubeTitleParser::parse, misses);
+        double cleanedUp = accuracy(corpus, (title, channel) ->
+                new SpotifySearchQuery(convertor.cleanupTitle(title), cleanupChannel(channel), null), new ArrayList<>());
+
+        assertTrue(corpus.size() >= 150, "corpus has " + corpus.size() + " titles");
+        assertTrue(parsed >= 0.9, "accuracy " + parsed + ", misses:\n" + String.join("\n", misses));
+        assertTrue(parsed > cleanedUp + 0.2, "parsed " + parsed + " vs cleanup " + cleanedUp);
+    }
+
+    @Test
+    @DisplayName("Confidence follows how much the channel and title agree")
+    void confidenceReflectsEvidence() {
+        assertEquals(YoutubeTitleParser.TOPIC_CONFIDENCE,
+                YoutubeTitleParser.parse("Blinding Lights", "The Weeknd - Topic").getConfidence());
+        assertEquals(YoutubeTitleParser.SEPARATOR_MATCHING_CHANNEL_CONFIDENCE,
+                YoutubeTitleParser.parse("Blinding Lights - The Weeknd", "The Weeknd").getConfidence());
+        assertEquals(YoutubeTitleParser.SEPARATOR_CONFIDENCE,
+                YoutubeTitleParser.parse("The Weeknd - Blinding Lights (Lyrics)", "7clouds").getConfidence());
+        assertEquals(YoutubeTitleParser.CHANNEL_CONFIDENCE,
+                YoutubeTitleParser.parse("Blinding Lights (Official Video)", "The Weeknd").getConfidence());
+
+        SpotifySearchQuery label = YoutubeTitleParser.parse("Animals", "Spinnin' Records");
+        assertNull(label.getArtist());
+        assertEquals(YoutubeTitleParser.UNKNOWN_ARTIST_CONFIDENCE, label.getConfidence());
+        assertEquals("Spinnin' Records", label.getChannel());
+    }
+
+    /** The channel cleanup the converter used before the parser replaced it, kept as the baseline. */
+    private static String cleanupChannel(String channel) {
+        if (channel == null) return "";
+
+        String cleaned = channel.replaceAll("(?i)\\s*\\(.*?\\)", ""); // Remove anything in parentheses
+        cleaned = cleaned.replaceAll("(?i)\\s*\\[.*?\\]", ""); // Remove anything in brackets
+        cleaned = cleaned.replaceAll("(?i)\\s*ft\\..*", ""); // Remove featuring artists
+        cleaned = cleaned.replaceAll("(?i)\\s*-\\s*Topic\\s*$", ""); // Remove "- Topic" suffix
+        cleaned = cleaned.replaceAll("(?i)\\s*VEVO\\s*$", ""); // Remove "VEVO" suffix
+        cleaned = cleaned.replaceAll("(?i)\\s*Official\\s*$", ""); // Remove "Official" suffix
+        cleaned = cleaned.replaceAll("(?i)\\s*Music\\s*$", ""); // Remove "Music" suffix
+
+        return cleaned.trim();
+    }
+
+    private static double accuracy(List<Fixture> corpus, BiFunction<String, String, SpotifySearchQuery> parser,
+                                   List<String> misses) {
+        int correct = 0;
+        for (Fixture fixture : corpus) {
+            SpotifySearchQuery query = parser.apply(fixture.title(), fixture.channel());
+            String artist = query.getArtist() == null || query.getArtist().isEmpty() ? null : query.getArtist();
+            if (Objects.equals(fixture.artist(), artist) && fixture.track().equals(query.getTitle())) {
+                correct++;
+            } else {
+                misses.add(fixture.title() + " | " + fixture.channel() + " -> " + artist + " / " + query.getTitle());
+            }
+        }
+        return (double) correct / corpus.size();
+    }
+}